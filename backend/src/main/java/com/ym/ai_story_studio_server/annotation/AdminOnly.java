@@ -0,0 +1,24 @@
+package com.ym.ai_story_studio_server.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 仅管理员可访问注解
+ *
+ * <p>用于标记运维类接口（缓存统计、SQL查询统计等），通过JWT认证后还要求当前用户在
+ * {@code admin.user-ids} 中，否则返回403 ACCESS_DENIED
+ *
+ * <p>使用示例：
+ * <pre>
+ * &#64;AdminOnly
+ * &#64;GetMapping("/api/assets/cache/stats")
+ * public Result&lt;CacheStats&gt; getCacheStats() {
+ *     // ...
+ * }
+ * </pre>
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdminOnly {
+}
@@ -0,0 +1,91 @@
+package com.ym.ai_story_studio_server.common;
+
+import com.ym.ai_story_studio_server.entity.AssetVersion;
+
+import java.util.Map;
+
+/**
+ * 资产版本副本类型
+ *
+ * <p>同一资产版本在存储中可能存在多个副本：
+ * <ul>
+ *   <li>ORIGINAL: 原图（归档副本，无损）</li>
+ *   <li>DELIVERY: 交付副本（压缩格式，用于浏览、导出与参考图）</li>
+ *   <li>THUMB_SMALL / THUMB_MEDIUM / THUMB_LARGE: 小/中/大三档缩略图（用于网格、列表与预览）</li>
+ * </ul>
+ *
+ * <p>读取方按需选择副本，缩略图尚未生成时回退到交付副本，交付副本尚未生成时回退到原图
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public enum AssetRendition {
+
+    ORIGINAL,
+    DELIVERY,
+    THUMB_SMALL,
+    THUMB_MEDIUM,
+    THUMB_LARGE;
+
+    /**
+     * 解析指定副本的URL
+     *
+     * @param version 资产版本
+     * @return 副本URL，副本不存在时按缩略图→交付副本→原图回退；version为null时返回null
+     */
+    public String resolveUrl(AssetVersion version) {
+        if (version == null) {
+            return null;
+        }
+        String thumbnailUrl = switch (this) {
+            case THUMB_SMALL -> version.getThumbSmallUrl();
+            case THUMB_MEDIUM -> version.getThumbMediumUrl();
+            case THUMB_LARGE -> version.getThumbLargeUrl();
+            default -> null;
+        };
+        if (hasText(thumbnailUrl)) {
+            return thumbnailUrl;
+        }
+        if (this != ORIGINAL && hasText(version.getDeliveryUrl())) {
+            return version.getDeliveryUrl();
+        }
+        return version.getUrl();
+    }
+
+    /**
+     * 根据原图URL解析指定副本的URL
+     *
+     * <p>用于资源库等只保存了原图URL的场景，versionsByUrl通常由一次批量查询得到
+     *
+     * @param url           原图URL
+     * @param versionsByUrl 原图URL到资产版本的映射
+     * @return 副本URL，找不到对应资产版本时返回原图URL
+     */
+    public String resolveUrl(String url, Map<String, AssetVersion> versionsByUrl) {
+        AssetVersion version = url != null ? versionsByUrl.get(url) : null;
+        return version != null ? resolveUrl(version) : url;
+    }
+
+    /**
+     * 根据请求参数解析副本类型，无法识别时使用默认值
+     *
+     * @param value        请求参数（不区分大小写）
+     * @param defaultValue 默认副本类型
+     * @return 副本类型
+     */
+    public static AssetRendition of(String value, AssetRendition defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        for (AssetRendition rendition : values()) {
+            if (rendition.name().equalsIgnoreCase(value.trim())) {
+                return rendition;
+            }
+        }
+        return defaultValue;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
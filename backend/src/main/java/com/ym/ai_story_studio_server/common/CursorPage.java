@@ -0,0 +1,34 @@
+package com.ym.ai_story_studio_server.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ *
+ * <p>与 {@code Page} 的偏移分页不同，下一页通过 {@link #nextCursor} 定位（不透明字符串，原样回传即可），
+ * 翻页深度不影响查询耗时；总数只在请求 {@code withTotal=true} 时才统计
+ *
+ * @param records    本页记录
+ * @param nextCursor 下一页游标（没有更多数据时为null）
+ * @param hasMore    是否还有下一页
+ * @param total      符合条件的总记录数（未请求时为null，不序列化）
+ * @param <T>        记录类型
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPage<T>(List<T> records, String nextCursor, boolean hasMore, Long total) {
+
+    /**
+     * 转换本页记录，游标与总数保持不变
+     *
+     * @param mapper 记录转换函数
+     * @return 新的游标分页结果
+     */
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(records.stream().<R>map(mapper).toList(), nextCursor, hasMore, total);
+    }
+}
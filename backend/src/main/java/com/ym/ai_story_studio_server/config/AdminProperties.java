@@ -0,0 +1,44 @@
+package com.ym.ai_story_studio_server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 管理员配置属性类
+ *
+ * <p>从application.yml中绑定admin配置项，标记 {@link com.ym.ai_story_studio_server.annotation.AdminOnly}
+ * 的接口只允许这里列出的用户访问
+ *
+ * <p>配置示例：
+ * <pre>
+ * admin:
+ *   user-ids: [1, 2]
+ * </pre>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "admin")
+public class AdminProperties {
+
+    /**
+     * 管理员用户ID，未配置时所有用户都无法访问管理员接口
+     */
+    private Set<Long> userIds = new HashSet<>();
+
+    /**
+     * 判断用户是否为管理员
+     *
+     * @param userId 用户ID
+     * @return 是否为管理员
+     */
+    public boolean isAdmin(Long userId) {
+        return userId != null && userIds.contains(userId);
+    }
+}
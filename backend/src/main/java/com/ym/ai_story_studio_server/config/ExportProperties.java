@@ -0,0 +1,101 @@
+package com.ym.ai_story_studio_server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 项目导出配置属性类
+ *
+ * <p>从application.yml中绑定export配置项，控制导出时资产的并发预取与失败重试，
+ * 以及导出压缩包在对象存储中的存放与过期清理
+ *
+ * <p>配置示例：
+ * <pre>
+ * export:
+ *   fetch-concurrency: 6
+ *   prefetch-entry-max-mb: 8
+ *   prefetch-window-mb: 64
+ *   fetch-max-retries: 2
+ *   retry-backoff-ms: 500
+ *   connect-timeout-ms: 10000
+ *   read-timeout-ms: 30000
+ *   archive-prefix: exports
+ *   archive-retention-hours: 72
+ *   download-url-expire-minutes: 30
+ *   janitor-interval-ms: 3600000
+ *   stale-job-hours: 6
+ * </pre>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "export")
+public class ExportProperties {
+
+    /**
+     * 并发下载资产的线程数
+     * <p>同时也决定预取窗口大小（并发数的2倍），限制预取占用的内存
+     */
+    private int fetchConcurrency = 6;
+
+    /**
+     * 单个资产预取到内存的上限（MB）
+     * <p>超过的资产（通常是视频）不预取，轮到写入时直接从源地址边下载边写入ZIP
+     */
+    private int prefetchEntryMaxMb = 8;
+
+    /**
+     * 预取窗口内存上限（MB）：已预取但尚未写入ZIP的数据（含进行中的预取按单个上限预占）不超过该值
+     */
+    private long prefetchWindowMb = 64;
+
+    /**
+     * 单个资产下载失败后的最大重试次数
+     */
+    private int fetchMaxRetries = 2;
+
+    /**
+     * 重试退避基准时间（毫秒），第n次重试等待 base * 2^(n-1)
+     */
+    private long retryBackoffMs = 500;
+
+    /**
+     * 下载连接超时时间（毫秒）
+     */
+    private int connectTimeoutMs = 10000;
+
+    /**
+     * 下载读取超时时间（毫秒）
+     */
+    private int readTimeoutMs = 30000;
+
+    /**
+     * 导出压缩包在存储中的Key前缀，完整Key为 {@code {prefix}/{projectId}/{jobId}.zip}
+     * <p>本地存储时该前缀需包含在 {@code storage.local.private-prefixes} 中，压缩包才不会落在公开目录下
+     */
+    private String archivePrefix = "exports";
+
+    /**
+     * 导出压缩包保留时长（小时），超过后由清理任务删除
+     */
+    private long archiveRetentionHours = 72;
+
+    /**
+     * 下载跳转的预签名URL有效期（分钟）
+     */
+    private int downloadUrlExpireMinutes = 30;
+
+    /**
+     * 清理任务执行间隔（毫秒）
+     */
+    private long janitorIntervalMs = 3600000;
+
+    /**
+     * 导出任务超过该时长（小时）仍未结束时视为已中断（如执行节点重启），标记为失败
+     * <p>同时用于清理本地残留的导出临时文件
+     */
+    private long staleJobHours = 6;
+}
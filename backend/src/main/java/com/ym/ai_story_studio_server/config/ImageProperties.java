@@ -0,0 +1,165 @@
+package com.ym.ai_story_studio_server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 图片处理配置属性类
+ *
+ * <p>从application.yml中绑定image配置项，控制图片拼接时的下载并发、超时与输出编码，
+ * 以及AI生成图片交付副本与缩略图的转码参数
+ *
+ * <p>配置示例：
+ * <pre>
+ * image:
+ *   merge:
+ *     output-format: png      # png / jpeg
+ *     jpeg-quality: 0.9
+ *     fetch-concurrency: 6
+ *     connect-timeout-ms: 5000
+ *     read-timeout-ms: 15000
+ *     fetch-timeout-ms: 30000
+ *   delivery:
+ *     enabled: true
+ *     format: jpeg
+ *     quality: 0.85
+ *     min-savings-ratio: 0.9
+ *   thumbnail:
+ *     enabled: true
+ *     small: 160
+ *     medium: 480
+ *     large: 1024
+ *     format: jpeg
+ *     quality: 0.8
+ * </pre>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "image")
+public class ImageProperties {
+
+    /**
+     * 图片拼接配置
+     */
+    private MergeConfig merge = new MergeConfig();
+
+    /**
+     * 交付副本转码配置
+     */
+    private DeliveryConfig delivery = new DeliveryConfig();
+
+    /**
+     * 缩略图配置
+     */
+    private ThumbnailConfig thumbnail = new ThumbnailConfig();
+
+    /**
+     * 图片拼接配置项
+     */
+    @Data
+    public static class MergeConfig {
+
+        /**
+         * 拼接结果输出格式
+         * <p>可选值: png (无损), jpeg (有损，体积更小)
+         */
+        private String outputFormat = "png";
+
+        /**
+         * JPEG压缩质量（0-1），仅在输出格式为jpeg时生效
+         */
+        private float jpegQuality = 0.9f;
+
+        /**
+         * 并发下载图片的线程数
+         */
+        private int fetchConcurrency = 6;
+
+        /**
+         * 单张图片连接超时时间（毫秒）
+         */
+        private int connectTimeoutMs = 5000;
+
+        /**
+         * 单张图片读取超时时间（毫秒）
+         */
+        private int readTimeoutMs = 15000;
+
+        /**
+         * 一次拼接中等待全部图片下载完成的最长时间（毫秒）
+         * <p>超时未完成的图片会被跳过
+         */
+        private long fetchTimeoutMs = 30000;
+    }
+
+    /**
+     * 交付副本转码配置项
+     */
+    @Data
+    public static class DeliveryConfig {
+
+        /**
+         * 是否在资产版本创建后生成交付副本
+         */
+        private boolean enabled = true;
+
+        /**
+         * 交付副本格式
+         * <p>可选值: jpeg, png
+         */
+        private String format = "jpeg";
+
+        /**
+         * 交付副本压缩质量（0-1）
+         */
+        private float quality = 0.85f;
+
+        /**
+         * 交付副本相对原图的最大体积比例
+         * <p>转码后体积超过原图的该比例时视为收益不足，直接以原图作为交付副本
+         */
+        private double minSavingsRatio = 0.9;
+    }
+
+    /**
+     * 缩略图配置项
+     */
+    @Data
+    public static class ThumbnailConfig {
+
+        /**
+         * 是否在资产版本创建后生成缩略图
+         */
+        private boolean enabled = true;
+
+        /**
+         * 小尺寸缩略图长边像素（分镜网格、列表卡片）
+         */
+        private int small = 160;
+
+        /**
+         * 中尺寸缩略图长边像素（资源库、版本历史）
+         */
+        private int medium = 480;
+
+        /**
+         * 大尺寸缩略图长边像素（预览面板）
+         */
+        private int large = 1024;
+
+        /**
+         * 缩略图格式
+         * <p>可选值: jpeg, png
+         */
+        private String format = "jpeg";
+
+        /**
+         * 缩略图压缩质量（0-1）
+         */
+        private float quality = 0.8f;
+    }
+}
@@ -11,6 +11,8 @@ package com.ym.ai_story_studio_server.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.ym.ai_story_studio_server.interceptor.QueryStatsInterceptor;
+import com.ym.ai_story_studio_server.service.QueryStatsService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,6 +27,7 @@ import org.springframework.context.annotation.Configuration;
  *   <li>配置分页拦截器(PaginationInnerInterceptor),支持Page对象自动查询total</li>
  *   <li>自动识别数据库类型,生成对应数据库的分页SQL</li>
  *   <li>配置合理的分页参数溢出处理策略</li>
+ *   <li>注册SQL查询统计拦截器(QueryStatsInterceptor),按语句与接口统计查询条数、耗时并检测N+1</li>
  * </ul>
  *
  * <p><strong>分页插件说明:</strong>
@@ -125,5 +128,18 @@ public class MyBatisPlusConfig {
 
         return interceptor;
     }
+
+    /**
+     * 配置SQL查询统计拦截器
+     *
+     * <p>MyBatis Plus自动配置会收集容器中所有Interceptor Bean注册到SqlSessionFactory
+     *
+     * @param queryStatsService 查询统计服务
+     * @return 查询统计拦截器
+     */
+    @Bean
+    public QueryStatsInterceptor queryStatsInterceptor(QueryStatsService queryStatsService) {
+        return new QueryStatsInterceptor(queryStatsService);
+    }
 }
 // {{END_MODIFICATIONS}}
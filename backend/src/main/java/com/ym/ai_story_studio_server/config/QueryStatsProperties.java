@@ -0,0 +1,70 @@
+package com.ym.ai_story_studio_server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL查询统计配置属性类
+ *
+ * <p>从application.yml中绑定query-stats配置项
+ *
+ * <p>配置示例（开发环境开启查询预算，超出预算的接口直接失败）：
+ * <pre>
+ * query-stats:
+ *   repeat-threshold: 5
+ *   budget-enabled: true
+ *   default-budget: 30
+ *   budgets:
+ *     "[GET /api/projects/{projectId}/shots]": 10
+ *     "[MQ ai.story.batch.shot.image.queue]": 200
+ * </pre>
+ *
+ * <p>预算Key与统计中的作用域名称一致：HTTP请求为 {@code 方法 + 空格 + 路由模板}，MQ消息为 {@code MQ + 空格 + 队列名}
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "query-stats")
+public class QueryStatsProperties {
+
+    /**
+     * 是否开启SQL查询统计
+     */
+    private boolean enabled = true;
+
+    /**
+     * 慢查询阈值（毫秒），超过时输出WARN日志
+     */
+    private long slowQueryMs = 500;
+
+    /**
+     * 同一作用域内相同SQL执行达到该次数时判定为疑似N+1
+     */
+    private int repeatThreshold = 5;
+
+    /**
+     * 是否开启查询预算（建议仅在开发、测试环境开启）
+     */
+    private boolean budgetEnabled = false;
+
+    /**
+     * 未单独配置预算的作用域的默认预算，0表示不限制
+     */
+    private int defaultBudget = 0;
+
+    /**
+     * 作用域 -> 查询预算（单次请求/消息允许执行的SQL条数）
+     */
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    /**
+     * 每结束多少个作用域输出一次统计日志，0表示不输出
+     */
+    private int statsLogInterval = 1000;
+}
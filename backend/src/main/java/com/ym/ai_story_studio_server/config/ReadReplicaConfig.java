@@ -0,0 +1,126 @@
+package com.ym.ai_story_studio_server.config;
+
+import com.ym.ai_story_studio_server.interceptor.ReadYourWritesInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 只读副本路由配置类
+ *
+ * <p>仅在 {@code read-replica.enabled=true} 时生效，替换Spring Boot自动配置的单一数据源：
+ * <ul>
+ *   <li>主库：按spring.datasource（含spring.datasource.hikari）创建，Flyway迁移直接使用主库</li>
+ *   <li>副本：按read-replica.replicas逐个创建Hikari连接池</li>
+ *   <li>对外暴露的 {@code @Primary} 数据源为 {@link LazyConnectionDataSourceProxy} 包装的
+ *       {@link ReplicaRoutingDataSource}，MyBatis与事务管理器都使用它</li>
+ *   <li>按 {@code read-replica.lag-check-interval-ms} 定期检查副本复制延迟</li>
+ *   <li>注册读写一致性拦截器，写请求及其后一段时间内该用户的查询走主库</li>
+ * </ul>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "read-replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private ReadReplicaProperties replicaProperties;
+
+    /**
+     * 主库连接池
+     *
+     * @param properties spring.datasource配置
+     * @return 主库数据源
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * 路由数据源
+     *
+     * @param primaryDataSource 主库数据源
+     * @param properties        副本配置
+     * @return 主库/副本路由数据源
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReadReplicaProperties properties) {
+        List<ReadReplicaProperties.Replica> replicas = properties.getReplicas();
+        Map<String, DataSource> targets = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            ReadReplicaProperties.Replica replica = replicas.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setDriverClassName(primaryDataSource.getDriverClassName());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            targets.put("replica-" + i, dataSource);
+        }
+        log.info("只读副本路由已开启 - replicas: {}, maxLagSeconds: {}, stickySeconds: {}",
+                targets.size(), properties.getMaxLagSeconds(), properties.getStickySeconds());
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, targets);
+        this.routingDataSource = routing;
+        this.replicaProperties = properties;
+        return routing;
+    }
+
+    /**
+     * 对外暴露的数据源
+     *
+     * @param routingDataSource 路由数据源
+     * @return 延迟获取真实连接的代理
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * 读写一致性拦截器（由WebConfig注册到JWT拦截器之后）
+     *
+     * @param redisTemplate Redis模板
+     * @param properties    副本配置
+     * @return 拦截器
+     */
+    @Bean
+    public ReadYourWritesInterceptor readYourWritesInterceptor(StringRedisTemplate redisTemplate,
+                                                               ReadReplicaProperties properties) {
+        return new ReadYourWritesInterceptor(redisTemplate, properties);
+    }
+
+    /**
+     * 定期检查副本复制延迟（启动后立即执行一次）
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${read-replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        if (routingDataSource != null) {
+            routingDataSource.refreshReplicaLag(replicaProperties.getMaxLagSeconds());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ym.ai_story_studio_server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 只读副本路由配置属性类
+ *
+ * <p>从application.yml中绑定read-replica配置项。开启后主库仍使用spring.datasource配置，
+ * 只读事务（{@code @Transactional(readOnly = true)}）路由到延迟在阈值内的副本
+ *
+ * <p>配置示例：
+ * <pre>
+ * read-replica:
+ *   enabled: true
+ *   max-lag-seconds: 5
+ *   sticky-seconds: 10
+ *   lag-check-interval-ms: 5000
+ *   replicas:
+ *     - url: jdbc:mysql://replica-1:3306/ai_story_studio
+ *       username: reader
+ *       password: ${REPLICA_PASSWORD}
+ * </pre>
+ *
+ * <p>副本账号需要 REPLICATION CLIENT 权限以查询复制延迟
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "read-replica")
+public class ReadReplicaProperties {
+
+    /**
+     * 是否开启副本路由（关闭时所有查询都走主库）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 副本列表，多个副本按轮询分摊
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * 允许的最大复制延迟（秒），超过后该副本暂停接收查询直到追上
+     */
+    private long maxLagSeconds = 5;
+
+    /**
+     * 写请求后该用户的查询固定走主库的时长（秒），保证读到自己的写入，应不小于 max-lag-seconds
+     */
+    private long stickySeconds = 10;
+
+    /**
+     * 复制延迟检查间隔（毫秒）
+     */
+    private long lagCheckIntervalMs = 5000;
+
+    /**
+     * 副本连接配置项
+     */
+    @Data
+    public static class Replica {
+
+        /**
+         * JDBC连接地址
+         */
+        private String url;
+
+        /**
+         * 用户名
+         */
+        private String username;
+
+        /**
+         * 密码
+         */
+        private String password;
+
+        /**
+         * 连接池最大连接数
+         */
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ym.ai_story_studio_server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 参考数据两级缓存配置属性类
+ *
+ * <p>从application.yml中绑定reference-cache配置项，控制模型列表、风格预设、指令模板、
+ * 充值套餐与兑换规则的进程内缓存（一级）与Redis缓存（二级）
+ *
+ * <p>配置示例：
+ * <pre>
+ * reference-cache:
+ *   enabled: true
+ *   local-ttl-seconds: 60
+ *   local-max-entries: 1000
+ *   redis-ttl-minutes: 30
+ *   stats-log-interval: 1000
+ * </pre>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "reference-cache")
+public class ReferenceCacheProperties {
+
+    /**
+     * 是否启用缓存（关闭时每次读取都查库）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 进程内缓存条目的存活时间（秒）
+     * <p>失效广播丢失（如订阅连接重连期间）时，进程内数据最多陈旧这么久
+     */
+    private long localTtlSeconds = 60;
+
+    /**
+     * 每个缓存区域的进程内条目上限，超出后按最近最少使用淘汰
+     */
+    private int localMaxEntries = 1000;
+
+    /**
+     * Redis缓存的存活时间（分钟）
+     */
+    private long redisTtlMinutes = 30;
+
+    /**
+     * 每处理多少次缓存查询输出一次命中率统计日志（0表示不输出）
+     */
+    private int statsLogInterval = 1000;
+}
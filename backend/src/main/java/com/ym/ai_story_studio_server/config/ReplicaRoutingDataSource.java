@@ -0,0 +1,132 @@
+package com.ym.ai_story_studio_server.config;
+
+import com.ym.ai_story_studio_server.util.ReplicaRoutingContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 主库/只读副本路由数据源
+ *
+ * <p>路由规则：
+ * <ul>
+ *   <li>只读事务（{@code @Transactional(readOnly = true)}）且当前请求未固定主库时，
+ *       在延迟不超过阈值的副本间轮询</li>
+ *   <li>其余情况（读写事务、无事务的语句、没有健康副本）都走主库</li>
+ * </ul>
+ *
+ * <p>需要包装在 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 中使用：
+ * 事务开始时只拿到代理连接，执行第一条语句时事务的只读标记已经设置，此时才决定真实数据源
+ *
+ * <p>副本健康状态由 {@link #refreshReplicaLag(long)} 定期刷新，复制线程停止、延迟未知或查询失败都视为不健康
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * 主库的路由Key
+     */
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys;
+    private final Map<String, DataSource> replicas;
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    /**
+     * @param primary  主库
+     * @param replicas 副本（路由Key -> 数据源，按配置顺序）
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // 首次检查完成前不向副本发送查询
+        replicaKeys.forEach(key -> healthy.put(key, Boolean.FALSE));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaRoutingContext.isPrimaryPinned()) {
+            return PRIMARY;
+        }
+        int size = replicaKeys.size();
+        int start = Math.floorMod(cursor.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (isHealthy(key)) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * 查询各副本的复制延迟并更新健康状态
+     *
+     * @param maxLagSeconds 允许的最大延迟（秒）
+     */
+    public void refreshReplicaLag(long maxLagSeconds) {
+        for (String key : replicaKeys) {
+            Long lag = queryLagSeconds(key, replicas.get(key));
+            boolean ok = lag != null && lag <= maxLagSeconds;
+            boolean previous = isHealthy(key);
+            setHealthy(key, ok);
+            if (ok != previous) {
+                log.warn("只读副本状态变化 - replica: {}, healthy: {}, lagSeconds: {}", key, ok, lag);
+            }
+        }
+    }
+
+    private Long queryLagSeconds(String key, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // MySQL 8.0.22+ 使用 REPLICA 术语，旧版本回退到 SLAVE
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return readLag(rs, "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return readLag(rs, "Seconds_Behind_Master");
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("查询副本复制延迟失败 - replica: {}", key, e);
+            return null;
+        }
+    }
+
+    private Long readLag(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            // 不是副本（未配置复制）
+            return null;
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+
+    private boolean isHealthy(String key) {
+        return Boolean.TRUE.equals(healthy.get(key));
+    }
+
+    private void setHealthy(String key, boolean value) {
+        healthy.put(key, value);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ym.ai_story_studio_server.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类
+ *
+ * <p>开启Spring定时任务支持，用于导出压缩包过期清理等后台维护任务
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
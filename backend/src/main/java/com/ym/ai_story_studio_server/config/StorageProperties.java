@@ -12,6 +12,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 存储服务配置属性类
  *
@@ -28,6 +31,35 @@ import org.springframework.stereotype.Component;
  *     access-key-secret: ${OSS_ACCESS_KEY_SECRET:默认值}
  *     region: cn-hangzhou
  *     url-prefix: https://yuanmeng-logo.oss-cn-hangzhou.aliyuncs.com
+ *     legacy-url-prefixes: []
+ *     private-bucket: false
+ *     presign-expire-minutes: 60
+ *     presign-window-minutes: 10
+ *   local:
+ *     root-dir: ./data/storage
+ *     media-dir: media
+ *     private-dir: private
+ *     private-prefixes: [exports]
+ *     url-prefix: http://localhost:8080/files
+ *     serve-path: /files
+ *   dedup:
+ *     enabled: false
+ *     prefix: cas
+ *   cache:
+ *     enabled: true
+ *     dir: ./data/asset-cache
+ *     max-size-mb: 2048
+ *     max-entry-mb: 512
+ *     remote-ttl-minutes: 60
+ *     prefetch-threads: 2
+ *   gc:
+ *     enabled: false
+ *     dry-run: true
+ *     interval-ms: 86400000
+ *     min-age-hours: 72
+ *     deleted-project-retention-days: 30
+ *     delete-batches-per-second: 2
+ *     ignored-url-hosts: []
  * </pre>
  *
  * @author Roo (Prometheus)
@@ -40,7 +72,7 @@ public class StorageProperties {
 
     /**
      * 存储提供商类型
-     * <p>支持: oss (阿里云OSS), minio (MinIO) - V2规划
+     * <p>支持: oss (阿里云OSS), local (本地文件系统，单机/私有化部署), minio (MinIO) - V2规划
      */
     private String provider = "oss";
 
@@ -49,6 +81,26 @@ public class StorageProperties {
      */
     private OssConfig oss = new OssConfig();
 
+    /**
+     * 本地文件系统配置
+     */
+    private LocalConfig local = new LocalConfig();
+
+    /**
+     * 内容寻址去重配置
+     */
+    private DedupConfig dedup = new DedupConfig();
+
+    /**
+     * 下载代理磁盘缓存配置
+     */
+    private CacheConfig cache = new CacheConfig();
+
+    /**
+     * 孤儿对象回收配置
+     */
+    private GcConfig gc = new GcConfig();
+
     /**
      * 阿里云OSS配置项
      */
@@ -90,6 +142,197 @@ public class StorageProperties {
          * <p>如果为空，则使用默认OSS域名
          */
         private String urlPrefix;
+
+        /**
+         * 历史访问域名（可选）
+         * <p>更换CDN或自定义域名后，旧URL仍保存在业务表中；登记在这里的前缀下的URL同样按路径解析为对象Key，
+         * 避免孤儿回收把仍被引用的对象误判为孤儿。默认存储桶域名无需登记
+         */
+        private List<String> legacyUrlPrefixes = new ArrayList<>();
+
+        /**
+         * 大文件分片上传的分片大小（MB）
+         */
+        private long multipartPartSizeMb = 16;
+
+        /**
+         * 大文件分片上传的并发分片数
+         */
+        private int multipartTaskNum = 4;
+
+        /**
+         * 是否为私有存储桶
+         * <p>开启后列表接口返回的资产URL统一替换为预签名URL
+         */
+        private boolean privateBucket = false;
+
+        /**
+         * 列表接口批量签名的URL有效期（分钟）
+         */
+        private int presignExpireMinutes = 60;
+
+        /**
+         * 预签名时间窗口（分钟）
+         * <p>同一窗口内同一对象返回相同的URL（过期时间对齐到窗口边界），便于浏览器缓存；
+         * 实际有效期在 [有效期, 有效期 + 窗口) 之间
+         */
+        private int presignWindowMinutes = 10;
+
+        /**
+         * 预签名URL缓存的最大条目数
+         */
+        private int presignCacheSize = 20000;
+    }
+
+    /**
+     * 本地文件系统配置项
+     */
+    @Data
+    public static class LocalConfig {
+
+        /**
+         * 文件存储根目录
+         * <p>根目录本身不对外提供，其下只有 {@link #mediaDir} 子目录映射到serve-path
+         */
+        private String rootDir = "./data/storage";
+
+        /**
+         * 对外公开的媒体文件子目录（相对root-dir）
+         * <p>文件Key均解析到该目录下，上传用的临时目录与其并列，不会被静态路径访问到
+         */
+        private String mediaDir = "media";
+
+        /**
+         * 私有文件子目录（相对root-dir），不映射到serve-path
+         * <p>Key以 {@link #privatePrefixes} 中任一前缀开头的文件存放在该目录下，只能经校验归属的接口下载
+         */
+        private String privateDir = "private";
+
+        /**
+         * 私有文件的Key前缀（Key的第一级目录）
+         * <p>默认包含导出压缩包前缀，修改export.archive-prefix时需同步修改
+         */
+        private List<String> privatePrefixes = new ArrayList<>(List.of("exports"));
+
+        /**
+         * 文件访问URL前缀
+         * <p>生成的文件URL为 {urlPrefix}/{fileKey}，需与serve-path对应
+         */
+        private String urlPrefix = "http://localhost:8080/files";
+
+        /**
+         * 静态文件访问路径（由应用直接提供，无需JWT认证）
+         */
+        private String servePath = "/files";
+    }
+
+    /**
+     * 内容寻址去重配置项
+     */
+    @Data
+    public static class DedupConfig {
+
+        /**
+         * 是否开启内容寻址去重模式
+         * <p>开启后上传的文件按SHA-256摘要生成Key，相同内容只存一份并维护引用计数
+         */
+        private boolean enabled = false;
+
+        /**
+         * 内容寻址对象的Key前缀
+         */
+        private String prefix = "cas";
+    }
+
+    /**
+     * 下载代理磁盘缓存配置项
+     */
+    @Data
+    public static class CacheConfig {
+
+        /**
+         * 是否开启下载代理磁盘缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 缓存目录
+         */
+        private String dir = "./data/asset-cache";
+
+        /**
+         * 缓存总容量上限（MB），超出后按最近最少使用淘汰
+         */
+        private long maxSizeMb = 2048;
+
+        /**
+         * 单个文件缓存上限（MB），超出的文件直接透传不落盘
+         */
+        private long maxEntryMb = 512;
+
+        /**
+         * 每处理多少次缓存查询输出一次命中率统计日志
+         */
+        private int statsLogInterval = 500;
+
+        /**
+         * 普通URL（无ETag等版本信息）缓存条目的有效期（分钟），过期后重新回源
+         */
+        private long remoteTtlMinutes = 60;
+
+        /**
+         * Range请求未命中时后台补齐缓存的线程数
+         */
+        private int prefetchThreads = 2;
+    }
+
+    /**
+     * 孤儿对象回收配置项
+     */
+    @Data
+    public static class GcConfig {
+
+        /**
+         * 是否开启定时回收
+         */
+        private boolean enabled = false;
+
+        /**
+         * 试运行模式：只输出孤儿对象报告，不删除
+         */
+        private boolean dryRun = true;
+
+        /**
+         * 回收任务执行间隔（毫秒）
+         */
+        private long intervalMs = 86400000;
+
+        /**
+         * 对象最后修改时间距今不足该时长（小时）时不回收，避免删除上传后尚未落库的对象
+         */
+        private long minAgeHours = 72;
+
+        /**
+         * 项目/分镜软删除超过该天数后，其资产不再视为被引用
+         */
+        private long deletedProjectRetentionDays = 30;
+
+        /**
+         * 每秒最多发起的批量删除请求数（每批最多1000个对象）
+         */
+        private int deleteBatchesPerSecond = 2;
+
+        /**
+         * 已知不属于本存储的URL域名（如模型服务商返回的结果地址），对账时直接忽略
+         * <p>其他无法解析为对象Key的URL计为"无法识别"，存在时正式回收会中止，只有试运行可以完成
+         */
+        private List<String> ignoredUrlHosts = new ArrayList<>();
+
+        /**
+         * 回收任务集群锁的有效期（分钟），应大于单次回收的最长耗时
+         * <p>多实例部署时同一时刻只有一个实例执行回收，持锁实例异常退出后锁到期自动释放
+         */
+        private long lockTtlMinutes = 360;
     }
 }
 // {{END_MODIFICATIONS}}
@@ -1,21 +1,31 @@
 package com.ym.ai_story_studio_server.config;
 
 import com.ym.ai_story_studio_server.interceptor.JwtInterceptor;
+import com.ym.ai_story_studio_server.interceptor.QueryScopeInterceptor;
+import com.ym.ai_story_studio_server.interceptor.ReadYourWritesInterceptor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 /**
  * Web配置类
  *
- * <p>配置Spring MVC相关设置，包括拦截器注册
+ * <p>配置Spring MVC相关设置，包括拦截器注册与本地文件存储的静态资源映射
  *
  * <p>核心功能：
  * <ul>
  *   <li>注册JWT拦截器到拦截器链</li>
  *   <li>配置拦截和排除路径</li>
  *   <li>设置拦截器执行顺序</li>
+ *   <li>开启只读副本路由时注册读写一致性拦截器</li>
+ *   <li>注册SQL查询作用域拦截器，按接口统计查询条数</li>
  * </ul>
  *
  * <p>拦截规则：
@@ -27,6 +37,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  *       <li>/api/auth/** - 认证相关接口（登录、注册、发送验证码等）</li>
  *       <li>/error - Spring Boot错误页面</li>
  *       <li>/favicon.ico - 浏览器图标</li>
+ *       <li>{storage.local.serve-path}/** - 本地文件存储的静态文件（仅storage.provider=local时）</li>
  *     </ul>
  *   </li>
  * </ul>
@@ -40,6 +51,9 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
     private final JwtInterceptor jwtInterceptor;
+    private final QueryScopeInterceptor queryScopeInterceptor;
+    private final StorageProperties storageProperties;
+    private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
 
     /**
      * 注册拦截器
@@ -48,7 +62,12 @@ public class WebConfig implements WebMvcConfigurer {
      */
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(jwtInterceptor)
+        // SQL查询作用域最先开启、最后结束，覆盖整个请求
+        registry.addInterceptor(queryScopeInterceptor)
+                .addPathPatterns("/api/**")
+                .order(0);
+
+        InterceptorRegistration jwtRegistration = registry.addInterceptor(jwtInterceptor)
                 // 拦截所有路径
                 .addPathPatterns("/**")
                 // 排除以下路径（这些路径无需JWT认证）
@@ -61,5 +80,48 @@ public class WebConfig implements WebMvcConfigurer {
                 )
                 // 拦截器执行顺序（数字越小越先执行）
                 .order(1);
+        if (isLocalStorage()) {
+            // 本地文件存储的静态文件（与OSS公共读URL一致，无需认证），仅在静态资源映射存在时放行
+            jwtRegistration.excludePathPatterns(localServePattern());
+        }
+
+        // 只读副本路由开启时才存在，需要JWT拦截器解析出的userId
+        readYourWritesInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/**")
+                .order(2));
+    }
+
+    /**
+     * 本地文件存储时，将serve-path映射到存储根目录下的媒体子目录
+     *
+     * <p>只公开媒体子目录，根目录下的其他内容（上传临时文件等）不可通过静态路径访问。
+     * 静态资源处理器自带Range与Last-Modified支持，图片标签可直接加载
+     *
+     * @param registry 资源处理器注册器
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        if (!isLocalStorage()) {
+            return;
+        }
+        StorageProperties.LocalConfig localConfig = storageProperties.getLocal();
+        Path mediaDir = Paths.get(localConfig.getRootDir()).toAbsolutePath().normalize()
+                .resolve(localConfig.getMediaDir()).normalize();
+        // 目录可能尚未创建，toUri()此时不带结尾斜杠，显式补上才会按目录解析
+        String location = mediaDir.toUri().toString();
+        registry.addResourceHandler(localServePattern())
+                .addResourceLocations(location.endsWith("/") ? location : location + "/");
+    }
+
+    private boolean isLocalStorage() {
+        return "local".equalsIgnoreCase(storageProperties.getProvider());
+    }
+
+    private String localServePattern() {
+        String servePath = storageProperties.getLocal().getServePath();
+        if (servePath.endsWith("/")) {
+            servePath = servePath.substring(0, servePath.length() - 1);
+        }
+        return servePath + "/**";
     }
 }
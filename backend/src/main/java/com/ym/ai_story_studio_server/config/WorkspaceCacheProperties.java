@@ -0,0 +1,37 @@
+package com.ym.ai_story_studio_server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 项目工作台快照缓存配置属性类
+ *
+ * <p>从application.yml中绑定workspace-cache配置项，控制分镜列表、项目角色/场景/道具列表
+ * 在Redis中的快照缓存
+ *
+ * <p>配置示例：
+ * <pre>
+ * workspace-cache:
+ *   enabled: true
+ *   snapshot-ttl-minutes: 30
+ * </pre>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "workspace-cache")
+public class WorkspaceCacheProperties {
+
+    /**
+     * 是否启用快照缓存（关闭时每次读取都查库，版本号与ETag仍然维护）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 快照在Redis中的保留时间（分钟），过期后下次读取重新查库
+     */
+    private long snapshotTtlMinutes = 30;
+}
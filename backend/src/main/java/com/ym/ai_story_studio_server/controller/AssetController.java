@@ -8,26 +8,46 @@
 // {{START_MODIFICATIONS}}
 package com.ym.ai_story_studio_server.controller;
 
+import com.ym.ai_story_studio_server.annotation.AdminOnly;
 import com.ym.ai_story_studio_server.common.Result;
+import com.ym.ai_story_studio_server.config.ExportProperties;
 import com.ym.ai_story_studio_server.util.UserContext;
 import com.ym.ai_story_studio_server.dto.asset.AssetVersionVO;
 import com.ym.ai_story_studio_server.dto.asset.SetCurrentVersionRequest;
+import com.ym.ai_story_studio_server.service.AssetCacheService;
 import com.ym.ai_story_studio_server.service.AssetService;
+import com.ym.ai_story_studio_server.service.StorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 /**
@@ -51,9 +71,23 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AssetController {
 
+    /**
+     * 代理普通URL时透传给源站的请求头
+     */
+    private static final List<String> PROXIED_REQUEST_HEADERS = List.of(
+            HttpHeaders.RANGE, HttpHeaders.IF_RANGE, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+    /**
+     * 代理普通URL时转发给客户端的响应头
+     */
+    private static final List<String> PROXIED_RESPONSE_HEADERS = List.of(
+            HttpHeaders.ACCEPT_RANGES, HttpHeaders.CONTENT_RANGE, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED);
+
     private final AssetService assetService;
-    private final com.ym.ai_story_studio_server.service.StorageService storageService;
+    private final StorageService storageService;
+    private final AssetCacheService assetCacheService;
     private final com.ym.ai_story_studio_server.config.StorageProperties storageProperties;
+    private final ExportProperties exportProperties;
 
     /**
      * 获取资产版本历史列表
@@ -143,48 +177,65 @@ public class AssetController {
      * 从 URL 下载资源（返回 blob 流）
      *
      * <p>通过后端代理下载资源，解决前端CORS问题。
-     * 主要用于复制图片/视频功能。
+     * 主要用于复制图片/视频功能。开启下载代理缓存时直接从缓存文件发送，
+     * 不再每次回源并整体读入内存。
      *
      * @param request 下载请求
      * @return 资源二进制流
      */
     @PostMapping("/download-from-url")
-    public ResponseEntity<byte[]> downloadFromUrl(@RequestBody DownloadFromUrlRequest request) {
+    public ResponseEntity<Resource> downloadFromUrl(@RequestBody DownloadFromUrlRequest request) {
         try {
             log.info("收到下载图片请求, url: {}", request.url());
-            
+            if (isExportArchive(request.url())) {
+                log.warn("拒绝通过下载代理获取导出压缩包: url={}", request.url());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            AssetCacheService.Lease lease = fetchCachedRemoteUrl(request.url());
+            if (lease != null) {
+                AssetCacheService.CachedFile cached = lease.file();
+                String contentType = cached.contentType() != null && !cached.contentType().isBlank()
+                        ? cached.contentType() : inferContentTypeFromUrl(request.url());
+                // 响应体写完（流关闭）时才释放租约，发送期间文件不会被淘汰
+                InputStream body;
+                try {
+                    body = Files.newInputStream(cached.file());
+                } catch (IOException | RuntimeException e) {
+                    lease.close();
+                    throw e;
+                }
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(contentType))
+                        .contentLength(cached.size())
+                        .body(new InputStreamResource(new FilterInputStream(body) {
+                            @Override
+                            public void close() throws IOException {
+                                try {
+                                    super.close();
+                                } finally {
+                                    lease.close();
+                                }
+                            }
+                        }));
+            }
+
             // 从 URL 下载资源
-            URL imageUrl = new URL(request.url());
-            java.net.URLConnection connection = imageUrl.openConnection();
-            connection.setConnectTimeout(15000);
-            connection.setReadTimeout(30000);
+            URLConnection connection = openUrlConnection(request.url());
             try (InputStream inputStream = connection.getInputStream()) {
                 byte[] imageBytes = inputStream.readAllBytes();
 
                 // 先尝试从响应获取 content type，再按扩展名兜底
                 String contentType = connection.getContentType();
                 if (contentType == null || contentType.isBlank()) {
-                    String urlStr = request.url().toLowerCase();
-                    if (urlStr.endsWith(".png")) {
-                        contentType = "image/png";
-                    } else if (urlStr.endsWith(".jpg") || urlStr.endsWith(".jpeg")) {
-                        contentType = "image/jpeg";
-                    } else if (urlStr.endsWith(".gif")) {
-                        contentType = "image/gif";
-                    } else if (urlStr.endsWith(".webp")) {
-                        contentType = "image/webp";
-                    } else if (urlStr.endsWith(".mp4")) {
-                        contentType = "video/mp4";
-                    } else {
-                        contentType = "application/octet-stream";
-                    }
+                    contentType = inferContentTypeFromUrl(request.url());
                 }
 
                 log.info("资源下载成功, 大小: {} bytes, contentType: {}", imageBytes.length, contentType);
 
                 return ResponseEntity.ok()
                         .contentType(MediaType.parseMediaType(contentType))
-                        .body(imageBytes);
+                        .body(new ByteArrayResource(imageBytes));
             }
         } catch (Exception e) {
             log.error("下载图片失败", e);
@@ -192,70 +243,383 @@ public class AssetController {
         }
     }
 
+    /**
+     * 查询下载代理缓存统计（命中率、节省的回源字节数、淘汰次数等），仅管理员可访问
+     *
+     * @return 缓存统计
+     */
+    @AdminOnly
+    @GetMapping("/cache/stats")
+    public Result<AssetCacheService.CacheStats> getCacheStats() {
+        return Result.success(assetCacheService.stats());
+    }
+
     /**
      * 从 URL 流式下载资源（用于大文件，如视频）
      *
      * <p>通过后端代理下载资源并以 attachment 方式返回，避免前端跨域/鉴权问题，
      * 同时避免一次性读入内存导致的视频下载失败。</p>
      *
-     * <p>如果URL是OSS/MinIO的URL，会使用StorageService下载（带认证），
-     * 否则使用普通的URLConnection下载。</p>
+     * <p>按URL类型选择下载方式，三种方式都支持Range请求（206/416）
+     * 与条件请求（If-None-Match/If-Modified-Since 返回304）：</p>
+     * <ul>
+     *   <li>本地文件存储的URL：直接从磁盘零拷贝发送</li>
+     *   <li>OSS/MinIO的URL：先查询对象元数据，命中下载代理缓存时从缓存文件发送，
+     *       否则通过StorageService按区间下载（带认证）</li>
+     *   <li>其他URL：优先经下载代理缓存发送；缓存未开启或文件过大时，
+     *       将Range与条件请求头透传给源站，原样转发状态码与校验头</li>
+     * </ul>
      *
      * @param url 资源URL（必填）
      * @param filename 下载文件名（可选）
      */
     @GetMapping("/download")
     public ResponseEntity<InputStreamResource> download(@RequestParam("url") String url,
-                                                       @RequestParam(value = "filename", required = false) String filename) {
+                                                       @RequestParam(value = "filename", required = false) String filename,
+                                                       HttpServletRequest httpRequest,
+                                                       HttpServletResponse httpResponse) {
         try {
             log.info("收到流式下载请求, url: {}, filename: {}", url, filename);
+            if (isExportArchive(url)) {
+                log.warn("拒绝通过下载代理获取导出压缩包: url={}", url);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            String contentDisposition = buildContentDisposition(filename);
 
-            InputStream inputStream;
-            String contentType = null;
+            Path localFile = storageService.resolveLocalPath(url);
+            if (localFile != null) {
+                long lastModified = Files.getLastModifiedTime(localFile).toMillis();
+                String eTag = fileETag(localFile, lastModified);
+                if (!new ServletWebRequest(httpRequest, httpResponse).checkNotModified(eTag, lastModified)) {
+                    serveFile(localFile, inferContentTypeFromUrl(url), contentDisposition, eTag, lastModified,
+                            true, httpRequest, httpResponse);
+                }
+                return null;
+            }
 
             // 判断是否是OSS/MinIO的URL（需要认证）
             if (isStorageServiceUrl(url)) {
-                log.debug("检测到存储服务URL，使用StorageService下载");
+                StorageService.ObjectMeta meta = null;
                 try {
-                    inputStream = storageService.download(url);
-                    // StorageService下载后，根据URL推断contentType
-                    contentType = inferContentTypeFromUrl(url);
+                    meta = storageService.stat(url);
                 } catch (Exception e) {
-                    log.error("StorageService下载失败，尝试普通下载", e);
-                    // 如果StorageService失败，fallback到普通下载
-                    URLConnection connection = openUrlConnection(url);
-                    inputStream = connection.getInputStream();
-                    contentType = inferContentTypeFromUrl(url);
+                    log.error("StorageService查询元数据失败，尝试普通下载", e);
+                }
+                if (meta != null) {
+                    serveStorageObject(url, meta, contentDisposition, httpRequest, httpResponse);
+                    return null;
                 }
-            } else {
-                // 普通URL，使用URLConnection下载
-                log.debug("使用普通URLConnection下载");
-                URLConnection connection = openUrlConnection(url);
-                contentType = connection.getContentType();
-                inputStream = connection.getInputStream();
             }
 
-            // 如果contentType为空，根据URL推断
-            if (contentType == null || contentType.isBlank()) {
-                contentType = inferContentTypeFromUrl(url);
+            if (!serveCachedRemoteUrl(url, contentDisposition, httpRequest, httpResponse)) {
+                proxyRemoteUrl(url, contentDisposition, httpRequest, httpResponse);
             }
+            return null;
+        } catch (Exception e) {
+            log.error("流式下载失败", e);
+            if (!httpResponse.isCommitted()) {
+                httpResponse.reset();
+                return ResponseEntity.internalServerError().build();
+            }
+            return null;
+        }
+    }
 
-            String safeFilename = (filename == null || filename.isBlank()) ? "download" : filename;
-            String encodedFilename = URLEncoder.encode(safeFilename, StandardCharsets.UTF_8).replace("+", "%20");
-            String contentDisposition = "attachment; filename*=UTF-8''" + encodedFilename;
+    /**
+     * 从本地磁盘发送文件（本地文件存储或下载代理缓存）
+     *
+     * <p>调用方已完成条件请求判断。允许且容器支持sendfile时交给Tomcat零拷贝发送，
+     * 否则用FileChannel.transferTo写入响应。sendfile在请求方法返回之后才打开文件，
+     * 缓存文件的租约无法覆盖该阶段，因此缓存文件不走sendfile
+     */
+    private void serveFile(Path file, String contentType, String contentDisposition, String eTag, long lastModified,
+                           boolean allowSendfile, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ByteSpan span = writeEntityHeaders(request, response, Files.size(file), eTag, lastModified,
+                contentType, contentDisposition);
+        if (span == null) {
+            return;
+        }
 
-            InputStreamResource resource = new InputStreamResource(inputStream);
+        if (allowSendfile && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", span.start());
+            request.setAttribute("org.apache.tomcat.sendfile.end", span.end() + 1);
+            return;
+        }
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(resource);
-        } catch (Exception e) {
-            log.error("流式下载失败", e);
-            return ResponseEntity.internalServerError().build();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = span.start();
+            long remaining = span.length();
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    /**
+     * 从对象存储发送文件
+     *
+     * <p>开启下载代理缓存时命中则从缓存文件发送（Key为URL+ETag）。未命中时不等待整文件落盘：
+     * 整文件请求边回源边发送，同时写入缓存；Range请求本次只拉取对应区间（OSS Range GET），整文件在后台补齐。
+     * 缓存未开启或文件超过单文件缓存上限时直接回源
+     */
+    private void serveStorageObject(String url, StorageService.ObjectMeta meta, String contentDisposition,
+                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String eTag = quoteETag(meta.eTag());
+        long lastModified = meta.lastModified() != null ? meta.lastModified() : -1;
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+
+        String contentType = meta.contentType() != null && !meta.contentType().isBlank()
+                ? meta.contentType() : inferContentTypeFromUrl(url);
+        // ETag作为版本，对象被覆盖后自动换用新的缓存文件
+        String cacheKey = url + "#" + meta.eTag();
+        AssetCacheService.Fetcher fetcher = () -> new AssetCacheService.Source(storageService.download(url),
+                contentType, meta.contentLength());
+        boolean cacheable = assetCacheService.accepts(meta.contentLength());
+        boolean rangeRequest = request.getHeader(HttpHeaders.RANGE) != null;
+        if (cacheable) {
+            try (AssetCacheService.Lease lease = assetCacheService.openIfPresent(cacheKey)) {
+                if (lease != null) {
+                    serveFile(lease.file().file(), contentType, contentDisposition, eTag, lastModified,
+                            false, request, response);
+                    return;
+                }
+            }
+            if (rangeRequest) {
+                assetCacheService.prefetch(cacheKey, fetcher);
+            }
+        }
+
+        ByteSpan span = writeEntityHeaders(request, response, meta.contentLength(), eTag, lastModified,
+                contentType, contentDisposition);
+        if (span == null || span.length() == 0) {
+            return;
+        }
+
+        boolean partial = span.length() < meta.contentLength();
+        try (InputStream in = partial
+                ? storageService.downloadRange(url, span.start(), span.end())
+                : cacheable && !rangeRequest ? assetCacheService.readThrough(cacheKey, fetcher)
+                : storageService.download(url)) {
+            in.transferTo(response.getOutputStream());
         }
     }
 
+    /**
+     * 通过下载代理缓存发送普通URL
+     *
+     * <p>普通URL没有可靠的版本信息，以URL作为缓存Key，条目超过 {@code storage.cache.remote-ttl-minutes} 后重新回源；
+     * ETag由缓存文件生成，Range与条件请求在本地完成
+     *
+     * @return 已从缓存发送时返回true，缓存未开启或文件超过单文件缓存上限时返回false
+     */
+    private boolean serveCachedRemoteUrl(String url, String contentDisposition,
+                                         HttpServletRequest request, HttpServletResponse response) throws Exception {
+        try (AssetCacheService.Lease lease = fetchCachedRemoteUrl(url)) {
+            if (lease == null) {
+                return false;
+            }
+
+            AssetCacheService.CachedFile cached = lease.file();
+            long lastModified = Files.getLastModifiedTime(cached.file()).toMillis();
+            String eTag = fileETag(cached.file(), lastModified);
+            if (!new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+                String contentType = cached.contentType() != null && !cached.contentType().isBlank()
+                        ? cached.contentType() : inferContentTypeFromUrl(url);
+                serveFile(cached.file(), contentType, contentDisposition, eTag, lastModified,
+                        false, request, response);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 从下载代理缓存租用普通URL的内容，缓存未开启或文件过大时返回null
+     */
+    private AssetCacheService.Lease fetchCachedRemoteUrl(String url) throws IOException {
+        if (!assetCacheService.isEnabled()) {
+            return null;
+        }
+        long ttlMillis = storageProperties.getCache().getRemoteTtlMinutes() * 60_000L;
+        return assetCacheService.open(url, ttlMillis, () -> {
+            URLConnection connection = openUrlConnection(url);
+            return new AssetCacheService.Source(connection.getInputStream(), connection.getContentType(),
+                    connection.getContentLengthLong());
+        });
+    }
+
+    /**
+     * 由文件大小与修改时间生成ETag
+     */
+    private String fileETag(Path file, long lastModified) throws IOException {
+        return "\"" + Long.toHexString(Files.size(file)) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    /**
+     * 代理普通URL
+     *
+     * <p>将Range与条件请求头透传给源站，源站返回的206/304/416原样转发
+     */
+    private void proxyRemoteUrl(String url, String contentDisposition,
+                                HttpServletRequest request, HttpServletResponse response) throws Exception {
+        log.debug("使用普通URLConnection下载");
+        URLConnection connection = openUrlConnection(url);
+        if (!(connection instanceof HttpURLConnection httpConnection)) {
+            writeProxiedBody(connection, connection.getInputStream(), url, contentDisposition, response);
+            return;
+        }
+
+        for (String header : PROXIED_REQUEST_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                httpConnection.setRequestProperty(header, value);
+            }
+        }
+
+        int status = httpConnection.getResponseCode();
+        response.setStatus(status);
+        for (String header : PROXIED_RESPONSE_HEADERS) {
+            String value = httpConnection.getHeaderField(header);
+            if (value != null) {
+                response.setHeader(header, value);
+            }
+        }
+
+        if (status == HttpServletResponse.SC_NOT_MODIFIED
+                || status == HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+            httpConnection.disconnect();
+            return;
+        }
+        InputStream body = status >= 400 ? httpConnection.getErrorStream() : httpConnection.getInputStream();
+        writeProxiedBody(connection, body, url, contentDisposition, response);
+    }
+
+    private void writeProxiedBody(URLConnection connection, InputStream body, String url,
+                                  String contentDisposition, HttpServletResponse response) throws IOException {
+        String contentType = connection.getContentType();
+        if (contentType == null || contentType.isBlank()) {
+            contentType = inferContentTypeFromUrl(url);
+        }
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        long contentLength = connection.getContentLengthLong();
+        if (contentLength >= 0) {
+            response.setContentLengthLong(contentLength);
+        }
+        if (body == null) {
+            return;
+        }
+        try (InputStream in = body) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    /**
+     * 写入实体响应头并解析Range
+     *
+     * <p>单段或多段Range合并为一个覆盖区间返回206；Range语法错误时忽略Range返回整文件；
+     * If-Range与当前ETag/修改时间不匹配时同样返回整文件；区间不可满足时返回416
+     *
+     * @return 需要发送的字节区间，416时返回null
+     */
+    private ByteSpan writeEntityHeaders(HttpServletRequest request, HttpServletResponse response,
+                                        long length, String eTag, long lastModified,
+                                        String contentType, String contentDisposition) {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        ByteSpan span = new ByteSpan(0, length - 1);
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && !rangeHeader.isBlank() && ifRangeMatches(request, eTag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (!ranges.isEmpty()) {
+                try {
+                    long start = Long.MAX_VALUE;
+                    long end = -1;
+                    for (HttpRange range : ranges) {
+                        start = Math.min(start, range.getRangeStart(length));
+                        end = Math.max(end, range.getRangeEnd(length));
+                    }
+                    span = new ByteSpan(start, end);
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return null;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + span.start() + "-" + span.end() + "/" + length);
+            }
+        }
+
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        response.setContentLengthLong(span.length());
+        return span;
+    }
+
+    /**
+     * 判断If-Range条件是否成立（未携带If-Range时视为成立）
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null || ifRange.isBlank()) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return lastModified >= 0 && since >= 0 && lastModified / 1000 <= since / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 为存储服务返回的ETag补上引号
+     */
+    private String quoteETag(String eTag) {
+        if (eTag == null || eTag.isBlank()) {
+            return null;
+        }
+        if (eTag.startsWith("\"") || eTag.startsWith("W/")) {
+            return eTag;
+        }
+        return "\"" + eTag + "\"";
+    }
+
+    /**
+     * 构建attachment方式的Content-Disposition
+     */
+    private String buildContentDisposition(String filename) {
+        String safeFilename = (filename == null || filename.isBlank()) ? "download" : filename;
+        String encodedFilename = URLEncoder.encode(safeFilename, StandardCharsets.UTF_8).replace("+", "%20");
+        return "attachment; filename*=UTF-8''" + encodedFilename;
+    }
+
+    /**
+     * 是否为导出压缩包（只能经导出下载接口校验任务归属后获取，不允许经下载代理读取）
+     */
+    private boolean isExportArchive(String url) {
+        String objectKey = storageService.toObjectKey(url);
+        return objectKey != null && objectKey.startsWith(exportProperties.getArchivePrefix() + "/");
+    }
+
     /**
      * 判断URL是否是存储服务（OSS/MinIO）的URL
      */
@@ -290,7 +654,7 @@ public class AssetController {
     /**
      * 通过URLConnection下载（用于非存储服务的URL）
      */
-    private URLConnection openUrlConnection(String url) throws Exception {
+    private URLConnection openUrlConnection(String url) throws IOException {
         URL targetUrl = new URL(url);
         URLConnection connection = targetUrl.openConnection();
         connection.setConnectTimeout(15000);
@@ -329,5 +693,15 @@ public class AssetController {
      * 下载图片请求DTO
      */
     public record DownloadFromUrlRequest(String url) {}
+
+    /**
+     * 待发送的字节区间（首尾均含）
+     */
+    private record ByteSpan(long start, long end) {
+
+        long length() {
+            return end - start + 1;
+        }
+    }
 }
 // {{END_MODIFICATIONS}}
@@ -1,8 +1,11 @@
 package com.ym.ai_story_studio_server.controller;
 
+import com.ym.ai_story_studio_server.annotation.AdminOnly;
 import com.ym.ai_story_studio_server.common.Result;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.exception.BusinessException;
+import com.ym.ai_story_studio_server.service.QueryStatsService;
+import com.ym.ai_story_studio_server.service.ReferenceDataCache;
 import com.ym.ai_story_studio_server.service.StorageService;
 import com.ym.ai_story_studio_server.util.UserContext;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +26,8 @@ import java.util.Map;
 public class CommonController {
 
     private final StorageService storageService;
+    private final ReferenceDataCache referenceDataCache;
+    private final QueryStatsService queryStatsService;
 
     // 最大文件大小: 50MB
     private static final long MAX_FILE_SIZE = 50 * 1024 * 1024;
@@ -86,4 +91,26 @@ public class CommonController {
             throw new BusinessException(ResultCode.SYSTEM_ERROR, "文件上传失败: " + e.getMessage());
         }
     }
+
+    /**
+     * 查询参考数据缓存统计（各区域的一级/二级命中、未命中与失效次数），仅管理员可访问
+     *
+     * @return 区域 -> 缓存统计
+     */
+    @AdminOnly
+    @GetMapping("/reference-cache/stats")
+    public Result<Map<ReferenceDataCache.Region, ReferenceDataCache.RegionStats>> getReferenceCacheStats() {
+        return Result.success(referenceDataCache.stats());
+    }
+
+    /**
+     * 查询SQL统计（各语句的耗时分布与行数、各接口/队列的查询条数与疑似N+1次数），仅管理员可访问
+     *
+     * @return SQL查询统计
+     */
+    @AdminOnly
+    @GetMapping("/query-stats")
+    public Result<QueryStatsService.QueryStats> getQueryStats() {
+        return Result.success(queryStatsService.stats());
+    }
 }
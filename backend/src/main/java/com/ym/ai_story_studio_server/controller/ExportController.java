@@ -1,19 +1,32 @@
 package com.ym.ai_story_studio_server.controller;
 
 import com.ym.ai_story_studio_server.common.Result;
+import com.ym.ai_story_studio_server.dto.export.ExportDownload;
+import com.ym.ai_story_studio_server.dto.export.ExportEntry;
 import com.ym.ai_story_studio_server.dto.export.ExportRequest;
 import com.ym.ai_story_studio_server.dto.export.ExportResponse;
 import com.ym.ai_story_studio_server.service.ExportService;
 import com.ym.ai_story_studio_server.util.UserContext;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
 /**
  * 导出控制器
  *
@@ -21,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
  * <ul>
  *   <li>提交导出任务</li>
  *   <li>下载导出文件</li>
+ *   <li>流式导出(仅当前版本,边打包边下载)</li>
  * </ul>
  *
  * @author Roo (Prometheus)
@@ -60,25 +74,58 @@ public class ExportController {
         return Result.success("导出任务已提交", response);
     }
 
+    /**
+     * 流式导出项目(仅当前版本)
+     *
+     * <p>不创建导出任务、不落盘,边下载资产边将ZIP写入响应,浏览器立即开始接收数据:
+     * 小资产在内存中预取,视频等大资产轮到时直接从源地址写入响应。
+     * 包含所有历史版本的大型导出仍使用异步导出
+     *
+     * @param projectId 项目ID
+     * @param request 导出请求(查询参数)
+     * @param response HTTP响应
+     */
+    @GetMapping("/api/projects/{projectId}/export/stream")
+    public void streamExport(
+            @PathVariable("projectId") Long projectId,
+            @Valid ExportRequest request,
+            HttpServletResponse response) throws IOException {
+        Long userId = UserContext.getUserId();
+        List<ExportEntry> plan = exportService.planStreamingExport(userId, projectId, request);
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        String fileName = "project_" + projectId + "_export_" + timestamp + ".zip";
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+
+        exportService.streamExport(plan, response.getOutputStream());
+    }
+
     /**
      * 下载导出文件
      *
-     * <p>根据导出任务ID下载生成的ZIP文件
+     * <p>校验任务归属后:对象存储时重定向到导出ZIP文件的预签名URL,由浏览器直接从对象存储下载;
+     * 本地存储时压缩包不在公开的静态目录下,由本接口直接发送(支持Range续传)
      *
      * @param jobId 导出任务ID
-     * @return 文件资源
+     * @return 302重定向或ZIP文件
      */
     @GetMapping("/api/exports/{jobId}/download")
     public ResponseEntity<Resource> downloadExportFile(@PathVariable("jobId") Long jobId) {
         Long userId = UserContext.getUserId();
         log.info("下载导出文件: userId={}, jobId={}", userId, jobId);
 
-        Resource resource = exportService.getExportFile(userId, jobId);
-        String fileName = exportService.getExportFileName(jobId);
+        ExportDownload download = exportService.getExportDownload(userId, jobId);
+        if (download.localFile() != null) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(download.fileName(), StandardCharsets.UTF_8).build().toString())
+                    .body(new FileSystemResource(download.localFile()));
+        }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                .body(resource);
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create(download.url()))
+                .build();
     }
 }
@@ -2,6 +2,7 @@ package com.ym.ai_story_studio_server.controller;
 
 import com.ym.ai_story_studio_server.common.Result;
 import com.ym.ai_story_studio_server.service.StorageService;
+import com.ym.ai_story_studio_server.util.ImageCodec;
 import com.ym.ai_story_studio_server.util.ImageMergeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -58,9 +59,11 @@ public class ImageUtilController {
             }
 
             // 2. 上传到OSS
+            ImageCodec codec = imageMergeUtil.getOutputCodec();
             String ossUrl = storageService.uploadImageBytes(
                     mergedImageBytes,
-                    "merged_" + System.currentTimeMillis() + ".png"
+                    "merged_" + System.currentTimeMillis() + codec.getExtension(),
+                    codec.getContentType()
             );
 
             log.info("图片拼接并上传成功: {}", ossUrl);
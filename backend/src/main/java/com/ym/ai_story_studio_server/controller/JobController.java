@@ -1,6 +1,7 @@
 package com.ym.ai_story_studio_server.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.common.Result;
 import com.ym.ai_story_studio_server.dto.job.JobDetailVO;
 import com.ym.ai_story_studio_server.dto.job.JobQueryRequest;
@@ -71,6 +72,43 @@ public class JobController {
         return Result.success(page);
     }
 
+    /**
+     * 游标分页查询任务列表
+     *
+     * <p>筛选条件同 {@code GET /api/jobs},按创建时间倒序;翻页深度不影响查询耗时,默认不执行COUNT查询
+     *
+     * <p>请求参数:
+     * <ul>
+     *     <li>cursor: 上一页返回的nextCursor(首页不传)</li>
+     *     <li>size: 每页大小(可选,默认20,1-100)</li>
+     *     <li>withTotal: 是否统计总数(可选,默认false)</li>
+     *     <li>status/jobType/projectId: 同上</li>
+     * </ul>
+     *
+     * <p>响应数据:
+     * <pre>
+     * {
+     *   "code": 200,
+     *   "message": "操作成功",
+     *   "data": {
+     *     "records": [ ... ],
+     *     "nextCursor": "MjAyNS0xMi0yOFQxODowMDowMC4xMjN8MTAy",
+     *     "hasMore": true
+     *   }
+     * }
+     * </pre>
+     *
+     * @param request 查询请求(游标+筛选条件)
+     * @return 游标分页任务列表
+     */
+    @GetMapping("/cursor")
+    public Result<CursorPage<JobVO>> getJobCursorPage(@Validated JobQueryRequest request) {
+        Long userId = UserContext.getUserId();
+        log.info("游标查询任务列表, userId: {}, request: {}", userId, request);
+
+        return Result.success(jobService.getJobCursorPage(userId, request));
+    }
+
     /**
      * 获取任务详情
      *
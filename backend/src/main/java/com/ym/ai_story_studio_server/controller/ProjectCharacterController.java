@@ -7,11 +7,14 @@ import com.ym.ai_story_studio_server.dto.character.ProjectCharacterVO;
 import com.ym.ai_story_studio_server.dto.character.ReplaceCharacterRequest;
 import com.ym.ai_story_studio_server.dto.character.UpdateProjectCharacterRequest;
 import com.ym.ai_story_studio_server.service.ProjectCharacterService;
+import com.ym.ai_story_studio_server.service.ProjectService;
+import com.ym.ai_story_studio_server.service.ProjectWorkspaceCache;
 import com.ym.ai_story_studio_server.util.UserContext;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -30,17 +33,29 @@ import java.util.List;
 public class ProjectCharacterController {
 
     private final ProjectCharacterService projectCharacterService;
+    private final ProjectService projectService;
+    private final ProjectWorkspaceCache workspaceCache;
 
     /**
      * 获取项目角色列表
      *
+     * <p>响应带ETag（项目版本号），请求携带的If-None-Match一致时返回304
+     *
      * @param projectId 项目ID
+     * @param webRequest 当前请求（用于条件请求判断）
      * @return 项目角色列表响应
      */
     @GetMapping
-    public Result<List<ProjectCharacterVO>> getProjectCharacterList(@PathVariable("projectId") Long projectId) {
+    public Result<List<ProjectCharacterVO>> getProjectCharacterList(@PathVariable("projectId") Long projectId,
+                                                                    WebRequest webRequest) {
         Long userId = UserContext.getUserId();
         log.info("获取项目角色列表, userId: {}, projectId: {}", userId, projectId);
+        // 先鉴权再协商ETag，命中304时不再加载列表
+        projectService.checkProjectAccess(userId, projectId);
+        String etag = workspaceCache.etag(projectId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<ProjectCharacterVO> characters = projectCharacterService.getProjectCharacterList(userId, projectId);
         return Result.success(characters);
     }
@@ -1,6 +1,7 @@
 package com.ym.ai_story_studio_server.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.common.Result;
 import com.ym.ai_story_studio_server.dto.project.CreateProjectRequest;
 import com.ym.ai_story_studio_server.dto.project.ProjectQueryRequest;
@@ -45,6 +46,22 @@ public class ProjectController {
         return Result.success(page);
     }
 
+    /**
+     * 游标分页查询项目列表
+     * <p>筛选条件同分页查询，按更新时间倒序；首页不传cursor，之后回传响应中的nextCursor
+     * <p>默认不统计总数（withTotal=true时统计）
+     * <p>需要JWT认证
+     *
+     * @param request 查询请求（cursor/size/withTotal + 筛选条件）
+     * @return 游标分页结果
+     */
+    @GetMapping("/cursor")
+    public Result<CursorPage<ProjectVO>> getProjectCursorPage(ProjectQueryRequest request) {
+        Long userId = UserContext.getUserId();
+        log.info("收到游标查询项目列表请求: userId={}, request={}", userId, request);
+        return Result.success(projectService.getProjectCursorPage(userId, request));
+    }
+
     /**
      * 获取项目详情
      * <p>需要JWT认证
@@ -6,11 +6,14 @@ import com.ym.ai_story_studio_server.dto.prop.CreateProjectPropRequest;
 import com.ym.ai_story_studio_server.dto.prop.ProjectPropVO;
 import com.ym.ai_story_studio_server.dto.prop.UpdateProjectPropRequest;
 import com.ym.ai_story_studio_server.service.ProjectPropService;
+import com.ym.ai_story_studio_server.service.ProjectService;
+import com.ym.ai_story_studio_server.service.ProjectWorkspaceCache;
 import com.ym.ai_story_studio_server.util.UserContext;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,13 +27,23 @@ import java.util.List;
 public class ProjectPropController {
 
     private final ProjectPropService projectPropService;
+    private final ProjectService projectService;
+    private final ProjectWorkspaceCache workspaceCache;
 
     /**
      * 获取项目道具列表
+     *
+     * <p>响应带ETag（项目版本号），请求携带的If-None-Match一致时返回304
      */
     @GetMapping
-    public Result<List<ProjectPropVO>> getProjectProps(@PathVariable Long projectId) {
+    public Result<List<ProjectPropVO>> getProjectProps(@PathVariable Long projectId, WebRequest webRequest) {
         log.info("获取项目道具列表, projectId: {}", projectId);
+        // 先鉴权再协商ETag，命中304时不再加载列表
+        projectService.checkProjectAccess(UserContext.getUserId(), projectId);
+        String etag = workspaceCache.etag(projectId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<ProjectPropVO> props = projectPropService.getProjectProps(projectId);
         return Result.success(props);
     }
@@ -0,0 +1,56 @@
+package com.ym.ai_story_studio_server.controller;
+
+import com.ym.ai_story_studio_server.common.CursorPage;
+import com.ym.ai_story_studio_server.common.Result;
+import com.ym.ai_story_studio_server.dto.search.SearchHitVO;
+import com.ym.ai_story_studio_server.dto.search.SearchRequest;
+import com.ym.ai_story_studio_server.service.SearchService;
+import com.ym.ai_story_studio_server.util.UserContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 全文搜索控制器
+ *
+ * <p>搜索当前用户的项目、角色库、场景库、道具库与分镜剧本，所有接口均需要JWT认证
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * 全文搜索
+     *
+     * <p>请求参数:
+     * <ul>
+     *     <li>keyword: 关键词(必须,多个词以空格分隔且需全部命中,每个词至少2个字符)</li>
+     *     <li>type: 搜索对象(必须,PROJECT/CHARACTER/SCENE/PROP/SHOT)</li>
+     *     <li>projectId: 限定项目(可选,仅SHOT)</li>
+     *     <li>size: 每页大小(可选,默认20,最大50)</li>
+     *     <li>cursor: 上一页返回的nextCursor(首页不传)</li>
+     * </ul>
+     *
+     * <p>结果按相关度倒序排列,hasMore为false时到底
+     *
+     * @param request 搜索请求
+     * @return 游标分页搜索结果
+     */
+    @GetMapping
+    public Result<CursorPage<SearchHitVO>> search(@Validated SearchRequest request) {
+        Long userId = UserContext.getUserId();
+        log.info("全文搜索, userId: {}, request: {}", userId, request);
+
+        return Result.success(searchService.search(userId, request));
+    }
+}
@@ -3,11 +3,14 @@ package com.ym.ai_story_studio_server.controller;
 import com.ym.ai_story_studio_server.common.Result;
 import com.ym.ai_story_studio_server.util.UserContext;
 import com.ym.ai_story_studio_server.dto.shot.*;
+import com.ym.ai_story_studio_server.service.ProjectService;
+import com.ym.ai_story_studio_server.service.ProjectWorkspaceCache;
 import com.ym.ai_story_studio_server.service.ShotService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,19 +29,31 @@ import java.util.List;
 public class ShotController {
 
     private final ShotService shotService;
+    private final ProjectService projectService;
+    private final ProjectWorkspaceCache workspaceCache;
 
     /**
      * 获取分镜列表
      *
      * <p>获取指定项目下的所有分镜,按分镜序号升序排序
      *
+     * <p>响应带ETag（项目版本号），请求携带的If-None-Match一致时返回304
+     *
      * @param projectId 项目ID
+     * @param webRequest 当前请求（用于条件请求判断）
      * @return 分镜列表,包含绑定的角色/场景信息和资产状态
      */
     @GetMapping
-    public Result<List<ShotVO>> getShotList(@PathVariable("projectId") Long projectId) {
+    public Result<List<ShotVO>> getShotList(@PathVariable("projectId") Long projectId, WebRequest webRequest) {
         log.info("收到获取分镜列表请求: projectId={}", projectId);
         Long userId = UserContext.getUserId();
+        // 先鉴权再协商ETag，命中304时不再加载列表和签名URL；
+        // 先取版本号再查询：查询期间发生写入时ETag只会偏旧，客户端下次请求会拿到新数据
+        projectService.checkProjectAccess(userId, projectId);
+        String etag = workspaceCache.etag(projectId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<ShotVO> shots = shotService.getShotList(userId, projectId);
         log.info("返回{}条分镜", shots.size());
         return Result.success(shots);
@@ -1,6 +1,7 @@
 package com.ym.ai_story_studio_server.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.common.Result;
 import com.ym.ai_story_studio_server.dto.toolbox.ToolboxGenerateRequest;
 import com.ym.ai_story_studio_server.dto.toolbox.ToolboxGenerateResponse;
@@ -310,6 +311,28 @@ public class ToolboxController {
         return Result.success(result);
     }
 
+    /**
+     * 游标分页查询AI工具箱历史记录
+     *
+     * <p>查询规则同 {@code /history},按(创建时间, ID)倒序;
+     * 首页不传cursor,之后把响应中的nextCursor原样传回,hasMore为false时到底
+     *
+     * @param cursor 上一页返回的nextCursor,首页不传
+     * @param size 每页大小,默认10,最大100
+     * @param withTotal 是否统计总数,默认false
+     * @return 历史记录游标分页结果
+     */
+    @GetMapping("/history/cursor")
+    public Result<CursorPage<ToolboxHistoryVO>> getHistoryCursorPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        log.info("游标查询AI工具箱历史 - size: {}, withTotal: {}", size, withTotal);
+
+        return Result.success(toolboxService.getHistoryCursorPage(cursor, size, withTotal));
+    }
+
     /**
      * 删除历史记录
      *
@@ -1,6 +1,7 @@
 package com.ym.ai_story_studio_server.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.common.Result;
 import com.ym.ai_story_studio_server.dto.wallet.TransactionQueryRequest;
 import com.ym.ai_story_studio_server.dto.wallet.TransactionVO;
@@ -9,6 +10,7 @@ import com.ym.ai_story_studio_server.service.WalletService;
 import com.ym.ai_story_studio_server.util.UserContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -68,4 +70,27 @@ public class WalletController {
         Page<TransactionVO> page = walletService.getTransactions(userId, request);
         return Result.success(page);
     }
+
+    /**
+     * 游标分页查询积分流水记录
+     *
+     * <p>GET /api/wallet/transactions/cursor
+     *
+     * <p>筛选条件同 {@code /transactions},翻页深度不影响查询耗时;
+     * 首页不传cursor,之后把响应中的nextCursor原样传回,hasMore为false时到底
+     *
+     * @param request 查询请求参数
+     *                - type/bizType: 同上
+     *                - cursor: 上一页返回的nextCursor,可选
+     *                - size: 每页大小,默认20,最大100
+     *                - withTotal: 是否统计总数,默认false
+     * @return 统一响应结果,包含游标分页的流水记录列表
+     */
+    @GetMapping("/transactions/cursor")
+    public Result<CursorPage<TransactionVO>> getTransactionCursorPage(@Validated TransactionQueryRequest request) {
+        Long userId = UserContext.getUserId();
+        log.info("游标查询积分流水: userId={}, request={}", userId, request);
+
+        return Result.success(walletService.getTransactionCursorPage(userId, request));
+    }
 }
@@ -0,0 +1,28 @@
+package com.ym.ai_story_studio_server.dto.asset;
+
+import com.ym.ai_story_studio_server.entity.AssetVersion;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 归属对象最新资产的当前版本(assets JOIN asset_versions 分组查询结果)
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class AssetStatusRow extends AssetVersion {
+
+    /**
+     * 归属对象ID(如分镜ID、项目角色ID)
+     */
+    private Long ownerId;
+
+    /**
+     * 资产类型
+     */
+    private String assetType;
+
+    /**
+     * 资产的版本总数
+     */
+    private Integer totalVersions;
+}
@@ -14,6 +14,13 @@ import java.time.LocalDateTime;
  * @param provider 存储提供方:OSS(阿里云OSS)/MINIO(MinIO)
  * @param url 可访问URL(前端展示/下载使用)
  * @param objectKey 对象存储Key(OSS/MinIO内部标识,可选)
+ * @param originalSize 原图大小(字节),交付副本生成后回填,可选
+ * @param deliveryUrl 交付副本URL(压缩格式,前端展示优先使用),生成前为null
+ * @param deliveryFormat 交付副本格式:jpeg/png,可选
+ * @param deliverySize 交付副本大小(字节),可选
+ * @param thumbSmallUrl 小尺寸缩略图URL(默认长边160px),生成前为null
+ * @param thumbMediumUrl 中尺寸缩略图URL(默认长边480px),生成前为null
+ * @param thumbLargeUrl 大尺寸缩略图URL(默认长边1024px),生成前为null
  * @param prompt 生成提示词(仅AI生成时有值,可选)
  * @param paramsJson 生成参数JSON(包含模型、比例、seed等参数,可选)
  * @param status 状态:READY(就绪)/FAILED(失败)
@@ -32,6 +39,13 @@ public record AssetVersionVO(
         String provider,
         String url,
         String objectKey,
+        Long originalSize,
+        String deliveryUrl,
+        String deliveryFormat,
+        Long deliverySize,
+        String thumbSmallUrl,
+        String thumbMediumUrl,
+        String thumbLargeUrl,
         String prompt,
         String paramsJson,
         String status,
@@ -0,0 +1,19 @@
+package com.ym.ai_story_studio_server.dto.export;
+
+import java.nio.file.Path;
+
+/**
+ * 导出压缩包的下载方式
+ *
+ * <p>本地存储时压缩包位于不对外提供的私有目录,由下载接口直接发送文件;
+ * 对象存储时重定向到预签名URL
+ *
+ * @param localFile 本地文件路径(本地存储时有值)
+ * @param url       预签名下载URL(对象存储时有值)
+ * @param fileName  下载文件名
+ */
+public record ExportDownload(
+        Path localFile,
+        String url,
+        String fileName
+) {}
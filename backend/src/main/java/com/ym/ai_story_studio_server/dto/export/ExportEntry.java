@@ -0,0 +1,14 @@
+package com.ym.ai_story_studio_server.dto.export;
+
+/**
+ * 导出计划中的单个ZIP条目
+ *
+ * @param name           ZIP内的文件名(含分类文件夹路径)
+ * @param url            资产文件URL
+ * @param assetVersionId 资产版本ID
+ */
+public record ExportEntry(
+        String name,
+        String url,
+        Long assetVersionId
+) {}
@@ -10,6 +10,7 @@ import jakarta.validation.constraints.NotNull;
  * @param exportShotImages 是否导出分镜图
  * @param exportVideos 是否导出视频
  * @param mode 导出模式:CURRENT(仅当前版本)/ALL(包含所有历史版本)
+ * @param rendition 导出副本:ORIGINAL(原图,默认)/DELIVERY(压缩交付副本),可选
  */
 public record ExportRequest(
         @NotNull(message = "exportCharacters不能为空")
@@ -25,5 +26,7 @@ public record ExportRequest(
         Boolean exportVideos,
 
         @NotNull(message = "导出模式不能为空")
-        String mode
+        String mode,
+
+        String rendition
 ) {}
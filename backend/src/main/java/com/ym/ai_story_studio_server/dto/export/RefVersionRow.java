@@ -0,0 +1,18 @@
+package com.ym.ai_story_studio_server.dto.export;
+
+import com.ym.ai_story_studio_server.entity.AssetVersion;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 资产引用关联的资产版本(asset_refs JOIN asset_versions 查询结果)
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class RefVersionRow extends AssetVersion {
+
+    /**
+     * 引用所有者ID(如分镜ID、角色库ID)
+     */
+    private Long refOwnerId;
+}
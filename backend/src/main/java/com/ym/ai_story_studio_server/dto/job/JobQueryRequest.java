@@ -13,6 +13,8 @@ import jakarta.validation.constraints.Min;
  * @param jobType 任务类型筛选:PARSE_TEXT/GEN_CHAR_IMG/GEN_SCENE_IMG/GEN_SHOT_IMG/GEN_VIDEO/EXPORT_ZIP(可选)
  * @param page 页码(必须大于0)
  * @param size 每页大小(必须在1-100之间)
+ * @param cursor 游标分页:上一页返回的nextCursor(首页不传)
+ * @param withTotal 游标分页:是否统计总数(默认不统计)
  *
  * @author Roo (Prometheus)
  * @since 1.0.0
@@ -27,6 +29,9 @@ public record JobQueryRequest(
 
         @Min(value = 1, message = "每页大小必须大于0")
         @Max(value = 100, message = "每页大小不能超过100")
-        Integer size
+        Integer size,
+
+        String cursor,
+        Boolean withTotal
 ) {
 }
@@ -0,0 +1,20 @@
+package com.ym.ai_story_studio_server.dto.project;
+
+import lombok.Data;
+
+/**
+ * 库条目被项目引用的次数(按库条目ID分组计数的查询结果)
+ */
+@Data
+public class LibraryReferenceCount {
+
+    /**
+     * 库条目ID(角色库/场景库/道具库ID)
+     */
+    private Long libraryId;
+
+    /**
+     * 引用该条目的项目角色(场景/道具)数量
+     */
+    private Long referenceCount;
+}
@@ -10,6 +10,8 @@ package com.ym.ai_story_studio_server.dto.project;
  * @param status 状态筛选（可选）
  * @param page 页码（从1开始）
  * @param size 每页大小
+ * @param cursor 游标分页：上一页返回的nextCursor（首页不传）
+ * @param withTotal 游标分页：是否统计总数（默认不统计）
  * @author Roo (Prometheus)
  * @since 1.0.0
  */
@@ -47,7 +49,17 @@ public record ProjectQueryRequest(
         /**
          * 每页大小
          */
-        Integer size
+        Integer size,
+
+        /**
+         * 游标分页：上一页返回的nextCursor（首页不传）
+         */
+        String cursor,
+
+        /**
+         * 游标分页：是否统计总数（默认不统计）
+         */
+        Boolean withTotal
 ) {
     /**
      * 获取偏移量
@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
  * @param eraSetting 时代设置
  * @param status 项目状态
  * @param modelConfigJson 模型配置(JSON)
- * @param shotCount 分镜数量
+ * @param shotCount 分镜数量(未删除)
+ * @param characterCount 项目角色数量
+ * @param assetCount 项目资产数量
  * @param createdAt 创建时间
  * @param updatedAt 更新时间
  * @author Roo (Prometheus)
@@ -31,6 +33,8 @@ public record ProjectVO(
         String status,
         String modelConfigJson,
         Integer shotCount,
+        Integer characterCount,
+        Integer assetCount,
         LocalDateTime createdAt,
         LocalDateTime updatedAt
 ) {
@@ -11,6 +11,8 @@ import java.time.LocalDateTime;
  * @param name 场景名称
  * @param description 场景描述/提示词
  * @param thumbnailUrl 缩略图URL
+ * @param thumbSmallUrl 小尺寸缩略图URL(列表卡片使用,未生成时回退为thumbnailUrl)
+ * @param thumbMediumUrl 中尺寸缩略图URL(未生成时回退为thumbnailUrl)
  * @param referenceCount 被引用次数
  * @param createdAt 创建时间
  * @param updatedAt 更新时间
@@ -22,6 +24,8 @@ public record SceneVO(
         String name,
         String description,
         String thumbnailUrl,
+        String thumbSmallUrl,
+        String thumbMediumUrl,
         Integer referenceCount,
         LocalDateTime createdAt,
         LocalDateTime updatedAt
@@ -0,0 +1,47 @@
+package com.ym.ai_story_studio_server.dto.search;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 全文搜索命中行(MATCH ... AGAINST 查询结果)
+ */
+@Data
+public class SearchHitRow {
+
+    /**
+     * 命中记录ID
+     */
+    private Long id;
+
+    /**
+     * 所属项目ID(仅分镜)
+     */
+    private Long projectId;
+
+    /**
+     * 分镜序号(仅分镜)
+     */
+    private Integer shotNo;
+
+    /**
+     * 标题(项目/库条目名称,分镜为所属项目名称)
+     */
+    private String title;
+
+    /**
+     * 正文(库条目描述或分镜剧本文本,项目为null)
+     */
+    private String body;
+
+    /**
+     * 相关度得分
+     */
+    private Double score;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,30 @@
+package com.ym.ai_story_studio_server.dto.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * 全文搜索结果VO
+ *
+ * @param type 搜索对象:PROJECT/CHARACTER/SCENE/PROP/SHOT
+ * @param id 命中记录ID
+ * @param projectId 所属项目ID(仅分镜)
+ * @param shotNo 分镜序号(仅分镜)
+ * @param title 标题(项目/库条目名称,分镜为所属项目名称)
+ * @param snippet 正文中关键词附近的片段(项目为null)
+ * @param score 相关度得分(越大越相关)
+ * @param updatedAt 更新时间
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public record SearchHitVO(
+        String type,
+        Long id,
+        Long projectId,
+        Integer shotNo,
+        String title,
+        String snippet,
+        Double score,
+        LocalDateTime updatedAt
+) {
+}
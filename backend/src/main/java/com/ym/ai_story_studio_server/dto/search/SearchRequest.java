@@ -0,0 +1,36 @@
+package com.ym.ai_story_studio_server.dto.search;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * 全文搜索请求
+ *
+ * @param keyword 关键词(多个词以空格分隔,需全部命中;每个词至少2个字符)
+ * @param type 搜索对象:PROJECT/CHARACTER/SCENE/PROP/SHOT
+ * @param projectId 项目ID(可选,仅type=SHOT时生效)
+ * @param size 每页大小(默认20,最大50)
+ * @param cursor 上一页返回的nextCursor(首页不传)
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public record SearchRequest(
+        @NotBlank(message = "搜索关键词不能为空")
+        String keyword,
+
+        @NotBlank(message = "搜索对象不能为空")
+        @Pattern(regexp = "PROJECT|CHARACTER|SCENE|PROP|SHOT", message = "搜索对象必须是PROJECT/CHARACTER/SCENE/PROP/SHOT")
+        String type,
+
+        Long projectId,
+
+        @Min(value = 1, message = "每页大小必须大于0")
+        @Max(value = 50, message = "每页大小不能超过50")
+        Integer size,
+
+        String cursor
+) {
+}
@@ -7,7 +7,10 @@ package com.ym.ai_story_studio_server.dto.shot;
  *
  * @param assetId 资产ID,可为null表示资产不存在
  * @param currentVersionId 当前版本ID,可为null
- * @param currentUrl 当前版本的URL,可为null
+ * @param currentUrl 当前版本的URL(原图),可为null
+ * @param deliveryUrl 当前版本的交付副本URL(压缩格式,前端展示优先使用),未生成时与currentUrl相同
+ * @param thumbSmallUrl 当前版本的小尺寸缩略图URL,未生成时回退为deliveryUrl
+ * @param thumbMediumUrl 当前版本的中尺寸缩略图URL(分镜网格使用),未生成时回退为deliveryUrl
  * @param status 资产状态:NONE(无资产)/GENERATING(生成中)/READY(已就绪)/FAILED(失败)
  * @param totalVersions 版本总数
  *
@@ -18,6 +21,9 @@ public record AssetStatusVO(
     Long assetId,
     Long currentVersionId,
     String currentUrl,
+    String deliveryUrl,
+    String thumbSmallUrl,
+    String thumbMediumUrl,
     String status,
     Integer totalVersions
 ) {}
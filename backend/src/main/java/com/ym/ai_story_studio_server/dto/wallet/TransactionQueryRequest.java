@@ -12,6 +12,8 @@ import jakarta.validation.constraints.Min;
  * @param bizType 业务类型筛选(JOB/ORDER/INVITE等),可选
  * @param page 页码,默认1
  * @param size 每页大小,默认20,最大100
+ * @param cursor 游标分页:上一页返回的nextCursor(首页不传)
+ * @param withTotal 游标分页:是否统计总数(默认不统计)
  * @author Roo (Prometheus)
  * @since 1.0.0
  */
@@ -24,7 +26,10 @@ public record TransactionQueryRequest(
 
         @Min(value = 1, message = "每页大小必须大于0")
         @Max(value = 100, message = "每页大小不能超过100")
-        Integer size
+        Integer size,
+
+        String cursor,
+        Boolean withTotal
 ) {
     public TransactionQueryRequest {
         page = page == null ? 1 : page;
@@ -48,6 +48,46 @@ public class AssetVersion {
      */
     private String objectKey;
 
+    /**
+     * 原图大小（字节，可空）
+     */
+    private Long originalSize;
+
+    /**
+     * 交付副本URL（压缩格式，为空表示直接使用原图）
+     */
+    private String deliveryUrl;
+
+    /**
+     * 交付副本对象存储Key（可空）
+     */
+    private String deliveryObjectKey;
+
+    /**
+     * 交付副本格式：jpeg/png等（可空）
+     */
+    private String deliveryFormat;
+
+    /**
+     * 交付副本大小（字节，可空）
+     */
+    private Long deliverySize;
+
+    /**
+     * 小尺寸缩略图URL（默认长边160px，可空）
+     */
+    private String thumbSmallUrl;
+
+    /**
+     * 中尺寸缩略图URL（默认长边480px，可空）
+     */
+    private String thumbMediumUrl;
+
+    /**
+     * 大尺寸缩略图URL（默认长边1024px，可空）
+     */
+    private String thumbLargeUrl;
+
     /**
      * 生成提示词（可空）
      */
@@ -0,0 +1,61 @@
+package com.ym.ai_story_studio_server.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 导出清单条目（项目最近一次成功导出的压缩包内容，用于增量导出）
+ */
+@Data
+@TableName("export_manifest_entries")
+public class ExportManifestEntry {
+
+    /**
+     * 清单条目ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 项目ID
+     */
+    private Long projectId;
+
+    /**
+     * 生成该压缩包的导出任务ID
+     */
+    private Long jobId;
+
+    /**
+     * ZIP内的文件名
+     */
+    private String entryName;
+
+    /**
+     * 资产版本ID
+     */
+    private Long assetVersionId;
+
+    /**
+     * 条目内容来源URL（区分原图/交付副本）
+     */
+    private String sourceUrl;
+
+    /**
+     * 条目内容CRC-32校验值
+     */
+    private Long crc32;
+
+    /**
+     * 条目内容大小（字节）
+     */
+    private Long size;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
@@ -63,6 +63,24 @@ public class Project {
      */
     private String modelConfigJson;
 
+    /**
+     * 未删除分镜数量（冗余计数，只通过 {@code ProjectMapper.adjustShotCount} 增减）
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer shotCount;
+
+    /**
+     * 项目角色数量（冗余计数，只通过 {@code ProjectMapper.adjustCharacterCount} 增减）
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer characterCount;
+
+    /**
+     * 项目资产数量（冗余计数，只通过 {@code ProjectMapper.adjustAssetCount} 增减）
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer assetCount;
+
     /**
      * 创建时间
      */
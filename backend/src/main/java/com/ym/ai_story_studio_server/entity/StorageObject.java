@@ -0,0 +1,57 @@
+package com.ym.ai_story_studio_server.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 内容寻址存储对象（去重与引用计数）
+ */
+@Data
+@TableName("storage_objects")
+public class StorageObject {
+
+    /**
+     * 存储对象ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 对象存储Key（由内容摘要生成）
+     */
+    private String objectKey;
+
+    /**
+     * 内容SHA-256摘要（十六进制）
+     */
+    private String sha256;
+
+    /**
+     * 对象大小（字节）
+     */
+    private Long size;
+
+    /**
+     * MIME类型
+     */
+    private String contentType;
+
+    /**
+     * 引用计数（每次上传+1，每次删除-1）
+     */
+    private Integer refCount;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    @TableField(fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.ym.ai_story_studio_server.event;
+
+/**
+ * 资产版本创建事件
+ *
+ * <p>在AssetVersion记录插入后发布，事务提交后由监听方异步生成衍生副本（交付副本等）
+ *
+ * @param versionId 新建的资产版本ID
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public record AssetVersionCreatedEvent(Long versionId) {
+}
@@ -0,0 +1,15 @@
+package com.ym.ai_story_studio_server.event;
+
+/**
+ * 项目工作台数据变更事件
+ *
+ * <p>分镜、绑定、项目角色/场景/道具或资产发生写入时发布，事务提交后递增项目版本号，
+ * 使该项目的工作台快照缓存与ETag失效
+ *
+ * @param projectId 发生变更的项目ID
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public record ProjectWorkspaceChangedEvent(Long projectId) {
+}
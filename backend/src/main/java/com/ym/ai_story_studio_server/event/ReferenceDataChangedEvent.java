@@ -0,0 +1,18 @@
+package com.ym.ai_story_studio_server.event;
+
+import com.ym.ai_story_studio_server.service.ReferenceDataCache;
+
+/**
+ * 参考数据变更事件
+ *
+ * <p>模型、风格预设、指令模板、充值套餐等参考数据写入后发布，
+ * 事务提交后清除对应缓存并通过Redis广播到所有实例
+ *
+ * @param region 缓存区域
+ * @param key    缓存Key，为null时清除整个区域
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public record ReferenceDataChangedEvent(ReferenceDataCache.Region region, String key) {
+}
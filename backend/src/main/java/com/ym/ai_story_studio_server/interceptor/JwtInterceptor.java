@@ -1,9 +1,11 @@
 package com.ym.ai_story_studio_server.interceptor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ym.ai_story_studio_server.annotation.AdminOnly;
 import com.ym.ai_story_studio_server.annotation.NoAuth;
 import com.ym.ai_story_studio_server.common.Result;
 import com.ym.ai_story_studio_server.common.ResultCode;
+import com.ym.ai_story_studio_server.config.AdminProperties;
 import com.ym.ai_story_studio_server.config.JwtProperties;
 import com.ym.ai_story_studio_server.util.JwtUtil;
 import com.ym.ai_story_studio_server.util.UserContext;
@@ -28,6 +30,7 @@ import org.springframework.web.servlet.HandlerInterceptor;
  *   <li>从请求头提取JWT Token</li>
  *   <li>验证Token有效性（签名、过期时间）</li>
  *   <li>解析userId并存入Request Attribute和UserContext</li>
+ *   <li>标记@AdminOnly的接口校验当前用户是否为管理员</li>
  *   <li>认证失败时返回统一格式的错误响应</li>
  * </ul>
  *
@@ -37,7 +40,8 @@ import org.springframework.web.servlet.HandlerInterceptor;
  * 2. 提取Token → 无则返回401 UNAUTHORIZED
  * 3. 验证Token → 无效则返回对应错误码
  * 4. 解析userId → 存入上下文
- * 5. 放行请求
+ * 5. 检查@AdminOnly注解 → 非管理员返回403 ACCESS_DENIED
+ * 6. 放行请求
  * </pre>
  *
  * <p>错误码映射：
@@ -46,6 +50,7 @@ import org.springframework.web.servlet.HandlerInterceptor;
  *   <li>Token格式错误 → 40101 TOKEN_INVALID</li>
  *   <li>Token已过期 → 40102 TOKEN_EXPIRED</li>
  *   <li>签名验证失败 → 40101 TOKEN_INVALID</li>
+ *   <li>非管理员访问管理员接口 → 40103 ACCESS_DENIED</li>
  * </ul>
  */
 @Slf4j
@@ -55,6 +60,7 @@ public class JwtInterceptor implements HandlerInterceptor {
 
     private final JwtUtil jwtUtil;
     private final JwtProperties jwtProperties;
+    private final AdminProperties adminProperties;
     private final ObjectMapper objectMapper;
 
     /**
@@ -136,6 +142,14 @@ public class JwtInterceptor implements HandlerInterceptor {
             UserContext.setApiKey(apiKey.trim());
         }
 
+            // 11. 管理员接口校验
+            boolean adminOnly = handlerMethod.hasMethodAnnotation(AdminOnly.class)
+                    || handlerMethod.getBeanType().isAnnotationPresent(AdminOnly.class);
+            if (adminOnly && !adminProperties.isAdmin(userId)) {
+                log.warn("用户 {} 无权访问管理员接口: {}", userId, request.getRequestURI());
+                return handleError(response, HttpServletResponse.SC_FORBIDDEN, ResultCode.ACCESS_DENIED, "无权限访问");
+            }
+
             log.debug("用户 {} 通过JWT认证，访问接口: {}", userId, request.getRequestURI());
             return true;
 
@@ -181,7 +195,22 @@ public class JwtInterceptor implements HandlerInterceptor {
      * @throws Exception IO异常
      */
     private boolean handleAuthError(HttpServletResponse response, ResultCode resultCode, String message) throws Exception {
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        return handleError(response, HttpServletResponse.SC_UNAUTHORIZED, resultCode, message);
+    }
+
+    /**
+     * 按指定HTTP状态码返回统一格式的JSON错误响应
+     *
+     * @param response   HTTP响应
+     * @param status     HTTP状态码
+     * @param resultCode 错误码
+     * @param message    错误消息
+     * @return false（拦截请求）
+     * @throws Exception IO异常
+     */
+    private boolean handleError(HttpServletResponse response, int status, ResultCode resultCode, String message)
+            throws Exception {
+        response.setStatus(status);
         response.setContentType("application/json;charset=UTF-8");
 
         Result<Void> result = Result.error(resultCode, message);
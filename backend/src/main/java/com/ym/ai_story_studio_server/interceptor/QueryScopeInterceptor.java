@@ -0,0 +1,38 @@
+package com.ym.ai_story_studio_server.interceptor;
+
+import com.ym.ai_story_studio_server.service.QueryStatsService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * SQL查询作用域拦截器
+ *
+ * <p>为每个HTTP请求开启一个SQL查询作用域，作用域名称为 {@code 方法 + 空格 + 路由模板}
+ * （如 {@code GET /api/projects/{projectId}/shots}），同一接口的不同路径参数合并统计。
+ * 需要最先执行，使JWT校验等拦截器中的查询也计入
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryScopeInterceptor implements HandlerInterceptor {
+
+    private final QueryStatsService queryStatsService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        queryStatsService.beginScope(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        queryStatsService.endScope();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ym.ai_story_studio_server.interceptor;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.ym.ai_story_studio_server.service.QueryStatsService;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * MyBatis查询统计拦截器
+ *
+ * <p>拦截 {@link StatementHandler} 的query/update，即每一条真正发往数据库的SQL
+ * （包括分页插件生成的COUNT查询），记录耗时与返回/影响行数并上报 {@link QueryStatsService}
+ *
+ * <p>由 {@link com.ym.ai_story_studio_server.config.MyBatisPlusConfig} 注册
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class})
+})
+@RequiredArgsConstructor
+public class QueryStatsInterceptor implements Interceptor {
+
+    private final QueryStatsService queryStatsService;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!queryStatsService.isEnabled()) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        Object result = invocation.proceed();
+        long nanos = System.nanoTime() - start;
+
+        PluginUtils.MPStatementHandler handler = PluginUtils.mpStatementHandler(
+                PluginUtils.realTarget(invocation.getTarget()));
+        queryStatsService.recordStatement(handler.mappedStatement().getId(), handler.boundSql().getSql(),
+                nanos, rowsOf(result));
+        return result;
+    }
+
+    private int rowsOf(Object result) {
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        return -1;
+    }
+}
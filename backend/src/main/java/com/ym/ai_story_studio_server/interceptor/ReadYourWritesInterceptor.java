@@ -0,0 +1,95 @@
+package com.ym.ai_story_studio_server.interceptor;
+
+import com.ym.ai_story_studio_server.config.ReadReplicaProperties;
+import com.ym.ai_story_studio_server.util.ReplicaRoutingContext;
+import com.ym.ai_story_studio_server.util.UserContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * 读写一致性拦截器
+ *
+ * <p>开启只读副本路由后，保证用户读到自己刚写入的数据：
+ * <ul>
+ *   <li>写请求（POST/PUT/PATCH/DELETE）内的所有查询固定走主库</li>
+ *   <li>写请求开始时在Redis记录 {@code DB:STICKY:{userId}}，存活 {@code read-replica.sticky-seconds}，
+ *       结束时再续期一次。标记必须在响应写出之前存在：客户端收到响应后立即发起的读请求可能早于
+ *       afterCompletion执行</li>
+ *   <li>读请求发现该标记时同样固定走主库，标记过期后恢复副本路由</li>
+ * </ul>
+ *
+ * <p>标记放在Redis而不是进程内，多实例部署时写请求和随后的读请求落到不同实例也能生效。
+ * 需在JWT拦截器之后执行以获取userId，仅由 {@link com.ym.ai_story_studio_server.config.ReadReplicaConfig} 注册
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final String STICKY_KEY_PREFIX = "DB:STICKY:";
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final StringRedisTemplate redisTemplate;
+    private final ReadReplicaProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isWrite(request)) {
+            ReplicaRoutingContext.pinPrimary();
+            markSticky();
+            return true;
+        }
+        Long userId = UserContext.getUserId();
+        if (userId != null) {
+            try {
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(STICKY_KEY_PREFIX + userId))) {
+                    ReplicaRoutingContext.pinPrimary();
+                }
+            } catch (DataAccessException e) {
+                // 无法确认时宁可走主库
+                log.warn("查询读写一致性标记失败，本次请求走主库 - userId: {}", userId, e);
+                ReplicaRoutingContext.pinPrimary();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        try {
+            if (isWrite(request)) {
+                // 耗时较长的写请求结束时续期，保证写入完成后仍有完整的粘滞窗口
+                markSticky();
+            }
+        } finally {
+            ReplicaRoutingContext.clear();
+        }
+    }
+
+    private void markSticky() {
+        Long userId = UserContext.getUserId();
+        if (userId == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(STICKY_KEY_PREFIX + userId, "1",
+                    Duration.ofSeconds(properties.getStickySeconds()));
+        } catch (DataAccessException e) {
+            log.warn("写入读写一致性标记失败 - userId: {}", userId, e);
+        }
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        return WRITE_METHODS.contains(request.getMethod());
+    }
+}
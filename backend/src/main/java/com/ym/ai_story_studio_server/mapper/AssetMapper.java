@@ -1,12 +1,46 @@
 package com.ym.ai_story_studio_server.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ym.ai_story_studio_server.dto.asset.AssetStatusRow;
 import com.ym.ai_story_studio_server.entity.Asset;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 资产表 Mapper 接口
  */
 @Mapper
 public interface AssetMapper extends BaseMapper<Asset> {
+
+    /**
+     * 一次查询一批归属对象各类型最新资产的当前版本与版本总数
+     *
+     * <p>每个(归属对象, 资产类型)取创建时间最新的资产，再取该资产版本号最大的版本；
+     * 最新资产没有任何版本时不返回
+     *
+     * @param ownerType 归属对象类型
+     * @param ownerIds 归属对象ID集合(不能为空)
+     * @return 每个(归属对象, 资产类型)最多一行
+     */
+    @Select("<script>" +
+            "SELECT a.owner_id, a.asset_type, v.* FROM (" +
+            "  SELECT id, owner_id, asset_type, ROW_NUMBER() OVER (" +
+            "    PARTITION BY owner_id, asset_type ORDER BY created_at DESC, id DESC) AS asset_rank" +
+            "  FROM assets WHERE owner_type = #{ownerType} AND owner_id IN " +
+            "  <foreach collection='ownerIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            ") a JOIN (" +
+            "  SELECT av.*, ROW_NUMBER() OVER (PARTITION BY av.asset_id ORDER BY av.version_no DESC) AS version_rank," +
+            "    COUNT(*) OVER (PARTITION BY av.asset_id) AS total_versions" +
+            "  FROM asset_versions av JOIN assets x ON x.id = av.asset_id" +
+            "  WHERE x.owner_type = #{ownerType} AND x.owner_id IN " +
+            "  <foreach collection='ownerIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            ") v ON v.asset_id = a.id AND v.version_rank = 1 " +
+            "WHERE a.asset_rank = 1" +
+            "</script>")
+    List<AssetStatusRow> selectLatestStatuses(@Param("ownerType") String ownerType,
+                                              @Param("ownerIds") Collection<Long> ownerIds);
 }
@@ -1,12 +1,43 @@
 package com.ym.ai_story_studio_server.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ym.ai_story_studio_server.dto.export.RefVersionRow;
 import com.ym.ai_story_studio_server.entity.AssetRef;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 资产引用关系表 Mapper 接口
  */
 @Mapper
 public interface AssetRefMapper extends BaseMapper<AssetRef> {
+
+    /**
+     * 一次查询项目内某类引用当前选用的资产版本
+     *
+     * @param projectId 项目ID
+     * @param refType 引用类型
+     * @return 每个引用所有者的当前版本
+     */
+    @Select("SELECT r.ref_owner_id, v.* FROM asset_refs r " +
+            "JOIN asset_versions v ON v.id = r.asset_version_id " +
+            "WHERE r.project_id = #{projectId} AND r.ref_type = #{refType}")
+    List<RefVersionRow> selectCurrentVersions(@Param("projectId") Long projectId, @Param("refType") String refType);
+
+    /**
+     * 一次查询项目内某类引用所指资产的全部历史版本
+     *
+     * @param projectId 项目ID
+     * @param refType 引用类型
+     * @return 按引用所有者分组、版本号倒序排列的资产版本
+     */
+    @Select("SELECT r.ref_owner_id, v.* FROM asset_refs r " +
+            "JOIN asset_versions cur ON cur.id = r.asset_version_id " +
+            "JOIN asset_versions v ON v.asset_id = cur.asset_id " +
+            "WHERE r.project_id = #{projectId} AND r.ref_type = #{refType} " +
+            "ORDER BY r.ref_owner_id, v.version_no DESC")
+    List<RefVersionRow> selectAllVersions(@Param("projectId") Long projectId, @Param("refType") String refType);
 }
@@ -0,0 +1,31 @@
+package com.ym.ai_story_studio_server.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ym.ai_story_studio_server.entity.ExportManifestEntry;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 导出清单表 Mapper 接口
+ */
+@Mapper
+public interface ExportManifestEntryMapper extends BaseMapper<ExportManifestEntry> {
+
+    /**
+     * 一条多行INSERT批量写入清单条目(创建时间使用数据库默认值)
+     *
+     * @param entries 清单条目(不能为空)
+     * @return 插入行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO export_manifest_entries " +
+            "(project_id, job_id, entry_name, asset_version_id, source_url, crc32, size) VALUES " +
+            "<foreach collection='entries' item='e' separator=','>" +
+            "(#{e.projectId}, #{e.jobId}, #{e.entryName}, #{e.assetVersionId}, #{e.sourceUrl}, #{e.crc32}, #{e.size})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("entries") List<ExportManifestEntry> entries);
+}
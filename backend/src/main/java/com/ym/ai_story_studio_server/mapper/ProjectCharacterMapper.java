@@ -1,12 +1,41 @@
 package com.ym.ai_story_studio_server.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ym.ai_story_studio_server.dto.project.LibraryReferenceCount;
 import com.ym.ai_story_studio_server.entity.ProjectCharacter;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 项目角色表 Mapper 接口
  */
 @Mapper
 public interface ProjectCharacterMapper extends BaseMapper<ProjectCharacter> {
+
+    /**
+     * 一次分组查询一批角色库条目被引用的次数
+     *
+     * @param libraryIds 角色库ID集合(不能为空)
+     * @return 有引用的条目各一行(未被引用的条目不返回)
+     */
+    @Select("<script>" +
+            "SELECT library_character_id AS library_id, COUNT(*) AS reference_count FROM project_characters " +
+            "WHERE library_character_id IN " +
+            "<foreach collection='libraryIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY library_character_id" +
+            "</script>")
+    List<LibraryReferenceCount> countByLibraryIds(@Param("libraryIds") Collection<Long> libraryIds);
+
+    /**
+     * 查询引用了指定角色库条目的项目ID
+     *
+     * @param libraryId 角色库ID
+     * @return 去重后的项目ID
+     */
+    @Select("SELECT DISTINCT project_id FROM project_characters WHERE library_character_id = #{libraryId}")
+    List<Long> selectProjectIdsByLibraryId(@Param("libraryId") Long libraryId);
 }
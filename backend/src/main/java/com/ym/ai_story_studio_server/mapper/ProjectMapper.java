@@ -1,12 +1,67 @@
 package com.ym.ai_story_studio_server.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ym.ai_story_studio_server.dto.search.SearchHitRow;
 import com.ym.ai_story_studio_server.entity.Project;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 项目表 Mapper 接口
+ *
+ * <p>计数器在数据库内原子增减（不会低于0），显式保留 updated_at，计数变化不影响项目列表排序
  */
 @Mapper
 public interface ProjectMapper extends BaseMapper<Project> {
+
+    /**
+     * 增减未删除分镜数量
+     */
+    @Update("UPDATE projects SET shot_count = GREATEST(shot_count + #{delta}, 0), updated_at = updated_at "
+            + "WHERE id = #{projectId}")
+    int adjustShotCount(@Param("projectId") Long projectId, @Param("delta") int delta);
+
+    /**
+     * 增减项目角色数量
+     */
+    @Update("UPDATE projects SET character_count = GREATEST(character_count + #{delta}, 0), updated_at = updated_at "
+            + "WHERE id = #{projectId}")
+    int adjustCharacterCount(@Param("projectId") Long projectId, @Param("delta") int delta);
+
+    /**
+     * 增减项目资产数量
+     */
+    @Update("UPDATE projects SET asset_count = GREATEST(asset_count + #{delta}, 0), updated_at = updated_at "
+            + "WHERE id = #{projectId}")
+    int adjustAssetCount(@Param("projectId") Long projectId, @Param("delta") int delta);
+
+    /**
+     * 按名称全文搜索用户的项目，按相关度倒序、ID倒序分页
+     *
+     * @param userId 用户ID
+     * @param query BOOLEAN MODE查询串
+     * @param cursorScore 上一页最后一条的得分(首页为null)
+     * @param cursorId 上一页最后一条的ID(首页为null)
+     * @param limit 查询条数
+     * @return 命中行
+     */
+    @Select("<script>" +
+            "SELECT id, name AS title, updated_at," +
+            "  MATCH(name) AGAINST(#{query} IN BOOLEAN MODE) AS score " +
+            "FROM projects " +
+            "WHERE user_id = #{userId} AND deleted_at IS NULL" +
+            "  AND MATCH(name) AGAINST(#{query} IN BOOLEAN MODE)" +
+            "<if test='cursorScore != null'>" +
+            "  AND (MATCH(name) AGAINST(#{query} IN BOOLEAN MODE) &lt; #{cursorScore}" +
+            "    OR (MATCH(name) AGAINST(#{query} IN BOOLEAN MODE) = #{cursorScore} AND id &lt; #{cursorId}))" +
+            "</if>" +
+            " ORDER BY score DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<SearchHitRow> search(@Param("userId") Long userId, @Param("query") String query,
+                              @Param("cursorScore") Double cursorScore, @Param("cursorId") Long cursorId,
+                              @Param("limit") int limit);
 }
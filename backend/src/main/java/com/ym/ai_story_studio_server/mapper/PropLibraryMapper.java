@@ -1,12 +1,43 @@
 package com.ym.ai_story_studio_server.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ym.ai_story_studio_server.dto.search.SearchHitRow;
 import com.ym.ai_story_studio_server.entity.PropLibrary;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 全局道具库表 Mapper
  */
 @Mapper
 public interface PropLibraryMapper extends BaseMapper<PropLibrary> {
+
+    /**
+     * 按名称与描述全文搜索用户的道具库，按相关度倒序、ID倒序分页
+     *
+     * @param userId 用户ID
+     * @param query BOOLEAN MODE查询串
+     * @param cursorScore 上一页最后一条的得分(首页为null)
+     * @param cursorId 上一页最后一条的ID(首页为null)
+     * @param limit 查询条数
+     * @return 命中行
+     */
+    @Select("<script>" +
+            "SELECT id, name AS title, description AS body, updated_at," +
+            "  MATCH(name, description) AGAINST(#{query} IN BOOLEAN MODE) AS score " +
+            "FROM prop_library " +
+            "WHERE user_id = #{userId} AND deleted_at IS NULL" +
+            "  AND MATCH(name, description) AGAINST(#{query} IN BOOLEAN MODE)" +
+            "<if test='cursorScore != null'>" +
+            "  AND (MATCH(name, description) AGAINST(#{query} IN BOOLEAN MODE) &lt; #{cursorScore}" +
+            "    OR (MATCH(name, description) AGAINST(#{query} IN BOOLEAN MODE) = #{cursorScore} AND id &lt; #{cursorId}))" +
+            "</if>" +
+            " ORDER BY score DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<SearchHitRow> search(@Param("userId") Long userId, @Param("query") String query,
+                              @Param("cursorScore") Double cursorScore, @Param("cursorId") Long cursorId,
+                              @Param("limit") int limit);
 }
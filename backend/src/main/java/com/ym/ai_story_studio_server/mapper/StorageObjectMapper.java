@@ -0,0 +1,20 @@
+package com.ym.ai_story_studio_server.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ym.ai_story_studio_server.entity.StorageObject;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 内容寻址存储对象表 Mapper 接口
+ */
+@Mapper
+public interface StorageObjectMapper extends BaseMapper<StorageObject> {
+
+    /**
+     * 按对象Key查询并加行锁（需在事务内调用，记录不存在时锁住该Key的间隙，阻止并发登记）
+     */
+    @Select("SELECT * FROM storage_objects WHERE object_key = #{objectKey} FOR UPDATE")
+    StorageObject selectForUpdate(@Param("objectKey") String objectKey);
+}
@@ -1,12 +1,46 @@
 package com.ym.ai_story_studio_server.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.ym.ai_story_studio_server.dto.search.SearchHitRow;
 import com.ym.ai_story_studio_server.entity.StoryboardShot;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * 分镜表 Mapper 接口
  */
 @Mapper
 public interface StoryboardShotMapper extends BaseMapper<StoryboardShot> {
+
+    /**
+     * 按剧本文本全文搜索用户未删除项目中的分镜，按相关度倒序、ID倒序分页
+     *
+     * @param userId 用户ID
+     * @param projectId 项目ID(为null时搜索全部项目)
+     * @param query BOOLEAN MODE查询串
+     * @param cursorScore 上一页最后一条的得分(首页为null)
+     * @param cursorId 上一页最后一条的ID(首页为null)
+     * @param limit 查询条数
+     * @return 命中行
+     */
+    @Select("<script>" +
+            "SELECT s.id, s.project_id, s.shot_no, p.name AS title, s.script_text AS body, s.updated_at," +
+            "  MATCH(s.script_text) AGAINST(#{query} IN BOOLEAN MODE) AS score " +
+            "FROM storyboard_shots s JOIN projects p ON p.id = s.project_id " +
+            "WHERE p.user_id = #{userId} AND p.deleted_at IS NULL AND s.deleted_at IS NULL" +
+            "  AND MATCH(s.script_text) AGAINST(#{query} IN BOOLEAN MODE)" +
+            "<if test='projectId != null'> AND s.project_id = #{projectId}</if>" +
+            "<if test='cursorScore != null'>" +
+            "  AND (MATCH(s.script_text) AGAINST(#{query} IN BOOLEAN MODE) &lt; #{cursorScore}" +
+            "    OR (MATCH(s.script_text) AGAINST(#{query} IN BOOLEAN MODE) = #{cursorScore} AND s.id &lt; #{cursorId}))" +
+            "</if>" +
+            " ORDER BY score DESC, s.id DESC LIMIT #{limit}" +
+            "</script>")
+    List<SearchHitRow> search(@Param("userId") Long userId, @Param("projectId") Long projectId,
+                              @Param("query") String query,
+                              @Param("cursorScore") Double cursorScore, @Param("cursorId") Long cursorId,
+                              @Param("limit") int limit);
 }
@@ -3,6 +3,7 @@ package com.ym.ai_story_studio_server.mq;
 import com.rabbitmq.client.Channel;
 import com.ym.ai_story_studio_server.client.VectorEngineClient;
 import com.ym.ai_story_studio_server.client.VectorEngineClient.ImageApiResponse;
+import com.ym.ai_story_studio_server.common.AssetRendition;
 import com.ym.ai_story_studio_server.config.AiProperties;
 import com.ym.ai_story_studio_server.dto.ai.VideoGenerateRequest;
 import com.ym.ai_story_studio_server.entity.Job;
@@ -16,6 +17,7 @@ import com.ym.ai_story_studio_server.entity.PropLibrary;
 import com.ym.ai_story_studio_server.entity.ProjectProp;
 import com.ym.ai_story_studio_server.entity.SceneLibrary;
 import com.ym.ai_story_studio_server.entity.ShotBinding;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
 import com.ym.ai_story_studio_server.mapper.AssetMapper;
 import com.ym.ai_story_studio_server.mapper.AssetRefMapper;
 import com.ym.ai_story_studio_server.mapper.AssetVersionMapper;
@@ -34,12 +36,14 @@ import com.ym.ai_story_studio_server.service.AsyncVideoTaskService;
 import com.ym.ai_story_studio_server.service.AssetCreationService;
 import com.ym.ai_story_studio_server.service.ChargingService;
 import com.ym.ai_story_studio_server.service.StorageService;
+import com.ym.ai_story_studio_server.util.ImageCodec;
 import com.ym.ai_story_studio_server.util.ImageMergeUtil;
 import com.ym.ai_story_studio_server.util.UserContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayInputStream;
@@ -98,6 +102,7 @@ public class MQConsumer {
     private final SceneLibraryMapper sceneLibraryMapper;
     private final ShotBindingMapper shotBindingMapper;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 消费批量生成分镜图任务
@@ -827,9 +832,11 @@ public class MQConsumer {
 
         try {
             byte[] mergedImageBytes = imageMergeUtil.mergeImagesGridWithLabels(items);
+            ImageCodec codec = imageMergeUtil.getOutputCodec();
             String mergedUrl = storageService.uploadImageBytes(
                     mergedImageBytes,
-                    "merged_video_ref_" + System.currentTimeMillis() + ".png"
+                    "merged_video_ref_" + System.currentTimeMillis() + codec.getExtension(),
+                    codec.getContentType()
             );
             log.info("参考图已拼接并上传: {}", mergedUrl);
             return mergedUrl;
@@ -1033,11 +1040,13 @@ public class MQConsumer {
                         // 自定义角色：保存到项目角色表
                         projectCharacter.setThumbnailUrl(primaryOssUrl);
                         projectCharacterMapper.updateById(projectCharacter);
+                        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
                         log.info("自定义角色图片保存成功 - projectCharacterId: {}, ossUrl: {}", projectCharacterId, primaryOssUrl);
                     } else {
                         // 关联角色库：保存到角色库表
                         character.setThumbnailUrl(primaryOssUrl);
                         characterLibraryMapper.updateById(character);
+                        notifyReferencingProjects(projectCharacterMapper.selectProjectIdsByLibraryId(character.getId()));
                         log.info("角色库图片更新成功 - characterId: {}, ossUrl: {}", character.getId(), primaryOssUrl);
                     }
 
@@ -1218,10 +1227,12 @@ public class MQConsumer {
                     // 9. 保存缩略图URL（优先保存到项目场景）
                     projectScene.setThumbnailUrl(ossUrl);
                     projectSceneMapper.updateById(projectScene);
+                    eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
                     // 如果关联了场景库，也更新场景库
                     if (scene != null) {
                         scene.setThumbnailUrl(ossUrl);
                         sceneLibraryMapper.updateById(scene);
+                        notifyReferencingProjects(projectSceneMapper.selectProjectIdsByLibraryId(scene.getId()));
                     }
 
                     log.info("场景图片生成成功 - projectSceneId: {}, ossUrl: {}", projectSceneId, ossUrl);
@@ -1419,6 +1430,7 @@ public class MQConsumer {
                     } else {
                         prop.setThumbnailUrl(primaryOssUrl);
                         propLibraryMapper.updateById(prop);
+                        notifyReferencingProjects(projectPropMapper.selectProjectIdsByLibraryId(prop.getId()));
                     }
 
                     log.info("道具图片生成成功 - propId: {}, 总图片数: {}, 主图: {}", 
@@ -1538,6 +1550,17 @@ public class MQConsumer {
         log.info("Job状态更新为SUCCEEDED - jobId: {}, 成功: {}, 失败: {}", jobId, successCount, failCount);
     }
 
+    /**
+     * 库条目缩略图更新后，通知所有引用它的项目刷新工作区快照
+     *
+     * @param projectIds 引用该库条目的项目ID
+     */
+    private void notifyReferencingProjects(List<Long> projectIds) {
+        for (Long projectId : projectIds) {
+            eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
+        }
+    }
+
     /**
      * 更新Job状态为成功，并保存所有生成的图片URL
      *
@@ -1916,7 +1939,7 @@ public class MQConsumer {
                        .last("LIMIT 1");
             
             AssetVersion version = assetVersionMapper.selectOne(versionQuery);
-            return version != null ? version.getUrl() : null;
+            return AssetRendition.DELIVERY.resolveUrl(version);
             
         } catch (Exception e) {
             log.error("查询角色资产失败 - characterId: {}", characterId, e);
@@ -1943,7 +1966,7 @@ public class MQConsumer {
                     .orderByDesc(AssetVersion::getVersionNo)
                     .last("LIMIT 1");
             AssetVersion version = assetVersionMapper.selectOne(versionQuery);
-            return version != null ? version.getUrl() : null;
+            return AssetRendition.DELIVERY.resolveUrl(version);
         } catch (Exception e) {
             log.error("查询道具资产失败 - propId: {}", propId, e);
             return null;
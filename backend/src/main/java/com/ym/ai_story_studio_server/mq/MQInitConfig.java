@@ -1,11 +1,19 @@
 package com.ym.ai_story_studio_server.mq;
 
+import com.ym.ai_story_studio_server.service.QueryStatsService;
 import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,7 +21,7 @@ import java.util.Map;
 /**
  * MQ初始化配置
  * 
- * <p>声明交换机、队列、绑定关系
+ * <p>声明交换机、队列、绑定关系，配置监听容器
  * 
  * @author AI Story Studio
  * @since 1.0.0
@@ -41,6 +49,43 @@ public class MQInitConfig {
         return converter;
     }
 
+    // ==================== 监听容器配置 ====================
+
+    /**
+     * 监听容器工厂
+     *
+     * <p>沿用Spring Boot的默认配置（含spring.rabbitmq.listener.simple.*），
+     * 额外在通知链末尾加入SQL查询作用域：每条消息一个作用域，名称为 {@code MQ + 空格 + 队列名}
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            QueryStatsService queryStatsService) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        MethodInterceptor queryScope = invocation -> {
+            Object data = invocation.getArguments()[1];
+            String queue = data instanceof Message message
+                    ? message.getMessageProperties().getConsumerQueue()
+                    : "batch";
+            queryStatsService.beginScope("MQ " + queue);
+            try {
+                return invocation.proceed();
+            } finally {
+                queryStatsService.endScope();
+            }
+        };
+        List<Advice> adviceChain = new ArrayList<>();
+        if (factory.getAdviceChain() != null) {
+            adviceChain.addAll(Arrays.asList(factory.getAdviceChain()));
+        }
+        adviceChain.add(queryScope);
+        factory.setAdviceChain(adviceChain.toArray(new Advice[0]));
+        return factory;
+    }
+
     // ==================== 交换机声明 ====================
     
     /**
@@ -0,0 +1,707 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.ym.ai_story_studio_server.config.StorageProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 下载代理磁盘缓存服务
+ *
+ * <p>编辑器预览、导出和参考图内联会反复拉取同一批分镜图片与视频，
+ * 本服务把拉取结果落到本地磁盘，后续请求直接从缓存文件发送：
+ * <ul>
+ *   <li>缓存Key由调用方给出（URL，对象存储再拼上ETag作为版本），文件名为Key的SHA-256</li>
+ *   <li>总容量超过 {@code storage.cache.max-size-mb} 时按最近最少使用（LRU）淘汰，
+ *       通过 {@link Lease} 正在发送的文件不会被淘汰，租约关闭后再补做淘汰</li>
+ *   <li>没有版本信息的条目（普通URL）可以指定有效期，过期后重新回源</li>
+ *   <li>同一Key的并发未命中合并为一次拉取，其余请求等待该次拉取结果</li>
+ *   <li>{@link #readThrough} 边回源边写缓存，调用方不必等待整文件落盘即可开始发送</li>
+ *   <li>条目正被租用（发送中）时不替换其文件，本次回源的内容单独租给调用方，租约关闭时删除</li>
+ *   <li>超过 {@code storage.cache.max-entry-mb} 的文件不落盘，返回null由调用方直接透传</li>
+ * </ul>
+ *
+ * <p>索引只保存在内存中，启动时扫描缓存目录按修改时间重建；
+ * 命中率与节省的回源字节数通过 {@link #stats()} 查询，并按固定查询次数输出日志
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetCacheService {
+
+    private static final String TEMP_DIR = ".tmp";
+    private static final long MB = 1024L * 1024L;
+
+    private final StorageProperties storageProperties;
+
+    /**
+     * LRU索引（访问顺序），所有访问需持有 {@code this} 锁
+     */
+    private final LinkedHashMap<String, CachedFile> index = new LinkedHashMap<>(256, 0.75f, true);
+
+    /**
+     * 各条目未关闭的租约数，需持有 {@code this} 锁
+     */
+    private final Map<String, Integer> pins = new HashMap<>();
+    private final Map<String, CompletableFuture<CachedFile>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> prefetching = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+
+    private long totalBytes;
+    private Path cacheDir;
+    private Path tempDir;
+    private ExecutorService prefetchExecutor;
+
+    /**
+     * 缓存文件
+     *
+     * @param file        缓存文件路径
+     * @param size        文件大小（字节）
+     * @param contentType 回源时得到的MIME类型，重启后重建的条目为null
+     * @param fetchedAt   回源时间（毫秒时间戳），重启后重建的条目取文件修改时间
+     */
+    public record CachedFile(Path file, long size, String contentType, long fetchedAt) {
+    }
+
+    /**
+     * 缓存文件租约
+     *
+     * <p>租约未关闭前文件不会被LRU淘汰，发送完成后必须关闭（可重复关闭）
+     */
+    public final class Lease implements AutoCloseable {
+
+        /**
+         * 条目ID，为null表示未登记到缓存的独立文件，关闭时删除
+         */
+        private final String id;
+        private final CachedFile file;
+        private boolean closed;
+
+        private Lease(String id, CachedFile file) {
+            this.id = id;
+            this.file = file;
+        }
+
+        /**
+         * 租用的缓存文件
+         */
+        public CachedFile file() {
+            return file;
+        }
+
+        @Override
+        public void close() {
+            synchronized (AssetCacheService.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (id != null) {
+                    unpin(id);
+                    return;
+                }
+            }
+            deleteQuietly(file.file());
+        }
+    }
+
+    /**
+     * 回源结果
+     *
+     * @param stream        内容输入流（由缓存服务负责关闭）
+     * @param contentType   MIME类型，未知时为null
+     * @param contentLength 内容长度（字节），未知时为-1
+     */
+    public record Source(InputStream stream, String contentType, long contentLength) {
+    }
+
+    /**
+     * 回源拉取函数
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+
+        /**
+         * 打开源内容
+         *
+         * @return 回源结果
+         * @throws IOException 拉取失败时抛出
+         */
+        Source fetch() throws IOException;
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @param hits       命中次数（含合并到进行中拉取的请求）
+     * @param misses     未命中（实际回源）次数
+     * @param coalesced  合并到进行中拉取的请求次数
+     * @param hitRatio   命中率
+     * @param bytesSaved 命中节省的回源字节数
+     * @param evictions  淘汰次数
+     * @param entries    当前缓存文件数
+     * @param totalBytes 当前缓存总字节数
+     * @param maxBytes   缓存容量上限（字节）
+     */
+    public record CacheStats(long hits, long misses, long coalesced, double hitRatio, long bytesSaved,
+                             long evictions, int entries, long totalBytes, long maxBytes) {
+    }
+
+    /**
+     * 初始化缓存目录并从磁盘重建索引
+     */
+    @PostConstruct
+    public void init() {
+        StorageProperties.CacheConfig config = storageProperties.getCache();
+        if (!config.isEnabled()) {
+            log.info("下载代理磁盘缓存未开启");
+            return;
+        }
+
+        try {
+            cacheDir = Paths.get(config.getDir()).toAbsolutePath().normalize();
+            tempDir = cacheDir.resolve(TEMP_DIR);
+            Files.createDirectories(tempDir);
+            try (Stream<Path> leftovers = Files.list(tempDir)) {
+                leftovers.forEach(this::deleteQuietly);
+            }
+            rebuildIndex();
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Asset-Cache-Prefetch-");
+            threadFactory.setDaemon(true);
+            prefetchExecutor = Executors.newFixedThreadPool(Math.max(1, config.getPrefetchThreads()), threadFactory);
+            log.info("下载代理磁盘缓存初始化完成: dir={}, entries={}, totalBytes={}",
+                    cacheDir, index.size(), totalBytes);
+        } catch (IOException e) {
+            log.error("下载代理磁盘缓存初始化失败，缓存不可用: dir={}", config.getDir(), e);
+            cacheDir = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 缓存是否可用
+     */
+    public boolean isEnabled() {
+        return cacheDir != null && storageProperties.getCache().isEnabled();
+    }
+
+    /**
+     * 判断已知大小的文件是否可以缓存（缓存可用且不超过单文件上限）
+     *
+     * @param size 文件大小（字节）
+     */
+    public boolean accepts(long size) {
+        return isEnabled() && size <= storageProperties.getCache().getMaxEntryMb() * MB;
+    }
+
+    /**
+     * 获取缓存文件，未命中时回源拉取并写入缓存
+     *
+     * <p>不持有租约，返回的文件随时可能被淘汰；需要读取文件内容时使用 {@link #open}
+     *
+     * @param key     缓存Key（URL，需要区分版本时拼上ETag等版本标识）
+     * @param fetcher 回源拉取函数
+     * @return 缓存文件，文件超过单文件上限未缓存时返回null
+     * @throws IOException 回源失败时抛出
+     */
+    public CachedFile get(String key, Fetcher fetcher) throws IOException {
+        try (Lease lease = open(key, 0, fetcher)) {
+            return lease != null ? lease.file() : null;
+        }
+    }
+
+    /**
+     * 租用缓存文件，未命中或已过期时回源拉取并写入缓存
+     *
+     * @param key          缓存Key（URL，需要区分版本时拼上ETag等版本标识）
+     * @param maxAgeMillis 条目有效期（毫秒），回源时间早于该时长的条目重新回源；0表示不过期
+     * @param fetcher      回源拉取函数
+     * @return 缓存文件租约（调用方负责关闭），文件超过单文件上限未缓存时返回null
+     * @throws IOException 回源失败时抛出
+     */
+    public Lease open(String key, long maxAgeMillis, Fetcher fetcher) throws IOException {
+        String id = digest(key);
+        recordLookup();
+
+        Lease lease = pinIfFresh(id, maxAgeMillis);
+        if (lease != null) {
+            hits.increment();
+            bytesSaved.add(lease.file().size());
+            return lease;
+        }
+
+        CompletableFuture<CachedFile> pending = new CompletableFuture<>();
+        CompletableFuture<CachedFile> existing = inFlight.putIfAbsent(id, pending);
+        if (existing != null) {
+            CachedFile shared = await(existing);
+            if (shared == null) {
+                return null;
+            }
+            lease = pinIfFresh(id, 0);
+            if (lease == null) {
+                // 拉取完成后、租用之前已被淘汰
+                return open(key, maxAgeMillis, fetcher);
+            }
+            hits.increment();
+            coalesced.increment();
+            bytesSaved.add(shared.size());
+            return lease;
+        }
+
+        try {
+            // 占位前另一请求可能刚完成拉取
+            lease = pinIfFresh(id, maxAgeMillis);
+            if (lease == null) {
+                misses.increment();
+                lease = fetchInto(id, fetcher);
+            } else {
+                hits.increment();
+                bytesSaved.add(lease.file().size());
+            }
+            pending.complete(lease != null ? lease.file() : null);
+            return lease;
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, pending);
+        }
+    }
+
+    /**
+     * 回源并返回边读边写缓存的输入流
+     *
+     * <p>调用方读取源内容的同时写入临时文件，读到末尾后登记为缓存条目；
+     * 未读完就关闭（如客户端断开）或超过单文件上限时丢弃临时文件。
+     * 缓存不可用或同一Key正在拉取时只回源、不写缓存。
+     * 写缓存失败只影响缓存，不影响调用方读取
+     *
+     * @param key     缓存Key
+     * @param fetcher 回源拉取函数
+     * @return 源内容输入流（调用方负责关闭）
+     * @throws IOException 回源失败时抛出
+     */
+    public InputStream readThrough(String key, Fetcher fetcher) throws IOException {
+        String id = digest(key);
+        CompletableFuture<CachedFile> pending = new CompletableFuture<>();
+        if (!isEnabled() || inFlight.putIfAbsent(id, pending) != null) {
+            return fetcher.fetch().stream();
+        }
+
+        misses.increment();
+        Source source;
+        try {
+            source = fetcher.fetch();
+        } catch (IOException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            inFlight.remove(id, pending);
+            throw e;
+        }
+
+        long maxEntryBytes = storageProperties.getCache().getMaxEntryMb() * MB;
+        if (source.contentLength() <= maxEntryBytes) {
+            try {
+                Path temp = Files.createTempFile(tempDir, id, ".part");
+                return new FillingInputStream(id, source, temp, maxEntryBytes, pending);
+            } catch (IOException e) {
+                log.warn("创建缓存临时文件失败，本次不缓存: id={}, error={}", id, e.getMessage());
+            }
+        }
+        pending.complete(null);
+        inFlight.remove(id, pending);
+        return source.stream();
+    }
+
+    /**
+     * 只查询不回源：命中时租用缓存文件
+     *
+     * @param key 缓存Key
+     * @return 缓存文件租约（调用方负责关闭），未命中时返回null
+     */
+    public Lease openIfPresent(String key) {
+        String id = digest(key);
+        recordLookup();
+        Lease lease = pinIfFresh(id, 0);
+        if (lease != null) {
+            hits.increment();
+            bytesSaved.add(lease.file().size());
+        }
+        return lease;
+    }
+
+    /**
+     * 在后台线程回源并写入缓存，同一Key已在拉取中时忽略
+     *
+     * <p>用于Range请求未命中：本次请求只拉取需要的区间，整文件在后台补齐，后续请求直接命中
+     *
+     * @param key     缓存Key
+     * @param fetcher 回源拉取函数
+     */
+    public void prefetch(String key, Fetcher fetcher) {
+        if (!isEnabled()) {
+            return;
+        }
+        String id = digest(key);
+        if (inFlight.containsKey(id) || !prefetching.add(id)) {
+            return;
+        }
+        prefetchExecutor.execute(() -> {
+            try (Lease ignored = open(key, 0, fetcher)) {
+                log.debug("后台补齐缓存完成: id={}", id);
+            } catch (IOException | RuntimeException e) {
+                log.warn("后台补齐缓存失败: key={}, error={}", key, e.getMessage());
+            } finally {
+                prefetching.remove(id);
+            }
+        });
+    }
+
+    /**
+     * 查询缓存统计
+     */
+    public CacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        int entries;
+        long bytes;
+        synchronized (this) {
+            entries = index.size();
+            bytes = totalBytes;
+        }
+        return new CacheStats(hitCount, missCount, coalesced.sum(),
+                total == 0 ? 0 : (double) hitCount / total, bytesSaved.sum(),
+                evictions.sum(), entries, bytes, storageProperties.getCache().getMaxSizeMb() * MB);
+    }
+
+    /**
+     * 命中且未过期时加租约
+     */
+    private synchronized Lease pinIfFresh(String id, long maxAgeMillis) {
+        CachedFile cached = lookup(id);
+        if (cached == null
+                || (maxAgeMillis > 0 && System.currentTimeMillis() - cached.fetchedAt() > maxAgeMillis)) {
+            return null;
+        }
+        pins.merge(id, 1, Integer::sum);
+        return new Lease(id, cached);
+    }
+
+    private synchronized void unpin(String id) {
+        pins.computeIfPresent(id, (k, count) -> count > 1 ? count - 1 : null);
+        evictIfNeeded();
+    }
+
+    private synchronized CachedFile lookup(String id) {
+        CachedFile cached = index.get(id);
+        if (cached != null && !Files.isRegularFile(cached.file())) {
+            // 缓存目录被外部清理
+            index.remove(id);
+            totalBytes -= cached.size();
+            return null;
+        }
+        return cached;
+    }
+
+    private Lease fetchInto(String id, Fetcher fetcher) throws IOException {
+        long maxEntryBytes = storageProperties.getCache().getMaxEntryMb() * MB;
+        Path temp = Files.createTempFile(tempDir, id, ".part");
+        boolean detached = false;
+        try {
+            Source source = fetcher.fetch();
+            if (source.contentLength() > maxEntryBytes) {
+                source.stream().close();
+                log.debug("文件超过单文件缓存上限，不缓存: id={}, size={}", id, source.contentLength());
+                return null;
+            }
+            long size = 0;
+            try (InputStream in = source.stream();
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxEntryBytes) {
+                        log.debug("文件超过单文件缓存上限，不缓存: id={}", id);
+                        return null;
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            CachedFile cached = install(id, temp, size, source.contentType(), true);
+            if (cached == null) {
+                // 旧文件正在发送，本次内容作为独立文件租给调用方
+                detached = true;
+                return new Lease(null, new CachedFile(temp, size, source.contentType(), System.currentTimeMillis()));
+            }
+            return new Lease(id, cached);
+        } finally {
+            if (!detached) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    /**
+     * 把临时文件登记为缓存条目
+     *
+     * <p>与加租约在同一把锁内判断：条目仍被租用时不替换文件（发送中的读取方按路径打开文件），返回null
+     *
+     * @param pin 是否同时加租约
+     * @return 缓存文件，条目被租用时返回null
+     */
+    private synchronized CachedFile install(String id, Path temp, long size, String contentType, boolean pin)
+            throws IOException {
+        if (pins.containsKey(id)) {
+            log.debug("缓存条目正被租用，不替换: id={}", id);
+            return null;
+        }
+        Path target = cacheDir.resolve(id.substring(0, 2)).resolve(id);
+        Files.createDirectories(target.getParent());
+        CachedFile previous = index.remove(id);
+        if (previous != null) {
+            totalBytes -= previous.size();
+        }
+        Files.deleteIfExists(target);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        CachedFile cached = new CachedFile(target, size, contentType, System.currentTimeMillis());
+        index.put(id, cached);
+        totalBytes += size;
+        if (pin) {
+            pins.merge(id, 1, Integer::sum);
+        }
+        evictIfNeeded();
+        return cached;
+    }
+
+    /**
+     * 边读边写缓存的源内容输入流，读到末尾时登记缓存条目，关闭时结束本次拉取
+     */
+    private final class FillingInputStream extends InputStream {
+
+        private final String id;
+        private final Source source;
+        private final Path temp;
+        private final long maxEntryBytes;
+        private final CompletableFuture<CachedFile> pending;
+        private OutputStream out;
+        private long size;
+        private CachedFile installed;
+
+        private FillingInputStream(String id, Source source, Path temp, long maxEntryBytes,
+                                   CompletableFuture<CachedFile> pending) throws IOException {
+            this.id = id;
+            this.source = source;
+            this.temp = temp;
+            this.maxEntryBytes = maxEntryBytes;
+            this.pending = pending;
+            this.out = Files.newOutputStream(temp);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int read = read(one, 0, 1);
+            return read == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = source.stream().read(buffer, offset, length);
+            if (read == -1) {
+                finish();
+            } else if (read > 0 && out != null) {
+                size += read;
+                try {
+                    if (size > maxEntryBytes) {
+                        log.debug("文件超过单文件缓存上限，不缓存: id={}", id);
+                        abandon();
+                    } else {
+                        out.write(buffer, offset, read);
+                    }
+                } catch (IOException e) {
+                    log.warn("写入缓存文件失败，本次不缓存: id={}, error={}", id, e.getMessage());
+                    abandon();
+                }
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return source.stream().available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                source.stream().close();
+            } finally {
+                abandon();
+                deleteQuietly(temp);
+                pending.complete(installed);
+                inFlight.remove(id, pending);
+            }
+        }
+
+        private void finish() {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.close();
+                out = null;
+                installed = install(id, temp, size, source.contentType(), false);
+            } catch (IOException e) {
+                log.warn("登记缓存文件失败，本次不缓存: id={}, error={}", id, e.getMessage());
+            }
+        }
+
+        private void abandon() {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.debug("关闭缓存临时文件失败: id={}", id, e);
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * 按LRU顺序淘汰，直到总容量回到上限以内（持有租约的条目不淘汰）
+     */
+    private void evictIfNeeded() {
+        long maxBytes = storageProperties.getCache().getMaxSizeMb() * MB;
+        Iterator<Map.Entry<String, CachedFile>> it = index.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, CachedFile> eldest = it.next();
+            if (pins.containsKey(eldest.getKey())) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue().size();
+            evictions.increment();
+            deleteQuietly(eldest.getValue().file());
+        }
+    }
+
+    private void rebuildIndex() throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(cacheDir, 2)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(file -> !file.startsWith(tempDir))
+                    .sorted(Comparator.comparing(this::lastModifiedQuietly))
+                    .toList();
+        }
+        synchronized (this) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                index.put(file.getFileName().toString(),
+                        new CachedFile(file, size, null, lastModifiedQuietly(file).toMillis()));
+                totalBytes += size;
+            }
+            evictIfNeeded();
+        }
+    }
+
+    private CachedFile await(CompletableFuture<CachedFile> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待缓存拉取被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("缓存拉取失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void recordLookup() {
+        lookups.increment();
+        int interval = storageProperties.getCache().getStatsLogInterval();
+        if (interval > 0 && lookups.sum() % interval == 0) {
+            CacheStats stats = stats();
+            log.info("下载代理缓存统计: hitRatio={}, hits={}, misses={}, coalesced={}, bytesSaved={}, "
+                            + "evictions={}, entries={}, totalBytes={}",
+                    String.format("%.3f", stats.hitRatio()), stats.hits(), stats.misses(), stats.coalesced(),
+                    stats.bytesSaved(), stats.evictions(), stats.entries(), stats.totalBytes());
+        }
+    }
+
+    private FileTime lastModifiedQuietly(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String digest(String key) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除缓存文件失败: file={}", file, e);
+        }
+    }
+}
@@ -2,10 +2,14 @@ package com.ym.ai_story_studio_server.service;
 
 import com.ym.ai_story_studio_server.entity.Asset;
 import com.ym.ai_story_studio_server.entity.AssetVersion;
+import com.ym.ai_story_studio_server.event.AssetVersionCreatedEvent;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
 import com.ym.ai_story_studio_server.mapper.AssetMapper;
 import com.ym.ai_story_studio_server.mapper.AssetVersionMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +28,8 @@ public class AssetCreationService {
 
     private final AssetMapper assetMapper;
     private final AssetVersionMapper assetVersionMapper;
+    private final ProjectMapper projectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建资产并保存第一个版本
@@ -60,6 +66,9 @@ public class AssetCreationService {
         asset.setOwnerId(ownerId);
         asset.setAssetType(assetType);
         assetMapper.insert(asset);
+        if (projectId != null) {
+            projectMapper.adjustAssetCount(projectId, 1);
+        }
 
         log.info("Asset创建成功 - assetId: {}, ownerType: {}, ownerId: {}", asset.getId(), ownerType, ownerId);
 
@@ -81,6 +90,8 @@ public class AssetCreationService {
         }
 
         assetVersionMapper.insert(version);
+        eventPublisher.publishEvent(new AssetVersionCreatedEvent(version.getId()));
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
 
         log.info("AssetVersion创建成功 - versionId: {}, assetId: {}, url: {}", 
                 version.getId(), asset.getId(), ossUrl);
@@ -0,0 +1,288 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.ym.ai_story_studio_server.common.AssetRendition;
+import com.ym.ai_story_studio_server.config.ImageProperties;
+import com.ym.ai_story_studio_server.entity.Asset;
+import com.ym.ai_story_studio_server.entity.AssetVersion;
+import com.ym.ai_story_studio_server.event.AssetVersionCreatedEvent;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
+import com.ym.ai_story_studio_server.mapper.AssetMapper;
+import com.ym.ai_story_studio_server.mapper.AssetVersionMapper;
+import com.ym.ai_story_studio_server.util.ImageCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 资产副本服务
+ *
+ * <p>在资产版本创建后异步生成派生副本，原图只下载、解码一次：
+ * <ul>
+ *   <li>原图（通常为AI输出的PNG）保留为归档副本，URL不变</li>
+ *   <li>交付副本：按配置转码为体积更小的格式（默认JPEG），记录到delivery_*字段；
+ *       转码收益不足时直接以原图作为交付副本</li>
+ *   <li>缩略图：按小/中/大三档长边尺寸缩放，记录到thumb_*_url字段；
+ *       原图不超过该尺寸时直接复用交付副本</li>
+ * </ul>
+ *
+ * <p>派生文件与原图存放在同一目录下。读取方通过
+ * {@link com.ym.ai_story_studio_server.common.AssetRendition} 选择需要的副本，
+ * 副本生成失败不影响原图的使用
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetRenditionService {
+
+    /**
+     * 已经是压缩格式的扩展名，无需再转码
+     */
+    private static final Set<String> COMPACT_EXTENSIONS = Set.of(".jpg", ".jpeg", ".webp", ".gif");
+
+    private final AssetMapper assetMapper;
+    private final AssetVersionMapper assetVersionMapper;
+    private final StorageService storageService;
+    private final ImageProperties imageProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 监听资产版本创建事件（事务提交后异步执行）
+     *
+     * @param event 资产版本创建事件
+     */
+    @Async("taskExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssetVersionCreated(AssetVersionCreatedEvent event) {
+        try {
+            generateRenditions(event.versionId());
+        } catch (Exception e) {
+            log.warn("派生副本生成失败，读取方将回退到原图 - versionId: {}", event.versionId(), e);
+        }
+    }
+
+    /**
+     * 为指定资产版本生成交付副本与缩略图（已生成的部分会跳过）
+     *
+     * @param versionId 资产版本ID
+     */
+    public void generateRenditions(Long versionId) throws IOException {
+        ImageProperties.DeliveryConfig deliveryConfig = imageProperties.getDelivery();
+        ImageProperties.ThumbnailConfig thumbnailConfig = imageProperties.getThumbnail();
+
+        AssetVersion version = assetVersionMapper.selectById(versionId);
+        if (version == null || version.getUrl() == null) {
+            return;
+        }
+
+        String extension = extensionOf(version.getUrl());
+        boolean needDelivery = deliveryConfig.isEnabled()
+                && version.getDeliveryUrl() == null
+                && !COMPACT_EXTENSIONS.contains(extension);
+        boolean needThumbnails = thumbnailConfig.isEnabled() && version.getThumbSmallUrl() == null;
+        if (!needDelivery && !needThumbnails) {
+            return;
+        }
+
+        Asset asset = assetMapper.selectById(version.getAssetId());
+        if (asset == null || "VIDEO".equals(asset.getAssetType())) {
+            return;
+        }
+
+        byte[] original = readOriginal(version.getUrl());
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(original));
+        if (image == null) {
+            log.debug("原图无法解码为图片，跳过派生副本 - versionId: {}", versionId);
+            return;
+        }
+
+        AssetVersion update = new AssetVersion();
+        update.setId(versionId);
+        update.setOriginalSize((long) original.length);
+
+        if (needDelivery) {
+            applyDelivery(update, version, extension, original, image, deliveryConfig);
+        }
+        if (needThumbnails) {
+            String fallbackUrl = update.getDeliveryUrl() != null ? update.getDeliveryUrl()
+                    : AssetRendition.DELIVERY.resolveUrl(version);
+            applyThumbnails(update, version, image, fallbackUrl, thumbnailConfig);
+        }
+
+        assetVersionMapper.updateById(update);
+        // 分镜列表快照中的交付与缩略图URL随之变化
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(asset.getProjectId()));
+    }
+
+    /**
+     * 转码交付副本，结果写入update
+     */
+    private void applyDelivery(AssetVersion update, AssetVersion version, String extension,
+                               byte[] original, BufferedImage image,
+                               ImageProperties.DeliveryConfig config) throws IOException {
+        Long versionId = version.getId();
+        ImageCodec codec = ImageCodec.of(config.getFormat());
+        byte[] encoded = codec.encode(image, config.getQuality());
+
+        if (encoded.length > original.length * config.getMinSavingsRatio()) {
+            // 转码收益不足，原图即交付副本
+            update.setDeliveryUrl(version.getUrl());
+            update.setDeliveryObjectKey(version.getObjectKey());
+            update.setDeliveryFormat(extension.isEmpty() ? ImageCodec.PNG.getFormatName() : extension.substring(1));
+            update.setDeliverySize((long) original.length);
+            log.info("交付副本收益不足，沿用原图 - versionId: {}, original: {} bytes, encoded: {} bytes",
+                    versionId, original.length, encoded.length);
+        } else {
+            String deliveryUrl = storageService.uploadDerivative(
+                    version.getUrl(), "_delivery" + codec.getExtension(), encoded, codec.getContentType());
+            update.setDeliveryUrl(deliveryUrl);
+            update.setDeliveryObjectKey(objectKeyOf(deliveryUrl));
+            update.setDeliveryFormat(codec.getFormatName());
+            update.setDeliverySize((long) encoded.length);
+            log.info("交付副本生成成功 - versionId: {}, format: {}, {} bytes -> {} bytes",
+                    versionId, codec.getFormatName(), original.length, encoded.length);
+        }
+    }
+
+    /**
+     * 生成小/中/大三档缩略图，结果写入update
+     *
+     * <p>原图长边不超过目标尺寸时不再放大，直接复用fallbackUrl
+     */
+    private void applyThumbnails(AssetVersion update, AssetVersion version, BufferedImage image,
+                                 String fallbackUrl, ImageProperties.ThumbnailConfig config) throws IOException {
+        ImageCodec codec = ImageCodec.of(config.getFormat());
+        update.setThumbLargeUrl(thumbnailUrl(version, image, config.getLarge(), fallbackUrl, codec, config));
+        update.setThumbMediumUrl(thumbnailUrl(version, image, config.getMedium(), fallbackUrl, codec, config));
+        update.setThumbSmallUrl(thumbnailUrl(version, image, config.getSmall(), fallbackUrl, codec, config));
+        log.info("缩略图生成成功 - versionId: {}, sizes: {}/{}/{}",
+                version.getId(), config.getSmall(), config.getMedium(), config.getLarge());
+    }
+
+    private String thumbnailUrl(AssetVersion version, BufferedImage image, int maxEdge, String fallbackUrl,
+                                ImageCodec codec, ImageProperties.ThumbnailConfig config) throws IOException {
+        if (maxEdge <= 0 || Math.max(image.getWidth(), image.getHeight()) <= maxEdge) {
+            return fallbackUrl;
+        }
+        byte[] encoded = codec.encode(resizeToFit(image, maxEdge), config.getQuality());
+        return storageService.uploadDerivative(
+                version.getUrl(), "_thumb" + maxEdge + codec.getExtension(), encoded, codec.getContentType());
+    }
+
+    /**
+     * 等比缩放到长边不超过maxEdge
+     *
+     * <p>缩小倍数较大时逐级减半，避免一次双线性插值产生锯齿
+     */
+    private BufferedImage resizeToFit(BufferedImage image, int maxEdge) {
+        double scale = (double) maxEdge / Math.max(image.getWidth(), image.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D g2d = step.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(current, 0, 0, width, height, null);
+            g2d.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * 按原图URL批量查询资产版本（只取副本相关字段）
+     *
+     * <p>供资源库等只保存了原图URL的列表使用，配合
+     * {@link AssetRendition#resolveUrl(String, Map)} 解析缩略图URL
+     *
+     * @param urls 原图URL集合，可包含null
+     * @return 原图URL到资产版本的映射
+     */
+    public Map<String, AssetVersion> findVersionsByUrls(Collection<String> urls) {
+        List<String> distinctUrls = urls.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctUrls.isEmpty()) {
+            return Map.of();
+        }
+        LambdaQueryWrapper<AssetVersion> query = new LambdaQueryWrapper<>();
+        query.select(AssetVersion::getId, AssetVersion::getUrl, AssetVersion::getDeliveryUrl,
+                        AssetVersion::getThumbSmallUrl, AssetVersion::getThumbMediumUrl, AssetVersion::getThumbLargeUrl)
+                .in(AssetVersion::getUrl, distinctUrls);
+        return assetVersionMapper.selectList(query).stream()
+                .collect(Collectors.toMap(AssetVersion::getUrl, Function.identity(), (a, b) -> a));
+    }
+
+    /**
+     * 读取原图字节，优先走存储服务（带认证），失败时回退为直接下载
+     */
+    private byte[] readOriginal(String url) throws IOException {
+        try (InputStream in = storageService.download(url)) {
+            return in.readAllBytes();
+        } catch (Exception e) {
+            log.debug("存储服务读取原图失败，回退为直接下载: {}", url);
+        }
+
+        URLConnection connection = new URL(url).openConnection();
+        connection.setConnectTimeout(15000);
+        connection.setReadTimeout(60000);
+        try (InputStream in = connection.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * 获取URL路径的小写扩展名（含点号），无扩展名时返回空字符串
+     */
+    private String extensionOf(String url) {
+        String path = pathOf(url);
+        int lastDot = path.lastIndexOf('.');
+        int lastSlash = path.lastIndexOf('/');
+        if (lastDot > lastSlash && lastDot != -1) {
+            return path.substring(lastDot).toLowerCase();
+        }
+        return "";
+    }
+
+    private String objectKeyOf(String url) {
+        String path = pathOf(url);
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private String pathOf(String url) {
+        try {
+            return new URL(url).getPath();
+        } catch (Exception e) {
+            int query = url.indexOf('?');
+            return query >= 0 ? url.substring(0, query) : url;
+        }
+    }
+}
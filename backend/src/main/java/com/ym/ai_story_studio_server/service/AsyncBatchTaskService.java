@@ -1,6 +1,7 @@
 package com.ym.ai_story_studio_server.service;
 
 import com.ym.ai_story_studio_server.client.VectorEngineClient;
+import com.ym.ai_story_studio_server.common.AssetRendition;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.config.AiProperties;
 import com.ym.ai_story_studio_server.dto.ai.ImageGenerateRequest;
@@ -372,7 +373,7 @@ public class AsyncBatchTaskService {
                                 assetVersionMapper.selectOne(versionQuery);
 
                         if (latestVersion != null && latestVersion.getUrl() != null) {
-                            imageUrls.add(latestVersion.getUrl());
+                            imageUrls.add(AssetRendition.DELIVERY.resolveUrl(latestVersion));
                         }
                     }
 
@@ -1129,7 +1130,7 @@ public class AsyncBatchTaskService {
                 com.ym.ai_story_studio_server.entity.AssetVersion version = assetVersionMapper.selectOne(versionQuery);
                 
                 if (version != null) {
-                    return version.getUrl();
+                    return AssetRendition.DELIVERY.resolveUrl(version);
                 }
             }
         } catch (Exception e) {
@@ -0,0 +1,453 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ym.ai_story_studio_server.config.ExportProperties;
+import com.ym.ai_story_studio_server.dto.export.ExportEntry;
+import com.ym.ai_story_studio_server.dto.export.ExportRequest;
+import com.ym.ai_story_studio_server.entity.ExportManifestEntry;
+import com.ym.ai_story_studio_server.entity.Job;
+import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.mapper.JobMapper;
+import com.ym.ai_story_studio_server.util.StreamingZipWriter;
+import com.ym.ai_story_studio_server.util.ZipArchiveReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 异步导出任务执行服务
+ *
+ * <p>负责异步导出任务的实际执行:生成导出计划、增量打包、上传压缩包并更新任务状态
+ *
+ * <p>独立于ExportServiceImpl,保证@Async经Spring代理调用时生效;
+ * 若在ExportServiceImpl内部直接调用,导出会在提交请求的线程上同步执行
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsyncExportTaskService {
+
+    private final JobMapper jobMapper;
+    private final ExportPlanner exportPlanner;
+    private final ExportAssetFetcher exportAssetFetcher;
+    private final ExportManifestService exportManifestService;
+    private final StorageService storageService;
+    private final ExportProperties exportProperties;
+    private final ObjectMapper objectMapper;
+
+    private static final String STATUS_PENDING = "PENDING";
+
+    private static final String STATUS_RUNNING = "RUNNING";
+
+    /**
+     * 临时文件存储路径
+     */
+    private static final String TEMP_DIR = System.getProperty("java.io.tmpdir") + "/ai-story-exports/";
+
+    /**
+     * 异步执行导出任务
+     *
+     * <p>在taskExecutor线程池中执行,提交导出的请求线程不等待打包与上传
+     *
+     * @param jobId 任务ID
+     * @param projectId 项目ID
+     * @param request 导出请求
+     */
+    @Async("taskExecutor")
+    public void executeExport(Long jobId, Long projectId, ExportRequest request) {
+        log.info("开始执行导出任务: jobId={}, projectId={}", jobId, projectId);
+
+        try {
+            // 1. PENDING -> RUNNING(条件更新,已被清理任务判定为中断的任务不再执行)
+            LocalDateTime startedAt = LocalDateTime.now();
+            int claimed = jobMapper.update(null, new LambdaUpdateWrapper<Job>()
+                    .eq(Job::getId, jobId)
+                    .eq(Job::getStatus, STATUS_PENDING)
+                    .set(Job::getStatus, STATUS_RUNNING)
+                    .set(Job::getStartedAt, startedAt)
+                    .set(Job::getUpdatedAt, startedAt));
+            if (claimed == 0) {
+                log.warn("导出任务已不是待执行状态,跳过: jobId={}", jobId);
+                return;
+            }
+
+            // 2. 创建临时目录
+            Path tempDir = Paths.get(TEMP_DIR);
+            if (!Files.exists(tempDir)) {
+                Files.createDirectories(tempDir);
+            }
+
+            // 3. 生成导出计划(条目顺序即ZIP内顺序)
+            List<ExportEntry> plan = exportPlanner.plan(projectId, request);
+
+            heartbeat(jobId, new LambdaUpdateWrapper<Job>()
+                    .set(Job::getTotalItems, plan.size())
+                    .set(Job::getDoneItems, 0));
+            log.info("导出计划生成完成: jobId={}, entries={}", jobId, plan.size());
+
+            // 4. 复用上次导出中未变化的条目，其余并发预取，按计划顺序写入本地临时ZIP
+            Path zipPath = Paths.get(TEMP_DIR + "project_" + projectId + "_export_" + jobId + ".zip");
+            String archiveKey = exportProperties.getArchivePrefix() + "/" + projectId + "/" + jobId + ".zip";
+            ArchiveResult result;
+            String archiveUrl;
+            try {
+                result = writeIncrementalArchive(jobId, projectId, plan, zipPath);
+
+                // 5. 分片上传到对象存储,任意节点均可下载,本地临时文件随即删除
+                heartbeat(jobId, new LambdaUpdateWrapper<Job>().set(Job::getProgress, 99));
+                archiveUrl = storageService.uploadFile(zipPath, archiveKey, "application/zip");
+            } finally {
+                Files.deleteIfExists(zipPath);
+            }
+            List<ExportAssetFetcher.FetchFailure> failures = result.failures();
+
+            // 6. RUNNING -> SUCCEEDED并记录压缩包位置(部分条目失败时记录失败清单)。
+            //    条件更新:执行期间被清理任务判定为中断的任务保持FAILED,本次上传的压缩包随即删除
+            LocalDateTime finishedAt = LocalDateTime.now();
+            int finished = jobMapper.update(null, new LambdaUpdateWrapper<Job>()
+                    .eq(Job::getId, jobId)
+                    .eq(Job::getStatus, STATUS_RUNNING)
+                    .set(Job::getStatus, "SUCCEEDED")
+                    .set(Job::getProgress, 100)
+                    .set(Job::getDoneItems, plan.size() - failures.size())
+                    .set(Job::getFinishedAt, finishedAt)
+                    .set(Job::getUpdatedAt, finishedAt)
+                    .set(Job::getResultUrl, archiveUrl)
+                    .set(!failures.isEmpty(), Job::getErrorMessage,
+                            failures.size() + "个文件导出失败,详见压缩包内" + ExportAssetFetcher.FAILURE_REPORT_NAME)
+                    .set(Job::getMetaJson, buildExportMeta(plan.size(), result.reused(), failures, archiveKey)));
+            if (finished == 0) {
+                log.warn("导出任务已被标记为结束,丢弃本次压缩包: jobId={}, archive={}", jobId, archiveUrl);
+                storageService.delete(archiveUrl);
+                return;
+            }
+
+            try {
+                exportManifestService.replace(projectId, result.manifest());
+            } catch (RuntimeException e) {
+                // 清单只用于下次增量复用,保存失败时下次导出全量打包
+                log.warn("保存导出清单失败: jobId={}, projectId={}", jobId, projectId, e);
+            }
+
+            log.info("导出任务执行成功: jobId={}, archive={}, entries={}, reused={}, failed={}",
+                    jobId, archiveUrl, plan.size(), result.reused(), failures.size());
+
+        } catch (Exception e) {
+            log.error("导出任务执行失败: jobId=" + jobId, e);
+
+            // 更新任务状态为失败(只更新仍未结束的任务)
+            LocalDateTime finishedAt = LocalDateTime.now();
+            jobMapper.update(null, new LambdaUpdateWrapper<Job>()
+                    .eq(Job::getId, jobId)
+                    .in(Job::getStatus, STATUS_PENDING, STATUS_RUNNING)
+                    .set(Job::getStatus, "FAILED")
+                    .set(Job::getFinishedAt, finishedAt)
+                    .set(Job::getUpdatedAt, finishedAt)
+                    .set(Job::getErrorMessage, e.getMessage()));
+        }
+    }
+
+    /**
+     * 更新执行中任务的字段并刷新心跳(updatedAt)
+     *
+     * <p>清理任务按心跳判断RUNNING任务是否已中断,执行中的任务在计划生成、进度推进与上传前都会刷新
+     *
+     * @param jobId 任务ID
+     * @param update 需要同时更新的字段
+     */
+    private void heartbeat(Long jobId, LambdaUpdateWrapper<Job> update) {
+        jobMapper.update(null, update
+                .eq(Job::getId, jobId)
+                .eq(Job::getStatus, STATUS_RUNNING)
+                .set(Job::getUpdatedAt, LocalDateTime.now()));
+    }
+
+    /**
+     * 写入导出压缩包(增量)
+     *
+     * <p>条目名、资产版本与来源URL都与上次导出清单一致，且上次压缩包中CRC与大小相符的条目
+     * 直接从上次压缩包原样复制，只下载新增或变化的条目。上次压缩包在对象存储中时按区间读取，
+     * 只下载中央目录与被复制的条目
+     *
+     * @param jobId 任务ID
+     * @param projectId 项目ID
+     * @param plan 导出计划
+     * @param zipPath 压缩包路径
+     * @return 写入结果(含本次压缩包的清单,上传成功后保存)
+     * @throws IOException 写入失败时抛出
+     */
+    private ArchiveResult writeIncrementalArchive(Long jobId, Long projectId, List<ExportEntry> plan, Path zipPath)
+            throws IOException {
+        Map<String, ExportManifestEntry> previous = exportManifestService.load(projectId);
+        ZipArchiveReader previousArchive = openPreviousArchive(projectId, previous);
+        try {
+            ArchiveAssembler assembler = new ArchiveAssembler(jobId, projectId, plan, previous, previousArchive);
+            List<ExportAssetFetcher.FetchFailure> failures;
+            try (StreamingZipWriter zip = new StreamingZipWriter(
+                    new BufferedOutputStream(Files.newOutputStream(zipPath), 64 * 1024))) {
+                assembler.zip = zip;
+                failures = exportAssetFetcher.fetchInOrder(assembler.toFetch, assembler::writeFetched);
+                assembler.copyReusedUntil(plan.size());
+                if (!failures.isEmpty()) {
+                    zip.putDeflatedEntry(ExportAssetFetcher.FAILURE_REPORT_NAME,
+                            ExportAssetFetcher.buildFailureReport(failures));
+                }
+            }
+            return new ArchiveResult(failures, assembler.reused, assembler.manifest);
+        } finally {
+            if (previousArchive != null) {
+                previousArchive.close();
+            }
+        }
+    }
+
+    /**
+     * 打开项目上次导出的压缩包
+     *
+     * @return 读取器，无上次导出或压缩包已过期清理时返回null
+     */
+    private ZipArchiveReader openPreviousArchive(Long projectId, Map<String, ExportManifestEntry> previous) {
+        if (previous.isEmpty()) {
+            return null;
+        }
+        Long previousJobId = previous.values().iterator().next().getJobId();
+        Job previousJob = jobMapper.selectById(previousJobId);
+        String previousUrl = previousJob != null ? previousJob.getResultUrl() : null;
+        if (previousUrl == null) {
+            log.info("上次导出的压缩包已不存在,全量导出: projectId={}, previousJobId={}", projectId, previousJobId);
+            return null;
+        }
+        try {
+            Path localPath = storageService.resolveLocalPath(previousUrl);
+            if (localPath != null) {
+                return ZipArchiveReader.open(localPath);
+            }
+            StorageService.ObjectMeta meta = storageService.stat(previousUrl);
+            if (meta == null) {
+                log.info("存储不支持按区间读取,全量导出: projectId={}", projectId);
+                return null;
+            }
+            return ZipArchiveReader.open(new StorageRangeSource(previousUrl, meta.contentLength()));
+        } catch (IOException | StorageException e) {
+            log.warn("读取上次导出的压缩包失败,全量导出: projectId={}, url={}", projectId, previousUrl, e);
+            return null;
+        }
+    }
+
+    /**
+     * 存储中压缩包的区间数据源(每次读取为一次Range GET)
+     */
+    private class StorageRangeSource implements ZipArchiveReader.RangeSource {
+
+        private final String fileUrl;
+        private final long size;
+
+        StorageRangeSource(String fileUrl, long size) {
+            this.fileUrl = fileUrl;
+            this.size = size;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public InputStream open(long position, long length) throws IOException {
+            if (length <= 0) {
+                return InputStream.nullInputStream();
+            }
+            try {
+                return storageService.downloadRange(fileUrl, position, position + length - 1);
+            } catch (StorageException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 压缩包写入结果
+     *
+     * @param failures 下载失败的条目
+     * @param reused 从上次压缩包复用的条目数
+     * @param manifest 本次压缩包的清单
+     */
+    private record ArchiveResult(List<ExportAssetFetcher.FetchFailure> failures, int reused,
+                                 List<ExportManifestEntry> manifest) {
+    }
+
+    /**
+     * 增量压缩包组装器
+     *
+     * <p>下载的条目按计划顺序回调写入，每次写入前先把计划中排在它前面的复用条目原样复制，
+     * 保证压缩包内条目顺序与计划一致
+     */
+    private class ArchiveAssembler {
+
+        private final Long jobId;
+        private final Long projectId;
+        private final List<ExportEntry> plan;
+        private final ZipArchiveReader previousArchive;
+        private final ZipArchiveReader.RawEntry[] reusable;
+        private final Map<ExportEntry, Integer> planIndex = new IdentityHashMap<>();
+        private final List<ExportEntry> toFetch = new ArrayList<>();
+        private final List<ExportManifestEntry> manifest;
+        private final ExportProgress progress;
+        private StreamingZipWriter zip;
+        private int cursor;
+        private int reused;
+
+        ArchiveAssembler(Long jobId, Long projectId, List<ExportEntry> plan,
+                         Map<String, ExportManifestEntry> previous, ZipArchiveReader previousArchive) {
+            this.jobId = jobId;
+            this.projectId = projectId;
+            this.plan = plan;
+            this.previousArchive = previousArchive;
+            this.reusable = new ZipArchiveReader.RawEntry[plan.size()];
+            this.manifest = new ArrayList<>(plan.size());
+            this.progress = new ExportProgress(jobId, plan.size());
+            for (int i = 0; i < plan.size(); i++) {
+                ExportEntry entry = plan.get(i);
+                reusable[i] = findReusable(entry, previous.get(entry.name()));
+                if (reusable[i] == null) {
+                    toFetch.add(entry);
+                    planIndex.put(entry, i);
+                }
+            }
+        }
+
+        /**
+         * 上次导出中内容未变化的条目
+         */
+        private ZipArchiveReader.RawEntry findReusable(ExportEntry entry, ExportManifestEntry previousEntry) {
+            if (previousArchive == null || previousEntry == null
+                    || !Objects.equals(previousEntry.getAssetVersionId(), entry.assetVersionId())
+                    || !Objects.equals(previousEntry.getSourceUrl(), entry.url())) {
+                return null;
+            }
+            ZipArchiveReader.RawEntry raw = previousArchive.find(entry.name());
+            if (raw == null || !Objects.equals(previousEntry.getCrc32(), raw.crc())
+                    || !Objects.equals(previousEntry.getSize(), raw.size())) {
+                return null;
+            }
+            return raw;
+        }
+
+        void writeFetched(ExportEntry entry, ExportAssetFetcher.FetchedEntry fetched) throws IOException {
+            int index = planIndex.get(entry);
+            copyReusedUntil(index);
+            StreamingZipWriter.WrittenEntry written = fetched.writeTo(zip);
+            manifest.add(toManifestEntry(entry, written.crc(), written.size()));
+            cursor = index + 1;
+            progress.advance();
+        }
+
+        /**
+         * 复制计划中 [cursor, end) 范围内的复用条目
+         */
+        void copyReusedUntil(int end) throws IOException {
+            for (; cursor < end; cursor++) {
+                ZipArchiveReader.RawEntry raw = reusable[cursor];
+                if (raw == null) {
+                    continue;
+                }
+                ExportEntry entry = plan.get(cursor);
+                try (InputStream in = previousArchive.openRaw(raw)) {
+                    zip.putRawEntry(entry.name(), raw.method(), raw.crc(), raw.compressedSize(), raw.size(), in);
+                }
+                manifest.add(toManifestEntry(entry, raw.crc(), raw.size()));
+                reused++;
+                progress.advance();
+            }
+        }
+
+        private ExportManifestEntry toManifestEntry(ExportEntry entry, long crc, long size) {
+            ExportManifestEntry manifestEntry = new ExportManifestEntry();
+            manifestEntry.setProjectId(projectId);
+            manifestEntry.setJobId(jobId);
+            manifestEntry.setEntryName(entry.name());
+            manifestEntry.setAssetVersionId(entry.assetVersionId());
+            manifestEntry.setSourceUrl(entry.url());
+            manifestEntry.setCrc32(crc);
+            manifestEntry.setSize(size);
+            return manifestEntry;
+        }
+    }
+
+    /**
+     * 构建导出结果的任务扩展参数(JSON)
+     */
+    private String buildExportMeta(int totalEntries, int reusedEntries, List<ExportAssetFetcher.FetchFailure> failures,
+                                   String archiveKey) {
+        List<Map<String, Object>> failed = new ArrayList<>(failures.size());
+        for (ExportAssetFetcher.FetchFailure failure : failures) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("name", failure.entry().name());
+            item.put("url", failure.entry().url());
+            item.put("assetVersionId", failure.entry().assetVersionId());
+            item.put("reason", failure.reason());
+            failed.add(item);
+        }
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("archiveKey", archiveKey);
+        meta.put("totalEntries", totalEntries);
+        meta.put("reusedEntries", reusedEntries);
+        meta.put("failedEntries", failed);
+        try {
+            return objectMapper.writeValueAsString(meta);
+        } catch (JsonProcessingException e) {
+            log.warn("序列化导出结果失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 导出进度(每完成约5%更新一次任务进度,避免每个条目都写库)
+     */
+    private class ExportProgress {
+
+        private final Long jobId;
+        private final int total;
+        private final int step;
+        private int done;
+
+        ExportProgress(Long jobId, int total) {
+            this.jobId = jobId;
+            this.total = total;
+            this.step = Math.max(1, total / 20);
+        }
+
+        void advance() {
+            done++;
+            if (done % step == 0 && done < total) {
+                heartbeat(jobId, new LambdaUpdateWrapper<Job>()
+                        .set(Job::getDoneItems, done)
+                        .set(Job::getProgress, done * 99 / total));
+            }
+        }
+    }
+}
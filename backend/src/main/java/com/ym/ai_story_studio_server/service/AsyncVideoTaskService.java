@@ -17,15 +17,18 @@ import com.ym.ai_story_studio_server.entity.Asset;
 import com.ym.ai_story_studio_server.entity.AssetRef;
 import com.ym.ai_story_studio_server.entity.AssetVersion;
 import com.ym.ai_story_studio_server.entity.Job;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
 import com.ym.ai_story_studio_server.exception.BusinessException;
 import com.ym.ai_story_studio_server.mapper.AssetMapper;
 import com.ym.ai_story_studio_server.mapper.AssetRefMapper;
 import com.ym.ai_story_studio_server.mapper.AssetVersionMapper;
 import com.ym.ai_story_studio_server.mapper.JobMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectMapper;
 import com.ym.ai_story_studio_server.util.UserContext;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -77,6 +80,8 @@ public class AsyncVideoTaskService {
     private final AssetMapper assetMapper;
     private final AssetVersionMapper assetVersionMapper;
     private final AssetRefMapper assetRefMapper;
+    private final ProjectMapper projectMapper;
+    private final ApplicationEventPublisher eventPublisher;
     private final AiProperties aiProperties;
     private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
 
@@ -535,6 +540,7 @@ public class AsyncVideoTaskService {
                 asset.setOwnerId(targetId);
                 asset.setAssetType("VIDEO");
                 assetMapper.insert(asset);
+                projectMapper.adjustAssetCount(projectId, 1);
             }
 
             // 2) 创建新版本号
@@ -580,6 +586,7 @@ public class AsyncVideoTaskService {
 
             log.info("视频资产写入成功 - jobId: {}, shotId: {}, assetId: {}, versionId: {}",
                     job.getId(), targetId, asset.getId(), version.getId());
+            eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
         } catch (Exception e) {
             log.error("写入视频资产失败 - jobId: {}", job.getId(), e);
         }
@@ -0,0 +1,155 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.ym.ai_story_studio_server.config.ExportProperties;
+import com.ym.ai_story_studio_server.entity.Job;
+import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.mapper.JobMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 导出压缩包清理任务
+ *
+ * <p>定时执行，保证对象存储、本地磁盘与任务表都不会无限增长：
+ * <ul>
+ *   <li>删除超过保留时长的导出压缩包，清空任务上记录的位置与对应的导出清单</li>
+ *   <li>长时间未结束的导出任务（执行节点重启等）标记为失败</li>
+ *   <li>删除本地残留的导出临时文件</li>
+ * </ul>
+ *
+ * <p>多节点同时执行时，先以条件更新清空任务上的位置，更新成功的节点才删除对象，同一压缩包只删除一次
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportArchiveJanitor {
+
+    /**
+     * 导出临时文件根目录（异步导出的本地临时ZIP在其下）
+     */
+    private static final Path EXPORT_TEMP_ROOT = Paths.get(System.getProperty("java.io.tmpdir"), "ai-story-exports");
+
+    /**
+     * 单次清理的最大任务数，积压时由后续轮次继续处理
+     */
+    private static final int BATCH_SIZE = 200;
+
+    private static final String JOB_TYPE_EXPORT = "EXPORT_ZIP";
+
+    private final JobMapper jobMapper;
+    private final StorageService storageService;
+    private final ExportManifestService exportManifestService;
+    private final ExportProperties exportProperties;
+
+    /**
+     * 定时清理入口
+     */
+    @Scheduled(initialDelayString = "${export.janitor-interval-ms:3600000}",
+            fixedDelayString = "${export.janitor-interval-ms:3600000}")
+    public void cleanup() {
+        int expired = expireArchives();
+        int stale = failStaleJobs();
+        int tempFiles = sweepTempFiles();
+        if (expired > 0 || stale > 0 || tempFiles > 0) {
+            log.info("导出清理完成: 过期压缩包={}, 中断任务={}, 临时文件={}", expired, stale, tempFiles);
+        }
+    }
+
+    /**
+     * 删除超过保留时长的导出压缩包
+     *
+     * @return 删除的压缩包数量
+     */
+    int expireArchives() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(exportProperties.getArchiveRetentionHours());
+        List<Job> jobs = jobMapper.selectList(new LambdaQueryWrapper<Job>()
+                .eq(Job::getJobType, JOB_TYPE_EXPORT)
+                .isNotNull(Job::getResultUrl)
+                .lt(Job::getFinishedAt, cutoff)
+                .last("LIMIT " + BATCH_SIZE));
+
+        int expired = 0;
+        for (Job job : jobs) {
+            int claimed = jobMapper.update(null, new LambdaUpdateWrapper<Job>()
+                    .eq(Job::getId, job.getId())
+                    .eq(Job::getResultUrl, job.getResultUrl())
+                    .set(Job::getResultUrl, null));
+            if (claimed == 0) {
+                continue;
+            }
+
+            exportManifestService.deleteByJob(job.getId());
+            try {
+                storageService.delete(job.getResultUrl());
+                expired++;
+            } catch (StorageException e) {
+                log.warn("删除过期导出压缩包失败: jobId={}, url={}, error={}",
+                        job.getId(), job.getResultUrl(), e.getMessage());
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 将长时间未结束的导出任务标记为失败
+     *
+     * <p>PENDING任务按创建时间判断；RUNNING任务按心跳（updatedAt，执行中随进度刷新）判断，
+     * 仍在推进的长任务不会被误判。执行方以条件更新结束任务，已标记失败的任务不会再被改为成功
+     *
+     * @return 标记的任务数量
+     */
+    int failStaleJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusHours(exportProperties.getStaleJobHours());
+        return jobMapper.update(null, new LambdaUpdateWrapper<Job>()
+                .eq(Job::getJobType, JOB_TYPE_EXPORT)
+                .and(w -> w.nested(p -> p.eq(Job::getStatus, "PENDING").lt(Job::getCreatedAt, cutoff))
+                        .or(r -> r.eq(Job::getStatus, "RUNNING").lt(Job::getUpdatedAt, cutoff)))
+                .set(Job::getStatus, "FAILED")
+                .set(Job::getFinishedAt, now)
+                .set(Job::getUpdatedAt, now)
+                .set(Job::getErrorMessage, "导出任务已中断,请重新导出"));
+    }
+
+    /**
+     * 删除本地残留的导出临时文件（正常流程会在上传后删除，残留来自进程中断）
+     *
+     * @return 删除的文件数量
+     */
+    int sweepTempFiles() {
+        if (!Files.isDirectory(EXPORT_TEMP_ROOT)) {
+            return 0;
+        }
+        long cutoff = System.currentTimeMillis() - exportProperties.getStaleJobHours() * 3600_000L;
+        int deleted = 0;
+        try (Stream<Path> walk = Files.walk(EXPORT_TEMP_ROOT)) {
+            for (Path file : (Iterable<Path>) walk.filter(Files::isRegularFile)::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() < cutoff && Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("删除导出临时文件失败: file={}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("扫描导出临时目录失败: dir={}", EXPORT_TEMP_ROOT, e);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,389 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.ym.ai_story_studio_server.config.ExportProperties;
+import com.ym.ai_story_studio_server.dto.export.ExportEntry;
+import com.ym.ai_story_studio_server.util.StreamingZipWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导出资产预取服务
+ *
+ * <p>导出时按计划顺序并发预取资产，再按原顺序交给ZIP写入方，全程不写临时文件：
+ * <ul>
+ *   <li>不超过 {@code export.prefetch-entry-max-mb} 的资产在下载线程上读入内存，顺带计算CRC，
+ *       文本/元数据类条目同时完成DEFLATE压缩，ZIP写入方只做顺序拷贝</li>
+ *   <li>超过上限的资产（通常是视频）不预取，轮到写入时直接从源地址边下载边以STORED写入ZIP</li>
+ *   <li>并发数由 {@code export.fetch-concurrency} 控制，预取窗口最多为并发数的2倍个条目，
+ *       且已预取未写入的数据不超过 {@code export.prefetch-window-mb}</li>
+ *   <li>单个资产失败后按指数退避重试，404等确定性失败不重试</li>
+ *   <li>重试耗尽的条目被跳过并记入失败清单，不影响其余条目；
+ *       直接写入的大资产已开始写出后中断时无法跳过，整个导出中止</li>
+ *   <li>ZIP写入顺序与计划顺序一致，同一项目多次导出的条目顺序稳定</li>
+ *   <li>写入失败（如客户端断开）时立即断开窗口内进行中的下载、不再重试，预取的数据随之释放</li>
+ * </ul>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportAssetFetcher {
+
+    /**
+     * 失败清单在压缩包内的文件名
+     */
+    public static final String FAILURE_REPORT_NAME = "导出失败清单.txt";
+
+    private final ExportProperties exportProperties;
+
+    /**
+     * 资产下载线程池
+     */
+    private ExecutorService fetchExecutor;
+
+    /**
+     * 下载失败的条目
+     *
+     * @param entry  导出条目
+     * @param reason 失败原因
+     */
+    public record FetchFailure(ExportEntry entry, String reason) {
+    }
+
+    /**
+     * 已就绪、可写入ZIP的条目
+     */
+    @FunctionalInterface
+    public interface FetchedEntry {
+
+        /**
+         * 将条目写入ZIP（预取的条目顺序拷贝，大资产边下载边写入）
+         *
+         * @param zip ZIP写入器
+         * @return 条目校验信息
+         * @throws IOException 写入失败或源数据读取中断时抛出
+         */
+        StreamingZipWriter.WrittenEntry writeTo(StreamingZipWriter zip) throws IOException;
+    }
+
+    /**
+     * 条目写入函数（按计划顺序调用）
+     */
+    @FunctionalInterface
+    public interface EntryWriter {
+
+        /**
+         * 写入一个已就绪的条目
+         *
+         * @param entry   导出条目
+         * @param fetched 已就绪的条目，通过 {@link FetchedEntry#writeTo} 写入ZIP
+         * @throws IOException 写入失败时抛出，整个导出中止
+         */
+        void write(ExportEntry entry, FetchedEntry fetched) throws IOException;
+    }
+
+    /**
+     * 预取结果：prepared为null表示资产超过预取上限，写入时直接从源地址读取
+     */
+    private record Prefetched(StreamingZipWriter.PreparedEntry prepared) {
+
+        /**
+         * @return 占用的内存（字节）
+         */
+        long bytes() {
+            return prepared != null ? prepared.data().length : 0;
+        }
+    }
+
+    /**
+     * 一次导出的预取状态
+     *
+     * <p>提交预取时按单条目上限预占窗口额度，下载完成后退回多占的部分，写入ZIP后全部归还；
+     * 中止时断开进行中的连接，下载线程随即失败退出
+     */
+    private static final class FetchSession {
+
+        private final AtomicLong reservedBytes = new AtomicLong();
+        private final Set<HttpURLConnection> activeConnections = ConcurrentHashMap.newKeySet();
+        private volatile boolean aborted;
+
+        void abort() {
+            aborted = true;
+            for (HttpURLConnection connection : activeConnections) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * 带重试的下载步骤
+     */
+    @FunctionalInterface
+    private interface Download<T> {
+
+        T run() throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        int concurrency = Math.max(1, exportProperties.getFetchConcurrency());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Export-Fetch-");
+        threadFactory.setDaemon(true);
+        fetchExecutor = Executors.newFixedThreadPool(concurrency, threadFactory);
+        log.info("导出资产下载线程池初始化完成 - 并发数: {}", concurrency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fetchExecutor != null) {
+            fetchExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 并发预取导出条目，并按计划顺序交给写入函数
+     *
+     * @param entries 导出计划（顺序即ZIP条目顺序）
+     * @param writer  条目写入函数
+     * @return 重试耗尽仍下载失败的条目
+     * @throws IOException 写入失败时抛出
+     */
+    public List<FetchFailure> fetchInOrder(List<ExportEntry> entries, EntryWriter writer) throws IOException {
+        int total = entries.size();
+        int window = Math.max(1, exportProperties.getFetchConcurrency()) * 2;
+        long entryMaxBytes = maxPrefetchBytes();
+        long windowBytes = Math.max(entryMaxBytes, exportProperties.getPrefetchWindowMb() * 1024L * 1024L);
+        FetchSession session = new FetchSession();
+        List<CompletableFuture<Prefetched>> futures = new ArrayList<>(total);
+        List<FetchFailure> failures = new ArrayList<>();
+
+        int submitted = 0;
+        boolean completed = false;
+        try {
+            for (int i = 0; i < total; i++) {
+                // 补充窗口：条目数与内存额度都有余量时提交，当前条目总能提交
+                while (submitted < total && submitted - i < window
+                        && (submitted == i || session.reservedBytes.get() + entryMaxBytes <= windowBytes)) {
+                    session.reservedBytes.addAndGet(entryMaxBytes);
+                    futures.add(submit(entries.get(submitted++), session));
+                }
+
+                ExportEntry entry = entries.get(i);
+                Prefetched prefetched = null;
+                try {
+                    prefetched = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    recordFailure(failures, entry, e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("导出被中断");
+                }
+                futures.set(i, null);
+
+                if (prefetched == null) {
+                    continue;
+                }
+                if (prefetched.prepared() != null) {
+                    StreamingZipWriter.PreparedEntry prepared = prefetched.prepared();
+                    writer.write(entry, zip -> zip.putPreparedEntry(prepared));
+                    session.reservedBytes.addAndGet(-prefetched.bytes());
+                    continue;
+                }
+
+                InputStream body;
+                try {
+                    body = withRetry(entry, session, () -> openStream(entry.url()));
+                } catch (UncheckedIOException e) {
+                    recordFailure(failures, entry, e);
+                    continue;
+                }
+                try (body) {
+                    writer.write(entry, zip -> zip.putStoredEntry(entry.name(), body));
+                }
+            }
+            completed = true;
+            return failures;
+        } finally {
+            if (!completed) {
+                // 异常中止（如客户端断开）：取消排队的预取，断开进行中的下载
+                session.abort();
+                for (CompletableFuture<Prefetched> future : futures) {
+                    if (future != null) {
+                        future.cancel(true);
+                    }
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<Prefetched> submit(ExportEntry entry, FetchSession session) {
+        long entryMaxBytes = maxPrefetchBytes();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Prefetched prefetched = withRetry(entry, session, () -> prefetch(entry, session));
+                session.reservedBytes.addAndGet(prefetched.bytes() - entryMaxBytes);
+                return prefetched;
+            } catch (RuntimeException e) {
+                session.reservedBytes.addAndGet(-entryMaxBytes);
+                throw e;
+            }
+        }, fetchExecutor);
+    }
+
+    private int maxPrefetchBytes() {
+        return Math.max(1, exportProperties.getPrefetchEntryMaxMb()) * 1024 * 1024;
+    }
+
+    private void recordFailure(List<FetchFailure> failures, ExportEntry entry, Throwable error) {
+        String reason = failureReason(error);
+        log.warn("导出条目下载失败，已跳过: entry={}, url={}, reason={}", entry.name(), entry.url(), reason);
+        failures.add(new FetchFailure(entry, reason));
+    }
+
+    /**
+     * 将资产读入内存并预处理，超过预取上限时只确认源地址可访问
+     */
+    /**
+     * 读取至多 {@code limit} 字节，每读一块检查导出是否已中止
+     */
+    private static byte[] readAtMost(InputStream inputStream, int limit, FetchSession session) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while (buffer.size() < limit
+                && (read = inputStream.read(chunk, 0, Math.min(chunk.length, limit - buffer.size()))) != -1) {
+            if (session.aborted) {
+                throw new InterruptedIOException("导出已中止");
+            }
+            buffer.write(chunk, 0, read);
+        }
+        return buffer.toByteArray();
+    }
+
+    private Prefetched prefetch(ExportEntry entry, FetchSession session) throws IOException {
+        int maxBytes = maxPrefetchBytes();
+        HttpURLConnection connection = connect(entry.url());
+        session.activeConnections.add(connection);
+        try (InputStream inputStream = connection.getInputStream()) {
+            if (connection.getContentLengthLong() > maxBytes) {
+                return new Prefetched(null);
+            }
+            byte[] data = readAtMost(inputStream, maxBytes + 1, session);
+            if (data.length > maxBytes) {
+                return new Prefetched(null);
+            }
+            return new Prefetched(StreamingZipWriter.prepare(entry.name(), data));
+        } finally {
+            session.activeConnections.remove(connection);
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * 打开源地址的响应流（关闭时断开连接）
+     */
+    private InputStream openStream(String fileUrl) throws IOException {
+        HttpURLConnection connection = connect(fileUrl);
+        try {
+            return new FilterInputStream(connection.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        connection.disconnect();
+                    }
+                }
+            };
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    private HttpURLConnection connect(String fileUrl) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(fileUrl).openConnection();
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(exportProperties.getConnectTimeoutMs());
+        connection.setReadTimeout(exportProperties.getReadTimeoutMs());
+        return connection;
+    }
+
+    /**
+     * 执行下载步骤，失败后按指数退避重试
+     */
+    private <T> T withRetry(ExportEntry entry, FetchSession session, Download<T> download) {
+        int attempts = Math.max(0, exportProperties.getFetchMaxRetries()) + 1;
+        IOException lastError = null;
+        for (int attempt = 1; attempt <= attempts && !session.aborted; attempt++) {
+            try {
+                return download.run();
+            } catch (FileNotFoundException e) {
+                // 源文件不存在，重试无意义
+                throw new UncheckedIOException("源文件不存在: " + e.getMessage(), e);
+            } catch (IOException e) {
+                lastError = e;
+                if (attempt < attempts) {
+                    long backoff = exportProperties.getRetryBackoffMs() << (attempt - 1);
+                    log.debug("导出条目下载失败，{}ms后重试({}/{}): url={}, error={}",
+                            backoff, attempt, attempts - 1, entry.url(), e.getMessage());
+                    try {
+                        Thread.sleep(backoff);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw new UncheckedIOException(new InterruptedIOException("导出被中断"));
+                    }
+                }
+            }
+        }
+        throw new UncheckedIOException(lastError != null ? lastError : new InterruptedIOException("导出已中止"));
+    }
+
+    private String failureReason(Throwable error) {
+        String message = error.getMessage();
+        return message != null ? message : error.getClass().getSimpleName();
+    }
+
+    /**
+     * 生成失败清单文本
+     *
+     * @param failures 下载失败的条目
+     * @return UTF-8编码的清单内容
+     */
+    public static byte[] buildFailureReport(List<FetchFailure> failures) {
+        StringBuilder report = new StringBuilder();
+        report.append("以下").append(failures.size()).append("个文件下载失败,未包含在压缩包中:\n\n");
+        for (FetchFailure failure : failures) {
+            report.append(failure.entry().name()).append('\n')
+                    .append("  URL: ").append(failure.entry().url()).append('\n')
+                    .append("  原因: ").append(failure.reason()).append("\n\n");
+        }
+        return report.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.ym.ai_story_studio_server.entity.ExportManifestEntry;
+import com.ym.ai_story_studio_server.mapper.ExportManifestEntryMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导出清单服务
+ *
+ * <p>每个项目只保留最近一次成功导出的清单：条目名 → 资产版本ID、来源URL与内容校验值。
+ * 下一次导出时，条目名、版本与来源URL都未变化且旧压缩包中校验值一致的条目直接原样复制，
+ * 只下载新增或变化的资产
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportManifestService {
+
+    /**
+     * 单条多行INSERT写入的最大条目数(控制语句大小，避免超过max_allowed_packet)
+     */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final ExportManifestEntryMapper exportManifestEntryMapper;
+
+    /**
+     * 加载项目最近一次成功导出的清单
+     *
+     * @param projectId 项目ID
+     * @return 条目名 → 清单条目，无历史导出时为空
+     */
+    public Map<String, ExportManifestEntry> load(Long projectId) {
+        List<ExportManifestEntry> rows = exportManifestEntryMapper.selectList(
+                new LambdaQueryWrapper<ExportManifestEntry>()
+                        .eq(ExportManifestEntry::getProjectId, projectId));
+        Map<String, ExportManifestEntry> manifest = new LinkedHashMap<>(rows.size() * 2);
+        for (ExportManifestEntry row : rows) {
+            manifest.put(row.getEntryName(), row);
+        }
+        return manifest;
+    }
+
+    /**
+     * 用新压缩包的清单替换项目的旧清单
+     *
+     * @param projectId 项目ID
+     * @param entries   新清单条目（jobId等字段已填写）
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void replace(Long projectId, List<ExportManifestEntry> entries) {
+        exportManifestEntryMapper.delete(new LambdaQueryWrapper<ExportManifestEntry>()
+                .eq(ExportManifestEntry::getProjectId, projectId));
+        for (int from = 0; from < entries.size(); from += INSERT_BATCH_SIZE) {
+            exportManifestEntryMapper.insertBatch(
+                    entries.subList(from, Math.min(from + INSERT_BATCH_SIZE, entries.size())));
+        }
+        log.info("导出清单已更新: projectId={}, entries={}", projectId, entries.size());
+    }
+
+    /**
+     * 删除指定导出任务的清单(压缩包过期清理后,清单不再可用于增量导出)
+     *
+     * @param jobId 导出任务ID
+     */
+    public void deleteByJob(Long jobId) {
+        exportManifestEntryMapper.delete(new LambdaQueryWrapper<ExportManifestEntry>()
+                .eq(ExportManifestEntry::getJobId, jobId));
+    }
+}
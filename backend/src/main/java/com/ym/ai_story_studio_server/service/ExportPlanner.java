@@ -0,0 +1,247 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.ym.ai_story_studio_server.common.AssetRendition;
+import com.ym.ai_story_studio_server.dto.export.ExportEntry;
+import com.ym.ai_story_studio_server.dto.export.ExportRequest;
+import com.ym.ai_story_studio_server.dto.export.RefVersionRow;
+import com.ym.ai_story_studio_server.entity.CharacterLibrary;
+import com.ym.ai_story_studio_server.entity.ProjectCharacter;
+import com.ym.ai_story_studio_server.entity.ProjectScene;
+import com.ym.ai_story_studio_server.entity.SceneLibrary;
+import com.ym.ai_story_studio_server.entity.StoryboardShot;
+import com.ym.ai_story_studio_server.mapper.AssetRefMapper;
+import com.ym.ai_story_studio_server.mapper.CharacterLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectCharacterMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectSceneMapper;
+import com.ym.ai_story_studio_server.mapper.SceneLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.StoryboardShotMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 导出计划生成服务
+ *
+ * <p>按分类批量解析项目内所有待导出条目(ZIP内文件名、URL、资产版本ID)，查询次数与项目规模无关：
+ * <ul>
+ *   <li>角色/场景: 项目角色(场景)列表 + 批量查询库名称 + 一次引用版本JOIN查询</li>
+ *   <li>分镜图/视频: 分镜列表(共用) + 每类一次引用版本JOIN查询</li>
+ *   <li>CURRENT模式只JOIN当前版本，ALL模式JOIN当前版本所属资产的全部历史版本</li>
+ * </ul>
+ *
+ * <p>ZIP内目录结构: 01-角色、02-场景、03-分镜、04-视频，条目顺序即计划顺序
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportPlanner {
+
+    private final ProjectCharacterMapper projectCharacterMapper;
+    private final ProjectSceneMapper projectSceneMapper;
+    private final StoryboardShotMapper shotMapper;
+    private final AssetRefMapper assetRefMapper;
+    private final CharacterLibraryMapper characterLibraryMapper;
+    private final SceneLibraryMapper sceneLibraryMapper;
+
+    /**
+     * 生成导出计划
+     *
+     * @param projectId 项目ID
+     * @param request 导出请求
+     * @return 导出条目列表(顺序即ZIP内顺序)
+     */
+    @Transactional(readOnly = true)
+    public List<ExportEntry> plan(Long projectId, ExportRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        // 导出的资产副本，默认导出原图
+        AssetRendition rendition = AssetRendition.of(request.rendition(), AssetRendition.ORIGINAL);
+        boolean allVersions = !"CURRENT".equals(request.mode());
+        List<ExportEntry> plan = new ArrayList<>();
+
+        if (request.exportCharacters()) {
+            planCharacters(projectId, allVersions, rendition, plan);
+        }
+        if (request.exportScenes()) {
+            planScenes(projectId, allVersions, rendition, plan);
+        }
+        if (request.exportShotImages() || request.exportVideos()) {
+            List<StoryboardShot> shots = shotMapper.selectList(
+                    new LambdaQueryWrapper<StoryboardShot>()
+                            .eq(StoryboardShot::getProjectId, projectId)
+                            .isNull(StoryboardShot::getDeletedAt)
+                            .orderByAsc(StoryboardShot::getShotNo)
+            );
+            if (request.exportShotImages()) {
+                planShots(projectId, shots, "SHOT_IMG_CURRENT", "03-分镜", allVersions, rendition, plan);
+            }
+            if (request.exportVideos()) {
+                planShots(projectId, shots, "SHOT_VIDEO_CURRENT", "04-视频", allVersions, rendition, plan);
+            }
+        }
+
+        log.debug("导出计划生成完成: projectId={}, entries={}, 耗时={}ms",
+                projectId, plan.size(), System.currentTimeMillis() - startTime);
+        return plan;
+    }
+
+    /**
+     * 角色画像: ProjectCharacter -> CharacterLibrary(名称) + AssetRef(LIB_CHAR_CURRENT)
+     */
+    private void planCharacters(Long projectId, boolean allVersions, AssetRendition rendition, List<ExportEntry> plan) {
+        List<ProjectCharacter> characters = projectCharacterMapper.selectList(
+                new LambdaQueryWrapper<ProjectCharacter>()
+                        .eq(ProjectCharacter::getProjectId, projectId)
+        );
+        List<Long> libraryIds = characters.stream()
+                .map(ProjectCharacter::getLibraryCharacterId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (libraryIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> libraryNames = characterLibraryMapper.selectBatchIds(libraryIds).stream()
+                .collect(Collectors.toMap(CharacterLibrary::getId, CharacterLibrary::getName, (a, b) -> a));
+        Map<Long, List<RefVersionRow>> versions = loadRefVersions(projectId, "LIB_CHAR_CURRENT", allVersions);
+
+        int index = 1;
+        for (ProjectCharacter character : characters) {
+            Long libraryId = character.getLibraryCharacterId();
+            if (libraryId == null || !libraryNames.containsKey(libraryId)) {
+                continue;
+            }
+
+            // 使用displayName或全局name
+            String characterName = character.getDisplayName() != null ?
+                    character.getDisplayName() : libraryNames.get(libraryId);
+            String folderName = String.format("01-角色/%02d-%s/", index, characterName);
+            addVersions(folderName, versions.get(libraryId), allVersions, rendition, plan);
+            index++;
+        }
+    }
+
+    /**
+     * 场景画像: ProjectScene -> SceneLibrary(名称) + AssetRef(LIB_SCENE_CURRENT)
+     */
+    private void planScenes(Long projectId, boolean allVersions, AssetRendition rendition, List<ExportEntry> plan) {
+        List<ProjectScene> scenes = projectSceneMapper.selectList(
+                new LambdaQueryWrapper<ProjectScene>()
+                        .eq(ProjectScene::getProjectId, projectId)
+        );
+        List<Long> libraryIds = scenes.stream()
+                .map(ProjectScene::getLibrarySceneId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (libraryIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> libraryNames = sceneLibraryMapper.selectBatchIds(libraryIds).stream()
+                .collect(Collectors.toMap(SceneLibrary::getId, SceneLibrary::getName, (a, b) -> a));
+        Map<Long, List<RefVersionRow>> versions = loadRefVersions(projectId, "LIB_SCENE_CURRENT", allVersions);
+
+        int index = 1;
+        for (ProjectScene scene : scenes) {
+            Long libraryId = scene.getLibrarySceneId();
+            if (libraryId == null || !libraryNames.containsKey(libraryId)) {
+                continue;
+            }
+
+            // 使用displayName或全局name
+            String sceneName = scene.getDisplayName() != null ?
+                    scene.getDisplayName() : libraryNames.get(libraryId);
+            String folderName = String.format("02-场景/%02d-%s/", index, sceneName);
+            addVersions(folderName, versions.get(libraryId), allVersions, rendition, plan);
+            index++;
+        }
+    }
+
+    /**
+     * 分镜图/视频: StoryboardShot + AssetRef(refType)
+     */
+    private void planShots(Long projectId, List<StoryboardShot> shots, String refType, String category,
+                           boolean allVersions, AssetRendition rendition, List<ExportEntry> plan) {
+        if (shots.isEmpty()) {
+            return;
+        }
+        Map<Long, List<RefVersionRow>> versions = loadRefVersions(projectId, refType, allVersions);
+        for (StoryboardShot shot : shots) {
+            String folderName = String.format("%s/%03d/", category, shot.getShotNo());
+            addVersions(folderName, versions.get(shot.getId()), allVersions, rendition, plan);
+        }
+    }
+
+    /**
+     * 一次JOIN查询某类引用的版本，按引用所有者分组(组内版本号倒序)
+     */
+    private Map<Long, List<RefVersionRow>> loadRefVersions(Long projectId, String refType, boolean allVersions) {
+        List<RefVersionRow> rows = allVersions
+                ? assetRefMapper.selectAllVersions(projectId, refType)
+                : assetRefMapper.selectCurrentVersions(projectId, refType);
+        Map<Long, List<RefVersionRow>> grouped = new HashMap<>();
+        for (RefVersionRow row : rows) {
+            grouped.computeIfAbsent(row.getRefOwnerId(), k -> new ArrayList<>()).add(row);
+        }
+        return grouped;
+    }
+
+    /**
+     * 将一个所有者的版本追加到计划: CURRENT模式为"当前版本"，ALL模式按版本号倒序编号"版本01..."
+     */
+    private void addVersions(String folderName, List<RefVersionRow> versions, boolean allVersions,
+                             AssetRendition rendition, List<ExportEntry> plan) {
+        if (versions == null) {
+            return;
+        }
+        if (!allVersions) {
+            RefVersionRow version = versions.get(0);
+            if (version.getUrl() != null) {
+                String url = rendition.resolveUrl(version);
+                plan.add(new ExportEntry(folderName + "当前版本" + getFileExtension(url), url, version.getId()));
+            }
+            return;
+        }
+
+        int versionIndex = 1;
+        for (RefVersionRow version : versions) {
+            if (version.getUrl() != null) {
+                String url = rendition.resolveUrl(version);
+                String fileName = folderName + String.format("版本%02d", versionIndex) + getFileExtension(url);
+                plan.add(new ExportEntry(fileName, url, version.getId()));
+                versionIndex++;
+            }
+        }
+    }
+
+    /**
+     * 获取文件扩展名
+     *
+     * @param url 文件URL
+     * @return 扩展名(含点号,如".png")
+     */
+    private String getFileExtension(String url) {
+        int lastDotIndex = url.lastIndexOf('.');
+        int lastSlashIndex = url.lastIndexOf('/');
+
+        if (lastDotIndex > lastSlashIndex && lastDotIndex != -1) {
+            return url.substring(lastDotIndex);
+        }
+
+        return "";
+    }
+}
@@ -1,7 +1,12 @@
 package com.ym.ai_story_studio_server.service;
 
+import com.ym.ai_story_studio_server.dto.export.ExportDownload;
+import com.ym.ai_story_studio_server.dto.export.ExportEntry;
 import com.ym.ai_story_studio_server.dto.export.ExportRequest;
-import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 
 /**
  * 导出服务接口
@@ -16,6 +21,12 @@ import org.springframework.core.io.Resource;
  *   <li>支持仅导出当前版本或包含所有历史版本</li>
  * </ul>
  *
+ * <p>两种导出方式:
+ * <ul>
+ *   <li>异步导出: 提交任务后在服务端生成ZIP文件并上传到对象存储,完成后下载,适合包含所有历史版本的大型导出</li>
+ *   <li>流式导出: 仅当前版本,边下载资产边把ZIP写入HTTP响应,无需等待整包生成</li>
+ * </ul>
+ *
  * @author Roo (Prometheus)
  * @since 1.0.0
  */
@@ -34,15 +45,40 @@ public interface ExportService {
     Long submitExportTask(Long userId, Long projectId, ExportRequest request);
 
     /**
-     * 获取导出文件下载资源
+     * 校验并生成流式导出计划
+     *
+     * <p>仅支持CURRENT模式;在写出响应之前调用,以便权限或参数错误仍能以普通错误响应返回
+     *
+     * @param userId 用户ID
+     * @param projectId 项目ID
+     * @param request 导出请求
+     * @return 导出条目列表(顺序即ZIP内顺序)
+     */
+    List<ExportEntry> planStreamingExport(Long userId, Long projectId, ExportRequest request);
+
+    /**
+     * 按导出计划边下载边写出ZIP
+     *
+     * <p>小资产在内存中预取后顺序写入,超过预取上限的大资产边下载边以STORED方式写入(使用数据描述符),
+     * 全程不写临时文件;输出流只向前写,可直接为HTTP响应流
+     *
+     * @param plan 导出计划
+     * @param out 输出流(写完后关闭)
+     * @throws IOException 写出失败(如客户端断开)时抛出
+     */
+    void streamExport(List<ExportEntry> plan, OutputStream out) throws IOException;
+
+    /**
+     * 获取导出文件的下载方式
      *
-     * <p>根据任务ID获取导出的ZIP文件
+     * <p>校验任务归属后返回:对象存储时为带下载文件名的预签名URL,由控制器重定向;
+     * 本地存储时压缩包不在公开目录下,返回本地文件由控制器直接发送
      *
      * @param userId 用户ID
      * @param jobId 导出任务ID
-     * @return 文件资源
+     * @return 下载方式
      */
-    Resource getExportFile(Long userId, Long jobId);
+    ExportDownload getExportDownload(Long userId, Long jobId);
 
     /**
      * 获取导出文件名
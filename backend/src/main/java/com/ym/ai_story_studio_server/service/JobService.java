@@ -1,6 +1,7 @@
 package com.ym.ai_story_studio_server.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.dto.job.JobDetailVO;
 import com.ym.ai_story_studio_server.dto.job.JobQueryRequest;
 import com.ym.ai_story_studio_server.dto.job.JobVO;
@@ -27,6 +28,17 @@ public interface JobService {
      */
     Page<JobVO> getJobPage(Long userId, JobQueryRequest request);
 
+    /**
+     * 游标分页查询任务列表
+     *
+     * <p>筛选条件与 {@link #getJobPage} 相同，按 (创建时间, ID) 倒序定位下一页，不执行COUNT查询(除非withTotal=true)
+     *
+     * @param userId 当前用户ID(用于数据隔离)
+     * @param request 查询请求(cursor+size+筛选条件,page被忽略)
+     * @return 游标分页任务列表
+     */
+    CursorPage<JobVO> getJobCursorPage(Long userId, JobQueryRequest request);
+
     /**
      * 获取任务详情(包含子任务列表)
      *
@@ -1,6 +1,7 @@
 package com.ym.ai_story_studio_server.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.dto.project.CreateProjectRequest;
 import com.ym.ai_story_studio_server.dto.project.ProjectQueryRequest;
 import com.ym.ai_story_studio_server.dto.project.ProjectVO;
@@ -23,6 +24,15 @@ public interface ProjectService {
      */
     Page<ProjectVO> getProjectPage(Long userId, ProjectQueryRequest request);
 
+    /**
+     * 游标分页查询项目列表（筛选条件同 {@link #getProjectPage}，按更新时间倒序）
+     *
+     * @param userId 用户ID
+     * @param request 查询请求（使用cursor/size/withTotal，忽略page）
+     * @return 游标分页结果
+     */
+    CursorPage<ProjectVO> getProjectCursorPage(Long userId, ProjectQueryRequest request);
+
     /**
      * 获取项目详情
      *
@@ -32,6 +42,17 @@ public interface ProjectService {
      */
     ProjectVO getProjectDetail(Long userId, Long projectId);
 
+    /**
+     * 校验项目存在且属于当前用户
+     *
+     * <p>只做一次主键查询，用于在加载工作区列表之前先完成鉴权和ETag协商
+     *
+     * @param userId 用户ID
+     * @param projectId 项目ID
+     * @throws com.ym.ai_story_studio_server.exception.BusinessException 项目不存在或不属于当前用户时抛出
+     */
+    void checkProjectAccess(Long userId, Long projectId);
+
     /**
      * 创建项目
      *
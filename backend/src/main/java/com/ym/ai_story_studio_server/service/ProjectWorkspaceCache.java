@@ -0,0 +1,166 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ym.ai_story_studio_server.config.WorkspaceCacheProperties;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 项目工作台快照缓存服务
+ *
+ * <p>打开项目时编辑器要加载分镜列表（含绑定与资产状态）以及项目角色、场景、道具列表，
+ * 每次刷新或任务完成都会重复这些查询。本服务在Redis中按项目缓存这些列表的序列化结果：
+ * <ul>
+ *   <li>每个项目维护一个单调递增的版本号 {@code WORKSPACE:VER:{projectId}}，
+ *       任何写入在事务提交后通过 {@link ProjectWorkspaceChangedEvent} 递增版本号</li>
+ *   <li>快照 {@code WORKSPACE:SNAP:{projectId}:{section}} 保存"版本号:JSON"，
+ *       读取时版本号一致才命中，否则查库并按查库前读到的版本号回写
+ *       （查库期间发生的写入会让回写的快照立即过时，不会缓存旧数据）</li>
+ *   <li>版本号不存在时以当前毫秒时间初始化，Redis数据丢失后版本号依然大于丢失前的值，
+ *       客户端手中的旧ETag不会被误判为未修改</li>
+ *   <li>Redis不可用时直接查库，不影响接口可用性</li>
+ * </ul>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProjectWorkspaceCache {
+
+    private static final String VERSION_PREFIX = "WORKSPACE:VER:";
+    private static final String SNAPSHOT_PREFIX = "WORKSPACE:SNAP:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final WorkspaceCacheProperties properties;
+    private final StorageService storageService;
+
+    /**
+     * 工作台快照分区
+     */
+    public enum Section {
+        SHOTS, CHARACTERS, SCENES, PROPS
+    }
+
+    /**
+     * 事务提交后递增项目版本号（无事务时立即执行）
+     *
+     * @param event 项目工作台数据变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkspaceChanged(ProjectWorkspaceChangedEvent event) {
+        if (event.projectId() == null) {
+            return;
+        }
+        try {
+            bumpVersion(event.projectId());
+        } catch (DataAccessException e) {
+            log.warn("项目版本号递增失败，快照将在过期后刷新 - projectId: {}", event.projectId(), e);
+        }
+    }
+
+    /**
+     * 获取项目当前版本号（不存在时初始化）
+     *
+     * @param projectId 项目ID
+     * @return 版本号，Redis不可用时返回-1
+     */
+    public long currentVersion(Long projectId) {
+        String key = VERSION_PREFIX + projectId;
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            if (value == null) {
+                redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+                value = redisTemplate.opsForValue().get(key);
+            }
+            return value == null ? -1 : Long.parseLong(value);
+        } catch (DataAccessException e) {
+            log.warn("读取项目版本号失败 - projectId: {}", projectId, e);
+            return -1;
+        }
+    }
+
+    /**
+     * 计算工作台列表接口的ETag
+     *
+     * <p>由项目版本号与当前预签名时间窗口组成（私有存储桶下签名URL随窗口变化）
+     *
+     * @param projectId 项目ID
+     * @return 弱ETag，Redis不可用时返回null（不支持条件请求）
+     */
+    public String etag(Long projectId) {
+        long version = currentVersion(projectId);
+        if (version < 0) {
+            return null;
+        }
+        return "W/\"" + projectId + "-" + version + "-" + storageService.presignWindow() + "\"";
+    }
+
+    /**
+     * 读取快照，版本不一致或不存在时查库并回写
+     *
+     * @param projectId   项目ID
+     * @param section     快照分区
+     * @param elementType 列表元素类型
+     * @param loader      查库函数
+     * @return 列表数据
+     */
+    public <T> List<T> getOrLoad(Long projectId, Section section, Class<T> elementType, Supplier<List<T>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        long version = currentVersion(projectId);
+        if (version < 0) {
+            return loader.get();
+        }
+
+        String key = SNAPSHOT_PREFIX + projectId + ":" + section.name();
+        JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                int separator = cached.indexOf(':');
+                if (separator > 0 && Long.parseLong(cached.substring(0, separator)) == version) {
+                    return objectMapper.readValue(cached.substring(separator + 1), type);
+                }
+            }
+        } catch (DataAccessException | JsonProcessingException | NumberFormatException e) {
+            log.warn("读取工作台快照失败，回退查库 - projectId: {}, section: {}", projectId, section, e);
+        }
+
+        List<T> loaded = loader.get();
+        try {
+            redisTemplate.opsForValue().set(key, version + ":" + objectMapper.writeValueAsString(loaded),
+                    Duration.ofMinutes(properties.getSnapshotTtlMinutes()));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("写入工作台快照失败 - projectId: {}, section: {}", projectId, section, e);
+        }
+        return loaded;
+    }
+
+    /**
+     * 递增项目版本号（不存在时以当前毫秒时间初始化）
+     */
+    private void bumpVersion(Long projectId) {
+        String key = VERSION_PREFIX + projectId;
+        Boolean initialized = redisTemplate.opsForValue()
+                .setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+        if (!Boolean.TRUE.equals(initialized)) {
+            redisTemplate.opsForValue().increment(key);
+        }
+        log.debug("项目版本号已递增 - projectId: {}", projectId);
+    }
+}
@@ -0,0 +1,259 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.ym.ai_story_studio_server.config.QueryStatsProperties;
+import com.ym.ai_story_studio_server.util.QueryScope;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL查询统计服务
+ *
+ * <p>汇总MyBatis查询统计拦截器上报的数据：
+ * <ul>
+ *   <li>按MappedStatement：执行次数、耗时直方图、最大耗时、返回/影响行数</li>
+ *   <li>按作用域（HTTP接口路由模板或MQ队列）：处理次数、SQL总条数、单次最大条数、
+ *       疑似N+1次数与超出预算次数</li>
+ * </ul>
+ *
+ * <p>同一作用域内相同SQL文本执行达到 {@code query-stats.repeat-threshold} 次时判定为疑似N+1并输出WARN日志。
+ * 开启 {@code query-stats.budget-enabled} 后，作用域内SQL条数超出预算时直接抛出异常，
+ * 使超出预算的接口在开发、测试环境返回500，集成测试随之失败
+ *
+ * <p>统计通过 {@link #stats()} 查询，并按固定作用域数输出日志
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueryStatsService {
+
+    /**
+     * 耗时直方图的桶上界（毫秒），最后一个桶收集超过最大上界的查询
+     */
+    private static final long[] BUCKET_BOUNDS_MS = {1, 5, 10, 25, 50, 100, 250, 500, 1000};
+
+    private static final int TOP_STATEMENTS_IN_LOG = 5;
+
+    private final QueryStatsProperties properties;
+
+    private final Map<String, StatementCounter> statements = new ConcurrentHashMap<>();
+    private final Map<String, ScopeCounter> scopes = new ConcurrentHashMap<>();
+    private final LongAdder endedScopes = new LongAdder();
+
+    /**
+     * 单条MappedStatement的统计
+     *
+     * @param count     执行次数
+     * @param avgMillis 平均耗时（毫秒）
+     * @param maxMillis 最大耗时（毫秒）
+     * @param rows      返回/影响的总行数
+     * @param histogram 耗时分布，Key为桶上界（如 {@code <=10ms}、{@code >1000ms}）
+     */
+    public record StatementStats(long count, double avgMillis, long maxMillis, long rows,
+                                 Map<String, Long> histogram) {
+    }
+
+    /**
+     * 单个作用域的统计
+     *
+     * @param executions     处理次数（请求数/消息数）
+     * @param queries        SQL总条数
+     * @param avgQueries     平均每次处理的SQL条数
+     * @param maxQueries     单次处理的最大SQL条数
+     * @param nPlusOne       出现疑似N+1的处理次数
+     * @param budgetExceeded 超出查询预算的处理次数
+     */
+    public record ScopeStats(long executions, long queries, double avgQueries, long maxQueries,
+                             long nPlusOne, long budgetExceeded) {
+    }
+
+    /**
+     * 查询统计汇总
+     *
+     * @param statements MappedStatement ID -> 统计
+     * @param scopes     作用域 -> 统计
+     */
+    public record QueryStats(Map<String, StatementStats> statements, Map<String, ScopeStats> scopes) {
+    }
+
+    /**
+     * 是否开启统计
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 开启作用域并绑定到当前线程，查询预算按作用域名称解析
+     *
+     * @param name 作用域名称
+     */
+    public void beginScope(String name) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int budget = properties.isBudgetEnabled()
+                ? properties.getBudgets().getOrDefault(name, properties.getDefaultBudget())
+                : 0;
+        QueryScope.begin(name, budget);
+    }
+
+    /**
+     * 结束当前线程的作用域并汇总
+     */
+    public void endScope() {
+        QueryScope scope = QueryScope.end();
+        if (scope == null) {
+            return;
+        }
+        ScopeCounter counter = scopes.computeIfAbsent(scope.getName(), key -> new ScopeCounter());
+        counter.executions.increment();
+        counter.queries.add(scope.getQueryCount());
+        counter.maxQueries.accumulate(scope.getQueryCount());
+        if (!scope.getNPlusOneStatements().isEmpty()) {
+            counter.nPlusOne.increment();
+        }
+        if (scope.isBudgetExceeded()) {
+            counter.budgetExceeded.increment();
+        }
+        log.debug("SQL作用域结束 - scope: {}, queries: {}, elapsed: {}ms",
+                scope.getName(), scope.getQueryCount(), scope.elapsedMillis());
+
+        endedScopes.increment();
+        int interval = properties.getStatsLogInterval();
+        if (interval > 0 && endedScopes.sum() % interval == 0) {
+            logStats();
+        }
+    }
+
+    /**
+     * 记录一次SQL执行
+     *
+     * @param statementId MappedStatement ID
+     * @param sql         SQL文本（参数为占位符）
+     * @param nanos       耗时（纳秒）
+     * @param rows        返回/影响的行数，未知时为-1
+     * @throws IllegalStateException 开启查询预算且当前作用域首次超出预算时
+     */
+    public void recordStatement(String statementId, String sql, long nanos, int rows) {
+        long millis = nanos / 1_000_000;
+        StatementCounter counter = statements.computeIfAbsent(statementId, key -> new StatementCounter());
+        counter.count.increment();
+        counter.totalNanos.add(nanos);
+        counter.maxMillis.accumulate(millis);
+        if (rows > 0) {
+            counter.rows.add(rows);
+        }
+        counter.buckets[bucketIndex(millis)].increment();
+
+        if (millis >= properties.getSlowQueryMs()) {
+            log.warn("慢SQL - statement: {}, elapsed: {}ms, rows: {}", statementId, millis, rows);
+        }
+
+        QueryScope scope = QueryScope.current();
+        if (scope == null) {
+            return;
+        }
+        if (scope.record(statementId, sql, properties.getRepeatThreshold())) {
+            log.warn("疑似N+1查询 - scope: {}, statement: {}, 相同SQL已执行{}次",
+                    scope.getName(), statementId, properties.getRepeatThreshold());
+        }
+        if (scope.checkBudget()) {
+            log.error("SQL条数超出查询预算 - scope: {}, budget: {}, statement: {}",
+                    scope.getName(), scope.getBudget(), statementId);
+            throw new IllegalStateException("SQL条数超出查询预算: " + scope.getName()
+                    + " 预算" + scope.getBudget() + "条, 第" + scope.getQueryCount() + "条为 " + statementId);
+        }
+    }
+
+    /**
+     * 查询统计汇总
+     */
+    public QueryStats stats() {
+        Map<String, StatementStats> statementStats = new LinkedHashMap<>();
+        statements.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, StatementCounter> e) -> e.getValue().totalNanos.sum()).reversed())
+                .forEach(e -> statementStats.put(e.getKey(), e.getValue().toStats()));
+
+        Map<String, ScopeStats> scopeStats = new LinkedHashMap<>();
+        scopes.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, ScopeCounter> e) -> e.getValue().queries.sum()).reversed())
+                .forEach(e -> scopeStats.put(e.getKey(), e.getValue().toStats()));
+        return new QueryStats(statementStats, scopeStats);
+    }
+
+    private void logStats() {
+        QueryStats stats = stats();
+        stats.scopes().entrySet().stream().limit(TOP_STATEMENTS_IN_LOG).forEach(e -> log.info(
+                "SQL作用域统计: scope={}, executions={}, avgQueries={}, maxQueries={}, nPlusOne={}, budgetExceeded={}",
+                e.getKey(), e.getValue().executions(), String.format("%.1f", e.getValue().avgQueries()),
+                e.getValue().maxQueries(), e.getValue().nPlusOne(), e.getValue().budgetExceeded()));
+        stats.statements().entrySet().stream().limit(TOP_STATEMENTS_IN_LOG).forEach(e -> log.info(
+                "SQL语句统计: statement={}, count={}, avgMillis={}, maxMillis={}, rows={}",
+                e.getKey(), e.getValue().count(), String.format("%.2f", e.getValue().avgMillis()),
+                e.getValue().maxMillis(), e.getValue().rows()));
+    }
+
+    private static int bucketIndex(long millis) {
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (millis <= BUCKET_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_MS.length;
+    }
+
+    private static final class StatementCounter {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+
+        private StatementCounter() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private StatementStats toStats() {
+            long total = count.sum();
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                histogram.put("<=" + BUCKET_BOUNDS_MS[i] + "ms", buckets[i].sum());
+            }
+            histogram.put(">" + BUCKET_BOUNDS_MS[BUCKET_BOUNDS_MS.length - 1] + "ms",
+                    buckets[BUCKET_BOUNDS_MS.length].sum());
+            return new StatementStats(total, total == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / total,
+                    maxMillis.get(), rows.sum(), histogram);
+        }
+    }
+
+    private static final class ScopeCounter {
+
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final LongAccumulator maxQueries = new LongAccumulator(Math::max, 0);
+        private final LongAdder nPlusOne = new LongAdder();
+        private final LongAdder budgetExceeded = new LongAdder();
+
+        private ScopeStats toStats() {
+            long total = executions.sum();
+            return new ScopeStats(total, queries.sum(), total == 0 ? 0 : (double) queries.sum() / total,
+                    maxQueries.get(), nPlusOne.sum(), budgetExceeded.sum());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ym.ai_story_studio_server.config.ReferenceCacheProperties;
+import com.ym.ai_story_studio_server.event.ReferenceDataChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 参考数据两级缓存服务
+ *
+ * <p>模型列表、风格预设、指令模板、充值套餐与兑换规则每次调用都查库，
+ * 而这些数据通常一周才变一次。本服务按区域（{@link Region}）缓存查询结果：
+ * <ul>
+ *   <li>一级：进程内有界Map，按最近最少使用淘汰，条目存活 {@code reference-cache.local-ttl-seconds}</li>
+ *   <li>二级：Redis Hash {@code REFDATA:{region}}，字段为缓存Key、值为JSON，
+ *       整个Hash存活 {@code reference-cache.redis-ttl-minutes}</li>
+ *   <li>失效：删除Redis中的条目后在频道 {@value #CHANNEL} 广播 {@code region} 或 {@code region:key}，
+ *       所有实例（含本实例）收到后清除进程内条目。运维直接改表后可在redis-cli执行
+ *       {@code PUBLISH REFDATA:INVALIDATE AI_MODELS} 使全部实例失效</li>
+ *   <li>实例启动时广播一次全量失效：参考数据主要通过Flyway迁移变更，新版本启动即刷新整个集群</li>
+ * </ul>
+ *
+ * <p>计费规则直接决定扣费金额，且只通过SQL变更、没有可发布失效的写入路径，不进入本缓存，扣费时总是查库。
+ *
+ * <p>缓存中的对象为共享实例，调用方不得修改。Redis不可用时回退到查库。
+ * 各区域的一级/二级命中与未命中次数通过 {@link #stats()} 查询，并按固定查询次数输出日志
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataCache implements MessageListener {
+
+    /**
+     * 失效广播频道
+     */
+    public static final String CHANNEL = "REFDATA:INVALIDATE";
+
+    private static final String KEY_PREFIX = "REFDATA:";
+    private static final char KEY_SEPARATOR = ':';
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ReferenceCacheProperties properties;
+
+    private final Map<Region, LocalRegion> regions = new EnumMap<>(Region.class);
+    private final LongAdder lookups = new LongAdder();
+
+    /**
+     * 缓存区域
+     */
+    public enum Region {
+        AI_MODELS, STYLE_PRESETS, PROMPT_TEMPLATES, RECHARGE_PRODUCTS, EXCHANGE_RULES
+    }
+
+    /**
+     * 单个区域的缓存统计
+     *
+     * @param localHits     一级命中次数
+     * @param redisHits     二级命中次数
+     * @param misses        未命中（实际查库）次数
+     * @param hitRatio      总命中率
+     * @param invalidations 收到的失效次数
+     * @param evictions     一级容量淘汰次数
+     * @param entries       当前一级条目数
+     */
+    public record RegionStats(long localHits, long redisHits, long misses, double hitRatio,
+                              long invalidations, long evictions, int entries) {
+    }
+
+    /**
+     * 初始化各区域并订阅失效频道
+     */
+    @PostConstruct
+    public void init() {
+        for (Region region : Region.values()) {
+            regions.put(region, new LocalRegion(properties.getLocalMaxEntries()));
+        }
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 实例启动完成后广播全量失效
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        for (Region region : Region.values()) {
+            invalidate(region, null);
+        }
+        log.info("参考数据缓存已广播全量失效");
+    }
+
+    /**
+     * 参考数据写入的事务提交后清除缓存（无事务时立即执行）
+     *
+     * @param event 参考数据变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        invalidate(event.region(), event.key());
+    }
+
+    /**
+     * 依次查询一级、二级缓存，都未命中时调用loader查库并回填
+     *
+     * @param region 缓存区域
+     * @param key    缓存Key（区域内唯一）
+     * @param type   值类型（用于二级缓存反序列化）
+     * @param loader 查库函数，返回null时不缓存
+     * @return 缓存值
+     */
+    public <T> T get(Region region, String key, TypeReference<T> type, Supplier<T> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        LocalRegion local = regions.get(region);
+        recordLookup();
+
+        T value = local.get(key);
+        if (value != null) {
+            local.localHits.increment();
+            return value;
+        }
+
+        String redisKey = KEY_PREFIX + region.name();
+        try {
+            Object json = redisTemplate.opsForHash().get(redisKey, key);
+            if (json != null) {
+                value = objectMapper.readValue(json.toString(), type);
+                local.put(key, value, localTtlMillis());
+                local.redisHits.increment();
+                return value;
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("读取参考数据二级缓存失败，回退查库 - region: {}, key: {}", region, key, e);
+        }
+
+        local.misses.increment();
+        long generation = local.generation;
+        value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        // 查库期间收到失效广播时不回填，避免把旧数据写回缓存
+        if (local.generation == generation) {
+            local.put(key, value, localTtlMillis());
+            try {
+                redisTemplate.opsForHash().put(redisKey, key, objectMapper.writeValueAsString(value));
+                Long expire = redisTemplate.getExpire(redisKey);
+                if (expire == null || expire < 0) {
+                    redisTemplate.expire(redisKey, Duration.ofMinutes(properties.getRedisTtlMinutes()));
+                }
+            } catch (DataAccessException | JsonProcessingException e) {
+                log.warn("写入参考数据二级缓存失败 - region: {}, key: {}", region, key, e);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 清除缓存并广播到所有实例
+     *
+     * @param region 缓存区域
+     * @param key    缓存Key，为null时清除整个区域
+     */
+    public void invalidate(Region region, String key) {
+        String redisKey = KEY_PREFIX + region.name();
+        try {
+            if (key == null) {
+                redisTemplate.delete(redisKey);
+                redisTemplate.convertAndSend(CHANNEL, region.name());
+            } else {
+                redisTemplate.opsForHash().delete(redisKey, key);
+                redisTemplate.convertAndSend(CHANNEL, region.name() + KEY_SEPARATOR + key);
+            }
+        } catch (DataAccessException e) {
+            log.warn("参考数据缓存失效广播失败，其他实例将在一级缓存过期后刷新 - region: {}, key: {}", region, key, e);
+        }
+        // 广播失败时至少保证本实例立即生效
+        evictLocal(region, key);
+    }
+
+    /**
+     * 处理失效广播
+     *
+     * @param message 广播消息，内容为 {@code region} 或 {@code region:key}
+     * @param pattern 订阅模式（未使用）
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(KEY_SEPARATOR);
+        String regionName = separator < 0 ? body : body.substring(0, separator);
+        String key = separator < 0 ? null : body.substring(separator + 1);
+        Region region;
+        try {
+            region = Region.valueOf(regionName.trim());
+        } catch (IllegalArgumentException e) {
+            log.warn("忽略未知的参考数据缓存区域: {}", body);
+            return;
+        }
+        // 各实例收到广播后再删一次Redis条目：覆盖redis-cli直接广播的情况，
+        // 也清掉其他实例在广播前刚查完库回填的旧值（重复删除无副作用）
+        try {
+            if (key == null) {
+                redisTemplate.delete(KEY_PREFIX + region.name());
+            } else {
+                redisTemplate.opsForHash().delete(KEY_PREFIX + region.name(), key);
+            }
+        } catch (DataAccessException e) {
+            log.warn("删除参考数据二级缓存失败 - region: {}, key: {}", region, key, e);
+        }
+        evictLocal(region, key);
+    }
+
+    /**
+     * 查询各区域缓存统计
+     */
+    public Map<Region, RegionStats> stats() {
+        Map<Region, RegionStats> result = new EnumMap<>(Region.class);
+        regions.forEach((region, local) -> {
+            long localHits = local.localHits.sum();
+            long redisHits = local.redisHits.sum();
+            long misses = local.misses.sum();
+            long total = localHits + redisHits + misses;
+            result.put(region, new RegionStats(localHits, redisHits, misses,
+                    total == 0 ? 0 : (double) (localHits + redisHits) / total,
+                    local.invalidations.sum(), local.evictions.sum(), local.size()));
+        });
+        return result;
+    }
+
+    private void evictLocal(Region region, String key) {
+        LocalRegion local = regions.get(region);
+        if (local == null) {
+            return;
+        }
+        local.invalidate(key);
+        log.debug("参考数据一级缓存已清除 - region: {}, key: {}", region, key);
+    }
+
+    private long localTtlMillis() {
+        return properties.getLocalTtlSeconds() * 1000L;
+    }
+
+    private void recordLookup() {
+        lookups.increment();
+        int interval = properties.getStatsLogInterval();
+        if (interval > 0 && lookups.sum() % interval == 0) {
+            stats().forEach((region, s) -> log.info(
+                    "参考数据缓存统计: region={}, hitRatio={}, localHits={}, redisHits={}, misses={}, "
+                            + "invalidations={}, evictions={}, entries={}",
+                    region, String.format("%.3f", s.hitRatio()), s.localHits(), s.redisHits(), s.misses(),
+                    s.invalidations(), s.evictions(), s.entries()));
+        }
+    }
+
+    /**
+     * 一级缓存区域：按访问顺序的有界LRU，条目带过期时间，所有访问持有 {@code this} 锁
+     */
+    private static final class LocalRegion {
+
+        private final LinkedHashMap<String, LocalEntry> entries;
+        private final LongAdder localHits = new LongAdder();
+        private final LongAdder redisHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        /**
+         * 失效计数，查库前后比较以丢弃查库期间已被失效的结果
+         */
+        private volatile long generation;
+
+        private LocalRegion(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                    if (size() > maxEntries) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized <T> T get(String key) {
+            LocalEntry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return (T) entry.value();
+        }
+
+        private synchronized void put(String key, Object value, long ttlMillis) {
+            entries.put(key, new LocalEntry(value, System.currentTimeMillis() + ttlMillis));
+        }
+
+        private synchronized void invalidate(String key) {
+            generation++;
+            invalidations.increment();
+            if (key == null) {
+                entries.clear();
+            } else {
+                entries.remove(key);
+            }
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    private record LocalEntry(Object value, long expiresAt) {
+    }
+}
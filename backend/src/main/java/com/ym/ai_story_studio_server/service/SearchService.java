@@ -0,0 +1,29 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.ym.ai_story_studio_server.common.CursorPage;
+import com.ym.ai_story_studio_server.dto.search.SearchHitVO;
+import com.ym.ai_story_studio_server.dto.search.SearchRequest;
+
+/**
+ * 全文搜索服务接口
+ *
+ * <p>基于ngram FULLTEXT索引搜索项目名称、角色/场景/道具库的名称与描述、分镜剧本文本，
+ * 结果按相关度排序并使用游标分页
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public interface SearchService {
+
+    /**
+     * 搜索当前用户的数据
+     *
+     * <p>按 (相关度, ID) 倒序定位下一页，不执行COUNT查询
+     *
+     * @param userId 当前用户ID(用于数据隔离)
+     * @param request 搜索请求
+     * @return 游标分页搜索结果
+     * @throws com.ym.ai_story_studio_server.exception.BusinessException 关键词中存在不足2个字符的词或游标无效时抛出
+     */
+    CursorPage<SearchHitVO> search(Long userId, SearchRequest request);
+}
@@ -0,0 +1,475 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.ym.ai_story_studio_server.config.StorageProperties;
+import com.ym.ai_story_studio_server.entity.Asset;
+import com.ym.ai_story_studio_server.entity.AssetVersion;
+import com.ym.ai_story_studio_server.entity.CharacterLibrary;
+import com.ym.ai_story_studio_server.entity.Job;
+import com.ym.ai_story_studio_server.entity.JobItem;
+import com.ym.ai_story_studio_server.entity.Project;
+import com.ym.ai_story_studio_server.entity.ProjectCharacter;
+import com.ym.ai_story_studio_server.entity.ProjectScene;
+import com.ym.ai_story_studio_server.entity.PropLibrary;
+import com.ym.ai_story_studio_server.entity.SceneLibrary;
+import com.ym.ai_story_studio_server.entity.StoryboardShot;
+import com.ym.ai_story_studio_server.entity.StylePreset;
+import com.ym.ai_story_studio_server.entity.User;
+import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.mapper.AssetMapper;
+import com.ym.ai_story_studio_server.mapper.AssetVersionMapper;
+import com.ym.ai_story_studio_server.mapper.CharacterLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.JobItemMapper;
+import com.ym.ai_story_studio_server.mapper.JobMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectCharacterMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectSceneMapper;
+import com.ym.ai_story_studio_server.mapper.PropLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.SceneLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.StoryboardShotMapper;
+import com.ym.ai_story_studio_server.mapper.StylePresetMapper;
+import com.ym.ai_story_studio_server.mapper.UserMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 存储孤儿对象回收任务
+ *
+ * <p>项目、分镜的删除是软删除，分镜资产删除与失败的任务也会留下已上传但无人引用的对象。
+ * 本任务将存储桶列举结果与业务表中的引用对账，回收无引用的对象：
+ * <ul>
+ *   <li>引用来源: 资产版本(原图/交付副本/缩略图/生成参数)、项目模型配置、用户头像、
+ *       资源库与项目内角色/场景缩略图、风格预设、导出压缩包与任务输入</li>
+ *   <li>软删除超过 {@code storage.gc.deleted-project-retention-days} 的项目/分镜，其资产不再计入引用</li>
+ *   <li>最后修改时间不足 {@code storage.gc.min-age-hours} 的对象不回收（上传后尚未落库）</li>
+ *   <li>孤儿对象按每批最多1000个Key批量删除，批次之间限速</li>
+ *   <li>试运行模式只输出报告（数量、容量与样例Key），不删除任何对象</li>
+ * </ul>
+ *
+ * <p>引用集合在内存中构建，每个Key约占百字节；内容寻址对象逐个在登记记录的行锁内删除（见
+ * {@link StorageObjectService#forget}），期间被新上传复用的对象跳过。
+ *
+ * <p>多实例部署时每个实例都会触发定时任务，回收前先获取Redis集群锁 {@value #LOCK_KEY}，
+ * 获取失败说明其他实例正在回收，本次跳过。
+ *
+ * <p>无法解析为对象Key的引用URL（且域名不在 {@code storage.gc.ignored-url-hosts} 中）计为"无法识别"：
+ * 它们可能指向本存储中的对象（如未登记的旧CDN域名），此时正式回收直接中止，试运行在报告中列出样例
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageGarbageCollector {
+
+    /**
+     * 分页扫描业务表与列举存储桶的每页数量
+     */
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * 报告中保留的样例Key数量
+     */
+    private static final int SAMPLE_SIZE = 50;
+
+    /**
+     * JSON字段中的URL
+     */
+    private static final Pattern URL_PATTERN = Pattern.compile("https?://[^\\s\"'\\\\]+");
+
+    /**
+     * 回收任务集群锁
+     */
+    private static final String LOCK_KEY = "STORAGE:GC:LOCK";
+
+    /**
+     * 只释放自己持有的锁（锁值为持有者令牌）
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StorageService storageService;
+    private final StorageObjectService storageObjectService;
+    private final StorageProperties storageProperties;
+    private final StringRedisTemplate redisTemplate;
+    private final AssetVersionMapper assetVersionMapper;
+    private final AssetMapper assetMapper;
+    private final ProjectMapper projectMapper;
+    private final StoryboardShotMapper shotMapper;
+    private final ProjectCharacterMapper projectCharacterMapper;
+    private final ProjectSceneMapper projectSceneMapper;
+    private final CharacterLibraryMapper characterLibraryMapper;
+    private final SceneLibraryMapper sceneLibraryMapper;
+    private final PropLibraryMapper propLibraryMapper;
+    private final StylePresetMapper stylePresetMapper;
+    private final UserMapper userMapper;
+    private final JobMapper jobMapper;
+    private final JobItemMapper jobItemMapper;
+
+    /**
+     * 回收报告
+     *
+     * @param dryRun      是否为试运行
+     * @param scanned     列举的对象数量
+     * @param referenced  业务表中引用的Key数量
+     * @param orphans     孤儿对象数量
+     * @param orphanBytes 孤儿对象总大小（字节）
+     * @param deleted     实际删除的对象数量
+     * @param samples     孤儿对象样例Key
+     * @param unrecognized        无法识别的引用URL数量
+     * @param unrecognizedSamples 无法识别的引用URL样例
+     */
+    public record GcReport(boolean dryRun, long scanned, long referenced, long orphans, long orphanBytes,
+                           long deleted, List<String> samples, long unrecognized, List<String> unrecognizedSamples) {
+    }
+
+    /**
+     * 对账过程中收集的引用
+     */
+    private static class References {
+
+        private final Set<String> keys = new HashSet<>();
+
+        private long unrecognized;
+
+        private final List<String> unrecognizedSamples = new ArrayList<>();
+    }
+
+    /**
+     * 定时回收入口（{@code storage.gc.enabled} 开启时执行）
+     */
+    @Scheduled(initialDelayString = "${storage.gc.interval-ms:86400000}",
+            fixedDelayString = "${storage.gc.interval-ms:86400000}")
+    public void scheduledCollect() {
+        if (!storageProperties.getGc().isEnabled()) {
+            return;
+        }
+        try {
+            collect(storageProperties.getGc().isDryRun());
+        } catch (StorageException e) {
+            log.warn("孤儿对象回收中止: code={}, error={}", e.getErrorCode(), e.getMessage());
+        }
+    }
+
+    /**
+     * 对账并回收孤儿对象
+     *
+     * @param dryRun 为true时只统计不删除
+     * @return 回收报告
+     * @throws StorageException 其他实例正在回收、列举或删除失败时抛出
+     */
+    public GcReport collect(boolean dryRun) {
+        String token = UUID.randomUUID().toString();
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token,
+                Duration.ofMinutes(storageProperties.getGc().getLockTtlMinutes()));
+        if (!Boolean.TRUE.equals(locked)) {
+            throw new StorageException("GC_RUNNING", "其他实例正在执行孤儿对象回收");
+        }
+        try {
+            return doCollect(dryRun);
+        } finally {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY), token);
+        }
+    }
+
+    private GcReport doCollect(boolean dryRun) {
+        long startTime = System.currentTimeMillis();
+        StorageProperties.GcConfig gc = storageProperties.getGc();
+        LocalDateTime ageCutoff = LocalDateTime.now().minusHours(gc.getMinAgeHours());
+        long ageCutoffMillis = startTime - gc.getMinAgeHours() * 3600_000L;
+
+        References references = collectReferences(LocalDateTime.now().minusDays(gc.getDeletedProjectRetentionDays()));
+        Set<String> referenced = references.keys;
+        if (!dryRun && references.unrecognized > 0) {
+            log.warn("孤儿对象回收中止: 存在{}个无法识别的引用URL, 样例={}",
+                    references.unrecognized, references.unrecognizedSamples);
+            throw new StorageException("GC_UNRECOGNIZED_URLS",
+                    "存在" + references.unrecognized + "个无法识别的引用URL，请登记历史访问域名或忽略域名后重试");
+        }
+
+        long scanned = 0;
+        long orphans = 0;
+        long orphanBytes = 0;
+        long deleted = 0;
+        List<String> samples = new ArrayList<>();
+        List<String> batch = new ArrayList<>(StorageService.MAX_BATCH_DELETE);
+        long batchInterval = 1000L / Math.max(1, gc.getDeleteBatchesPerSecond());
+        long lastBatchAt = 0;
+
+        String marker = null;
+        do {
+            StorageService.ObjectPage page = storageService.listObjects(marker, PAGE_SIZE);
+            for (StorageService.StoredObject object : page.objects()) {
+                scanned++;
+                if (referenced.contains(object.key()) || object.lastModified() > ageCutoffMillis) {
+                    continue;
+                }
+                orphans++;
+                orphanBytes += object.size();
+                if (samples.size() < SAMPLE_SIZE) {
+                    samples.add(object.key());
+                }
+                if (dryRun) {
+                    continue;
+                }
+                if (storageObjectService.isContentKey(object.key())) {
+                    if (forgetContentObject(object.key(), ageCutoff)) {
+                        deleted++;
+                    }
+                    continue;
+                }
+                batch.add(object.key());
+                if (batch.size() == StorageService.MAX_BATCH_DELETE) {
+                    lastBatchAt = throttle(lastBatchAt, batchInterval);
+                    deleted += storageService.deleteObjects(batch).size();
+                    batch.clear();
+                }
+            }
+            marker = page.nextMarker();
+        } while (marker != null);
+
+        if (!batch.isEmpty()) {
+            throttle(lastBatchAt, batchInterval);
+            deleted += storageService.deleteObjects(batch).size();
+        }
+
+        GcReport report = new GcReport(dryRun, scanned, referenced.size(), orphans, orphanBytes, deleted, samples,
+                references.unrecognized, references.unrecognizedSamples);
+        log.info("孤儿对象回收{}: 扫描={}, 引用={}, 孤儿={}, 孤儿容量={}MB, 删除={}, 耗时={}ms, 样例={}, 无法识别URL={}, URL样例={}",
+                dryRun ? "(试运行)" : "", scanned, referenced.size(), orphans, orphanBytes / (1024 * 1024),
+                deleted, System.currentTimeMillis() - startTime, samples,
+                references.unrecognized, references.unrecognizedSamples);
+        return report;
+    }
+
+    /**
+     * 从业务表收集仍被引用的对象Key
+     *
+     * @param deletedCutoff 软删除早于该时间的项目/分镜，其资产不计入引用
+     */
+    private References collectReferences(LocalDateTime deletedCutoff) {
+        References referenced = new References();
+
+        Set<Long> expiredProjectIds = new HashSet<>();
+        scan(projectMapper, Project::getId, List.of(Project::getId, Project::getDeletedAt, Project::getModelConfigJson),
+                q -> q,
+                project -> {
+                    if (project.getDeletedAt() != null && project.getDeletedAt().isBefore(deletedCutoff)) {
+                        expiredProjectIds.add(project.getId());
+                    } else {
+                        // 模型配置中可能包含参考图等上传到本存储的URL
+                        addJsonUrls(referenced, project.getModelConfigJson());
+                    }
+                });
+        Set<Long> expiredShotIds = new HashSet<>();
+        scan(shotMapper, StoryboardShot::getId, List.of(StoryboardShot::getId),
+                q -> q.lt(StoryboardShot::getDeletedAt, deletedCutoff),
+                shot -> expiredShotIds.add(shot.getId()));
+        Set<Long> expiredAssetIds = new HashSet<>();
+        scan(assetMapper, Asset::getId, List.of(Asset::getId, Asset::getProjectId, Asset::getOwnerType, Asset::getOwnerId),
+                q -> q,
+                asset -> {
+                    if (expiredProjectIds.contains(asset.getProjectId())
+                            || ("SHOT".equals(asset.getOwnerType()) && expiredShotIds.contains(asset.getOwnerId()))) {
+                        expiredAssetIds.add(asset.getId());
+                    }
+                });
+
+        scan(assetVersionMapper, AssetVersion::getId,
+                List.of(AssetVersion::getId, AssetVersion::getAssetId, AssetVersion::getUrl, AssetVersion::getObjectKey,
+                        AssetVersion::getDeliveryUrl, AssetVersion::getDeliveryObjectKey, AssetVersion::getThumbSmallUrl,
+                        AssetVersion::getThumbMediumUrl, AssetVersion::getThumbLargeUrl, AssetVersion::getParamsJson),
+                q -> q,
+                version -> {
+                    if (expiredAssetIds.contains(version.getAssetId())) {
+                        return;
+                    }
+                    addUrl(referenced, version.getUrl());
+                    addKey(referenced, version.getObjectKey());
+                    addUrl(referenced, version.getDeliveryUrl());
+                    addKey(referenced, version.getDeliveryObjectKey());
+                    addUrl(referenced, version.getThumbSmallUrl());
+                    addUrl(referenced, version.getThumbMediumUrl());
+                    addUrl(referenced, version.getThumbLargeUrl());
+                    addJsonUrls(referenced, version.getParamsJson());
+                });
+
+        scan(projectCharacterMapper, ProjectCharacter::getId,
+                List.of(ProjectCharacter::getId, ProjectCharacter::getProjectId, ProjectCharacter::getThumbnailUrl),
+                q -> q.isNotNull(ProjectCharacter::getThumbnailUrl),
+                character -> {
+                    if (!expiredProjectIds.contains(character.getProjectId())) {
+                        addUrl(referenced, character.getThumbnailUrl());
+                    }
+                });
+        scan(projectSceneMapper, ProjectScene::getId,
+                List.of(ProjectScene::getId, ProjectScene::getProjectId, ProjectScene::getThumbnailUrl),
+                q -> q.isNotNull(ProjectScene::getThumbnailUrl),
+                scene -> {
+                    if (!expiredProjectIds.contains(scene.getProjectId())) {
+                        addUrl(referenced, scene.getThumbnailUrl());
+                    }
+                });
+
+        scanUrls(characterLibraryMapper, CharacterLibrary::getId, CharacterLibrary::getThumbnailUrl, referenced);
+        scanUrls(sceneLibraryMapper, SceneLibrary::getId, SceneLibrary::getThumbnailUrl, referenced);
+        scanUrls(propLibraryMapper, PropLibrary::getId, PropLibrary::getThumbnailUrl, referenced);
+        scanUrls(stylePresetMapper, StylePreset::getId, StylePreset::getThumbnailUrl, referenced);
+        scanUrls(userMapper, User::getId, User::getAvatarUrl, referenced);
+        scanUrls(jobMapper, Job::getId, Job::getResultUrl, referenced);
+        scan(jobItemMapper, JobItem::getId, List.of(JobItem::getId, JobItem::getInputJson),
+                q -> q.isNotNull(JobItem::getInputJson),
+                item -> addJsonUrls(referenced, item.getInputJson()));
+
+        return referenced;
+    }
+
+    /**
+     * 收集单个URL字段中的引用
+     */
+    private <T> void scanUrls(BaseMapper<T> mapper, SFunction<T, Long> idColumn, SFunction<T, String> urlColumn,
+                              References referenced) {
+        scan(mapper, idColumn, List.of(idColumn, urlColumn), q -> q.isNotNull(urlColumn),
+                row -> addUrl(referenced, urlColumn.apply(row)));
+    }
+
+    /**
+     * 按主键游标分页扫描整张表（只查询指定列）
+     */
+    private <T> void scan(BaseMapper<T> mapper, SFunction<T, Long> idColumn, List<SFunction<T, ?>> columns,
+                          Function<LambdaQueryWrapper<T>, LambdaQueryWrapper<T>> filter,
+                          Consumer<T> consumer) {
+        Long lastId = 0L;
+        while (true) {
+            LambdaQueryWrapper<T> query = new LambdaQueryWrapper<>();
+            query.select(columns)
+                    .gt(idColumn, lastId)
+                    .orderByAsc(idColumn)
+                    .last("LIMIT " + PAGE_SIZE);
+            List<T> rows = mapper.selectList(filter.apply(query));
+            for (T row : rows) {
+                consumer.accept(row);
+            }
+            if (rows.size() < PAGE_SIZE) {
+                return;
+            }
+            lastId = idColumn.apply(rows.get(rows.size() - 1));
+        }
+    }
+
+    private void addUrl(References referenced, String url) {
+        if (url == null || url.isBlank()) {
+            return;
+        }
+        String key = storageService.toObjectKey(url);
+        if (key != null) {
+            addKey(referenced, key);
+            return;
+        }
+        if (isIgnoredHost(url)) {
+            return;
+        }
+        referenced.unrecognized++;
+        if (referenced.unrecognizedSamples.size() < SAMPLE_SIZE) {
+            referenced.unrecognizedSamples.add(url);
+        }
+    }
+
+    private void addKey(References referenced, String key) {
+        if (key != null && !key.isEmpty()) {
+            referenced.keys.add(key);
+        }
+    }
+
+    /**
+     * URL域名是否为 {@code storage.gc.ignored-url-hosts} 中的域名或其子域名
+     */
+    private boolean isIgnoredHost(String url) {
+        int scheme = url.indexOf("://");
+        String host = url.substring(scheme >= 0 ? scheme + 3 : 0);
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c == '/' || c == ':' || c == '?' || c == '#') {
+                host = host.substring(0, i);
+                break;
+            }
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        for (String ignored : storageProperties.getGc().getIgnoredUrlHosts()) {
+            String suffix = ignored.trim().toLowerCase(Locale.ROOT);
+            if (!suffix.isEmpty() && (host.equals(suffix) || host.endsWith("." + suffix))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addJsonUrls(References referenced, String json) {
+        if (json == null || !json.contains("://")) {
+            return;
+        }
+        Matcher matcher = URL_PATTERN.matcher(json);
+        while (matcher.find()) {
+            addUrl(referenced, matcher.group());
+        }
+    }
+
+    /**
+     * 在登记记录的行锁内删除内容寻址对象，期间被新上传复用时跳过
+     *
+     * @return 对象是否已删除
+     */
+    private boolean forgetContentObject(String objectKey, LocalDateTime ageCutoff) {
+        try {
+            return storageObjectService.forget(objectKey, ageCutoff, () -> {
+                if (storageService.deleteObjects(List.of(objectKey)).isEmpty()) {
+                    throw new IOException("删除对象失败: " + objectKey);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("回收内容寻址对象失败，保留登记记录: objectKey={}, error={}", objectKey, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 批量删除限速：距上一批不足间隔时等待
+     *
+     * @return 本批发起时间
+     */
+    private long throttle(long lastBatchAt, long interval) {
+        long wait = lastBatchAt + interval - System.currentTimeMillis();
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StorageException("GC_INTERRUPTED", "孤儿对象回收被中断");
+            }
+        }
+        return System.currentTimeMillis();
+    }
+}
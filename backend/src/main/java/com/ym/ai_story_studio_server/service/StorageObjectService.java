@@ -0,0 +1,184 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.ym.ai_story_studio_server.config.StorageProperties;
+import com.ym.ai_story_studio_server.entity.StorageObject;
+import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.mapper.StorageObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * 内容寻址存储对象引用计数服务
+ *
+ * <p>开启 {@code storage.dedup.enabled} 后，存储服务按内容摘要生成对象Key，
+ * 相同内容只存一份，本服务维护每个对象的引用计数：
+ * <ul>
+ *   <li>上传：先 {@link #acquire} 占用一个引用（未登记时登记，引用计数为1），再写入对象；
+ *       写入失败时 {@link #release} 归还</li>
+ *   <li>删除：{@link #release} 引用计数-1，只有最后一个引用被删除时才物理删除对象</li>
+ * </ul>
+ *
+ * <p>并发控制全部在数据库中完成，多个实例同时操作同一对象也不会误删：
+ * 释放最后一个引用时在 {@code SELECT ... FOR UPDATE} 行锁内删除登记记录与对象，
+ * 此时其他实例对该Key的增加引用或登记会等待锁释放；等到的实例看不到登记记录，会重新登记并写入对象。
+ * 上传方在写入对象之前就已持有引用，写入期间对象不会被删除
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageObjectService {
+
+    /**
+     * 登记与增加引用交替失败（其他实例同时在删除同一对象）时的最大重试次数
+     */
+    private static final int MAX_ACQUIRE_ATTEMPTS = 3;
+
+    private final StorageObjectMapper storageObjectMapper;
+    private final StorageProperties storageProperties;
+
+    /**
+     * 是否开启内容寻址去重模式
+     */
+    public boolean isEnabled() {
+        return storageProperties.getDedup().isEnabled();
+    }
+
+    /**
+     * 判断对象Key是否属于内容寻址存储区
+     *
+     * @param objectKey 对象Key
+     * @return 是否为内容寻址Key
+     */
+    public boolean isContentKey(String objectKey) {
+        return objectKey != null && objectKey.startsWith(storageProperties.getDedup().getPrefix() + "/");
+    }
+
+    /**
+     * 物理删除对象的操作（在登记记录的行锁内执行）
+     */
+    @FunctionalInterface
+    public interface ObjectDeleter {
+
+        /**
+         * 删除对象，对象不存在时不抛异常
+         *
+         * @throws IOException 删除失败时抛出（登记记录随事务回滚保留）
+         */
+        void delete() throws IOException;
+    }
+
+    /**
+     * 为已登记的对象增加一个引用
+     *
+     * @param objectKey 对象Key
+     * @return 对象已登记时返回true，未登记时返回false（调用方需上传并登记）
+     */
+    public boolean retain(String objectKey) {
+        LambdaUpdateWrapper<StorageObject> update = new LambdaUpdateWrapper<>();
+        update.eq(StorageObject::getObjectKey, objectKey)
+                .setSql("ref_count = ref_count + 1");
+        return storageObjectMapper.update(null, update) > 0;
+    }
+
+    /**
+     * 为对象占用一个引用，未登记时登记（引用计数为1）
+     *
+     * <p>在写入对象之前调用：返回后该对象不会被其他实例删除。
+     * 已登记的对象通常已写入，但登记它的实例可能仍在写入或写入失败，调用方仍需确认对象存在
+     *
+     * @param objectKey   对象Key
+     * @param sha256      内容摘要
+     * @param size        对象大小（字节）
+     * @param contentType MIME类型
+     * @return 本次新登记时返回true（调用方需写入对象），对象已登记时返回false
+     * @throws StorageException 多次重试仍无法登记时抛出
+     */
+    public boolean acquire(String objectKey, String sha256, long size, String contentType) {
+        for (int attempt = 0; attempt < MAX_ACQUIRE_ATTEMPTS; attempt++) {
+            if (retain(objectKey)) {
+                return false;
+            }
+            StorageObject storageObject = new StorageObject();
+            storageObject.setObjectKey(objectKey);
+            storageObject.setSha256(sha256);
+            storageObject.setSize(size);
+            storageObject.setContentType(contentType);
+            storageObject.setRefCount(1);
+            try {
+                storageObjectMapper.insert(storageObject);
+                return true;
+            } catch (DuplicateKeyException e) {
+                // 其他实例刚刚登记，重新尝试增加引用
+                log.debug("内容寻址对象并发登记，重试增加引用: objectKey={}", objectKey);
+            }
+        }
+        throw new StorageException("UPLOAD_FAILED", "内容寻址对象登记失败，请重试: " + objectKey);
+    }
+
+    /**
+     * 释放对象的一个引用，最后一个引用释放时物理删除对象
+     *
+     * <p>在登记记录的行锁内执行：引用计数大于1时减1；否则先删除登记记录再删除对象，
+     * 删除对象失败时事务回滚，登记记录保留。未登记的对象（去重开启前上传）直接删除
+     *
+     * @param objectKey 对象Key
+     * @param deleter   物理删除对象的操作
+     * @return 对象已物理删除时返回true，仍有引用时返回false
+     * @throws IOException 删除对象失败时抛出
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean release(String objectKey, ObjectDeleter deleter) throws IOException {
+        StorageObject storageObject = storageObjectMapper.selectForUpdate(objectKey);
+        if (storageObject != null && storageObject.getRefCount() > 1) {
+            storageObjectMapper.update(null, new LambdaUpdateWrapper<StorageObject>()
+                    .eq(StorageObject::getId, storageObject.getId())
+                    .setSql("ref_count = ref_count - 1"));
+            log.info("内容寻址对象仍有引用，跳过物理删除: objectKey={}, refCount={}",
+                    objectKey, storageObject.getRefCount() - 1);
+            return false;
+        }
+
+        if (storageObject != null) {
+            storageObjectMapper.deleteById(storageObject.getId());
+        }
+        deleter.delete();
+        return true;
+    }
+
+    /**
+     * 回收孤儿对象：删除登记记录与对象
+     *
+     * <p>业务表中已无引用的内容寻址对象，其引用计数可能因软删除未被释放而大于0。
+     * 在登记记录的行锁内执行，仅当登记记录在截止时间之后没有被更新（即期间没有新的上传复用该对象）时
+     * 才删除登记记录并物理删除对象；删除对象失败时事务回滚，登记记录保留
+     *
+     * @param objectKey 对象Key
+     * @param cutoff    截止时间
+     * @param deleter   物理删除对象的操作
+     * @return 对象已物理删除时返回true，期间被复用时返回false
+     * @throws IOException 删除对象失败时抛出
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean forget(String objectKey, LocalDateTime cutoff, ObjectDeleter deleter) throws IOException {
+        StorageObject storageObject = storageObjectMapper.selectForUpdate(objectKey);
+        if (storageObject != null) {
+            if (storageObject.getUpdatedAt() != null && !storageObject.getUpdatedAt().isBefore(cutoff)) {
+                log.info("内容寻址对象近期被复用，跳过回收: objectKey={}", objectKey);
+                return false;
+            }
+            storageObjectMapper.deleteById(storageObject.getId());
+        }
+        deleter.delete();
+        return true;
+    }
+}
@@ -8,7 +8,13 @@
 // {{START_MODIFICATIONS}}
 package com.ym.ai_story_studio_server.service;
 
+import com.ym.ai_story_studio_server.exception.StorageException;
+
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 存储服务接口
@@ -18,6 +24,7 @@ import java.io.InputStream;
  * <p>设计理念: 面向接口编程，支持多种存储提供商实现
  * <ul>
  *   <li>V1: 阿里云OSS实现 ({@code OssStorageServiceImpl})</li>
+ *   <li>本地文件系统实现 ({@code LocalStorageServiceImpl})，用于单机/私有化部署与测试</li>
  *   <li>V2规划: MinIO实现 ({@code MinioStorageServiceImpl})</li>
  * </ul>
  *
@@ -38,6 +45,41 @@ import java.io.InputStream;
  */
 public interface StorageService {
 
+    /**
+     * 单次批量删除的最大Key数量
+     */
+    int MAX_BATCH_DELETE = 1000;
+
+    /**
+     * 存储对象元数据
+     *
+     * @param contentLength 对象大小（字节）
+     * @param eTag          实体标签（不含引号）
+     * @param lastModified  最后修改时间（毫秒时间戳），未知时为null
+     * @param contentType   MIME类型，未知时为null
+     */
+    record ObjectMeta(long contentLength, String eTag, Long lastModified, String contentType) {
+    }
+
+    /**
+     * 存储中的对象（列举结果）
+     *
+     * @param key          对象Key
+     * @param size         对象大小（字节）
+     * @param lastModified 最后修改时间（毫秒时间戳）
+     */
+    record StoredObject(String key, long size, long lastModified) {
+    }
+
+    /**
+     * 按Key字典序列举的一页对象
+     *
+     * @param objects    本页对象
+     * @param nextMarker 下一页起始标记，已列举完时为null
+     */
+    record ObjectPage(List<StoredObject> objects, String nextMarker) {
+    }
+
     /**
      * 上传文件到存储服务
      *
@@ -61,6 +103,47 @@ public interface StorageService {
      */
     String uploadImageBytes(byte[] imageBytes, String fileName);
 
+    /**
+     * 上传指定MIME类型的图片字节数组到存储服务
+     *
+     * @param imageBytes  图片字节数组
+     * @param fileName    文件名
+     * @param contentType 文件MIME类型（例如: "image/jpeg"）
+     * @return 文件的公共访问URL
+     * @throws com.ym.ai_story_studio_server.exception.StorageException 上传失败时抛出
+     */
+    String uploadImageBytes(byte[] imageBytes, String fileName, String contentType);
+
+    /**
+     * 将派生文件（转码副本、缩略图等）上传到源文件旁边
+     *
+     * <p>文件路径格式: {@code {源文件路径去掉扩展名}{suffix}}，
+     * 例如源文件 {@code 2025/12/26/abc_img.png} 与后缀 {@code _thumb160.jpg}
+     * 生成 {@code 2025/12/26/abc_img_thumb160.jpg}
+     *
+     * @param sourceUrl   源文件的完整访问URL
+     * @param suffix      派生文件后缀（含扩展名）
+     * @param bytes       派生文件字节数组
+     * @param contentType 文件MIME类型
+     * @return 派生文件的公共访问URL
+     * @throws com.ym.ai_story_studio_server.exception.StorageException 上传失败时抛出
+     */
+    String uploadDerivative(String sourceUrl, String suffix, byte[] bytes, String contentType);
+
+    /**
+     * 以指定Key上传本地文件（导出压缩包等服务端生成的大文件）
+     *
+     * <p>对象存储使用分片并发上传，不受普通上传的文件大小限制；
+     * 不做MIME类型校验与内容寻址去重，同Key已存在时覆盖
+     *
+     * @param file        本地文件路径
+     * @param objectKey   存储Key（不含域名的路径部分）
+     * @param contentType 文件MIME类型
+     * @return 文件的访问URL
+     * @throws com.ym.ai_story_studio_server.exception.StorageException 上传失败时抛出
+     */
+    String uploadFile(Path file, String objectKey, String contentType);
+
     /**
      * 根据文件URL下载文件
      *
@@ -72,6 +155,35 @@ public interface StorageService {
      */
     InputStream download(String fileUrl);
 
+    /**
+     * 查询文件的元数据（大小、ETag、最后修改时间），不读取内容
+     *
+     * <p>供下载代理实现条件请求（304）与Range请求（206）；
+     * 不支持的存储实现返回null，调用方退回整文件下载
+     *
+     * @param fileUrl 文件的完整访问URL
+     * @return 文件元数据，不支持时返回null
+     * @throws com.ym.ai_story_studio_server.exception.StorageException 查询失败时抛出
+     */
+    default ObjectMeta stat(String fileUrl) {
+        return null;
+    }
+
+    /**
+     * 按字节区间下载文件
+     *
+     * <p>注意: 返回的InputStream由调用者负责关闭
+     *
+     * @param fileUrl 文件的完整访问URL
+     * @param start   起始字节（含）
+     * @param end     结束字节（含）
+     * @return 区间内容输入流（调用者负责关闭）
+     * @throws com.ym.ai_story_studio_server.exception.StorageException 下载失败或不支持时抛出
+     */
+    default InputStream downloadRange(String fileUrl, long start, long end) {
+        throw new StorageException("RANGE_NOT_SUPPORTED", "当前存储不支持按区间下载");
+    }
+
     /**
      * 删除指定URL的文件
      *
@@ -80,6 +192,42 @@ public interface StorageService {
      */
     void delete(String fileUrl);
 
+    /**
+     * 按Key批量物理删除对象
+     *
+     * <p>供孤儿对象回收使用：不经过内容寻址引用计数，调用方负责确认对象已无引用。
+     * 单次最多 {@link #MAX_BATCH_DELETE} 个Key
+     *
+     * @param objectKeys 对象Key列表
+     * @return 删除成功的Key
+     * @throws com.ym.ai_story_studio_server.exception.StorageException 删除失败或不支持时抛出
+     */
+    default List<String> deleteObjects(List<String> objectKeys) {
+        throw new StorageException("BATCH_DELETE_NOT_SUPPORTED", "当前存储不支持批量删除");
+    }
+
+    /**
+     * 按Key字典序分页列举存储中的全部对象
+     *
+     * @param marker  起始标记（不含），首页传null
+     * @param maxKeys 每页最大数量（不超过1000）
+     * @return 一页对象
+     * @throws com.ym.ai_story_studio_server.exception.StorageException 列举失败或不支持时抛出
+     */
+    default ObjectPage listObjects(String marker, int maxKeys) {
+        throw new StorageException("LIST_NOT_SUPPORTED", "当前存储不支持列举对象");
+    }
+
+    /**
+     * 将文件URL转换为本存储的对象Key
+     *
+     * @param fileUrl 文件的完整访问URL
+     * @return 对象Key，不是本存储的URL时返回null
+     */
+    default String toObjectKey(String fileUrl) {
+        return null;
+    }
+
     /**
      * 生成文件的临时访问URL（预签名URL）
      *
@@ -91,5 +239,60 @@ public interface StorageService {
      * @throws com.ym.ai_story_studio_server.exception.StorageException 生成失败时抛出
      */
     String generatePresignedUrl(String fileKey, int expirationMinutes);
+
+    /**
+     * 生成带下载文件名的预签名URL
+     *
+     * <p>浏览器访问时以附件形式保存为指定文件名；不支持响应头覆盖的存储实现忽略文件名
+     *
+     * @param fileKey           文件的存储Key
+     * @param expirationMinutes 有效期（分钟）
+     * @param downloadFileName  下载保存的文件名
+     * @return 临时访问URL
+     * @throws com.ym.ai_story_studio_server.exception.StorageException 生成失败时抛出
+     */
+    default String generatePresignedUrl(String fileKey, int expirationMinutes, String downloadFileName) {
+        return generatePresignedUrl(fileKey, expirationMinutes);
+    }
+
+    /**
+     * 批量将文件URL替换为预签名URL（列表接口使用）
+     *
+     * <p>只有私有存储桶需要签名；公共读存储返回空映射，调用方按原URL返回。
+     * 同一时间窗口内同一对象返回相同的URL
+     *
+     * @param fileUrls 文件URL集合，可包含null与非本存储的URL
+     * @return 原URL到预签名URL的映射，只包含需要替换的URL
+     * @throws com.ym.ai_story_studio_server.exception.StorageException 签名失败时抛出
+     */
+    default Map<String, String> presignUrls(Collection<String> fileUrls) {
+        return Map.of();
+    }
+
+    /**
+     * 当前预签名时间窗口序号
+     *
+     * <p>{@link #presignUrls} 在同一窗口内返回相同的URL，窗口切换后URL随之变化。
+     * 列表接口把它并入ETag，客户端缓存的签名URL不会在过期后仍被判定为未修改；
+     * 不需要签名的存储恒为0
+     *
+     * @return 时间窗口序号
+     */
+    default long presignWindow() {
+        return 0;
+    }
+
+    /**
+     * 解析文件URL对应的本地文件路径
+     *
+     * <p>仅本地文件系统存储返回路径，供下载接口直接零拷贝发送文件；
+     * 对象存储或非本存储的URL返回null
+     *
+     * @param fileUrl 文件的完整访问URL
+     * @return 本地文件路径，不存在时返回null
+     */
+    default Path resolveLocalPath(String fileUrl) {
+        return null;
+    }
 }
 // {{END_MODIFICATIONS}}
@@ -1,6 +1,7 @@
 package com.ym.ai_story_studio_server.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.dto.toolbox.ToolboxGenerateRequest;
 import com.ym.ai_story_studio_server.dto.toolbox.ToolboxGenerateResponse;
 import com.ym.ai_story_studio_server.dto.toolbox.ToolboxHistoryVO;
@@ -95,6 +96,18 @@ public interface ToolboxService {
      */
     Page<ToolboxHistoryVO> getHistory(Integer page, Integer size);
 
+    /**
+     * 游标分页查询工具箱历史记录
+     *
+     * <p>查询范围与 {@link #getHistory} 相同,按(创建时间, ID)倒序定位下一页,默认不统计总数
+     *
+     * @param cursor 上一页返回的游标(首页为null)
+     * @param size 每页大小
+     * @param withTotal 是否统计总数
+     * @return 历史记录游标分页结果
+     */
+    CursorPage<ToolboxHistoryVO> getHistoryCursorPage(String cursor, Integer size, boolean withTotal);
+
     /**
      * 删除历史记录
      *
@@ -1,6 +1,7 @@
 package com.ym.ai_story_studio_server.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.dto.wallet.TransactionQueryRequest;
 import com.ym.ai_story_studio_server.dto.wallet.TransactionVO;
 import com.ym.ai_story_studio_server.dto.wallet.WalletVO;
@@ -35,4 +36,15 @@ public interface WalletService {
      * @return 分页的流水记录列表
      */
     Page<TransactionVO> getTransactions(Long userId, TransactionQueryRequest request);
+
+    /**
+     * 游标分页查询用户的积分流水记录
+     *
+     * <p>筛选条件与 {@link #getTransactions} 相同,按(创建时间, ID)倒序定位下一页,默认不统计总数
+     *
+     * @param userId 用户ID
+     * @param request 查询请求参数(cursor/size/withTotal和筛选条件,忽略page)
+     * @return 游标分页的流水记录列表
+     */
+    CursorPage<TransactionVO> getTransactionCursorPage(Long userId, TransactionQueryRequest request);
 }
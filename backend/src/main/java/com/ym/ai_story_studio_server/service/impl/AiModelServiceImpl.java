@@ -9,16 +9,17 @@
 package com.ym.ai_story_studio_server.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.ym.ai_story_studio_server.dto.aimodel.ModelVO;
 import com.ym.ai_story_studio_server.entity.AiModel;
 import com.ym.ai_story_studio_server.mapper.AiModelMapper;
 import com.ym.ai_story_studio_server.service.AiModelService;
+import com.ym.ai_story_studio_server.service.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * AI模型服务实现
@@ -31,10 +32,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AiModelServiceImpl implements AiModelService {
 
+    private static final TypeReference<List<ModelVO>> MODEL_LIST = new TypeReference<>() {
+    };
+
     private final AiModelMapper aiModelMapper;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     public List<ModelVO> getEnabledModelsByType(String type) {
+        return referenceDataCache.get(ReferenceDataCache.Region.AI_MODELS, type, MODEL_LIST,
+                () -> loadEnabledModelsByType(type));
+    }
+
+    /**
+     * 从数据库查询指定类型的已启用模型
+     */
+    private List<ModelVO> loadEnabledModelsByType(String type) {
         log.info("[AiModelService] 查询模型类型: {}", type);
 
         QueryWrapper<AiModel> queryWrapper = new QueryWrapper<>();
@@ -49,7 +62,7 @@ public class AiModelServiceImpl implements AiModelService {
                 .filter(model -> model.getCode() == null
                         || !model.getCode().toLowerCase().startsWith("jimeng"))
                 .map(this::convertToVO)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     /**
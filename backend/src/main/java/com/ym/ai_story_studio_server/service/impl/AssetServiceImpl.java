@@ -16,6 +16,8 @@ import com.ym.ai_story_studio_server.entity.Asset;
 import com.ym.ai_story_studio_server.entity.AssetRef;
 import com.ym.ai_story_studio_server.entity.AssetVersion;
 import com.ym.ai_story_studio_server.entity.Project;
+import com.ym.ai_story_studio_server.event.AssetVersionCreatedEvent;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
 import com.ym.ai_story_studio_server.exception.BusinessException;
 import com.ym.ai_story_studio_server.mapper.AssetMapper;
 import com.ym.ai_story_studio_server.mapper.AssetRefMapper;
@@ -25,6 +27,7 @@ import com.ym.ai_story_studio_server.service.AssetService;
 import com.ym.ai_story_studio_server.service.StorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -55,6 +58,7 @@ public class AssetServiceImpl implements AssetService {
     private final AssetRefMapper assetRefMapper;
     private final ProjectMapper projectMapper;
     private final StorageService storageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 验证资产存在且用户有权限访问
@@ -136,6 +140,13 @@ public class AssetServiceImpl implements AssetService {
                 v.getProvider(),
                 v.getUrl(),
                 v.getObjectKey(),
+                v.getOriginalSize(),
+                v.getDeliveryUrl(),
+                v.getDeliveryFormat(),
+                v.getDeliverySize(),
+                v.getThumbSmallUrl(),
+                v.getThumbMediumUrl(),
+                v.getThumbLargeUrl(),
                 v.getPrompt(),
                 v.getParamsJson(),
                 v.getStatus(),
@@ -212,6 +223,8 @@ public class AssetServiceImpl implements AssetService {
         newVersion.setCreatedBy(userId);
 
         assetVersionMapper.insert(newVersion);
+        eventPublisher.publishEvent(new AssetVersionCreatedEvent(newVersion.getId()));
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(asset.getProjectId()));
 
         log.info("新版本创建成功, versionId: {}, versionNo: {}", newVersion.getId(), newVersionNo);
 
@@ -224,6 +237,13 @@ public class AssetServiceImpl implements AssetService {
                 url,
                 newVersion.getObjectKey(),
                 null,
+                null, // 交付副本与缩略图在事务提交后异步生成
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
                 null,
                 "READY",
                 false, // 新上传的版本默认不是当前版本
@@ -310,6 +330,8 @@ public class AssetServiceImpl implements AssetService {
         newVersion.setCreatedBy(userId);
 
         assetVersionMapper.insert(newVersion);
+        eventPublisher.publishEvent(new AssetVersionCreatedEvent(newVersion.getId()));
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(asset.getProjectId()));
 
         log.info("新版本创建成功, versionId: {}, versionNo: {}", newVersion.getId(), newVersionNo);
 
@@ -322,6 +344,13 @@ public class AssetServiceImpl implements AssetService {
                 url,
                 newVersion.getObjectKey(),
                 null,
+                null, // 交付副本与缩略图在事务提交后异步生成
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
                 null,
                 "READY",
                 false, // 新上传的版本默认不是当前版本
@@ -381,6 +410,7 @@ public class AssetServiceImpl implements AssetService {
         }
 
         log.info("当前版本设置成功");
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(asset.getProjectId()));
     }
 
     /**
@@ -2,11 +2,14 @@ package com.ym.ai_story_studio_server.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.ym.ai_story_studio_server.exception.BusinessException;
+import com.ym.ai_story_studio_server.common.AssetRendition;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.dto.character.CharacterVO;
 import com.ym.ai_story_studio_server.dto.character.CreateCharacterRequest;
 import com.ym.ai_story_studio_server.dto.character.UpdateCharacterRequest;
+import com.ym.ai_story_studio_server.dto.project.LibraryReferenceCount;
 import com.ym.ai_story_studio_server.entity.CharacterCategory;
+import com.ym.ai_story_studio_server.entity.AssetVersion;
 import com.ym.ai_story_studio_server.entity.CharacterLibrary;
 import com.ym.ai_story_studio_server.entity.ProjectCharacter;
 import com.ym.ai_story_studio_server.entity.ShotBinding;
@@ -14,17 +17,24 @@ import com.ym.ai_story_studio_server.mapper.CharacterCategoryMapper;
 import com.ym.ai_story_studio_server.mapper.ShotBindingMapper;
 import com.ym.ai_story_studio_server.mapper.CharacterLibraryMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectCharacterMapper;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
+import com.ym.ai_story_studio_server.service.AssetRenditionService;
 import com.ym.ai_story_studio_server.service.CharacterLibraryService;
 import com.ym.ai_story_studio_server.service.StorageService;
+import com.ym.ai_story_studio_server.util.FullTextSearch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +53,8 @@ public class CharacterLibraryServiceImpl implements CharacterLibraryService {
     private final ProjectCharacterMapper projectCharacterMapper;
     private final ShotBindingMapper shotBindingMapper;
     private final StorageService storageService;
+    private final AssetRenditionService assetRenditionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取角色库列表(支持搜索和筛选)
@@ -53,6 +65,7 @@ public class CharacterLibraryServiceImpl implements CharacterLibraryService {
      * @return 角色VO列表
      */
     @Override
+    @Transactional(readOnly = true)
     public List<CharacterVO> getCharacterList(Long userId, Long categoryId, String keyword) {
         log.info("获取角色库列表, userId: {}, categoryId: {}, keyword: {}", userId, categoryId, keyword);
 
@@ -65,9 +78,9 @@ public class CharacterLibraryServiceImpl implements CharacterLibraryService {
         if (categoryId != null) {
             queryWrapper.eq(CharacterLibrary::getCategoryId, categoryId);
         }
-        if (StringUtils.hasText(keyword)) {
-            queryWrapper.like(CharacterLibrary::getName, keyword);
-        }
+        // 关键词匹配名称与描述，走ngram全文索引
+        FullTextSearch.apply(queryWrapper, "name, description", keyword,
+                CharacterLibrary::getName, CharacterLibrary::getDescription);
 
         queryWrapper.orderByDesc(CharacterLibrary::getUpdatedAt);
 
@@ -75,20 +88,22 @@ public class CharacterLibraryServiceImpl implements CharacterLibraryService {
         List<CharacterLibrary> characters = characterLibraryMapper.selectList(queryWrapper);
 
         // 转换为VO
-        return characters.stream().map(character -> {
-            // 查询分类名称
-            String categoryName = null;
-            if (character.getCategoryId() != null) {
-                CharacterCategory category = categoryMapper.selectById(character.getCategoryId());
-                if (category != null) {
-                    categoryName = category.getName();
-                }
-            }
+        // 批量反查缩略图
+        Map<String, AssetVersion> versionsByUrl = assetRenditionService.findVersionsByUrls(
+                characters.stream().map(CharacterLibrary::getThumbnailUrl).toList());
+
+        // 批量查询分类名称与引用次数
+        Map<Long, String> categoryNames = loadCategoryNames(characters.stream()
+                .map(CharacterLibrary::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Map<Long, Long> referenceCounts = loadReferenceCounts(characters.stream()
+                .map(CharacterLibrary::getId)
+                .toList());
 
-            // 统计引用次数
-            LambdaQueryWrapper<ProjectCharacter> countWrapper = new LambdaQueryWrapper<>();
-            countWrapper.eq(ProjectCharacter::getLibraryCharacterId, character.getId());
-            long referenceCount = projectCharacterMapper.selectCount(countWrapper);
+        return characters.stream().map(character -> {
+            String categoryName = character.getCategoryId() == null ? null : categoryNames.get(character.getCategoryId());
+            long referenceCount = referenceCounts.getOrDefault(character.getId(), 0L);
 
             return new CharacterVO(
                     character.getId(),
@@ -97,6 +112,8 @@ public class CharacterLibraryServiceImpl implements CharacterLibraryService {
                     character.getName(),
                     character.getDescription(),
                     character.getThumbnailUrl(),
+                    AssetRendition.THUMB_SMALL.resolveUrl(character.getThumbnailUrl(), versionsByUrl),
+                    AssetRendition.THUMB_MEDIUM.resolveUrl(character.getThumbnailUrl(), versionsByUrl),
                     (int) referenceCount,
                     character.getCreatedAt(),
                     character.getUpdatedAt()
@@ -154,6 +171,8 @@ public class CharacterLibraryServiceImpl implements CharacterLibraryService {
                 character.getName(),
                 character.getDescription(),
                 character.getThumbnailUrl(),
+                character.getThumbnailUrl(),
+                character.getThumbnailUrl(),
                 0, // 新创建的角色引用次数为0
                 character.getCreatedAt(),
                 character.getUpdatedAt()
@@ -212,6 +231,7 @@ public class CharacterLibraryServiceImpl implements CharacterLibraryService {
         characterLibraryMapper.updateById(character);
 
         log.info("角色更新成功, characterId: {}", characterId);
+        notifyReferencingProjects(characterId);
     }
 
     /**
@@ -303,10 +323,48 @@ public class CharacterLibraryServiceImpl implements CharacterLibraryService {
             characterLibraryMapper.updateById(character);
 
             log.info("角色缩略图上传成功, characterId: {}, url: {}", characterId, url);
+            notifyReferencingProjects(characterId);
             return url;
         } catch (IOException e) {
             log.error("角色缩略图上传失败", e);
             throw new BusinessException(ResultCode.SYSTEM_ERROR, "图片上传失败");
         }
     }
+
+    /**
+     * 批量查询分类名称
+     *
+     * @param categoryIds 分类ID集合
+     * @return 分类ID -> 名称
+     */
+    private Map<Long, String> loadCategoryNames(Collection<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Map.of();
+        }
+        return categoryMapper.selectBatchIds(categoryIds).stream()
+                .collect(Collectors.toMap(CharacterCategory::getId, CharacterCategory::getName, (a, b) -> a));
+    }
+
+    /**
+     * 一次分组查询一批库条目的引用次数
+     *
+     * @param libraryIds 库条目ID列表
+     * @return 库条目ID -> 引用次数(未被引用的条目不在结果中)
+     */
+    private Map<Long, Long> loadReferenceCounts(List<Long> libraryIds) {
+        if (libraryIds.isEmpty()) {
+            return Map.of();
+        }
+        return projectCharacterMapper.countByLibraryIds(libraryIds).stream()
+                .collect(Collectors.toMap(LibraryReferenceCount::getLibraryId, LibraryReferenceCount::getReferenceCount));
+    }
+
+    /**
+     * 通知引用该角色的项目刷新工作台快照（项目内角色列表展示库中的名称、描述与缩略图）
+     */
+    private void notifyReferencingProjects(Long libraryId) {
+        for (Long projectId : projectCharacterMapper.selectProjectIdsByLibraryId(libraryId)) {
+            eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
+        }
+    }
 }
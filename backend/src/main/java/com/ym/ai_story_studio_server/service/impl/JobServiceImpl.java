@@ -12,6 +12,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.dto.job.JobDetailVO;
 import com.ym.ai_story_studio_server.dto.job.JobItemVO;
@@ -25,6 +26,8 @@ import com.ym.ai_story_studio_server.mapper.JobItemMapper;
 import com.ym.ai_story_studio_server.mapper.JobMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectMapper;
 import com.ym.ai_story_studio_server.service.JobService;
+import com.ym.ai_story_studio_server.util.BatchLoader;
+import com.ym.ai_story_studio_server.util.KeysetPager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -50,6 +53,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class JobServiceImpl implements JobService {
 
+    /**
+     * 游标分页未指定size时的默认每页大小
+     */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final JobMapper jobMapper;
     private final JobItemMapper jobItemMapper;
     private final ProjectMapper projectMapper;
@@ -63,19 +71,16 @@ public class JobServiceImpl implements JobService {
      * @return 分页任务列表
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<JobVO> getJobPage(Long userId, JobQueryRequest request) {
         log.info("分页查询任务列表, userId: {}, request: {}", userId, request);
 
         // 1. 构建分页对象
         Page<Job> page = new Page<>(request.page(), request.size());
 
-        // 2. 构建查询条件
-        LambdaQueryWrapper<Job> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Job::getUserId, userId) // 必须条件:用户隔离
-                .eq(request.projectId() != null, Job::getProjectId, request.projectId()) // 可选:按项目筛选
-                .eq(StringUtils.hasText(request.status()), Job::getStatus, request.status()) // 可选:按状态筛选
-                .eq(StringUtils.hasText(request.jobType()), Job::getJobType, request.jobType()) // 可选:按类型筛选
-                .orderByDesc(Job::getCreatedAt); // 按创建时间降序排序(最新的任务在前)
+        // 2. 构建查询条件(按创建时间降序排序,最新的任务在前)
+        LambdaQueryWrapper<Job> queryWrapper = buildJobQuery(userId, request)
+                .orderByDesc(Job::getCreatedAt);
 
         // 3. 执行分页查询
         page = jobMapper.selectPage(page, queryWrapper);
@@ -83,45 +88,77 @@ public class JobServiceImpl implements JobService {
         log.info("查询到{}条任务记录", page.getTotal());
 
         // 4. 转换为VO
-        return (Page<JobVO>) page.convert(job -> {
-            // 查询项目名称
-            String projectName = null;
-            if (job.getProjectId() != null) {
-                Project project = projectMapper.selectById(job.getProjectId());
-                if (project != null) {
-                    projectName = project.getName();
-                }
-            }
+        Map<Long, Project> projects = BatchLoader.load(page.getRecords(), Job::getProjectId,
+                projectMapper, Project::getId);
+        return (Page<JobVO>) page.convert(job -> toJobVO(job, projects));
+    }
 
-            // 计算任务耗时(仅运行中的任务)
-            Long elapsedSeconds = null;
-            if ("RUNNING".equals(job.getStatus()) && job.getStartedAt() != null) {
-                elapsedSeconds = Duration.between(job.getStartedAt(), LocalDateTime.now()).getSeconds();
-            }
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<JobVO> getJobCursorPage(Long userId, JobQueryRequest request) {
+        log.info("游标分页查询任务列表, userId: {}, request: {}", userId, request);
+
+        int size = request.size() == null ? DEFAULT_PAGE_SIZE : request.size();
+        CursorPage<Job> page = KeysetPager.fetch(jobMapper, buildJobQuery(userId, request),
+                Job::getCreatedAt, Job::getId, request.cursor(), size, Boolean.TRUE.equals(request.withTotal()));
+
+        Map<Long, Project> projects = BatchLoader.load(page.records(), Job::getProjectId,
+                projectMapper, Project::getId);
+        return page.map(job -> toJobVO(job, projects));
+    }
+
+    /**
+     * 构建任务列表的筛选条件(不含排序)
+     */
+    private LambdaQueryWrapper<Job> buildJobQuery(Long userId, JobQueryRequest request) {
+        LambdaQueryWrapper<Job> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(Job::getUserId, userId) // 必须条件:用户隔离
+                .eq(request.projectId() != null, Job::getProjectId, request.projectId()) // 可选:按项目筛选
+                .eq(StringUtils.hasText(request.status()), Job::getStatus, request.status()) // 可选:按状态筛选
+                .eq(StringUtils.hasText(request.jobType()), Job::getJobType, request.jobType()); // 可选:按类型筛选
+        return queryWrapper;
+    }
+
+    /**
+     * 转换为任务VO
+     *
+     * @param job 任务实体
+     * @param projects 本页任务关联的项目(按ID)
+     * @return 任务VO
+     */
+    private JobVO toJobVO(Job job, Map<Long, Project> projects) {
+        // 项目名称
+        Project project = job.getProjectId() != null ? projects.get(job.getProjectId()) : null;
+        String projectName = project != null ? project.getName() : null;
 
-            // 解析meta_json提取allImageUrls
-            List<String> allImageUrls = extractAllImageUrls(job.getMetaJson());
-
-            return new JobVO(
-                    job.getId(),
-                    job.getProjectId(),
-                    projectName,
-                    job.getJobType(),
-                    job.getStatus(),
-                    job.getProgress(),
-                    job.getTotalItems(),
-                    job.getDoneItems(),
-                    elapsedSeconds,
-                    job.getStartedAt(),
-                    job.getFinishedAt(),
-                    job.getErrorMessage(),
-                    job.getResultUrl(),
-                    allImageUrls,
-                    job.getCostPoints(),
-                    job.getMetaJson(),
-                    job.getCreatedAt()
-            );
-        });
+        // 计算任务耗时(仅运行中的任务)
+        Long elapsedSeconds = null;
+        if ("RUNNING".equals(job.getStatus()) && job.getStartedAt() != null) {
+            elapsedSeconds = Duration.between(job.getStartedAt(), LocalDateTime.now()).getSeconds();
+        }
+
+        // 解析meta_json提取allImageUrls
+        List<String> allImageUrls = extractAllImageUrls(job.getMetaJson());
+
+        return new JobVO(
+                job.getId(),
+                job.getProjectId(),
+                projectName,
+                job.getJobType(),
+                job.getStatus(),
+                job.getProgress(),
+                job.getTotalItems(),
+                job.getDoneItems(),
+                elapsedSeconds,
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getErrorMessage(),
+                job.getResultUrl(),
+                allImageUrls,
+                job.getCostPoints(),
+                job.getMetaJson(),
+                job.getCreatedAt()
+        );
     }
 
     /**
@@ -0,0 +1,578 @@
+package com.ym.ai_story_studio_server.service.impl;
+
+import com.ym.ai_story_studio_server.config.StorageProperties;
+import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.service.StorageObjectService;
+import com.ym.ai_story_studio_server.service.StorageService;
+import com.ym.ai_story_studio_server.util.ContentDigestUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * 本地文件系统存储服务实现
+ *
+ * <p>用于单机/私有化部署与测试，无需OSS存储桶（{@code storage.provider=local}）:
+ * <ul>
+ *   <li>文件Key按UUID前缀分两级目录: {@code {uuid[0:2]}/{uuid[2:4]}/{uuid}_{fileName}}，避免单目录文件过多</li>
+ *   <li>文件存放在根目录下的媒体子目录（{@code storage.local.media-dir}），
+ *       先写入与其并列的 {@code .tmp} 临时文件，完成后原子重命名到目标路径，读取方不会看到写了一半的文件</li>
+ *   <li>Key以私有前缀（{@code storage.local.private-prefixes}，如导出压缩包）开头的文件存放在私有子目录，
+ *       不对外提供，也不生成公开访问URL</li>
+ *   <li>媒体子目录通过 {@code storage.local.serve-path} 静态路径对外提供，
+ *       下载接口通过 {@link #resolveLocalPath(String)} 直接零拷贝发送</li>
+ *   <li>支持内容寻址去重模式（{@code storage.dedup.enabled=true}）</li>
+ * </ul>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "storage.provider", havingValue = "local")
+public class LocalStorageServiceImpl implements StorageService {
+
+    private static final String TEMP_DIR_NAME = ".tmp";
+
+    private final StorageProperties storageProperties;
+    private final StorageObjectService storageObjectService;
+    private Path rootDir;
+    private Path mediaDir;
+    private Path privateDir;
+    private Path tempDir;
+
+    /**
+     * 构造函数注入配置
+     *
+     * @param storageProperties 存储配置属性
+     */
+    public LocalStorageServiceImpl(StorageProperties storageProperties) {
+        this(storageProperties, null);
+    }
+
+    /**
+     * 构造函数注入配置与内容寻址引用计数服务
+     *
+     * @param storageProperties    存储配置属性
+     * @param storageObjectService 内容寻址引用计数服务（为null时不支持去重模式）
+     */
+    @Autowired
+    public LocalStorageServiceImpl(StorageProperties storageProperties, StorageObjectService storageObjectService) {
+        this.storageProperties = storageProperties;
+        this.storageObjectService = storageObjectService;
+    }
+
+    /**
+     * 初始化存储根目录与临时目录
+     */
+    @PostConstruct
+    public void init() {
+        StorageProperties.LocalConfig localConfig = storageProperties.getLocal();
+        if (!StringUtils.hasText(localConfig.getRootDir())) {
+            throw new StorageException("INVALID_CONFIG", "本地存储root-dir不能为空");
+        }
+        if (!StringUtils.hasText(localConfig.getMediaDir()) || !StringUtils.hasText(localConfig.getPrivateDir())) {
+            throw new StorageException("INVALID_CONFIG", "本地存储media-dir与private-dir不能为空");
+        }
+        if (!StringUtils.hasText(localConfig.getUrlPrefix())) {
+            throw new StorageException("INVALID_CONFIG", "本地存储url-prefix不能为空");
+        }
+
+        try {
+            rootDir = Paths.get(localConfig.getRootDir()).toAbsolutePath().normalize();
+            mediaDir = rootDir.resolve(localConfig.getMediaDir()).normalize();
+            privateDir = rootDir.resolve(localConfig.getPrivateDir()).normalize();
+            tempDir = rootDir.resolve(TEMP_DIR_NAME);
+            if (!isSubdirectory(mediaDir) || !isSubdirectory(privateDir)
+                    || mediaDir.startsWith(privateDir) || privateDir.startsWith(mediaDir)) {
+                throw new StorageException("INVALID_CONFIG", "本地存储media-dir与private-dir必须是root-dir下互不包含的子目录");
+            }
+            Files.createDirectories(mediaDir);
+            Files.createDirectories(privateDir);
+            Files.createDirectories(tempDir);
+            log.info("本地文件存储服务初始化成功 - mediaDir: {}, urlPrefix: {}", mediaDir, localConfig.getUrlPrefix());
+        } catch (IOException e) {
+            throw new StorageException("INVALID_CONFIG", "本地存储目录创建失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 上传文件到本地文件系统
+     *
+     * @param inputStream 文件输入流
+     * @param fileName    原始文件名
+     * @param contentType 文件MIME类型
+     * @return 文件的访问URL
+     * @throws StorageException 上传失败时抛出
+     */
+    @Override
+    public String upload(InputStream inputStream, String fileName, String contentType) {
+        log.info("开始上传文件: fileName={}, contentType={}", fileName, contentType);
+
+        StorageFileSupport.validateContentType(contentType);
+
+        if (isDedupEnabled()) {
+            return uploadContentAddressed(inputStream, fileName, contentType);
+        }
+
+        String fileKey = generateFileKey(fileName);
+        log.debug("生成文件Key: {}", fileKey);
+
+        writeAtomically(fileKey, inputStream);
+        return generateFileUrl(fileKey);
+    }
+
+    /**
+     * 按内容摘要上传文件，相同内容只存一份
+     */
+    private String uploadContentAddressed(InputStream inputStream, String fileName, String contentType) {
+        try (ContentDigestUtil.SpooledContent content = ContentDigestUtil.spool(inputStream, StorageFileSupport.MAX_FILE_SIZE)) {
+            String fileKey = ContentDigestUtil.contentKey(
+                    storageProperties.getDedup().getPrefix(), content.sha256(), fileName);
+
+            // 先占用引用再写入，写入期间其他实例释放同一内容不会删除文件
+            storageObjectService.acquire(fileKey, content.sha256(), content.size(), contentType);
+            try {
+                if (Files.exists(resolveKey(fileKey))) {
+                    log.info("内容已存在，跳过写入: fileKey={}, size={} bytes", fileKey, content.size());
+                } else {
+                    try (InputStream in = Files.newInputStream(content.file())) {
+                        writeAtomically(fileKey, in);
+                    }
+                }
+            } catch (Exception e) {
+                releaseAfterFailedWrite(fileKey);
+                throw e;
+            }
+            return generateFileUrl(fileKey);
+
+        } catch (StorageException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("文件上传失败", e);
+            throw new StorageException("UPLOAD_FAILED", "文件上传失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String uploadImageBytes(byte[] imageBytes, String fileName) {
+        return uploadImageBytes(imageBytes, fileName, "image/png");
+    }
+
+    @Override
+    public String uploadImageBytes(byte[] imageBytes, String fileName, String contentType) {
+        log.info("开始上传字节数组: fileName={}, contentType={}, size={} bytes",
+                fileName, contentType, imageBytes.length);
+        return upload(new ByteArrayInputStream(imageBytes), fileName, contentType);
+    }
+
+    @Override
+    public String uploadDerivative(String sourceUrl, String suffix, byte[] bytes, String contentType) {
+        log.info("开始上传派生文件: sourceUrl={}, suffix={}, size={} bytes", sourceUrl, suffix, bytes.length);
+
+        StorageFileSupport.validateContentType(contentType);
+
+        String fileKey = StorageFileSupport.derivativeKey(extractFileKeyFromUrl(sourceUrl), suffix);
+        if (isDedupEnabled() && storageObjectService.isContentKey(fileKey)) {
+            // 共享同一内容寻址原图的版本得到同一个派生Key，与原图一样按引用计数登记
+            storageObjectService.acquire(fileKey, ContentDigestUtil.sha256(bytes), bytes.length, contentType);
+            try {
+                if (Files.exists(resolveKey(fileKey))) {
+                    log.info("派生文件已存在，跳过写入: fileKey={}", fileKey);
+                } else {
+                    writeAtomically(fileKey, new ByteArrayInputStream(bytes));
+                }
+            } catch (RuntimeException e) {
+                releaseAfterFailedWrite(fileKey);
+                throw e;
+            }
+            return generateFileUrl(fileKey);
+        }
+
+        writeAtomically(fileKey, new ByteArrayInputStream(bytes));
+        return generateFileUrl(fileKey);
+    }
+
+    /**
+     * 以指定Key复制本地文件到存储目录（写入临时文件后原子重命名，不受普通上传的大小限制）
+     *
+     * @param file        本地文件路径
+     * @param objectKey   存储Key
+     * @param contentType 文件MIME类型（本地存储忽略）
+     * @return 文件的访问URL
+     * @throws StorageException 上传失败时抛出
+     */
+    @Override
+    public String uploadFile(Path file, String objectKey, String contentType) {
+        log.info("开始上传文件: file={}, fileKey={}", file, objectKey);
+
+        Path target = resolveKey(objectKey);
+        Path temp = tempDir.resolve(UUID.randomUUID() + ".part");
+        try {
+            Files.copy(file, temp);
+            moveIntoPlace(temp, target);
+            log.info("文件上传成功: fileKey={}, size={} bytes", objectKey, Files.size(target));
+            return generateFileUrl(objectKey);
+        } catch (Exception e) {
+            deleteQuietly(temp);
+            log.error("文件上传失败", e);
+            throw new StorageException("UPLOAD_FAILED", "文件上传失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从本地文件系统读取文件
+     *
+     * @param fileUrl 文件的完整访问URL
+     * @return 文件输入流（调用者负责关闭）
+     * @throws StorageException 下载失败时抛出
+     */
+    @Override
+    public InputStream download(String fileUrl) {
+        log.info("开始下载文件: url={}", fileUrl);
+
+        try {
+            Path file = resolveKey(extractFileKeyFromUrl(fileUrl));
+            if (!Files.isRegularFile(file)) {
+                throw new StorageException("NOT_FOUND", "文件不存在: " + fileUrl);
+            }
+            return Files.newInputStream(file);
+        } catch (Exception e) {
+            log.error("文件下载失败: url={}", fileUrl, e);
+            throw new StorageException("DOWNLOAD_FAILED", "文件下载失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从本地文件系统删除文件
+     *
+     * @param fileUrl 文件的完整访问URL
+     * @throws StorageException 删除失败时抛出
+     */
+    @Override
+    public void delete(String fileUrl) {
+        log.info("开始删除文件: url={}", fileUrl);
+
+        try {
+            String fileKey = extractFileKeyFromUrl(fileUrl);
+            Path file = resolveKey(fileKey);
+
+            if (isDedupEnabled() && storageObjectService.isContentKey(fileKey)) {
+                // 内容寻址对象：只有最后一个引用删除时才物理删除（在登记记录的行锁内删除）
+                if (storageObjectService.release(fileKey, () -> Files.deleteIfExists(file))) {
+                    log.info("文件删除成功（最后一个引用）: fileKey={}", fileKey);
+                }
+                return;
+            }
+
+            Files.deleteIfExists(file);
+            log.info("文件删除成功: fileKey={}", fileKey);
+
+        } catch (Exception e) {
+            log.error("文件删除失败", e);
+            throw new StorageException("DELETE_FAILED", "文件删除失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> deleteObjects(List<String> objectKeys) {
+        if (objectKeys.size() > MAX_BATCH_DELETE) {
+            throw new StorageException("DELETE_FAILED", "单次批量删除不能超过" + MAX_BATCH_DELETE + "个对象");
+        }
+        List<String> deleted = new ArrayList<>(objectKeys.size());
+        for (String objectKey : objectKeys) {
+            try {
+                Files.deleteIfExists(resolveKey(objectKey));
+                deleted.add(objectKey);
+            } catch (IOException | StorageException e) {
+                log.warn("删除文件失败: fileKey={}, error={}", objectKey, e.getMessage());
+            }
+        }
+        log.info("批量删除文件完成: requested={}, deleted={}", objectKeys.size(), deleted.size());
+        return deleted;
+    }
+
+    /**
+     * 按Key字典序返回marker之后的一页文件（媒体目录与私有目录合并）
+     *
+     * <p>按字典序深度优先遍历目录树：Key不大于marker的子树整棵跳过，凑满一页即停止，
+     * 每页只读取marker所在路径上的目录与本页涉及的目录，不随文件总数增长
+     */
+    @Override
+    public ObjectPage listObjects(String marker, int maxKeys) {
+        int limit = Math.max(1, Math.min(maxKeys, MAX_BATCH_DELETE));
+        TreeMap<String, StoredObject> page = new TreeMap<>();
+        try {
+            for (Path base : List.of(mediaDir, privateDir)) {
+                List<StoredObject> objects = new ArrayList<>(limit);
+                listSorted(base, "", marker, limit, objects);
+                for (StoredObject object : objects) {
+                    page.put(object.key(), object);
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("LIST_FAILED", "文件列举失败: " + e.getMessage(), e);
+        }
+        while (page.size() > limit) {
+            page.pollLastEntry();
+        }
+        String nextMarker = page.size() == limit ? page.lastKey() : null;
+        return new ObjectPage(new ArrayList<>(page.values()), nextMarker);
+    }
+
+    /**
+     * 按Key字典序遍历目录，收集大于marker的文件直到凑满limit个
+     *
+     * <p>子目录按"名称/"参与排序，使遍历顺序与完整Key的字典序一致
+     *
+     * @param dir    当前目录
+     * @param prefix 当前目录对应的Key前缀（根目录为空，其余以"/"结尾）
+     */
+    private void listSorted(Path dir, String prefix, String marker, int limit, List<StoredObject> out)
+            throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+            for (Path child : children) {
+                String name = child.getFileName().toString();
+                names.add(Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS) ? name + "/" : name);
+            }
+        }
+        Collections.sort(names);
+        for (String name : names) {
+            if (out.size() == limit) {
+                return;
+            }
+            String key = prefix + name;
+            if (name.endsWith("/")) {
+                // 子树中所有Key都以key开头：marker不在子树内且大于key时整棵跳过
+                if (marker == null || marker.startsWith(key) || key.compareTo(marker) > 0) {
+                    listSorted(dir.resolve(name.substring(0, name.length() - 1)), key, marker, limit, out);
+                }
+                continue;
+            }
+            Path file = dir.resolve(name);
+            if ((marker != null && key.compareTo(marker) <= 0) || !Files.isRegularFile(file)) {
+                continue;
+            }
+            out.add(new StoredObject(key, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+        }
+    }
+
+    @Override
+    public String toObjectKey(String fileUrl) {
+        String urlPrefix = trimTrailingSlash(storageProperties.getLocal().getUrlPrefix());
+        if (!StringUtils.hasText(fileUrl) || !fileUrl.startsWith(urlPrefix + "/")) {
+            return null;
+        }
+        return stripQuery(fileUrl.substring(urlPrefix.length() + 1));
+    }
+
+    /**
+     * 本地媒体文件通过静态路径公开访问，无需签名，直接返回访问URL
+     *
+     * <p>私有文件没有可公开访问的URL，调用方需通过 {@link #resolveLocalPath(String)} 在校验归属后自行发送
+     *
+     * @param fileKey           文件Key
+     * @param expirationMinutes 有效期（分钟，本地存储忽略）
+     * @return 文件访问URL
+     * @throws StorageException Key为空或为私有文件时抛出
+     */
+    @Override
+    public String generatePresignedUrl(String fileKey, int expirationMinutes) {
+        if (!StringUtils.hasText(fileKey)) {
+            throw new StorageException("PRESIGNED_URL_FAILED", "文件Key不能为空");
+        }
+        if (isPrivateKey(fileKey)) {
+            throw new StorageException("PRESIGNED_URL_FAILED", "私有文件不提供公开访问URL: " + fileKey);
+        }
+        return generateFileUrl(fileKey);
+    }
+
+    @Override
+    public Path resolveLocalPath(String fileUrl) {
+        String urlPrefix = storageProperties.getLocal().getUrlPrefix();
+        if (!StringUtils.hasText(fileUrl) || !fileUrl.startsWith(trimTrailingSlash(urlPrefix) + "/")) {
+            return null;
+        }
+        try {
+            Path file = resolveKey(extractFileKeyFromUrl(fileUrl));
+            return Files.isRegularFile(file) ? file : null;
+        } catch (StorageException e) {
+            return null;
+        }
+    }
+
+    // ==================== 私有辅助方法 ====================
+
+    /**
+     * 写入内容寻址文件失败时归还已占用的引用（失败只记录日志，不覆盖原异常）
+     */
+    private void releaseAfterFailedWrite(String fileKey) {
+        try {
+            Path file = resolveKey(fileKey);
+            storageObjectService.release(fileKey, () -> Files.deleteIfExists(file));
+        } catch (Exception e) {
+            log.warn("归还内容寻址对象引用失败: fileKey={}", fileKey, e);
+        }
+    }
+
+    /**
+     * 是否开启内容寻址去重模式
+     */
+    private boolean isDedupEnabled() {
+        return storageObjectService != null && storageObjectService.isEnabled();
+    }
+
+    /**
+     * 写入临时文件后原子重命名到目标路径
+     */
+    private void writeAtomically(String fileKey, InputStream inputStream) {
+        Path target = resolveKey(fileKey);
+        Path temp = tempDir.resolve(UUID.randomUUID() + ".part");
+        try {
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    size += read;
+                    if (size > StorageFileSupport.MAX_FILE_SIZE) {
+                        throw new StorageException("FILE_TOO_LARGE",
+                                "文件大小超过限制: " + StorageFileSupport.MAX_FILE_SIZE + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            moveIntoPlace(temp, target);
+            log.info("文件上传成功: fileKey={}, size={} bytes", fileKey, size);
+
+        } catch (StorageException e) {
+            deleteQuietly(temp);
+            throw e;
+        } catch (Exception e) {
+            deleteQuietly(temp);
+            log.error("文件上传失败", e);
+            throw new StorageException("UPLOAD_FAILED", "文件上传失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 将临时文件原子重命名到目标路径
+     */
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 生成分片目录的文件Key
+     *
+     * <p>格式: {@code {uuid[0:2]}/{uuid[2:4]}/{uuid}_{originalFileName}}
+     */
+    private String generateFileKey(String originalFileName) {
+        String uuid = UUID.randomUUID().toString();
+        return String.format("%s/%s/%s_%s",
+                uuid.substring(0, 2), uuid.substring(2, 4), uuid, StorageFileSupport.cleanFileName(originalFileName));
+    }
+
+    private String generateFileUrl(String fileKey) {
+        return trimTrailingSlash(storageProperties.getLocal().getUrlPrefix()) + "/" + fileKey;
+    }
+
+    /**
+     * 将文件Key解析为媒体目录（私有Key为私有目录）下的路径，拒绝越出该目录的Key
+     */
+    private Path resolveKey(String fileKey) {
+        Path base = isPrivateKey(fileKey) ? privateDir : mediaDir;
+        Path file = base.resolve(fileKey).normalize();
+        if (!file.startsWith(base) || file.equals(base)) {
+            throw new StorageException("INVALID_URL", "非法的文件Key: " + fileKey);
+        }
+        return file;
+    }
+
+    /**
+     * Key的第一级目录是否为私有前缀
+     */
+    private boolean isPrivateKey(String fileKey) {
+        int slash = fileKey.indexOf('/');
+        return slash > 0 && storageProperties.getLocal().getPrivatePrefixes().contains(fileKey.substring(0, slash));
+    }
+
+    /**
+     * 是否为根目录下的子目录（且不是临时目录）
+     */
+    private boolean isSubdirectory(Path dir) {
+        return dir.startsWith(rootDir) && !dir.equals(rootDir) && !dir.startsWith(tempDir) && !tempDir.startsWith(dir);
+    }
+
+    /**
+     * 从完整URL中提取文件Key
+     *
+     * <p>URL以url-prefix开头时直接截取，否则按url-prefix的路径部分截取
+     */
+    private String extractFileKeyFromUrl(String fileUrl) {
+        if (!StringUtils.hasText(fileUrl)) {
+            throw new StorageException("INVALID_URL", "文件URL不能为空");
+        }
+
+        String urlPrefix = trimTrailingSlash(storageProperties.getLocal().getUrlPrefix());
+        if (fileUrl.startsWith(urlPrefix + "/")) {
+            return stripQuery(fileUrl.substring(urlPrefix.length() + 1));
+        }
+
+        try {
+            String path = new URL(fileUrl).getPath();
+            String prefixPath = trimTrailingSlash(new URL(urlPrefix).getPath());
+            if (path.startsWith(prefixPath + "/")) {
+                path = path.substring(prefixPath.length());
+            }
+            return path.startsWith("/") ? path.substring(1) : path;
+        } catch (Exception e) {
+            throw new StorageException("INVALID_URL", "无法从URL提取文件Key: " + fileUrl, e);
+        }
+    }
+
+    private String stripQuery(String value) {
+        int query = value.indexOf('?');
+        return query >= 0 ? value.substring(0, query) : value;
+    }
+
+    private String trimTrailingSlash(String value) {
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // 残留的临时文件位于.tmp目录，不在媒体目录内，不影响读取
+        }
+    }
+}
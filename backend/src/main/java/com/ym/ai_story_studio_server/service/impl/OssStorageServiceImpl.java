@@ -12,26 +12,46 @@ import com.aliyun.oss.OSS;
 import com.aliyun.oss.ClientBuilderConfiguration;
 import com.aliyun.oss.OSSClientBuilder;
 import com.aliyun.oss.OSSException;
+import com.aliyun.oss.model.DeleteObjectsRequest;
+import com.aliyun.oss.model.GeneratePresignedUrlRequest;
+import com.aliyun.oss.model.GetObjectRequest;
+import com.aliyun.oss.model.ListObjectsRequest;
+import com.aliyun.oss.model.ObjectListing;
 import com.aliyun.oss.model.ObjectMetadata;
 import com.aliyun.oss.model.PutObjectResult;
+import com.aliyun.oss.model.ResponseHeaderOverrides;
+import com.aliyun.oss.model.UploadFileRequest;
 import com.ym.ai_story_studio_server.config.StorageProperties;
 import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.service.StorageObjectService;
 import com.ym.ai_story_studio_server.service.StorageService;
+import com.ym.ai_story_studio_server.util.ContentDigestUtil;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriUtils;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 阿里云OSS存储服务实现
@@ -41,7 +61,7 @@ import java.util.UUID;
  *   <li>文件上传（支持流式上传）</li>
  *   <li>文件下载（返回输入流）</li>
  *   <li>文件删除</li>
- *   <li>预签名URL生成（临时授权访问）</li>
+ *   <li>预签名URL生成（临时授权访问，按时间窗口缓存，支持列表批量签名）</li>
  * </ul>
  *
  * <p>安全特性:
@@ -52,6 +72,13 @@ import java.util.UUID;
  *   <li>按日期分层存储</li>
  * </ul>
  *
+ * <p>内容寻址去重模式（{@code storage.dedup.enabled=true}）:
+ * <ul>
+ *   <li>上传时边写临时文件边计算SHA-256，按摘要生成Key</li>
+ *   <li>对象已存在时跳过PUT，只增加引用计数</li>
+ *   <li>删除时减少引用计数，最后一个引用删除时才物理删除</li>
+ * </ul>
+ *
  * <p>生命周期管理:
  * <ul>
  *   <li>{@code @PostConstruct}: 初始化OSS客户端并验证配置</li>
@@ -67,24 +94,16 @@ import java.util.UUID;
 public class OssStorageServiceImpl implements StorageService {
 
     private final StorageProperties storageProperties;
+    private final StorageObjectService storageObjectService;
     private OSS ossClient;
 
     /**
-     * 支持的文件类型白名单
+     * 预签名URL缓存（按对象、有效期、下载文件名与时间窗口）
      */
-    private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
-            // 图片格式
-            "image/jpeg", "image/jpg", "image/png", "image/gif",
-            "image/webp", "image/bmp", "image/svg+xml",
-            // 视频格式
-            "video/mp4", "video/webm", "video/ogg", "video/avi",
-            "video/quicktime", "video/x-msvideo"
-    );
+    private final Map<PresignKey, String> presignCache = new ConcurrentHashMap<>();
 
-    /**
-     * 最大文件大小（100MB）
-     */
-    private static final long MAX_FILE_SIZE = 100 * 1024 * 1024;
+    private record PresignKey(String fileKey, int expirationMinutes, String downloadFileName, long window) {
+    }
 
     /**
      * 日期格式化器（用于生成文件路径）
@@ -97,7 +116,19 @@ public class OssStorageServiceImpl implements StorageService {
      * @param storageProperties 存储配置属性
      */
     public OssStorageServiceImpl(StorageProperties storageProperties) {
+        this(storageProperties, null);
+    }
+
+    /**
+     * 构造函数注入配置与内容寻址引用计数服务
+     *
+     * @param storageProperties    存储配置属性
+     * @param storageObjectService 内容寻址引用计数服务（为null时不支持去重模式）
+     */
+    @Autowired
+    public OssStorageServiceImpl(StorageProperties storageProperties, StorageObjectService storageObjectService) {
         this.storageProperties = storageProperties;
+        this.storageObjectService = storageObjectService;
     }
 
     /**
@@ -195,12 +226,138 @@ public class OssStorageServiceImpl implements StorageService {
         log.info("开始上传文件: fileName={}, contentType={}", fileName, contentType);
 
         // 验证文件类型
-        validateContentType(contentType);
+        StorageFileSupport.validateContentType(contentType);
+
+        if (isDedupEnabled()) {
+            return uploadContentAddressed(inputStream, fileName, contentType);
+        }
 
         // 生成唯一文件Key
         String fileKey = generateFileKey(fileName);
         log.debug("生成文件Key: {}", fileKey);
 
+        return putObject(fileKey, inputStream, contentType);
+    }
+
+    /**
+     * 按内容摘要上传文件，相同内容只存一份
+     */
+    private String uploadContentAddressed(InputStream inputStream, String fileName, String contentType) {
+        try (ContentDigestUtil.SpooledContent content = ContentDigestUtil.spool(inputStream, StorageFileSupport.MAX_FILE_SIZE)) {
+            String fileKey = ContentDigestUtil.contentKey(
+                    storageProperties.getDedup().getPrefix(), content.sha256(), fileName);
+
+            // 先占用引用再写入，写入期间其他实例释放同一内容不会删除对象
+            storageObjectService.acquire(fileKey, content.sha256(), content.size(), contentType);
+            try {
+                if (ossClient.doesObjectExist(storageProperties.getOss().getBucket(), fileKey)) {
+                    log.info("内容已存在，跳过上传: fileKey={}, size={} bytes", fileKey, content.size());
+                } else {
+                    try (InputStream in = Files.newInputStream(content.file())) {
+                        putObject(fileKey, in, contentType);
+                    }
+                }
+            } catch (Exception e) {
+                releaseAfterFailedPut(fileKey);
+                throw e;
+            }
+            return generateFileUrl(fileKey);
+
+        } catch (StorageException e) {
+            throw e;
+        } catch (OSSException e) {
+            log.error("OSS上传失败: ErrorCode={}, ErrorMessage={}",
+                    e.getErrorCode(), e.getErrorMessage(), e);
+            throw new StorageException("UPLOAD_FAILED",
+                    "文件上传失败: " + e.getErrorMessage(), e);
+        } catch (Exception e) {
+            log.error("文件上传失败", e);
+            throw new StorageException("UPLOAD_FAILED",
+                    "文件上传失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 将派生文件上传到源文件旁边
+     *
+     * <p>源文件为内容寻址对象时，派生文件同样登记引用计数，删除时只有最后一个引用才物理删除
+     *
+     * @param sourceUrl   源文件的完整访问URL
+     * @param suffix      派生文件后缀（含扩展名）
+     * @param bytes       派生文件字节数组
+     * @param contentType 文件MIME类型
+     * @return 派生文件的公共访问URL
+     * @throws StorageException 上传失败时抛出
+     */
+    @Override
+    public String uploadDerivative(String sourceUrl, String suffix, byte[] bytes, String contentType) {
+        log.info("开始上传派生文件: sourceUrl={}, suffix={}, size={} bytes", sourceUrl, suffix, bytes.length);
+
+        StorageFileSupport.validateContentType(contentType);
+
+        String fileKey = StorageFileSupport.derivativeKey(extractFileKeyFromUrl(sourceUrl), suffix);
+        log.debug("生成派生文件Key: {}", fileKey);
+
+        if (isDedupEnabled() && storageObjectService.isContentKey(fileKey)) {
+            // 共享同一内容寻址原图的版本得到同一个派生Key，与原图一样按引用计数登记
+            storageObjectService.acquire(fileKey, ContentDigestUtil.sha256(bytes), bytes.length, contentType);
+            try {
+                if (ossClient.doesObjectExist(storageProperties.getOss().getBucket(), fileKey)) {
+                    log.info("派生文件已存在，跳过上传: fileKey={}", fileKey);
+                    return generateFileUrl(fileKey);
+                }
+                return putObject(fileKey, new ByteArrayInputStream(bytes), contentType);
+            } catch (RuntimeException e) {
+                releaseAfterFailedPut(fileKey);
+                throw e;
+            }
+        }
+
+        return putObject(fileKey, new ByteArrayInputStream(bytes), contentType);
+    }
+
+    /**
+     * 以指定Key分片并发上传本地文件到阿里云OSS
+     *
+     * @param file        本地文件路径
+     * @param objectKey   存储Key
+     * @param contentType 文件MIME类型
+     * @return 文件的公共访问URL
+     * @throws StorageException 上传失败时抛出
+     */
+    @Override
+    public String uploadFile(Path file, String objectKey, String contentType) {
+        log.info("开始分片上传文件: file={}, fileKey={}", file, objectKey);
+
+        try {
+            StorageProperties.OssConfig ossConfig = storageProperties.getOss();
+            UploadFileRequest request = new UploadFileRequest(ossConfig.getBucket(), objectKey, file.toString(),
+                    ossConfig.getMultipartPartSizeMb() * 1024 * 1024, ossConfig.getMultipartTaskNum());
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentType(contentType);
+            request.setObjectMetadata(metadata);
+            ossClient.uploadFile(request);
+
+            String fileUrl = generateFileUrl(objectKey);
+            log.info("文件分片上传成功: fileKey={}, size={} bytes", objectKey, Files.size(file));
+            return fileUrl;
+
+        } catch (OSSException e) {
+            log.error("OSS分片上传失败: ErrorCode={}, ErrorMessage={}",
+                    e.getErrorCode(), e.getErrorMessage(), e);
+            throw new StorageException("UPLOAD_FAILED",
+                    "文件上传失败: " + e.getErrorMessage(), e);
+        } catch (Throwable e) {
+            log.error("文件分片上传失败", e);
+            throw new StorageException("UPLOAD_FAILED",
+                    "文件上传失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 以指定Key上传对象
+     */
+    private String putObject(String fileKey, InputStream inputStream, String contentType) {
         try {
             // 创建元数据
             ObjectMetadata metadata = new ObjectMetadata();
@@ -243,10 +400,25 @@ public class OssStorageServiceImpl implements StorageService {
      */
     @Override
     public String uploadImageBytes(byte[] imageBytes, String fileName) {
-        log.info("开始上传字节数组: fileName={}, size={} bytes", fileName, imageBytes.length);
+        return uploadImageBytes(imageBytes, fileName, "image/png");
+    }
+
+    /**
+     * 上传指定MIME类型的字节数组到阿里云OSS
+     *
+     * @param imageBytes  图片字节数组
+     * @param fileName    文件名
+     * @param contentType 文件MIME类型
+     * @return 文件的公共访问URL
+     * @throws StorageException 上传失败时抛出
+     */
+    @Override
+    public String uploadImageBytes(byte[] imageBytes, String fileName, String contentType) {
+        log.info("开始上传字节数组: fileName={}, contentType={}, size={} bytes",
+                fileName, contentType, imageBytes.length);
 
         try (ByteArrayInputStream bais = new ByteArrayInputStream(imageBytes)) {
-            return upload(bais, fileName, "image/png");
+            return upload(bais, fileName, contentType);
         } catch (Exception e) {
             log.error("字节数组上传失败", e);
             throw new StorageException("UPLOAD_FAILED",
@@ -290,6 +462,61 @@ public class OssStorageServiceImpl implements StorageService {
         }
     }
 
+    /**
+     * 查询OSS对象元数据（HEAD请求，不读取内容）
+     *
+     * @param fileUrl 文件的完整访问URL
+     * @return 文件元数据
+     * @throws StorageException 查询失败时抛出
+     */
+    @Override
+    public ObjectMeta stat(String fileUrl) {
+        try {
+            String fileKey = extractFileKeyFromUrl(fileUrl);
+            ObjectMetadata metadata = ossClient.getObjectMetadata(storageProperties.getOss().getBucket(), fileKey);
+            Date lastModified = metadata.getLastModified();
+            return new ObjectMeta(metadata.getContentLength(), metadata.getETag(),
+                    lastModified != null ? lastModified.getTime() : null, metadata.getContentType());
+        } catch (OSSException e) {
+            log.error("OSS查询元数据失败: ErrorCode={}, ErrorMessage={}",
+                    e.getErrorCode(), e.getErrorMessage(), e);
+            throw new StorageException("STAT_FAILED", "文件元数据查询失败: " + e.getErrorMessage(), e);
+        } catch (StorageException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new StorageException("STAT_FAILED", "文件元数据查询失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 使用OSS Range GET按字节区间下载文件
+     *
+     * @param fileUrl 文件的完整访问URL
+     * @param start   起始字节（含）
+     * @param end     结束字节（含）
+     * @return 区间内容输入流（调用者负责关闭）
+     * @throws StorageException 下载失败时抛出
+     */
+    @Override
+    public InputStream downloadRange(String fileUrl, long start, long end) {
+        log.debug("开始区间下载文件: url={}, range={}-{}", fileUrl, start, end);
+
+        try {
+            String fileKey = extractFileKeyFromUrl(fileUrl);
+            GetObjectRequest request = new GetObjectRequest(storageProperties.getOss().getBucket(), fileKey);
+            request.setRange(start, end);
+            return ossClient.getObject(request).getObjectContent();
+        } catch (OSSException e) {
+            log.error("OSS区间下载失败: ErrorCode={}, ErrorMessage={}",
+                    e.getErrorCode(), e.getErrorMessage(), e);
+            throw new StorageException("DOWNLOAD_FAILED", "文件下载失败: " + e.getErrorMessage(), e);
+        } catch (StorageException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new StorageException("DOWNLOAD_FAILED", "文件下载失败: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * 从阿里云OSS删除文件
      *
@@ -305,8 +532,16 @@ public class OssStorageServiceImpl implements StorageService {
             String fileKey = extractFileKeyFromUrl(fileUrl);
             log.debug("提取文件Key: {}", fileKey);
 
-            // 删除文件
             StorageProperties.OssConfig ossConfig = storageProperties.getOss();
+            if (isDedupEnabled() && storageObjectService.isContentKey(fileKey)) {
+                // 内容寻址对象：只有最后一个引用删除时才物理删除（在登记记录的行锁内删除）
+                if (storageObjectService.release(fileKey, () -> ossClient.deleteObject(ossConfig.getBucket(), fileKey))) {
+                    log.info("文件删除成功（最后一个引用）: fileKey={}", fileKey);
+                }
+                return;
+            }
+
+            // 删除文件
             ossClient.deleteObject(ossConfig.getBucket(), fileKey);
 
             log.info("文件删除成功: fileKey={}", fileKey);
@@ -323,9 +558,130 @@ public class OssStorageServiceImpl implements StorageService {
         }
     }
 
+    /**
+     * 使用OSS DeleteObjects批量删除对象（单次最多1000个Key）
+     *
+     * @param objectKeys 对象Key列表
+     * @return 删除成功的Key
+     * @throws StorageException 删除失败时抛出
+     */
+    @Override
+    public List<String> deleteObjects(List<String> objectKeys) {
+        if (objectKeys.isEmpty()) {
+            return List.of();
+        }
+        if (objectKeys.size() > MAX_BATCH_DELETE) {
+            throw new StorageException("DELETE_FAILED", "单次批量删除不能超过" + MAX_BATCH_DELETE + "个对象");
+        }
+        try {
+            DeleteObjectsRequest request = new DeleteObjectsRequest(storageProperties.getOss().getBucket())
+                    .withKeys(objectKeys)
+                    .withQuiet(false);
+            List<String> deleted = ossClient.deleteObjects(request).getDeletedObjects();
+            log.info("批量删除文件完成: requested={}, deleted={}", objectKeys.size(), deleted.size());
+            return deleted;
+        } catch (OSSException e) {
+            log.error("OSS批量删除失败: ErrorCode={}, ErrorMessage={}",
+                    e.getErrorCode(), e.getErrorMessage(), e);
+            throw new StorageException("DELETE_FAILED", "文件批量删除失败: " + e.getErrorMessage(), e);
+        } catch (Exception e) {
+            throw new StorageException("DELETE_FAILED", "文件批量删除失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 按Key字典序分页列举存储桶中的对象
+     *
+     * @param marker  起始标记（不含），首页传null
+     * @param maxKeys 每页最大数量
+     * @return 一页对象
+     * @throws StorageException 列举失败时抛出
+     */
+    @Override
+    public ObjectPage listObjects(String marker, int maxKeys) {
+        try {
+            ObjectListing listing = ossClient.listObjects(new ListObjectsRequest(storageProperties.getOss().getBucket())
+                    .withMarker(marker)
+                    .withMaxKeys(Math.min(maxKeys, MAX_BATCH_DELETE)));
+            List<StoredObject> objects = listing.getObjectSummaries().stream()
+                    .map(summary -> new StoredObject(summary.getKey(), summary.getSize(),
+                            summary.getLastModified() != null ? summary.getLastModified().getTime() : 0L))
+                    .toList();
+            return new ObjectPage(objects, listing.isTruncated() ? listing.getNextMarker() : null);
+        } catch (OSSException e) {
+            log.error("OSS列举对象失败: ErrorCode={}, ErrorMessage={}",
+                    e.getErrorCode(), e.getErrorMessage(), e);
+            throw new StorageException("LIST_FAILED", "对象列举失败: " + e.getErrorMessage(), e);
+        } catch (Exception e) {
+            throw new StorageException("LIST_FAILED", "对象列举失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 本存储桶任一访问域名下的URL按路径转换为对象Key，其他URL返回null
+     *
+     * <p>访问域名包括当前URL前缀、默认存储桶域名（配置CDN之前写入的URL与预签名URL都在该域名下）
+     * 以及 {@code legacy-url-prefixes} 中登记的旧域名。路径中的百分号编码会被解码，查询参数被忽略
+     */
+    @Override
+    public String toObjectKey(String fileUrl) {
+        if (!StringUtils.hasText(fileUrl)) {
+            return null;
+        }
+        String url = stripScheme(fileUrl);
+        for (String base : knownUrlBases()) {
+            if (!url.startsWith(base + "/")) {
+                continue;
+            }
+            String key = url.substring(base.length() + 1);
+            int end = indexOfAny(key, '?', '#');
+            key = end >= 0 ? key.substring(0, end) : key;
+            return key.isEmpty() ? null : UriUtils.decode(key, StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    /**
+     * 本存储桶的全部访问域名（去掉协议与末尾斜杠）
+     */
+    private List<String> knownUrlBases() {
+        StorageProperties.OssConfig ossConfig = storageProperties.getOss();
+        List<String> bases = new ArrayList<>();
+        bases.add(trimUrlBase(generateFileUrl("")));
+        String endpoint = ossConfig.getEndpoint().replace("https://", "").replace("http://", "");
+        bases.add(ossConfig.getBucket() + "." + endpoint);
+        if (ossConfig.getLegacyUrlPrefixes() != null) {
+            for (String prefix : ossConfig.getLegacyUrlPrefixes()) {
+                if (StringUtils.hasText(prefix)) {
+                    bases.add(trimUrlBase(prefix));
+                }
+            }
+        }
+        return bases;
+    }
+
+    private String trimUrlBase(String url) {
+        String base = stripScheme(url.trim());
+        while (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        return base;
+    }
+
+    private int indexOfAny(String value, char first, char second) {
+        int a = value.indexOf(first);
+        int b = value.indexOf(second);
+        if (a < 0) {
+            return b;
+        }
+        return b < 0 ? a : Math.min(a, b);
+    }
+
     /**
      * 生成预签名URL（临时访问链接）
      *
+     * <p>同一时间窗口内对同一对象的签名结果被缓存并复用，见 {@link #presign}
+     *
      * @param fileKey           文件Key
      * @param expirationMinutes 有效期（分钟）
      * @return 预签名URL
@@ -333,19 +689,98 @@ public class OssStorageServiceImpl implements StorageService {
      */
     @Override
     public String generatePresignedUrl(String fileKey, int expirationMinutes) {
-        log.info("生成预签名URL: fileKey={}, expirationMinutes={}", fileKey, expirationMinutes);
+        return presign(fileKey, expirationMinutes, null);
+    }
 
-        try {
-            // 计算过期时间
-            Date expiration = new Date(System.currentTimeMillis() + expirationMinutes * 60 * 1000L);
+    /**
+     * 生成带下载文件名的预签名URL（通过response-content-disposition覆盖响应头）
+     *
+     * @param fileKey           文件Key
+     * @param expirationMinutes 有效期（分钟）
+     * @param downloadFileName  下载保存的文件名
+     * @return 预签名URL
+     * @throws StorageException 生成失败时抛出
+     */
+    @Override
+    public String generatePresignedUrl(String fileKey, int expirationMinutes, String downloadFileName) {
+        return presign(fileKey, expirationMinutes, downloadFileName);
+    }
 
-            // 生成预签名URL
-            StorageProperties.OssConfig ossConfig = storageProperties.getOss();
-            URL url = ossClient.generatePresignedUrl(ossConfig.getBucket(), fileKey, expiration);
+    /**
+     * 私有存储桶下批量签名本存储的URL，公共读存储桶返回空映射
+     *
+     * @param fileUrls 文件URL集合
+     * @return 原URL到预签名URL的映射
+     * @throws StorageException 签名失败时抛出
+     */
+    @Override
+    public Map<String, String> presignUrls(Collection<String> fileUrls) {
+        StorageProperties.OssConfig ossConfig = storageProperties.getOss();
+        if (!ossConfig.isPrivateBucket() || fileUrls.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> signed = new HashMap<>(fileUrls.size() * 2);
+        for (String fileUrl : fileUrls) {
+            if (fileUrl == null || signed.containsKey(fileUrl)) {
+                continue;
+            }
+            String fileKey = toObjectKey(fileUrl);
+            if (fileKey != null) {
+                signed.put(fileUrl, presign(fileKey, ossConfig.getPresignExpireMinutes(), null));
+            }
+        }
+        return signed;
+    }
+
+    @Override
+    public long presignWindow() {
+        StorageProperties.OssConfig ossConfig = storageProperties.getOss();
+        if (!ossConfig.isPrivateBucket()) {
+            return 0;
+        }
+        return System.currentTimeMillis() / (Math.max(1, ossConfig.getPresignWindowMinutes()) * 60_000L);
+    }
 
-            String presignedUrl = url.toString();
-            log.info("预签名URL生成成功: {}", presignedUrl);
+    /**
+     * 按时间窗口缓存的签名
+     *
+     * <p>过期时间对齐到当前窗口结束时刻再加上有效期，同一窗口内同一对象的签名参数完全相同，
+     * 直接返回缓存的URL；进入下一个窗口时重新签名。实际有效期不短于请求的有效期
+     */
+    private String presign(String fileKey, int expirationMinutes, String downloadFileName) {
+        StorageProperties.OssConfig ossConfig = storageProperties.getOss();
+        long windowMillis = Math.max(1, ossConfig.getPresignWindowMinutes()) * 60_000L;
+        long window = System.currentTimeMillis() / windowMillis;
+        PresignKey cacheKey = new PresignKey(fileKey, expirationMinutes, downloadFileName, window);
+        String cached = presignCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            Date expiration = new Date((window + 1) * windowMillis + expirationMinutes * 60 * 1000L);
+            String presignedUrl;
+            if (downloadFileName == null) {
+                presignedUrl = ossClient.generatePresignedUrl(ossConfig.getBucket(), fileKey, expiration).toString();
+            } else {
+                GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(ossConfig.getBucket(), fileKey);
+                request.setExpiration(expiration);
+                ResponseHeaderOverrides overrides = new ResponseHeaderOverrides();
+                overrides.setContentDisposition(ContentDisposition.attachment()
+                        .filename(downloadFileName, StandardCharsets.UTF_8).build().toString());
+                request.setResponseHeaders(overrides);
+                presignedUrl = ossClient.generatePresignedUrl(request).toString();
+            }
+            log.debug("预签名URL生成成功: fileKey={}, expiration={}", fileKey, expiration);
 
+            if (presignCache.size() >= ossConfig.getPresignCacheSize()) {
+                // 先淘汰过去窗口的签名，仍超限时整体清空
+                presignCache.keySet().removeIf(key -> key.window() < window);
+                if (presignCache.size() >= ossConfig.getPresignCacheSize()) {
+                    presignCache.clear();
+                }
+            }
+            presignCache.put(cacheKey, presignedUrl);
             return presignedUrl;
 
         } catch (OSSException e) {
@@ -362,6 +797,25 @@ public class OssStorageServiceImpl implements StorageService {
 
     // ==================== 私有辅助方法 ====================
 
+    /**
+     * 写入内容寻址对象失败时归还已占用的引用（失败只记录日志，不覆盖原异常）
+     */
+    private void releaseAfterFailedPut(String fileKey) {
+        try {
+            storageObjectService.release(fileKey,
+                    () -> ossClient.deleteObject(storageProperties.getOss().getBucket(), fileKey));
+        } catch (Exception e) {
+            log.warn("归还内容寻址对象引用失败: fileKey={}", fileKey, e);
+        }
+    }
+
+    /**
+     * 是否开启内容寻址去重模式
+     */
+    private boolean isDedupEnabled() {
+        return storageObjectService != null && storageObjectService.isEnabled();
+    }
+
     /**
      * 验证OSS配置完整性
      */
@@ -393,23 +847,6 @@ public class OssStorageServiceImpl implements StorageService {
         return endpoint;
     }
 
-    /**
-     * 验证文件类型是否在白名单中
-     */
-    private void validateContentType(String contentType) {
-        if (!StringUtils.hasText(contentType)) {
-            throw new StorageException("INVALID_CONTENT_TYPE", "文件类型不能为空");
-        }
-
-        // 提取主类型（去除参数，如 "image/jpeg; charset=utf-8" -> "image/jpeg"）
-        String mainType = contentType.split(";")[0].trim().toLowerCase();
-
-        if (!ALLOWED_CONTENT_TYPES.contains(mainType)) {
-            throw new StorageException("INVALID_CONTENT_TYPE",
-                    "不支持的文件类型: " + contentType + "。支持的类型: " + ALLOWED_CONTENT_TYPES);
-        }
-    }
-
     /**
      * 生成唯一的文件Key
      *
@@ -427,30 +864,12 @@ public class OssStorageServiceImpl implements StorageService {
         String uuid = UUID.randomUUID().toString();
 
         // 清理文件名（移除路径和非法字符）
-        String cleanFileName = cleanFileName(originalFileName);
+        String cleanFileName = StorageFileSupport.cleanFileName(originalFileName);
 
         // 组合最终路径
         return String.format("%s/%s_%s", datePath, uuid, cleanFileName);
     }
 
-    /**
-     * 清理文件名（移除路径和非法字符）
-     */
-    private String cleanFileName(String fileName) {
-        if (!StringUtils.hasText(fileName)) {
-            return "unnamed_file";
-        }
-
-        // 只保留文件名部分（去除路径）
-        String name = fileName;
-        int lastSlash = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
-        if (lastSlash >= 0) {
-            name = name.substring(lastSlash + 1);
-        }
-        // 移除非法字符（保留字母、数字、下划线、连字符、点）
-        return name.replaceAll("[^a-zA-Z0-9._-]", "_");
-    }
-
     /**
      * 生成文件的公共访问URL
      */
@@ -467,6 +886,11 @@ public class OssStorageServiceImpl implements StorageService {
         return String.format("https://%s.%s/%s", ossConfig.getBucket(), endpoint, fileKey);
     }
 
+    private String stripScheme(String url) {
+        int scheme = url.indexOf("://");
+        return scheme >= 0 ? url.substring(scheme + 3) : url;
+    }
+
     /**
      * 从完整URL中提取文件Key
      *
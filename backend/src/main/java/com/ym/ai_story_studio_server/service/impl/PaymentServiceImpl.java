@@ -2,6 +2,7 @@ package com.ym.ai_story_studio_server.service.impl;
 
 import cn.hutool.core.util.IdUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.wechat.pay.java.core.Config;
 import com.wechat.pay.java.core.RSAAutoCertificateConfig;
 import com.wechat.pay.java.core.exception.ServiceException;
@@ -12,12 +13,15 @@ import com.wechat.pay.java.service.payments.nativepay.model.PrepayResponse;
 import com.wechat.pay.java.service.payments.model.Transaction;
 import com.ym.ai_story_studio_server.config.WechatPayProperties;
 import com.ym.ai_story_studio_server.dto.payment.CreateNativeOrderRequest;
+import com.ym.ai_story_studio_server.dto.payment.ExchangeRuleVO;
 import com.ym.ai_story_studio_server.dto.payment.NativeOrderVO;
 import com.ym.ai_story_studio_server.dto.payment.OrderStatusVO;
+import com.ym.ai_story_studio_server.dto.payment.RechargeProductVO;
 import com.ym.ai_story_studio_server.entity.*;
 import com.ym.ai_story_studio_server.exception.BusinessException;
 import com.ym.ai_story_studio_server.mapper.*;
 import com.ym.ai_story_studio_server.service.PaymentService;
+import com.ym.ai_story_studio_server.service.ReferenceDataCache;
 import com.ym.ai_story_studio_server.service.WalletService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -52,12 +56,18 @@ import static com.ym.ai_story_studio_server.common.ResultCode.*;
 @RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final TypeReference<List<RechargeProductVO>> PRODUCT_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<List<ExchangeRuleVO>> EXCHANGE_RULE_LIST = new TypeReference<>() {
+    };
+
     private final PayOrderMapper payOrderMapper;
     private final PayEventMapper payEventMapper;
     private final RechargeProductMapper productMapper;
     private final RechargeExchangeRuleMapper exchangeRuleMapper;
     private final WalletService walletService;
     private final WechatPayProperties wechatPayProperties;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * 微信Native支付服务客户端
@@ -440,7 +450,15 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
-    public List<com.ym.ai_story_studio_server.dto.payment.RechargeProductVO> getRechargeProducts() {
+    public List<RechargeProductVO> getRechargeProducts() {
+        return referenceDataCache.get(ReferenceDataCache.Region.RECHARGE_PRODUCTS, "enabled", PRODUCT_LIST,
+                this::loadRechargeProducts);
+    }
+
+    /**
+     * 从数据库查询启用的充值套餐
+     */
+    private List<RechargeProductVO> loadRechargeProducts() {
         log.info("获取充值套餐列表");
 
         // 查询所有启用的充值套餐，按sortOrder排序
@@ -452,7 +470,7 @@ public class PaymentServiceImpl implements PaymentService {
 
         // 转换为VO
         return products.stream()
-                .map(p -> new com.ym.ai_story_studio_server.dto.payment.RechargeProductVO(
+                .map(p -> new RechargeProductVO(
                         p.getId(),
                         p.getName(),
                         p.getPoints(),
@@ -466,7 +484,15 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
-    public List<com.ym.ai_story_studio_server.dto.payment.ExchangeRuleVO> getExchangeRules() {
+    public List<ExchangeRuleVO> getExchangeRules() {
+        return referenceDataCache.get(ReferenceDataCache.Region.EXCHANGE_RULES, "enabled", EXCHANGE_RULE_LIST,
+                this::loadExchangeRules);
+    }
+
+    /**
+     * 从数据库查询启用的兑换规则
+     */
+    private List<ExchangeRuleVO> loadExchangeRules() {
         log.info("获取兑换规则列表");
 
         // 查询所有启用的兑换规则
@@ -477,10 +503,10 @@ public class PaymentServiceImpl implements PaymentService {
 
         // 转换为VO (将centsPerPoint转换为pointsPerYuan)
         return rules.stream()
-                .map(r -> new com.ym.ai_story_studio_server.dto.payment.ExchangeRuleVO(
+                .map(r -> new ExchangeRuleVO(
                         r.getId(),
                         r.getName(),
-                        com.ym.ai_story_studio_server.dto.payment.ExchangeRuleVO.calculatePointsPerYuan(r.getCentsPerPoint()),
+                        ExchangeRuleVO.calculatePointsPerYuan(r.getCentsPerPoint()),
                         r.getEnabled()
                 ))
                 .toList();
@@ -16,14 +16,19 @@ import com.ym.ai_story_studio_server.mapper.CharacterLibraryMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectCharacterMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectMapper;
 import com.ym.ai_story_studio_server.mapper.ShotBindingMapper;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
 import com.ym.ai_story_studio_server.service.ProjectCharacterService;
+import com.ym.ai_story_studio_server.service.ProjectWorkspaceCache;
+import com.ym.ai_story_studio_server.util.BatchLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +46,8 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
     private final CharacterLibraryMapper characterLibraryMapper;
     private final ProjectMapper projectMapper;
     private final ShotBindingMapper shotBindingMapper;
+    private final ProjectWorkspaceCache workspaceCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 验证项目存在且属于当前用户
@@ -72,17 +79,29 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
         // 验证项目存在且属于当前用户
         validateProjectOwnership(projectId, userId);
 
+        return workspaceCache.getOrLoad(projectId, ProjectWorkspaceCache.Section.CHARACTERS,
+                ProjectCharacterVO.class, () -> loadProjectCharacters(projectId));
+    }
+
+    /**
+     * 从数据库组装项目角色列表
+     */
+    private List<ProjectCharacterVO> loadProjectCharacters(Long projectId) {
         // 查询项目下所有角色引用
         LambdaQueryWrapper<ProjectCharacter> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(ProjectCharacter::getProjectId, projectId)
                 .orderByDesc(ProjectCharacter::getCreatedAt);
         List<ProjectCharacter> projectCharacters = projectCharacterMapper.selectList(queryWrapper);
 
+        // 批量查询关联的全局角色
+        Map<Long, CharacterLibrary> libraryCharacters = BatchLoader.load(projectCharacters,
+                ProjectCharacter::getLibraryCharacterId, characterLibraryMapper, CharacterLibrary::getId);
+
         // 转换为VO
         return projectCharacters.stream().map(pc -> {
-            // 查询全局角色信息（可能为null，支持自定义角色）
-            CharacterLibrary libChar = pc.getLibraryCharacterId() != null 
-                    ? characterLibraryMapper.selectById(pc.getLibraryCharacterId()) 
+            // 全局角色信息（可能为null，支持自定义角色）
+            CharacterLibrary libChar = pc.getLibraryCharacterId() != null
+                    ? libraryCharacters.get(pc.getLibraryCharacterId())
                     : null;
             
             // 判断是否为自定义角色（未关联角色库）
@@ -140,6 +159,7 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
      * @return 项目角色VO
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public ProjectCharacterVO addCharacterToProject(Long userId, Long projectId, AddCharacterToProjectRequest request) {
         log.info("引用角色到项目, userId: {}, projectId: {}, libraryCharacterId: {}",
                 userId, projectId, request.libraryCharacterId());
@@ -175,8 +195,10 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
 
         // 保存到数据库
         projectCharacterMapper.insert(projectCharacter);
+        projectMapper.adjustCharacterCount(projectId, 1);
 
         log.info("角色引用成功, projectCharacterId: {}", projectCharacter.getId());
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
 
         // displayName: 优先使用项目内显示名称,否则使用全局名称
         String displayName = StringUtils.hasText(request.displayName())
@@ -197,6 +219,7 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public ProjectCharacterVO createCustomCharacter(Long userId, Long projectId,
                                                     com.ym.ai_story_studio_server.dto.character.CreateProjectCharacterRequest request) {
         log.info("创建自定义项目角色, userId: {}, projectId: {}", userId, projectId);
@@ -208,6 +231,8 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
         projectCharacter.setDisplayName(request.displayName());
         projectCharacter.setOverrideDescription(request.overrideDescription());
         projectCharacterMapper.insert(projectCharacter);
+        projectMapper.adjustCharacterCount(projectId, 1);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
 
         String displayName = StringUtils.hasText(request.displayName())
                 ? request.displayName()
@@ -285,6 +310,7 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
         projectCharacterMapper.updateById(projectCharacter);
 
         log.info("项目角色覆盖更新成功, projectCharacterId: {}", projectCharacterId);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     /**
@@ -295,6 +321,7 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
      * @param projectCharacterId 项目角色ID
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void removeCharacterFromProject(Long userId, Long projectId, Long projectCharacterId) {
         log.info("移除角色引用, userId: {}, projectId: {}, projectCharacterId: {}",
                 userId, projectId, projectCharacterId);
@@ -325,8 +352,10 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
 
         // 物理删除项目角色引用
         projectCharacterMapper.deleteById(projectCharacterId);
+        projectMapper.adjustCharacterCount(projectId, -1);
 
         log.info("角色引用移除成功, projectCharacterId: {}", projectCharacterId);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     /**
@@ -411,5 +440,6 @@ public class ProjectCharacterServiceImpl implements ProjectCharacterService {
 
         log.info("删除旧项目角色引用成功, oldProjectCharacterId: {}", projectCharacterId);
         log.info("角色替换完成");
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 }
@@ -2,7 +2,9 @@ package com.ym.ai_story_studio_server.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.ym.ai_story_studio_server.exception.BusinessException;
+import com.ym.ai_story_studio_server.common.AssetRendition;
 import com.ym.ai_story_studio_server.common.ResultCode;
+import com.ym.ai_story_studio_server.dto.asset.AssetStatusRow;
 import com.ym.ai_story_studio_server.dto.prop.AddPropToProjectRequest;
 import com.ym.ai_story_studio_server.dto.prop.ProjectPropVO;
 import com.ym.ai_story_studio_server.dto.prop.UpdateProjectPropRequest;
@@ -16,13 +18,19 @@ import com.ym.ai_story_studio_server.mapper.AssetVersionMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectMapper;
 import com.ym.ai_story_studio_server.mapper.PropLibraryMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectPropMapper;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
 import com.ym.ai_story_studio_server.service.ProjectPropService;
+import com.ym.ai_story_studio_server.service.ProjectWorkspaceCache;
 import com.ym.ai_story_studio_server.service.AssetCreationService;
+import com.ym.ai_story_studio_server.util.BatchLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -39,26 +47,47 @@ public class ProjectPropServiceImpl implements ProjectPropService {
     private final AssetMapper assetMapper;
     private final AssetVersionMapper assetVersionMapper;
     private final AssetCreationService assetCreationService;
+    private final ProjectWorkspaceCache workspaceCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ProjectPropVO> getProjectProps(Long projectId) {
         log.info("获取项目道具列表, projectId: {}", projectId);
 
+        return workspaceCache.getOrLoad(projectId, ProjectWorkspaceCache.Section.PROPS,
+                ProjectPropVO.class, () -> loadProjectProps(projectId));
+    }
+
+    /**
+     * 从数据库组装项目道具列表
+     */
+    private List<ProjectPropVO> loadProjectProps(Long projectId) {
         LambdaQueryWrapper<ProjectProp> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(ProjectProp::getProjectId, projectId)
                 .orderByDesc(ProjectProp::getCreatedAt);
 
         List<ProjectProp> projectProps = projectPropMapper.selectList(queryWrapper);
 
+        // 批量查询关联的道具库，以及没有库缩略图的道具的最新图片资产
+        Map<Long, PropLibrary> libraryProps = BatchLoader.load(projectProps,
+                ProjectProp::getLibraryPropId, propLibraryMapper, PropLibrary::getId);
+        Map<Long, String> assetThumbnails = loadLatestPropThumbnailUrls(projectProps.stream()
+                .filter(pp -> {
+                    PropLibrary lib = libraryProps.get(pp.getLibraryPropId());
+                    return lib == null || lib.getThumbnailUrl() == null;
+                })
+                .map(ProjectProp::getId)
+                .toList());
+
         return projectProps.stream().map(pp -> {
-            PropLibrary lib = propLibraryMapper.selectById(pp.getLibraryPropId());
+            PropLibrary lib = libraryProps.get(pp.getLibraryPropId());
             String name = lib != null ? lib.getName()
                     : (pp.getDisplayName() != null ? pp.getDisplayName() : "自定义道具");
             String description = pp.getOverrideDescription() != null ? pp.getOverrideDescription() :
                     (lib != null ? lib.getDescription() : null);
             String thumbnailUrl = lib != null ? lib.getThumbnailUrl() : null;
             if (thumbnailUrl == null) {
-                thumbnailUrl = getLatestPropThumbnailUrl(pp.getId());
+                thumbnailUrl = assetThumbnails.get(pp.getId());
             }
 
             return new ProjectPropVO(
@@ -112,6 +141,7 @@ public class ProjectPropServiceImpl implements ProjectPropService {
         projectPropMapper.insert(pp);
 
         log.info("道具添加到项目成功, projectPropId: {}", pp.getId());
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
 
         String description = pp.getOverrideDescription() != null ? pp.getOverrideDescription() : lib.getDescription();
 
@@ -145,6 +175,7 @@ public class ProjectPropServiceImpl implements ProjectPropService {
         pp.setDisplayName(request.displayName());
         pp.setOverrideDescription(request.overrideDescription());
         projectPropMapper.insert(pp);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
 
         String name = request.displayName() != null ? request.displayName() : "自定义道具";
         String description = request.overrideDescription();
@@ -213,6 +244,7 @@ public class ProjectPropServiceImpl implements ProjectPropService {
         }
 
         log.info("项目道具更新成功, propId: {}", propId);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     @Override
@@ -236,6 +268,27 @@ public class ProjectPropServiceImpl implements ProjectPropService {
         projectPropMapper.deleteById(propId);
 
         log.info("道具从项目移除成功, propId: {}", propId);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
+    }
+
+    /**
+     * 一次查询一批项目道具最新图片资产的当前版本URL
+     *
+     * @param propIds 项目道具ID列表
+     * @return 项目道具ID -> 缩略图URL（没有图片资产的道具不在结果中）
+     */
+    private Map<Long, String> loadLatestPropThumbnailUrls(List<Long> propIds) {
+        if (propIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> thumbnails = new HashMap<>();
+        for (AssetStatusRow row : assetMapper.selectLatestStatuses("PPROP", propIds)) {
+            String url = AssetRendition.DELIVERY.resolveUrl(row);
+            if ("IMAGE".equals(row.getAssetType()) && url != null) {
+                thumbnails.put(row.getOwnerId(), url);
+            }
+        }
+        return thumbnails;
     }
 
     private String getLatestPropThumbnailUrl(Long propId) {
@@ -255,6 +308,6 @@ public class ProjectPropServiceImpl implements ProjectPropService {
                 .orderByDesc(AssetVersion::getVersionNo)
                 .last("LIMIT 1");
         AssetVersion version = assetVersionMapper.selectOne(versionQuery);
-        return version != null ? version.getUrl() : null;
+        return AssetRendition.DELIVERY.resolveUrl(version);
     }
 }
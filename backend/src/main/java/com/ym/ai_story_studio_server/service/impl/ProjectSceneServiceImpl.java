@@ -16,14 +16,19 @@ import com.ym.ai_story_studio_server.mapper.SceneLibraryMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectSceneMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectMapper;
 import com.ym.ai_story_studio_server.mapper.ShotBindingMapper;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
 import com.ym.ai_story_studio_server.service.ProjectSceneService;
+import com.ym.ai_story_studio_server.service.ProjectWorkspaceCache;
+import com.ym.ai_story_studio_server.util.BatchLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +48,8 @@ public class ProjectSceneServiceImpl implements ProjectSceneService {
     private final SceneLibraryMapper sceneLibraryMapper;
     private final ProjectMapper projectMapper;
     private final ShotBindingMapper shotBindingMapper;
+    private final ProjectWorkspaceCache workspaceCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 验证项目存在且属于当前用户
@@ -74,17 +81,29 @@ public class ProjectSceneServiceImpl implements ProjectSceneService {
         // 验证项目存在且属于当前用户
         validateProjectOwnership(projectId, userId);
 
+        return workspaceCache.getOrLoad(projectId, ProjectWorkspaceCache.Section.SCENES,
+                ProjectSceneVO.class, () -> loadProjectScenes(projectId));
+    }
+
+    /**
+     * 从数据库组装项目场景列表
+     */
+    private List<ProjectSceneVO> loadProjectScenes(Long projectId) {
         // 查询项目下所有场景引用
         LambdaQueryWrapper<ProjectScene> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(ProjectScene::getProjectId, projectId)
                 .orderByDesc(ProjectScene::getCreatedAt);
         List<ProjectScene> projectScenes = projectSceneMapper.selectList(queryWrapper);
 
+        // 批量查询关联的全局场景
+        Map<Long, SceneLibrary> libraryScenes = BatchLoader.load(projectScenes,
+                ProjectScene::getLibrarySceneId, sceneLibraryMapper, SceneLibrary::getId);
+
         // 转换为VO
         return projectScenes.stream().map(ps -> {
-            // 查询全局场景信息（可能为null，自定义场景不关联场景库）
-            SceneLibrary libScene = ps.getLibrarySceneId() != null 
-                    ? sceneLibraryMapper.selectById(ps.getLibrarySceneId()) 
+            // 全局场景信息（可能为null，自定义场景不关联场景库）
+            SceneLibrary libScene = ps.getLibrarySceneId() != null
+                    ? libraryScenes.get(ps.getLibrarySceneId())
                     : null;
 
             // librarySceneName: 优先使用场景库名称，自定义场景显示"自定义场景"
@@ -166,6 +185,7 @@ public class ProjectSceneServiceImpl implements ProjectSceneService {
         projectSceneMapper.insert(projectScene);
 
         log.info("场景引用成功, projectSceneId: {}", projectScene.getId());
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
 
         // displayName: 优先使用项目内显示名称,否则使用全局名称
         String displayName = StringUtils.hasText(request.displayName())
@@ -197,6 +217,7 @@ public class ProjectSceneServiceImpl implements ProjectSceneService {
         projectScene.setDisplayName(request.displayName());
         projectScene.setOverrideDescription(request.overrideDescription());
         projectSceneMapper.insert(projectScene);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
 
         String displayName = StringUtils.hasText(request.displayName())
                 ? request.displayName()
@@ -271,6 +292,7 @@ public class ProjectSceneServiceImpl implements ProjectSceneService {
         projectSceneMapper.updateById(projectScene);
 
         log.info("项目场景覆盖更新成功, projectSceneId: {}", projectSceneId);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     /**
@@ -313,6 +335,7 @@ public class ProjectSceneServiceImpl implements ProjectSceneService {
         projectSceneMapper.deleteById(projectSceneId);
 
         log.info("场景引用移除成功, projectSceneId: {}", projectSceneId);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     /**
@@ -397,5 +420,6 @@ public class ProjectSceneServiceImpl implements ProjectSceneService {
 
         log.info("删除旧项目场景引用成功, oldProjectSceneId: {}", projectSceneId);
         log.info("场景替换完成");
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 }
@@ -2,6 +2,7 @@ package com.ym.ai_story_studio_server.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.dto.project.CreateProjectRequest;
 import com.ym.ai_story_studio_server.dto.project.ProjectQueryRequest;
@@ -12,8 +13,9 @@ import com.ym.ai_story_studio_server.entity.ProjectFolder;
 import com.ym.ai_story_studio_server.exception.BusinessException;
 import com.ym.ai_story_studio_server.mapper.ProjectFolderMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectMapper;
-import com.ym.ai_story_studio_server.mapper.StoryboardShotMapper;
 import com.ym.ai_story_studio_server.service.ProjectService;
+import com.ym.ai_story_studio_server.util.FullTextSearch;
+import com.ym.ai_story_studio_server.util.KeysetPager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,7 +23,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 项目服务实现类
@@ -34,133 +41,92 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class ProjectServiceImpl implements ProjectService {
 
+    /**
+     * 游标分页未指定size时的默认每页大小
+     */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * 游标分页每页最大条数
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProjectMapper projectMapper;
     private final ProjectFolderMapper folderMapper;
-    private final StoryboardShotMapper shotMapper;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProjectVO> getProjectPage(Long userId, ProjectQueryRequest request) {
         log.debug("查询项目列表: userId={}, request={}", userId, request);
 
         // 1. 构建分页对象
         Page<Project> page = new Page<>(request.page(), request.size());
 
-        // 2. 构建查询条件
-        LambdaQueryWrapper<Project> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(Project::getUserId, userId)
-                .isNull(Project::getDeletedAt);
+        // 2. 构建查询条件，按更新时间降序排序
+        LambdaQueryWrapper<Project> queryWrapper = buildProjectQuery(userId, request)
+                .orderByDesc(Project::getUpdatedAt);
 
-        // 文件夹筛选
-        if (request.folderId() != null) {
-            queryWrapper.eq(Project::getFolderId, request.folderId());
-        }
+        // 3. 执行分页查询
+        Page<Project> projectPage = projectMapper.selectPage(page, queryWrapper);
 
-        // 关键词搜索（项目名称）
-        if (StringUtils.hasText(request.keyword())) {
-            queryWrapper.like(Project::getName, request.keyword());
-        }
+        // 4. 批量查询本页项目的文件夹名称，计数直接读取项目表冗余字段
+        Map<Long, String> folderNames = loadFolderNames(projectPage.getRecords());
 
-        // 画幅比例筛选
-        if (StringUtils.hasText(request.aspectRatio())) {
-            queryWrapper.eq(Project::getAspectRatio, request.aspectRatio());
-        }
+        // 5. 转换为VO
+        return (Page<ProjectVO>) projectPage.convert(project ->
+                toProjectVO(project, folderNames.get(project.getFolderId())));
+    }
 
-        // 风格筛选
-        if (StringUtils.hasText(request.styleCode())) {
-            queryWrapper.eq(Project::getStyleCode, request.styleCode());
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectVO> getProjectCursorPage(Long userId, ProjectQueryRequest request) {
+        log.debug("游标查询项目列表: userId={}, request={}", userId, request);
 
-        // 状态筛选
-        if (StringUtils.hasText(request.status())) {
-            queryWrapper.eq(Project::getStatus, request.status());
+        int size = request.size() == null ? DEFAULT_PAGE_SIZE : request.size();
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException(ResultCode.PARAM_INVALID, "每页大小必须在1-" + MAX_PAGE_SIZE + "之间");
         }
+        CursorPage<Project> page = KeysetPager.fetch(projectMapper, buildProjectQuery(userId, request),
+                Project::getUpdatedAt, Project::getId, request.cursor(), size,
+                Boolean.TRUE.equals(request.withTotal()));
 
-        // 按更新时间降序排序
-        queryWrapper.orderByDesc(Project::getUpdatedAt);
+        Map<Long, String> folderNames = loadFolderNames(page.records());
+        return page.map(project -> toProjectVO(project, folderNames.get(project.getFolderId())));
+    }
 
-        // 3. 执行分页查询
-        Page<Project> projectPage = projectMapper.selectPage(page, queryWrapper);
+    @Override
+    public ProjectVO getProjectDetail(Long userId, Long projectId) {
+        log.debug("查询项目详情: userId={}, projectId={}", userId, projectId);
 
-        // 4. 转换为VO
-        return (Page<ProjectVO>) projectPage.convert(project -> {
-            // 查询文件夹名称
-            String folderName = null;
-            if (project.getFolderId() != null) {
-                ProjectFolder folder = folderMapper.selectById(project.getFolderId());
-                if (folder != null && folder.getDeletedAt() == null) {
-                    folderName = folder.getName();
-                }
-            }
+        // 1. 查询项目并验证归属
+        Project project = loadOwnedProject(userId, projectId);
 
-            // 统计分镜数量
-            Long shotCount = shotMapper.selectCount(
-                    new LambdaQueryWrapper<com.ym.ai_story_studio_server.entity.StoryboardShot>()
-                            .eq(com.ym.ai_story_studio_server.entity.StoryboardShot::getProjectId, project.getId())
-            );
-
-            return new ProjectVO(
-                    project.getId(),
-                    project.getFolderId(),
-                    folderName,
-                    project.getName(),
-                    project.getAspectRatio(),
-                    project.getStyleCode(),
-                    project.getEraSetting(),
-                    project.getStatus(),
-                    project.getModelConfigJson(),
-                    shotCount.intValue(),
-                    project.getCreatedAt(),
-                    project.getUpdatedAt()
-            );
-        });
+        // 2. 查询文件夹名称
+        String folderName = project.getFolderId() == null ? null
+                : loadFolderNames(Set.of(project.getFolderId())).get(project.getFolderId());
+
+        return toProjectVO(project, folderName);
     }
 
     @Override
-    public ProjectVO getProjectDetail(Long userId, Long projectId) {
-        log.debug("查询项目详情: userId={}, projectId={}", userId, projectId);
+    public void checkProjectAccess(Long userId, Long projectId) {
+        loadOwnedProject(userId, projectId);
+    }
 
-        // 1. 查询项目是否存在
+    /**
+     * 查询项目并验证是否属于当前用户
+     */
+    private Project loadOwnedProject(Long userId, Long projectId) {
         Project project = projectMapper.selectById(projectId);
         if (project == null || project.getDeletedAt() != null) {
             log.warn("项目不存在: projectId={}", projectId);
             throw new BusinessException(ResultCode.PROJECT_NOT_FOUND);
         }
-
-        // 2. 验证是否属于当前用户
         if (!project.getUserId().equals(userId)) {
             log.warn("无权限访问该项目: userId={}, projectId={}", userId, projectId);
             throw new BusinessException(ResultCode.ACCESS_DENIED);
         }
-
-        // 3. 查询文件夹名称
-        String folderName = null;
-        if (project.getFolderId() != null) {
-            ProjectFolder folder = folderMapper.selectById(project.getFolderId());
-            if (folder != null && folder.getDeletedAt() == null) {
-                folderName = folder.getName();
-            }
-        }
-
-        // 4. 统计分镜数量
-        Long shotCount = shotMapper.selectCount(
-                new LambdaQueryWrapper<com.ym.ai_story_studio_server.entity.StoryboardShot>()
-                        .eq(com.ym.ai_story_studio_server.entity.StoryboardShot::getProjectId, project.getId())
-        );
-
-        return new ProjectVO(
-                project.getId(),
-                project.getFolderId(),
-                folderName,
-                project.getName(),
-                project.getAspectRatio(),
-                project.getStyleCode(),
-                project.getEraSetting(),
-                project.getStatus(),
-                project.getModelConfigJson(),
-                shotCount.intValue(),
-                project.getCreatedAt(),
-                project.getUpdatedAt()
-        );
+        return project;
     }
 
     @Override
@@ -197,20 +163,7 @@ public class ProjectServiceImpl implements ProjectService {
 
         log.info("项目创建成功: id={}, name={}", project.getId(), project.getName());
 
-        return new ProjectVO(
-                project.getId(),
-                project.getFolderId(),
-                null,
-                project.getName(),
-                project.getAspectRatio(),
-                project.getStyleCode(),
-                project.getEraSetting(),
-                project.getStatus(),
-                project.getModelConfigJson(),
-                0,
-                project.getCreatedAt(),
-                project.getUpdatedAt()
-        );
+        return toProjectVO(project, null);
     }
 
     @Override
@@ -317,4 +270,85 @@ public class ProjectServiceImpl implements ProjectService {
 
         log.info("项目删除成功: projectId={}", projectId);
     }
+
+    /**
+     * 构建项目列表的筛选条件（不含排序）
+     */
+    private LambdaQueryWrapper<Project> buildProjectQuery(Long userId, ProjectQueryRequest request) {
+        LambdaQueryWrapper<Project> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(Project::getUserId, userId)
+                .isNull(Project::getDeletedAt);
+
+        // 文件夹筛选
+        if (request.folderId() != null) {
+            queryWrapper.eq(Project::getFolderId, request.folderId());
+        }
+
+        // 关键词搜索（项目名称），走ngram全文索引
+        FullTextSearch.apply(queryWrapper, "name", request.keyword(), Project::getName);
+
+        // 画幅比例筛选
+        if (StringUtils.hasText(request.aspectRatio())) {
+            queryWrapper.eq(Project::getAspectRatio, request.aspectRatio());
+        }
+
+        // 风格筛选
+        if (StringUtils.hasText(request.styleCode())) {
+            queryWrapper.eq(Project::getStyleCode, request.styleCode());
+        }
+
+        // 状态筛选
+        if (StringUtils.hasText(request.status())) {
+            queryWrapper.eq(Project::getStatus, request.status());
+        }
+
+        return queryWrapper;
+    }
+
+    /**
+     * 批量查询一页项目所属文件夹的名称
+     */
+    private Map<Long, String> loadFolderNames(List<Project> projects) {
+        return loadFolderNames(projects.stream()
+                .map(Project::getFolderId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * 批量查询文件夹名称(已删除的文件夹不返回)
+     *
+     * @param folderIds 文件夹ID集合
+     * @return 文件夹ID -> 名称
+     */
+    private Map<Long, String> loadFolderNames(Collection<Long> folderIds) {
+        if (folderIds.isEmpty()) {
+            return Map.of();
+        }
+        return folderMapper.selectBatchIds(folderIds).stream()
+                .filter(folder -> folder.getDeletedAt() == null)
+                .collect(Collectors.toMap(ProjectFolder::getId, ProjectFolder::getName));
+    }
+
+    /**
+     * 转换为项目VO(计数来自项目表冗余字段，新建项目尚未回读时按0处理)
+     */
+    private ProjectVO toProjectVO(Project project, String folderName) {
+        return new ProjectVO(
+                project.getId(),
+                project.getFolderId(),
+                folderName,
+                project.getName(),
+                project.getAspectRatio(),
+                project.getStyleCode(),
+                project.getEraSetting(),
+                project.getStatus(),
+                project.getModelConfigJson(),
+                Objects.requireNonNullElse(project.getShotCount(), 0),
+                Objects.requireNonNullElse(project.getCharacterCount(), 0),
+                Objects.requireNonNullElse(project.getAssetCount(), 0),
+                project.getCreatedAt(),
+                project.getUpdatedAt()
+        );
+    }
 }
@@ -1,16 +1,20 @@
 package com.ym.ai_story_studio_server.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.dto.prompttemplate.CreatePromptTemplateRequest;
 import com.ym.ai_story_studio_server.dto.prompttemplate.PromptTemplateVO;
 import com.ym.ai_story_studio_server.dto.prompttemplate.UpdatePromptTemplateRequest;
 import com.ym.ai_story_studio_server.entity.PromptTemplate;
+import com.ym.ai_story_studio_server.event.ReferenceDataChangedEvent;
 import com.ym.ai_story_studio_server.exception.BusinessException;
 import com.ym.ai_story_studio_server.mapper.PromptTemplateMapper;
 import com.ym.ai_story_studio_server.service.PromptTemplateService;
+import com.ym.ai_story_studio_server.service.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,12 +34,33 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PromptTemplateServiceImpl implements PromptTemplateService {
 
+    private static final TypeReference<List<PromptTemplateVO>> TEMPLATE_LIST = new TypeReference<>() {
+    };
+
     private final PromptTemplateMapper templateMapper;
+    private final ReferenceDataCache referenceDataCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<PromptTemplateVO> getTemplateList(Long userId, String category) {
         log.debug("查询指令模板列表: userId={}, category={}", userId, category);
 
+        // 按用户缓存全部类别（系统模板+用户模板），类别在内存中筛选，用户修改模板时只清除该用户的条目
+        List<PromptTemplateVO> templates = referenceDataCache.get(ReferenceDataCache.Region.PROMPT_TEMPLATES,
+                String.valueOf(userId), TEMPLATE_LIST, () -> loadTemplates(userId));
+
+        if (category == null || category.isBlank()) {
+            return templates;
+        }
+        return templates.stream()
+                .filter(template -> category.equals(template.category()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 从数据库查询用户可见的全部模板
+     */
+    private List<PromptTemplateVO> loadTemplates(Long userId) {
         // 1. 构建查询条件: (系统预设模板 OR 用户自定义模板)
         LambdaQueryWrapper<PromptTemplate> queryWrapper = new LambdaQueryWrapper<>();
 
@@ -46,11 +71,6 @@ public class PromptTemplateServiceImpl implements PromptTemplateService {
                 .eq(PromptTemplate::getUserId, userId)
         );
 
-        // 按类别筛选(可选)
-        if (category != null && !category.isBlank()) {
-            queryWrapper.eq(PromptTemplate::getCategory, category);
-        }
-
         // 按category和sortOrder排序
         queryWrapper.orderByAsc(PromptTemplate::getCategory)
                 .orderByAsc(PromptTemplate::getSortOrder);
@@ -58,7 +78,7 @@ public class PromptTemplateServiceImpl implements PromptTemplateService {
         List<PromptTemplate> templates = templateMapper.selectList(queryWrapper);
 
         // 2. 转换为VO
-        return templates.stream().map(this::convertToVO).collect(Collectors.toList());
+        return templates.stream().map(this::convertToVO).toList();
     }
 
     @Override
@@ -103,6 +123,8 @@ public class PromptTemplateServiceImpl implements PromptTemplateService {
         templateMapper.insert(template);
 
         log.info("指令模板创建成功: id={}, name={}", template.getId(), template.getName());
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(
+                ReferenceDataCache.Region.PROMPT_TEMPLATES, String.valueOf(userId)));
 
         return convertToVO(template);
     }
@@ -165,6 +187,8 @@ public class PromptTemplateServiceImpl implements PromptTemplateService {
         templateMapper.updateById(template);
 
         log.info("指令模板更新成功: templateId={}", templateId);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(
+                ReferenceDataCache.Region.PROMPT_TEMPLATES, String.valueOf(userId)));
     }
 
     @Override
@@ -195,6 +219,8 @@ public class PromptTemplateServiceImpl implements PromptTemplateService {
         templateMapper.deleteById(templateId);
 
         log.info("指令模板删除成功: templateId={}", templateId);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(
+                ReferenceDataCache.Region.PROMPT_TEMPLATES, String.valueOf(userId)));
     }
 
     /**
@@ -6,14 +6,19 @@ import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.dto.prop.PropCategoryVO;
 import com.ym.ai_story_studio_server.entity.PropCategory;
 import com.ym.ai_story_studio_server.entity.PropLibrary;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
+import com.ym.ai_story_studio_server.mapper.ProjectPropMapper;
 import com.ym.ai_story_studio_server.mapper.PropCategoryMapper;
 import com.ym.ai_story_studio_server.mapper.PropLibraryMapper;
 import com.ym.ai_story_studio_server.service.PropCategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +31,8 @@ public class PropCategoryServiceImpl implements PropCategoryService {
 
     private final PropCategoryMapper categoryMapper;
     private final PropLibraryMapper propLibraryMapper;
+    private final ProjectPropMapper projectPropMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<PropCategoryVO> getCategoryList(Long userId) {
@@ -139,13 +146,19 @@ public class PropCategoryServiceImpl implements PropCategoryService {
         LambdaQueryWrapper<PropLibrary> updateWrapper = new LambdaQueryWrapper<>();
         updateWrapper.eq(PropLibrary::getCategoryId, categoryId);
         List<PropLibrary> props = propLibraryMapper.selectList(updateWrapper);
+        Set<Long> affectedProjectIds = new LinkedHashSet<>();
         for (PropLibrary prop : props) {
             prop.setCategoryId(null);
             propLibraryMapper.updateById(prop);
+            affectedProjectIds.addAll(projectPropMapper.selectProjectIdsByLibraryId(prop.getId()));
         }
 
         categoryMapper.deleteById(categoryId);
 
+        // 引用这些道具的项目工作区快照需要刷新
+        affectedProjectIds.forEach(projectId ->
+                eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId)));
+
         log.info("道具分类删除成功, categoryId: {}", categoryId);
     }
 }
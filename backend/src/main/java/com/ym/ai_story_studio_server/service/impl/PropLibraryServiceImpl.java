@@ -2,24 +2,34 @@ package com.ym.ai_story_studio_server.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.ym.ai_story_studio_server.exception.BusinessException;
+import com.ym.ai_story_studio_server.common.AssetRendition;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.dto.prop.CreatePropRequest;
 import com.ym.ai_story_studio_server.dto.prop.PropVO;
 import com.ym.ai_story_studio_server.dto.prop.UpdatePropRequest;
+import com.ym.ai_story_studio_server.dto.project.LibraryReferenceCount;
 import com.ym.ai_story_studio_server.entity.PropCategory;
+import com.ym.ai_story_studio_server.entity.AssetVersion;
 import com.ym.ai_story_studio_server.entity.PropLibrary;
 import com.ym.ai_story_studio_server.entity.ProjectProp;
 import com.ym.ai_story_studio_server.mapper.PropCategoryMapper;
 import com.ym.ai_story_studio_server.mapper.PropLibraryMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectPropMapper;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
+import com.ym.ai_story_studio_server.service.AssetRenditionService;
 import com.ym.ai_story_studio_server.service.PropLibraryService;
+import com.ym.ai_story_studio_server.util.FullTextSearch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -33,8 +43,11 @@ public class PropLibraryServiceImpl implements PropLibraryService {
     private final PropLibraryMapper propLibraryMapper;
     private final PropCategoryMapper categoryMapper;
     private final ProjectPropMapper projectPropMapper;
+    private final AssetRenditionService assetRenditionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public List<PropVO> getPropList(Long userId, Long categoryId, String keyword) {
         log.info("获取道具库列表, userId: {}, categoryId: {}, keyword: {}", userId, categoryId, keyword);
 
@@ -45,26 +58,30 @@ public class PropLibraryServiceImpl implements PropLibraryService {
         if (categoryId != null) {
             queryWrapper.eq(PropLibrary::getCategoryId, categoryId);
         }
-        if (StringUtils.hasText(keyword)) {
-            queryWrapper.like(PropLibrary::getName, keyword);
-        }
+        // 关键词匹配名称与描述，走ngram全文索引
+        FullTextSearch.apply(queryWrapper, "name, description", keyword,
+                PropLibrary::getName, PropLibrary::getDescription);
 
         queryWrapper.orderByDesc(PropLibrary::getUpdatedAt);
 
         List<PropLibrary> props = propLibraryMapper.selectList(queryWrapper);
 
-        return props.stream().map(prop -> {
-            String categoryName = null;
-            if (prop.getCategoryId() != null) {
-                PropCategory category = categoryMapper.selectById(prop.getCategoryId());
-                if (category != null) {
-                    categoryName = category.getName();
-                }
-            }
+        // 批量反查缩略图
+        Map<String, AssetVersion> versionsByUrl = assetRenditionService.findVersionsByUrls(
+                props.stream().map(PropLibrary::getThumbnailUrl).toList());
+
+        // 批量查询分类名称与引用次数
+        Map<Long, String> categoryNames = loadCategoryNames(props.stream()
+                .map(PropLibrary::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Map<Long, Long> referenceCounts = loadReferenceCounts(props.stream()
+                .map(PropLibrary::getId)
+                .toList());
 
-            LambdaQueryWrapper<ProjectProp> countWrapper = new LambdaQueryWrapper<>();
-            countWrapper.eq(ProjectProp::getLibraryPropId, prop.getId());
-            long referenceCount = projectPropMapper.selectCount(countWrapper);
+        return props.stream().map(prop -> {
+            String categoryName = prop.getCategoryId() == null ? null : categoryNames.get(prop.getCategoryId());
+            long referenceCount = referenceCounts.getOrDefault(prop.getId(), 0L);
 
             return new PropVO(
                     prop.getId(),
@@ -73,6 +90,8 @@ public class PropLibraryServiceImpl implements PropLibraryService {
                     prop.getName(),
                     prop.getDescription(),
                     prop.getThumbnailUrl(),
+                    AssetRendition.THUMB_SMALL.resolveUrl(prop.getThumbnailUrl(), versionsByUrl),
+                    AssetRendition.THUMB_MEDIUM.resolveUrl(prop.getThumbnailUrl(), versionsByUrl),
                     (int) referenceCount,
                     prop.getCreatedAt(),
                     prop.getUpdatedAt()
@@ -120,6 +139,8 @@ public class PropLibraryServiceImpl implements PropLibraryService {
                 prop.getName(),
                 prop.getDescription(),
                 prop.getThumbnailUrl(),
+                prop.getThumbnailUrl(),
+                prop.getThumbnailUrl(),
                 0,
                 prop.getCreatedAt(),
                 prop.getUpdatedAt()
@@ -165,6 +186,7 @@ public class PropLibraryServiceImpl implements PropLibraryService {
         propLibraryMapper.updateById(prop);
 
         log.info("道具更新成功, propId: {}", propId);
+        notifyReferencingProjects(propId);
     }
 
     @Override
@@ -192,4 +214,41 @@ public class PropLibraryServiceImpl implements PropLibraryService {
 
         log.info("道具删除成功, propId: {}", propId);
     }
+
+    /**
+     * 批量查询分类名称
+     *
+     * @param categoryIds 分类ID集合
+     * @return 分类ID -> 名称
+     */
+    private Map<Long, String> loadCategoryNames(Collection<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Map.of();
+        }
+        return categoryMapper.selectBatchIds(categoryIds).stream()
+                .collect(Collectors.toMap(PropCategory::getId, PropCategory::getName, (a, b) -> a));
+    }
+
+    /**
+     * 一次分组查询一批库条目的引用次数
+     *
+     * @param libraryIds 库条目ID列表
+     * @return 库条目ID -> 引用次数(未被引用的条目不在结果中)
+     */
+    private Map<Long, Long> loadReferenceCounts(List<Long> libraryIds) {
+        if (libraryIds.isEmpty()) {
+            return Map.of();
+        }
+        return projectPropMapper.countByLibraryIds(libraryIds).stream()
+                .collect(Collectors.toMap(LibraryReferenceCount::getLibraryId, LibraryReferenceCount::getReferenceCount));
+    }
+
+    /**
+     * 通知引用该道具的项目刷新工作台快照（项目内道具列表展示库中的名称、描述与缩略图）
+     */
+    private void notifyReferencingProjects(Long libraryId) {
+        for (Long projectId : projectPropMapper.selectProjectIdsByLibraryId(libraryId)) {
+            eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
+        }
+    }
 }
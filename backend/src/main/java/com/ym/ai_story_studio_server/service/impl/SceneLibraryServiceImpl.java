@@ -2,24 +2,35 @@ package com.ym.ai_story_studio_server.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.ym.ai_story_studio_server.exception.BusinessException;
+import com.ym.ai_story_studio_server.common.AssetRendition;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.dto.scene.CreateSceneRequest;
 import com.ym.ai_story_studio_server.dto.scene.SceneVO;
 import com.ym.ai_story_studio_server.dto.scene.UpdateSceneRequest;
+import com.ym.ai_story_studio_server.dto.project.LibraryReferenceCount;
 import com.ym.ai_story_studio_server.entity.SceneCategory;
+import com.ym.ai_story_studio_server.entity.AssetVersion;
 import com.ym.ai_story_studio_server.entity.SceneLibrary;
 import com.ym.ai_story_studio_server.entity.ProjectScene;
 import com.ym.ai_story_studio_server.mapper.SceneCategoryMapper;
 import com.ym.ai_story_studio_server.mapper.SceneLibraryMapper;
 import com.ym.ai_story_studio_server.mapper.ProjectSceneMapper;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
+import com.ym.ai_story_studio_server.service.AssetRenditionService;
 import com.ym.ai_story_studio_server.service.SceneLibraryService;
+import com.ym.ai_story_studio_server.util.FullTextSearch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +49,8 @@ public class SceneLibraryServiceImpl implements SceneLibraryService {
     private final SceneLibraryMapper sceneLibraryMapper;
     private final SceneCategoryMapper categoryMapper;
     private final ProjectSceneMapper projectSceneMapper;
+    private final AssetRenditionService assetRenditionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取场景库列表(支持搜索和筛选)
@@ -48,6 +61,7 @@ public class SceneLibraryServiceImpl implements SceneLibraryService {
      * @return 场景VO列表
      */
     @Override
+    @Transactional(readOnly = true)
     public List<SceneVO> getSceneList(Long userId, Long categoryId, String keyword) {
         log.info("获取场景库列表, userId: {}, categoryId: {}, keyword: {}", userId, categoryId, keyword);
 
@@ -60,9 +74,9 @@ public class SceneLibraryServiceImpl implements SceneLibraryService {
         if (categoryId != null) {
             queryWrapper.eq(SceneLibrary::getCategoryId, categoryId);
         }
-        if (StringUtils.hasText(keyword)) {
-            queryWrapper.like(SceneLibrary::getName, keyword);
-        }
+        // 关键词匹配名称与描述，走ngram全文索引
+        FullTextSearch.apply(queryWrapper, "name, description", keyword,
+                SceneLibrary::getName, SceneLibrary::getDescription);
 
         queryWrapper.orderByDesc(SceneLibrary::getUpdatedAt);
 
@@ -70,20 +84,22 @@ public class SceneLibraryServiceImpl implements SceneLibraryService {
         List<SceneLibrary> scenes = sceneLibraryMapper.selectList(queryWrapper);
 
         // 转换为VO
-        return scenes.stream().map(scene -> {
-            // 查询分类名称
-            String categoryName = null;
-            if (scene.getCategoryId() != null) {
-                SceneCategory category = categoryMapper.selectById(scene.getCategoryId());
-                if (category != null) {
-                    categoryName = category.getName();
-                }
-            }
+        // 批量反查缩略图
+        Map<String, AssetVersion> versionsByUrl = assetRenditionService.findVersionsByUrls(
+                scenes.stream().map(SceneLibrary::getThumbnailUrl).toList());
+
+        // 批量查询分类名称与引用次数
+        Map<Long, String> categoryNames = loadCategoryNames(scenes.stream()
+                .map(SceneLibrary::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        Map<Long, Long> referenceCounts = loadReferenceCounts(scenes.stream()
+                .map(SceneLibrary::getId)
+                .toList());
 
-            // 统计引用次数
-            LambdaQueryWrapper<ProjectScene> countWrapper = new LambdaQueryWrapper<>();
-            countWrapper.eq(ProjectScene::getLibrarySceneId, scene.getId());
-            long referenceCount = projectSceneMapper.selectCount(countWrapper);
+        return scenes.stream().map(scene -> {
+            String categoryName = scene.getCategoryId() == null ? null : categoryNames.get(scene.getCategoryId());
+            long referenceCount = referenceCounts.getOrDefault(scene.getId(), 0L);
 
             return new SceneVO(
                     scene.getId(),
@@ -92,6 +108,8 @@ public class SceneLibraryServiceImpl implements SceneLibraryService {
                     scene.getName(),
                     scene.getDescription(),
                     scene.getThumbnailUrl(),
+                    AssetRendition.THUMB_SMALL.resolveUrl(scene.getThumbnailUrl(), versionsByUrl),
+                    AssetRendition.THUMB_MEDIUM.resolveUrl(scene.getThumbnailUrl(), versionsByUrl),
                     (int) referenceCount,
                     scene.getCreatedAt(),
                     scene.getUpdatedAt()
@@ -152,6 +170,8 @@ public class SceneLibraryServiceImpl implements SceneLibraryService {
                 scene.getName(),
                 scene.getDescription(),
                 scene.getThumbnailUrl(),
+                scene.getThumbnailUrl(),
+                scene.getThumbnailUrl(),
                 0, // 新创建的场景引用次数为0
                 scene.getCreatedAt(),
                 scene.getUpdatedAt()
@@ -209,6 +229,7 @@ public class SceneLibraryServiceImpl implements SceneLibraryService {
         sceneLibraryMapper.updateById(scene);
 
         log.info("场景更新成功, sceneId: {}", sceneId);
+        notifyReferencingProjects(sceneId);
     }
 
     /**
@@ -246,4 +267,41 @@ public class SceneLibraryServiceImpl implements SceneLibraryService {
 
         log.info("场景删除成功, sceneId: {}", sceneId);
     }
+
+    /**
+     * 批量查询分类名称
+     *
+     * @param categoryIds 分类ID集合
+     * @return 分类ID -> 名称
+     */
+    private Map<Long, String> loadCategoryNames(Collection<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Map.of();
+        }
+        return categoryMapper.selectBatchIds(categoryIds).stream()
+                .collect(Collectors.toMap(SceneCategory::getId, SceneCategory::getName, (a, b) -> a));
+    }
+
+    /**
+     * 一次分组查询一批库条目的引用次数
+     *
+     * @param libraryIds 库条目ID列表
+     * @return 库条目ID -> 引用次数(未被引用的条目不在结果中)
+     */
+    private Map<Long, Long> loadReferenceCounts(List<Long> libraryIds) {
+        if (libraryIds.isEmpty()) {
+            return Map.of();
+        }
+        return projectSceneMapper.countByLibraryIds(libraryIds).stream()
+                .collect(Collectors.toMap(LibraryReferenceCount::getLibraryId, LibraryReferenceCount::getReferenceCount));
+    }
+
+    /**
+     * 通知引用该场景的项目刷新工作台快照（项目内场景列表展示库中的名称、描述与缩略图）
+     */
+    private void notifyReferencingProjects(Long libraryId) {
+        for (Long projectId : projectSceneMapper.selectProjectIdsByLibraryId(libraryId)) {
+            eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.ym.ai_story_studio_server.service.impl;
+
+import com.ym.ai_story_studio_server.common.CursorPage;
+import com.ym.ai_story_studio_server.common.ResultCode;
+import com.ym.ai_story_studio_server.dto.search.SearchHitRow;
+import com.ym.ai_story_studio_server.dto.search.SearchHitVO;
+import com.ym.ai_story_studio_server.dto.search.SearchRequest;
+import com.ym.ai_story_studio_server.exception.BusinessException;
+import com.ym.ai_story_studio_server.mapper.CharacterLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectMapper;
+import com.ym.ai_story_studio_server.mapper.PropLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.SceneLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.StoryboardShotMapper;
+import com.ym.ai_story_studio_server.service.SearchService;
+import com.ym.ai_story_studio_server.util.FullTextSearch;
+import com.ym.ai_story_studio_server.util.KeysetPager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 全文搜索服务实现类
+ *
+ * <p>各类对象分别查询各自的ngram FULLTEXT索引（见V22迁移），不同索引的相关度不可比较，因此不做跨类型混排。
+ * 游标由 {@link KeysetPager} 编码（排序值为得分）：得分以Java double往返，与数据库重新计算的相关度精确相等
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int SNIPPET_BEFORE = 20;
+    private static final int SNIPPET_LENGTH = 80;
+
+    private final ProjectMapper projectMapper;
+    private final CharacterLibraryMapper characterLibraryMapper;
+    private final SceneLibraryMapper sceneLibraryMapper;
+    private final PropLibraryMapper propLibraryMapper;
+    private final StoryboardShotMapper storyboardShotMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<SearchHitVO> search(Long userId, SearchRequest request) {
+        log.info("全文搜索: userId={}, request={}", userId, request);
+
+        String query = FullTextSearch.toBooleanQuery(request.keyword());
+        if (query == null) {
+            throw new BusinessException(ResultCode.PARAM_INVALID,
+                    "搜索关键词的每个词至少需要" + FullTextSearch.MIN_TERM_LENGTH + "个字符");
+        }
+        int size = request.size() == null ? DEFAULT_PAGE_SIZE : request.size();
+        KeysetPager.Position<Double> position = KeysetPager.decode(request.cursor(), Double::valueOf);
+        Double cursorScore = position == null ? null : position.sortValue();
+        Long cursorId = position == null ? null : position.id();
+        int limit = size + 1;
+
+        List<SearchHitRow> rows = switch (request.type()) {
+            case "PROJECT" -> projectMapper.search(userId, query, cursorScore, cursorId, limit);
+            case "CHARACTER" -> characterLibraryMapper.search(userId, query, cursorScore, cursorId, limit);
+            case "SCENE" -> sceneLibraryMapper.search(userId, query, cursorScore, cursorId, limit);
+            case "PROP" -> propLibraryMapper.search(userId, query, cursorScore, cursorId, limit);
+            case "SHOT" -> storyboardShotMapper.search(userId, request.projectId(), query,
+                    cursorScore, cursorId, limit);
+            default -> throw new BusinessException(ResultCode.PARAM_INVALID, "不支持的搜索对象: " + request.type());
+        };
+
+        String firstTerm = request.keyword().trim().split("\\s+")[0].replace("\"", "");
+        return KeysetPager.toPage(rows, size, null, SearchHitRow::getScore, SearchHitRow::getId)
+                .map(row -> new SearchHitVO(request.type(), row.getId(), row.getProjectId(), row.getShotNo(),
+                        row.getTitle(), snippet(row.getBody(), firstTerm), row.getScore(), row.getUpdatedAt()));
+    }
+
+    /**
+     * 截取正文中第一个关键词附近的片段，找不到时截取开头
+     */
+    private String snippet(String body, String term) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        int index = body.toLowerCase(Locale.ROOT).indexOf(term.toLowerCase(Locale.ROOT));
+        int start = index < 0 ? 0 : Math.max(0, index - SNIPPET_BEFORE);
+        int end = Math.min(body.length(), start + SNIPPET_LENGTH);
+        String snippet = body.substring(start, end).replaceAll("\\s+", " ").trim();
+        return (start > 0 ? "…" : "") + snippet + (end < body.length() ? "…" : "");
+    }
+}
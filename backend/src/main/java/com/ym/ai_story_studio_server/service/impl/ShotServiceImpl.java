@@ -4,22 +4,33 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.ym.ai_story_studio_server.client.VectorEngineClient;
 import com.ym.ai_story_studio_server.config.AiProperties;
 import com.ym.ai_story_studio_server.dto.ai.AiParseScriptResult;
+import com.ym.ai_story_studio_server.dto.asset.AssetStatusRow;
 import com.ym.ai_story_studio_server.exception.BusinessException;
+import com.ym.ai_story_studio_server.common.AssetRendition;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.dto.shot.*;
 import com.ym.ai_story_studio_server.entity.*;
 import com.ym.ai_story_studio_server.mapper.*;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
+import com.ym.ai_story_studio_server.service.ProjectWorkspaceCache;
 import com.ym.ai_story_studio_server.service.ShotService;
+import com.ym.ai_story_studio_server.service.StorageService;
+import com.ym.ai_story_studio_server.util.BatchLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -58,15 +69,28 @@ public class ShotServiceImpl implements ShotService {
     private final AssetVersionMapper assetVersionMapper;
     private final VectorEngineClient vectorEngineClient;
     private final AiProperties aiProperties;
+    private final StorageService storageService;
+    private final ProjectWorkspaceCache workspaceCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ShotVO> getShotList(Long userId, Long projectId) {
         log.info("查询分镜列表: userId={}, projectId={}", userId, projectId);
 
         // 1. 验证项目存在且属于当前用户
-        Project project = validateProjectOwnership(userId, projectId);
+        validateProjectOwnership(userId, projectId);
+
+        // 2. 版本一致时直接使用快照，URL预签名在读取快照之后进行（签名有时效，不进入缓存）
+        List<ShotVO> voList = workspaceCache.getOrLoad(projectId, ProjectWorkspaceCache.Section.SHOTS,
+                ShotVO.class, () -> loadShotList(projectId));
+        return presignShotUrls(voList);
+    }
 
-        // 2. 查询项目下所有未删除的分镜(按shot_no升序)
+    /**
+     * 从数据库组装分镜列表（未预签名）
+     */
+    private List<ShotVO> loadShotList(Long projectId) {
+        // 查询项目下所有未删除的分镜(按shot_no升序)
         LambdaQueryWrapper<StoryboardShot> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(StoryboardShot::getProjectId, projectId)
                 .isNull(StoryboardShot::getDeletedAt)
@@ -79,7 +103,7 @@ public class ShotServiceImpl implements ShotService {
             return new ArrayList<>();
         }
 
-        // 3. 批量查询所有分镜的绑定关系
+        // 批量查询所有分镜的绑定关系
         List<Long> shotIds = shots.stream()
                 .map(StoryboardShot::getId)
                 .collect(Collectors.toList());
@@ -87,31 +111,79 @@ public class ShotServiceImpl implements ShotService {
         LambdaQueryWrapper<ShotBinding> bindingWrapper = new LambdaQueryWrapper<>();
         bindingWrapper.in(ShotBinding::getShotId, shotIds);
         List<ShotBinding> bindings = bindingMapper.selectList(bindingWrapper);
-        log.info("查询到{}条绑定关系", bindings.size());
-        
-        // 打印每个分镜的绑定关系数量
-        for (Long shotId : shotIds) {
-            long count = bindings.stream().filter(b -> b.getShotId().equals(shotId)).count();
-            log.info("分镜ID={} 的绑定关系数量: {}", shotId, count);
-        }
+        log.debug("查询到{}条绑定关系", bindings.size());
 
-        // 4. 按shotId分组绑定关系
+        // 按shotId分组绑定关系
         Map<Long, List<ShotBinding>> bindingMap = bindings.stream()
                 .collect(Collectors.groupingBy(ShotBinding::getShotId));
 
-        // 5. 转换为VO列表（缓存重复场景/角色/道具的缩略图计算）
-        Map<Long, String> characterThumbnailCache = new java.util.HashMap<>();
-        Map<Long, String> sceneThumbnailCache = new java.util.HashMap<>();
-        Map<Long, String> propThumbnailCache = new java.util.HashMap<>();
+        // 批量加载绑定对象、缩略图与资产状态（查询次数与分镜数量无关），再逐条组装VO
+        ShotListContext context = loadShotListContext(shotIds, bindings);
         List<ShotVO> voList = shots.stream()
-                .map(shot -> convertToVO(shot, bindingMap.get(shot.getId()),
-                        characterThumbnailCache, sceneThumbnailCache, propThumbnailCache))
+                .map(shot -> convertToVO(shot, bindingMap.get(shot.getId()), context))
                 .collect(Collectors.toList());
 
         log.info("分镜列表转换完成,返回{}条记录", voList.size());
         return voList;
     }
 
+    /**
+     * 私有存储桶下将分镜列表中的资产URL批量替换为预签名URL（公共读存储原样返回）
+     */
+    private List<ShotVO> presignShotUrls(List<ShotVO> voList) {
+        List<String> urls = new ArrayList<>();
+        for (ShotVO vo : voList) {
+            vo.characters().forEach(c -> urls.add(c.thumbnailUrl()));
+            vo.props().forEach(p -> urls.add(p.thumbnailUrl()));
+            if (vo.scene() != null) {
+                urls.add(vo.scene().thumbnailUrl());
+            }
+            for (AssetStatusVO status : Arrays.asList(vo.shotImage(), vo.video())) {
+                urls.add(status.currentUrl());
+                urls.add(status.deliveryUrl());
+                urls.add(status.thumbSmallUrl());
+                urls.add(status.thumbMediumUrl());
+            }
+        }
+        Map<String, String> signed = storageService.presignUrls(urls);
+        if (signed.isEmpty()) {
+            return voList;
+        }
+
+        return voList.stream().map(vo -> new ShotVO(
+                vo.id(),
+                vo.shotNo(),
+                vo.scriptText(),
+                vo.characters().stream()
+                        .map(c -> new BoundCharacterVO(c.bindingId(), c.characterId(), c.characterName(),
+                                signed.getOrDefault(c.thumbnailUrl(), c.thumbnailUrl())))
+                        .collect(Collectors.toList()),
+                vo.scene() == null ? null : new BoundSceneVO(vo.scene().bindingId(), vo.scene().sceneId(),
+                        vo.scene().sceneName(), signed.getOrDefault(vo.scene().thumbnailUrl(), vo.scene().thumbnailUrl())),
+                vo.props().stream()
+                        .map(p -> new BoundPropVO(p.bindingId(), p.propId(), p.propName(),
+                                signed.getOrDefault(p.thumbnailUrl(), p.thumbnailUrl())))
+                        .collect(Collectors.toList()),
+                presignAssetStatus(vo.shotImage(), signed),
+                presignAssetStatus(vo.video(), signed),
+                vo.createdAt(),
+                vo.updatedAt()
+        )).collect(Collectors.toList());
+    }
+
+    private AssetStatusVO presignAssetStatus(AssetStatusVO status, Map<String, String> signed) {
+        return new AssetStatusVO(
+                status.assetId(),
+                status.currentVersionId(),
+                signed.getOrDefault(status.currentUrl(), status.currentUrl()),
+                signed.getOrDefault(status.deliveryUrl(), status.deliveryUrl()),
+                signed.getOrDefault(status.thumbSmallUrl(), status.thumbSmallUrl()),
+                signed.getOrDefault(status.thumbMediumUrl(), status.thumbMediumUrl()),
+                status.status(),
+                status.totalVersions()
+        );
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public ShotVO createShot(Long userId, Long projectId, CreateShotRequest request) {
@@ -142,6 +214,7 @@ public class ShotServiceImpl implements ShotService {
         if (result <= 0) {
             throw new BusinessException(ResultCode.SYSTEM_ERROR, "分镜创建失败");
         }
+        projectMapper.adjustShotCount(projectId, 1);
 
         log.info("分镜创建成功: shotId={}, tempShotNo={}", shot.getId(), shot.getShotNo());
 
@@ -153,6 +226,8 @@ public class ShotServiceImpl implements ShotService {
 
         log.info("分镜序号已重排: shotId={}, finalShotNo={}", refreshedShot.getId(), refreshedShot.getShotNo());
 
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
+
         // 7. 返回ShotVO(无绑定关系,资产状态为空)
         return new ShotVO(
                 refreshedShot.getId(),
@@ -197,6 +272,7 @@ public class ShotServiceImpl implements ShotService {
         }
 
         log.info("分镜更新成功: shotId={}", shotId);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     @Override
@@ -225,6 +301,7 @@ public class ShotServiceImpl implements ShotService {
         if (result <= 0) {
             throw new BusinessException(ResultCode.SYSTEM_ERROR, "分镜删除失败");
         }
+        projectMapper.adjustShotCount(projectId, -1);
 
         // 5. 删除相关绑定记录(物理删除)
         LambdaQueryWrapper<ShotBinding> bindingWrapper = new LambdaQueryWrapper<>();
@@ -236,6 +313,7 @@ public class ShotServiceImpl implements ShotService {
         // 6. 重新整理所有未删除分镜的序号,确保连续性 (1,2,3...)
         reorderAllActiveShots(projectId);
         log.info("分镜序号已重排,删除后保持连续性");
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     @Override
@@ -296,6 +374,7 @@ public class ShotServiceImpl implements ShotService {
         }
 
         log.info("分镜顺序调整成功,共调整{}条分镜", shotIds.size());
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     @Override
@@ -374,6 +453,7 @@ public class ShotServiceImpl implements ShotService {
         }
 
         log.info("绑定关系创建成功: bindingId={}", binding.getId());
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     @Override
@@ -414,6 +494,7 @@ public class ShotServiceImpl implements ShotService {
         }
 
         log.info("绑定关系删除成功: bindingId={}", bindingId);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
     }
 
     @Override
@@ -454,6 +535,7 @@ public class ShotServiceImpl implements ShotService {
                 characterDescriptions, sceneDescriptions);
 
         log.info("批量创建分镜完成: count={}", createdShots.size());
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
         return createdShots;
     }
 
@@ -1039,6 +1121,7 @@ public class ShotServiceImpl implements ShotService {
                 }
                 
                 projectCharacterMapper.insert(character);
+                projectMapper.adjustCharacterCount(projectId, 1);
                 characterMap.put(characterName, character);
                 
                 log.info("创建项目角色: {}", characterName);
@@ -1345,264 +1428,175 @@ public class ShotServiceImpl implements ShotService {
     }
 
     /**
-     * 将分镜实体转换为VO
+     * 分镜列表组装所需的批量查询结果
      *
-     * @param shot 分镜实体
-     * @param bindings 绑定关系列表(可为null)
-     * @return 分镜VO
+     * @param characters          项目角色(按ID)
+     * @param characterThumbnails 项目角色缩略图(按ID)
+     * @param scenes              项目场景(按ID)
+     * @param sceneThumbnails     项目场景缩略图(按ID)
+     * @param props               项目道具(按ID)
+     * @param propThumbnails      项目道具缩略图(按ID)
+     * @param shotAssetStatuses   分镜ID → 资产类型 → 资产状态
      */
-    private ShotVO convertToVO(StoryboardShot shot, List<ShotBinding> bindings,
-                               Map<Long, String> characterThumbnailCache,
-                               Map<Long, String> sceneThumbnailCache,
-                               Map<Long, String> propThumbnailCache) {
-        List<BoundCharacterVO> characters = new ArrayList<>();
-        BoundSceneVO scene = null;
-        List<BoundPropVO> props = new ArrayList<>();
-
-        if (bindings != null && !bindings.isEmpty()) {
-            // 分离角色绑定、场景绑定和道具绑定
-            List<Long> characterIds = new ArrayList<>();
-            Long sceneId = null;
-            Long sceneBindingId = null;
-            List<Long> propIds = new ArrayList<>();
+    private record ShotListContext(Map<Long, ProjectCharacter> characters, Map<Long, String> characterThumbnails,
+                                   Map<Long, ProjectScene> scenes, Map<Long, String> sceneThumbnails,
+                                   Map<Long, ProjectProp> props, Map<Long, String> propThumbnails,
+                                   Map<Long, Map<String, AssetStatusVO>> shotAssetStatuses) {
+    }
 
-            for (ShotBinding binding : bindings) {
-                if ("PCHAR".equals(binding.getBindType())) {
-                    characterIds.add(binding.getBindId());
-                } else if ("PSCENE".equals(binding.getBindType())) {
-                    sceneId = binding.getBindId();
-                    sceneBindingId = binding.getId();
-                } else if ("PPROP".equals(binding.getBindType())) {
-                    propIds.add(binding.getBindId());
-                }
+    /**
+     * 批量加载分镜列表的绑定对象、缩略图与资产状态
+     *
+     * <p>缩略图规则: 角色优先项目角色缩略图(自定义角色只用项目缩略图)，其次角色库缩略图；
+     * 场景优先项目场景缩略图，其次场景库缩略图；道具使用道具库缩略图；
+     * 都没有时使用该对象最新图片资产的当前版本
+     */
+    private ShotListContext loadShotListContext(List<Long> shotIds, List<ShotBinding> bindings) {
+        Set<Long> characterIds = new HashSet<>();
+        Set<Long> sceneIds = new HashSet<>();
+        Set<Long> propIds = new HashSet<>();
+        for (ShotBinding binding : bindings) {
+            if ("PCHAR".equals(binding.getBindType())) {
+                characterIds.add(binding.getBindId());
+            } else if ("PSCENE".equals(binding.getBindType())) {
+                sceneIds.add(binding.getBindId());
+            } else if ("PPROP".equals(binding.getBindType())) {
+                propIds.add(binding.getBindId());
             }
+        }
 
-            // 查询角色信息
-            if (!characterIds.isEmpty()) {
-                List<ProjectCharacter> projectCharacters = projectCharacterMapper.selectBatchIds(characterIds);
-                Map<Long, ProjectCharacter> charMap = projectCharacters.stream()
-                        .collect(Collectors.toMap(ProjectCharacter::getId, c -> c));
-
-                // 获取所有关联的角色库ID，批量查询缩略图
-                List<Long> libraryCharacterIds = projectCharacters.stream()
-                        .map(ProjectCharacter::getLibraryCharacterId)
-                        .filter(id -> id != null)
-                        .distinct()
-                        .collect(Collectors.toList());
-
-                Map<Long, String> thumbnailMap = new java.util.HashMap<>();
-                if (!libraryCharacterIds.isEmpty()) {
-                    List<CharacterLibrary> libraryCharacters = characterLibraryMapper.selectBatchIds(libraryCharacterIds);
-                    thumbnailMap = libraryCharacters.stream()
-                            .filter(c -> c.getThumbnailUrl() != null)
-                            .collect(Collectors.toMap(CharacterLibrary::getId, CharacterLibrary::getThumbnailUrl));
-                }
-
-                for (ShotBinding binding : bindings) {
-                    if ("PCHAR".equals(binding.getBindType())) {
-                        ProjectCharacter character = charMap.get(binding.getBindId());
-                        if (character != null) {
-                            String thumbnailUrl = null;
-                            boolean cacheHit = characterThumbnailCache.containsKey(character.getId());
-                            if (cacheHit) {
-                                thumbnailUrl = characterThumbnailCache.get(character.getId());
-                            } else {
-                                System.out.println("========== 开始处理角色 ==========");
-                                System.out.println("角色名称: " + character.getDisplayName());
-                                System.out.println("角色ID: " + character.getId());
-                                System.out.println("库角色ID: " + character.getLibraryCharacterId());
-                                System.out.println("项目角色thumbnailUrl: " + character.getThumbnailUrl());
-                                
-                                // 判断是否为自定义角色（未关联角色库）
-                                boolean isCustomCharacter = (character.getLibraryCharacterId() == null);
-                                
-                                if (isCustomCharacter) {
-                                    // 自定义角色：直接使用项目角色的缩略图
-                                    thumbnailUrl = character.getThumbnailUrl();
-                                    System.out.println("自定义角色，使用项目角色缩略图: " + thumbnailUrl);
-                                    log.debug("自定义角色[{}] thumbnailUrl:{}", character.getDisplayName(), thumbnailUrl);
-                                } else {
-                                    // 关联角色库：优先使用项目角色的缩略图，其次使用库的缩略图
-                                    if (character.getThumbnailUrl() != null && !character.getThumbnailUrl().isEmpty()) {
-                                        thumbnailUrl = character.getThumbnailUrl();
-                                        System.out.println("使用项目角色缩略图: " + thumbnailUrl);
-                                    } else {
-                                        thumbnailUrl = thumbnailMap.get(character.getLibraryCharacterId());
-                                        System.out.println("使用库缩略图URL: " + thumbnailUrl);
-                                    }
-                                    log.debug("角色[{}] 库ID:{}, thumbnailUrl:{}", character.getDisplayName(), character.getLibraryCharacterId(), thumbnailUrl);
-                                }
-                                
-                                // 如果还没有缩略图，查询角色的资产版本作为缩略图
-                                if (thumbnailUrl == null) {
-                                    System.out.println("缩略图为空，查询角色资产...");
-                                    AssetStatusVO assetStatus = getAssetStatus(character.getId(), "PCHAR", "IMAGE");
-                                    System.out.println("资产ID: " + (assetStatus != null ? assetStatus.assetId() : "null"));
-                                    System.out.println("资产URL: " + (assetStatus != null ? assetStatus.currentUrl() : "null"));
-                                    log.debug("角色[{}] 资产状态: assetId={}, url={}", character.getDisplayName(), 
-                                        assetStatus != null ? assetStatus.assetId() : null,
-                                        assetStatus != null ? assetStatus.currentUrl() : null);
-                                    if (assetStatus != null && assetStatus.currentUrl() != null) {
-                                        thumbnailUrl = assetStatus.currentUrl();
-                                    }
-                                }
-                                
-                                System.out.println("最终thumbnailUrl: " + thumbnailUrl);
-                                System.out.println("==========================================\n");
-                                log.info("角色[{}] 最终thumbnailUrl: {}", character.getDisplayName(), thumbnailUrl);
-                                characterThumbnailCache.put(character.getId(), thumbnailUrl);
-                            }
-                            characters.add(new BoundCharacterVO(
-                                    binding.getId(),
-                                    character.getId(),
-                                    character.getDisplayName(),
-                                    thumbnailUrl
-                            ));
-                        }
-                    }
-                }
+        // 角色: 项目角色 + 角色库缩略图
+        Map<Long, ProjectCharacter> characters = BatchLoader.loadByIds(characterIds,
+                projectCharacterMapper, ProjectCharacter::getId);
+        Map<Long, CharacterLibrary> characterLibraries = BatchLoader.load(characters.values(),
+                ProjectCharacter::getLibraryCharacterId, characterLibraryMapper, CharacterLibrary::getId);
+        Map<Long, String> characterThumbnails = new HashMap<>();
+        for (ProjectCharacter character : characters.values()) {
+            String thumbnailUrl;
+            if (character.getLibraryCharacterId() == null) {
+                // 自定义角色：直接使用项目角色的缩略图
+                thumbnailUrl = character.getThumbnailUrl();
+            } else if (character.getThumbnailUrl() != null && !character.getThumbnailUrl().isEmpty()) {
+                thumbnailUrl = character.getThumbnailUrl();
+            } else {
+                CharacterLibrary library = characterLibraries.get(character.getLibraryCharacterId());
+                thumbnailUrl = library != null ? library.getThumbnailUrl() : null;
             }
+            characterThumbnails.put(character.getId(), thumbnailUrl);
+        }
+
+        // 场景: 项目场景 + 场景库缩略图
+        Map<Long, ProjectScene> scenes = BatchLoader.loadByIds(sceneIds, projectSceneMapper, ProjectScene::getId);
+        Map<Long, SceneLibrary> sceneLibraries = BatchLoader.load(
+                scenes.values().stream().filter(sc -> sc.getThumbnailUrl() == null).toList(),
+                ProjectScene::getLibrarySceneId, sceneLibraryMapper, SceneLibrary::getId);
+        Map<Long, String> sceneThumbnails = new HashMap<>();
+        for (ProjectScene projectScene : scenes.values()) {
+            SceneLibrary library = sceneLibraries.get(projectScene.getLibrarySceneId());
+            String thumbnailUrl = projectScene.getThumbnailUrl() != null
+                    ? projectScene.getThumbnailUrl()
+                    : (library != null ? library.getThumbnailUrl() : null);
+            sceneThumbnails.put(projectScene.getId(), thumbnailUrl);
+        }
+
+        // 道具: 项目道具 + 道具库缩略图
+        Map<Long, ProjectProp> props = BatchLoader.loadByIds(propIds, projectPropMapper, ProjectProp::getId);
+        Map<Long, PropLibrary> propLibraries = BatchLoader.load(props.values(),
+                ProjectProp::getLibraryPropId, propLibraryMapper, PropLibrary::getId);
+        Map<Long, String> propThumbnails = new HashMap<>();
+        for (ProjectProp prop : props.values()) {
+            PropLibrary library = propLibraries.get(prop.getLibraryPropId());
+            propThumbnails.put(prop.getId(), library != null ? library.getThumbnailUrl() : null);
+        }
+
+        // 仍无缩略图的对象，每类一次查询其最新图片资产
+        fillAssetThumbnails(characterThumbnails, "PCHAR");
+        fillAssetThumbnails(sceneThumbnails, "PSCENE");
+        fillAssetThumbnails(propThumbnails, "PPROP");
+
+        return new ShotListContext(characters, characterThumbnails, scenes, sceneThumbnails,
+                props, propThumbnails, loadAssetStatuses("SHOT", shotIds));
+    }
 
-            // 查询场景信息
-            if (sceneId != null) {
-                ProjectScene projectScene = projectSceneMapper.selectById(sceneId);
-                if (projectScene != null) {
-                    String sceneThumbnailUrl = null;
-                    boolean cacheHit = sceneThumbnailCache.containsKey(projectScene.getId());
-                    if (cacheHit) {
-                        sceneThumbnailUrl = sceneThumbnailCache.get(projectScene.getId());
-                    } else {
-                        System.out.println("========== 开始处理场景 ==========");
-                        System.out.println("场景名称: " + projectScene.getDisplayName());
-                        System.out.println("场景ID: " + projectScene.getId());
-                        System.out.println("库场景ID: " + projectScene.getLibrarySceneId());
-                        System.out.println("项目场景thumbnailUrl: " + projectScene.getThumbnailUrl());
-                        
-                        // 优先使用项目场景的缩略图
-                        if (projectScene.getThumbnailUrl() != null) {
-                            sceneThumbnailUrl = projectScene.getThumbnailUrl();
-                            System.out.println("使用项目场景缩略图: " + sceneThumbnailUrl);
-                            log.debug("场景[{}] 使用项目场景缩略图:{}", projectScene.getDisplayName(), sceneThumbnailUrl);
-                        }
-                        // 其次使用库的缩略图
-                        else if (projectScene.getLibrarySceneId() != null) {
-                            SceneLibrary sceneLibrary = sceneLibraryMapper.selectById(projectScene.getLibrarySceneId());
-                            if (sceneLibrary != null) {
-                                sceneThumbnailUrl = sceneLibrary.getThumbnailUrl();
-                                System.out.println("库缩略图URL: " + sceneThumbnailUrl);
-                                log.debug("场景[{}] 库ID:{}, 库缩略图:{}", projectScene.getDisplayName(), projectScene.getLibrarySceneId(), sceneThumbnailUrl);
-                            }
-                        }
-                        
-                        // 如果没有库缩略图，查询场景的资产版本作为缩略图
-                        if (sceneThumbnailUrl == null) {
-                            System.out.println("库缩略图为空，查询场景资产...");
-                            AssetStatusVO assetStatus = getAssetStatus(projectScene.getId(), "PSCENE", "IMAGE");
-                            System.out.println("资产ID: " + (assetStatus != null ? assetStatus.assetId() : "null"));
-                            System.out.println("资产URL: " + (assetStatus != null ? assetStatus.currentUrl() : "null"));
-                            log.debug("场景[{}] 资产状态: assetId={}, url={}", projectScene.getDisplayName(), 
-                                assetStatus != null ? assetStatus.assetId() : null,
-                                assetStatus != null ? assetStatus.currentUrl() : null);
-                            if (assetStatus != null && assetStatus.currentUrl() != null) {
-                                sceneThumbnailUrl = assetStatus.currentUrl();
-                            }
-                        }
-                        
-                        System.out.println("最终thumbnailUrl: " + sceneThumbnailUrl);
-                        System.out.println("==========================================\n");
-                        log.info("场景[{}] 最终thumbnailUrl: {}", projectScene.getDisplayName(), sceneThumbnailUrl);
-                        sceneThumbnailCache.put(projectScene.getId(), sceneThumbnailUrl);
-                    }
-                    scene = new BoundSceneVO(
-                            sceneBindingId,
-                            projectScene.getId(),
-                            projectScene.getDisplayName(),
-                            sceneThumbnailUrl
-                    );
-                }
+    /**
+     * 为缩略图为空的对象填充其最新图片资产的当前版本URL
+     */
+    private void fillAssetThumbnails(Map<Long, String> thumbnails, String ownerType) {
+        List<Long> missing = thumbnails.entrySet().stream()
+                .filter(e -> e.getValue() == null)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+        loadAssetStatuses(ownerType, missing).forEach((ownerId, statuses) -> {
+            AssetStatusVO image = statuses.get("IMAGE");
+            if (image != null && image.currentUrl() != null) {
+                thumbnails.put(ownerId, image.currentUrl());
             }
+        });
+    }
 
-            // 查询道具信息
-            if (!propIds.isEmpty()) {
-                List<ProjectProp> projectProps = projectPropMapper.selectBatchIds(propIds);
-                Map<Long, ProjectProp> propMap = projectProps.stream()
-                        .collect(Collectors.toMap(ProjectProp::getId, p -> p));
-
-                // 获取所有关联的道具库ID，批量查询缩略图
-                List<Long> libraryPropIds = projectProps.stream()
-                        .map(ProjectProp::getLibraryPropId)
-                        .filter(id -> id != null)
-                        .distinct()
-                        .collect(Collectors.toList());
-
-                Map<Long, String> propThumbnailMap = new java.util.HashMap<>();
-                if (!libraryPropIds.isEmpty()) {
-                    List<PropLibrary> libraryProps = propLibraryMapper.selectBatchIds(libraryPropIds);
-                    propThumbnailMap = libraryProps.stream()
-                            .filter(p -> p.getThumbnailUrl() != null)
-                            .collect(Collectors.toMap(PropLibrary::getId, PropLibrary::getThumbnailUrl));
-                }
+    /**
+     * 一次查询一批归属对象各类型最新资产的状态
+     *
+     * @param ownerType 归属对象类型
+     * @param ownerIds  归属对象ID
+     * @return 归属对象ID → 资产类型 → 资产状态(无资产的对象不在结果中)
+     */
+    private Map<Long, Map<String, AssetStatusVO>> loadAssetStatuses(String ownerType, Collection<Long> ownerIds) {
+        if (ownerIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Map<String, AssetStatusVO>> statuses = new HashMap<>();
+        for (AssetStatusRow row : assetMapper.selectLatestStatuses(ownerType, ownerIds)) {
+            statuses.computeIfAbsent(row.getOwnerId(), k -> new HashMap<>()).put(row.getAssetType(),
+                    new AssetStatusVO(
+                            row.getAssetId(),
+                            row.getId(),
+                            row.getUrl(),
+                            AssetRendition.DELIVERY.resolveUrl(row),
+                            AssetRendition.THUMB_SMALL.resolveUrl(row),
+                            AssetRendition.THUMB_MEDIUM.resolveUrl(row),
+                            row.getStatus(),
+                            row.getTotalVersions()
+                    ));
+        }
+        return statuses;
+    }
 
-                for (ShotBinding binding : bindings) {
-                    if ("PPROP".equals(binding.getBindType())) {
-                        ProjectProp prop = propMap.get(binding.getBindId());
-                        if (prop != null) {
-                            String thumbnailUrl = null;
-
-                            boolean cacheHit = propThumbnailCache.containsKey(prop.getId());
-                            if (cacheHit) {
-                                thumbnailUrl = propThumbnailCache.get(prop.getId());
-                            } else {
-                                System.out.println("========== 开始处理道具 ==========");
-                                System.out.println("道具名称: " + prop.getDisplayName());
-                                System.out.println("道具ID: " + prop.getId());
-                                System.out.println("库道具ID: " + prop.getLibraryPropId());
-                                
-                                // 优先使用库的缩略图
-                                if (prop.getLibraryPropId() != null) {
-                                    thumbnailUrl = propThumbnailMap.get(prop.getLibraryPropId());
-                                    System.out.println("库缩略图URL: " + thumbnailUrl);
-                                    log.debug("道具[{}] 库ID:{}, 库缩略图:{}", prop.getDisplayName(), prop.getLibraryPropId(), thumbnailUrl);
-                                }
-                                
-                                // 如果没有库缩略图，查询道具的资产版本作为缩略图
-                                if (thumbnailUrl == null) {
-                                    System.out.println("库缩略图为空，查询道具资产...");
-                                    AssetStatusVO assetStatus = getAssetStatus(prop.getId(), "PPROP", "IMAGE");
-                                    System.out.println("资产ID: " + (assetStatus != null ? assetStatus.assetId() : "null"));
-                                    System.out.println("资产URL: " + (assetStatus != null ? assetStatus.currentUrl() : "null"));
-                                    log.debug("道具[{}] 资产状态: assetId={}, url={}", prop.getDisplayName(), 
-                                        assetStatus != null ? assetStatus.assetId() : null,
-                                        assetStatus != null ? assetStatus.currentUrl() : null);
-                                    if (assetStatus != null && assetStatus.currentUrl() != null) {
-                                        thumbnailUrl = assetStatus.currentUrl();
-                                    }
-                                }
-                                
-                                System.out.println("最终thumbnailUrl: " + thumbnailUrl);
-                                System.out.println("==========================================\n");
-                                log.info("道具[{}] 最终thumbnailUrl: {}", prop.getDisplayName(), thumbnailUrl);
-                                propThumbnailCache.put(prop.getId(), thumbnailUrl);
-                            }
-                            props.add(new BoundPropVO(
-                                    binding.getId(),
-                                    prop.getId(),
-                                    prop.getDisplayName(),
-                                    thumbnailUrl
-                            ));
-                        }
+    /**
+     * 将分镜及其绑定关系组装为VO(数据均来自批量查询结果)
+     */
+    private ShotVO convertToVO(StoryboardShot shot, List<ShotBinding> bindings, ShotListContext context) {
+        List<BoundCharacterVO> characters = new ArrayList<>();
+        BoundSceneVO scene = null;
+        List<BoundPropVO> props = new ArrayList<>();
+
+        if (bindings != null) {
+            for (ShotBinding binding : bindings) {
+                if ("PCHAR".equals(binding.getBindType())) {
+                    ProjectCharacter character = context.characters().get(binding.getBindId());
+                    if (character != null) {
+                        characters.add(new BoundCharacterVO(binding.getId(), character.getId(),
+                                character.getDisplayName(), context.characterThumbnails().get(character.getId())));
+                    }
+                } else if ("PSCENE".equals(binding.getBindType())) {
+                    // 一个分镜只有一个场景，存在多条时以最后一条为准
+                    ProjectScene projectScene = context.scenes().get(binding.getBindId());
+                    scene = projectScene == null ? null : new BoundSceneVO(binding.getId(), projectScene.getId(),
+                            projectScene.getDisplayName(), context.sceneThumbnails().get(projectScene.getId()));
+                } else if ("PPROP".equals(binding.getBindType())) {
+                    ProjectProp prop = context.props().get(binding.getBindId());
+                    if (prop != null) {
+                        props.add(new BoundPropVO(binding.getId(), prop.getId(),
+                                prop.getDisplayName(), context.propThumbnails().get(prop.getId())));
                     }
                 }
             }
         }
 
-        // 查询分镜图资产状态
-        AssetStatusVO shotImageStatus = getAssetStatus(shot.getId(), "SHOT", "SHOT_IMG");
-        
-        // 查询视频资产状态
-        AssetStatusVO videoStatus = getAssetStatus(shot.getId(), "SHOT", "VIDEO");
-        
-        // 返回ShotVO
+        Map<String, AssetStatusVO> statuses = context.shotAssetStatuses().getOrDefault(shot.getId(), Map.of());
         return new ShotVO(
                 shot.getId(),
                 shot.getShotNo(),
@@ -1610,60 +1604,12 @@ public class ShotServiceImpl implements ShotService {
                 characters,
                 scene,
                 props,
-                shotImageStatus,
-                videoStatus,
+                statuses.getOrDefault("SHOT_IMG", createEmptyAssetStatus()),
+                statuses.getOrDefault("VIDEO", createEmptyAssetStatus()),
                 shot.getCreatedAt(),
                 shot.getUpdatedAt()
         );
     }
-    
-    /**
-     * 查询资产状态
-     * 
-     * @param ownerId 归属对象ID
-     * @param ownerType 归属对象类型
-     * @param assetType 资产类型
-     * @return 资产状态VO
-     */
-    private AssetStatusVO getAssetStatus(Long ownerId, String ownerType, String assetType) {
-        // 查询资产（按创建时间降序，取最新的一条）
-        LambdaQueryWrapper<Asset> assetQuery = new LambdaQueryWrapper<>();
-        assetQuery.eq(Asset::getOwnerId, ownerId)
-                .eq(Asset::getOwnerType, ownerType)
-                .eq(Asset::getAssetType, assetType)
-                .orderByDesc(Asset::getCreatedAt)
-                .last("LIMIT 1");
-        Asset asset = assetMapper.selectOne(assetQuery);
-        
-        if (asset == null) {
-            return createEmptyAssetStatus();
-        }
-        
-        // 查询当前版本
-        LambdaQueryWrapper<AssetVersion> versionQuery = new LambdaQueryWrapper<>();
-        versionQuery.eq(AssetVersion::getAssetId, asset.getId())
-                .orderByDesc(AssetVersion::getVersionNo)
-                .last("LIMIT 1");
-        AssetVersion currentVersion = assetVersionMapper.selectOne(versionQuery);
-        
-        if (currentVersion == null) {
-            return createEmptyAssetStatus();
-        }
-        
-        // 查询总版本数
-        LambdaQueryWrapper<AssetVersion> countQuery = new LambdaQueryWrapper<>();
-        countQuery.eq(AssetVersion::getAssetId, asset.getId());
-        long totalVersions = assetVersionMapper.selectCount(countQuery);
-        
-        // 构建资产状态VO
-        return new AssetStatusVO(
-                asset.getId(),
-                currentVersion.getId(),
-                currentVersion.getUrl(),
-                currentVersion.getStatus(),
-                (int) totalVersions
-        );
-    }
 
     /**
      * 创建空的资产状态VO
@@ -1671,7 +1617,7 @@ public class ShotServiceImpl implements ShotService {
      * @return 空资产状态VO
      */
     private AssetStatusVO createEmptyAssetStatus() {
-        return new AssetStatusVO(null, null, null, "NONE", 0);
+        return new AssetStatusVO(null, null, null, null, null, null, "NONE", 0);
     }
 
     @Override
@@ -1718,6 +1664,8 @@ public class ShotServiceImpl implements ShotService {
         if (assetResult <= 0) {
             throw new BusinessException(ResultCode.SYSTEM_ERROR, "资产删除失败");
         }
+        projectMapper.adjustAssetCount(asset.getProjectId(), -1);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
 
         log.info("分镜图资产删除成功: shotId={}, assetId={}, 删除了{}个版本", 
                 shotId, asset.getId(), versionCount);
@@ -1767,6 +1715,8 @@ public class ShotServiceImpl implements ShotService {
         if (assetResult <= 0) {
             throw new BusinessException(ResultCode.SYSTEM_ERROR, "资产删除失败");
         }
+        projectMapper.adjustAssetCount(asset.getProjectId(), -1);
+        eventPublisher.publishEvent(new ProjectWorkspaceChangedEvent(projectId));
 
         log.info("视频资产删除成功: shotId={}, assetId={}, 删除了{}个版本", 
                 shotId, asset.getId(), versionCount);
@@ -0,0 +1,86 @@
+package com.ym.ai_story_studio_server.service.impl;
+
+import com.ym.ai_story_studio_server.exception.StorageException;
+import org.springframework.util.StringUtils;
+
+import java.util.Set;
+
+/**
+ * 存储服务实现的公共校验与Key处理
+ *
+ * <p>各存储提供商（OSS、本地文件系统）共用同一套文件类型白名单、大小限制与文件名清理规则，
+ * 保证切换存储实现时上传行为与错误信息一致
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+final class StorageFileSupport {
+
+    /**
+     * 支持的文件类型白名单
+     */
+    static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
+            // 图片格式
+            "image/jpeg", "image/jpg", "image/png", "image/gif",
+            "image/webp", "image/bmp", "image/svg+xml",
+            // 视频格式
+            "video/mp4", "video/webm", "video/ogg", "video/avi",
+            "video/quicktime", "video/x-msvideo"
+    );
+
+    /**
+     * 最大文件大小（100MB）
+     */
+    static final long MAX_FILE_SIZE = 100 * 1024 * 1024;
+
+    private StorageFileSupport() {
+    }
+
+    /**
+     * 验证文件类型是否在白名单中
+     */
+    static void validateContentType(String contentType) {
+        if (!StringUtils.hasText(contentType)) {
+            throw new StorageException("INVALID_CONTENT_TYPE", "文件类型不能为空");
+        }
+
+        // 提取主类型（去除参数，如 "image/jpeg; charset=utf-8" -> "image/jpeg"）
+        String mainType = contentType.split(";")[0].trim().toLowerCase();
+
+        if (!ALLOWED_CONTENT_TYPES.contains(mainType)) {
+            throw new StorageException("INVALID_CONTENT_TYPE",
+                    "不支持的文件类型: " + contentType + "。支持的类型: " + ALLOWED_CONTENT_TYPES);
+        }
+    }
+
+    /**
+     * 清理文件名（移除路径和非法字符）
+     */
+    static String cleanFileName(String fileName) {
+        if (!StringUtils.hasText(fileName)) {
+            return "unnamed_file";
+        }
+
+        // 只保留文件名部分（去除路径）
+        String name = fileName;
+        int lastSlash = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        if (lastSlash >= 0) {
+            name = name.substring(lastSlash + 1);
+        }
+        // 移除非法字符（保留字母、数字、下划线、连字符、点）
+        return name.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    /**
+     * 生成派生文件Key：源文件Key去掉扩展名后拼接后缀
+     *
+     * @param sourceKey 源文件Key
+     * @param suffix    派生文件后缀（含扩展名）
+     * @return 派生文件Key
+     */
+    static String derivativeKey(String sourceKey, String suffix) {
+        int lastDot = sourceKey.lastIndexOf('.');
+        String baseKey = lastDot > sourceKey.lastIndexOf('/') ? sourceKey.substring(0, lastDot) : sourceKey;
+        return baseKey + cleanFileName(suffix);
+    }
+}
@@ -9,16 +9,17 @@
 package com.ym.ai_story_studio_server.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.ym.ai_story_studio_server.dto.stylepreset.StylePresetVO;
 import com.ym.ai_story_studio_server.entity.StylePreset;
 import com.ym.ai_story_studio_server.mapper.StylePresetMapper;
+import com.ym.ai_story_studio_server.service.ReferenceDataCache;
 import com.ym.ai_story_studio_server.service.StylePresetService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 风格预设服务实现类
@@ -31,10 +32,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class StylePresetServiceImpl implements StylePresetService {
 
+    private static final TypeReference<List<StylePresetVO>> PRESET_LIST = new TypeReference<>() {
+    };
+
     private final StylePresetMapper stylePresetMapper;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     public List<StylePresetVO> getEnabledStylePresets() {
+        return referenceDataCache.get(ReferenceDataCache.Region.STYLE_PRESETS, "enabled", PRESET_LIST,
+                this::loadEnabledStylePresets);
+    }
+
+    /**
+     * 从数据库查询已启用的风格预设
+     */
+    private List<StylePresetVO> loadEnabledStylePresets() {
         log.info("查询已启用的风格预设列表");
 
         // 1. 构建查询条件: enabled = 1, 按sort_order升序排序
@@ -59,7 +72,7 @@ public class StylePresetServiceImpl implements StylePresetService {
                         entity.getEnabled(),
                         entity.getCreatedAt()
                 ))
-                .collect(Collectors.toList());
+                .toList();
 
         log.info("风格预设列表转换完成,返回{}条记录", voList.size());
         return voList;
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.common.ResultCode;
 import com.ym.ai_story_studio_server.dto.ai.ImageGenerateRequest;
 import com.ym.ai_story_studio_server.dto.ai.ImageGenerateResponse;
@@ -19,6 +20,7 @@ import com.ym.ai_story_studio_server.entity.Asset;
 import com.ym.ai_story_studio_server.entity.AssetVersion;
 import com.ym.ai_story_studio_server.entity.Job;
 import com.ym.ai_story_studio_server.entity.UsageCharge;
+import com.ym.ai_story_studio_server.event.AssetVersionCreatedEvent;
 import com.ym.ai_story_studio_server.exception.BusinessException;
 import com.ym.ai_story_studio_server.mapper.AssetMapper;
 import com.ym.ai_story_studio_server.mapper.AssetVersionMapper;
@@ -28,9 +30,11 @@ import com.ym.ai_story_studio_server.service.AiImageService;
 import com.ym.ai_story_studio_server.service.AiTextService;
 import com.ym.ai_story_studio_server.service.AiVideoService;
 import com.ym.ai_story_studio_server.service.ToolboxService;
+import com.ym.ai_story_studio_server.util.KeysetPager;
 import com.ym.ai_story_studio_server.util.UserContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -75,6 +79,7 @@ public class ToolboxServiceImpl implements ToolboxService {
     private final AssetMapper assetMapper;
     private final AssetVersionMapper assetVersionMapper;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 执行AI生成(统一入口)
@@ -221,6 +226,7 @@ public class ToolboxServiceImpl implements ToolboxService {
      * @return 历史记录分页结果
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<ToolboxHistoryVO> getHistory(Integer page, Integer size) {
         Long userId = UserContext.getUserId();
         log.info("查询工具箱历史 - userId: {}, page: {}, size: {}", userId, page, size);
@@ -228,13 +234,8 @@ public class ToolboxServiceImpl implements ToolboxService {
         // 构建分页对象
         Page<Job> jobPage = new Page<>(page, size);
 
-        // 构建查询条件(Job表不支持软删除,无需检查deletedAt)
-// 工具箱生成的任务特征: projectId=0 且 job_type为TEXT_GENERATION/IMAGE_GENERATION/VIDEO_GENERATION
-        LambdaQueryWrapper<Job> query = new LambdaQueryWrapper<>();
-        query.eq(Job::getUserId, userId)
-                .eq(Job::getProjectId, 0L)  // 工具箱任务projectId为0
-                .in(Job::getJobType, "TEXT_GENERATION", "IMAGE_GENERATION", "VIDEO_GENERATION")
-                .ge(Job::getCreatedAt, LocalDateTime.now().minusDays(7))  // 7天内
+        // 构建查询条件
+        LambdaQueryWrapper<Job> query = buildHistoryQuery(userId)
                 .orderByDesc(Job::getCreatedAt);
 
         // 执行查询(配置分页插件后会自动执行COUNT查询获取total)
@@ -249,6 +250,35 @@ public class ToolboxServiceImpl implements ToolboxService {
         return pageResult;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ToolboxHistoryVO> getHistoryCursorPage(String cursor, Integer size, boolean withTotal) {
+        Long userId = UserContext.getUserId();
+        log.info("游标查询工具箱历史 - userId: {}, size: {}", userId, size);
+
+        CursorPage<Job> page = KeysetPager.fetch(jobMapper, buildHistoryQuery(userId),
+                Job::getCreatedAt, Job::getId, cursor, size, withTotal);
+        return page.map(this::convertToHistoryVO);
+    }
+
+    /**
+     * 构建工具箱历史的查询条件(不含排序)
+     *
+     * <p>Job表不支持软删除,无需检查deletedAt。
+     * 工具箱生成的任务特征: projectId=0 且 job_type为TEXT_GENERATION/IMAGE_GENERATION/VIDEO_GENERATION
+     *
+     * @param userId 当前用户ID
+     * @return 查询条件
+     */
+    private LambdaQueryWrapper<Job> buildHistoryQuery(Long userId) {
+        LambdaQueryWrapper<Job> query = new LambdaQueryWrapper<>();
+        query.eq(Job::getUserId, userId)
+                .eq(Job::getProjectId, 0L)  // 工具箱任务projectId为0
+                .in(Job::getJobType, "TEXT_GENERATION", "IMAGE_GENERATION", "VIDEO_GENERATION")
+                .ge(Job::getCreatedAt, LocalDateTime.now().minusDays(7));  // 7天内
+        return query;
+    }
+
     /**
      * 将Job实体转换为ToolboxHistoryVO
      *
@@ -445,6 +475,7 @@ public class ToolboxServiceImpl implements ToolboxService {
         version.setStatus("READY");  // 设置状态为READY
         version.setCreatedBy(userId);  // 设置创建人
         assetVersionMapper.insert(version);
+        eventPublisher.publishEvent(new AssetVersionCreatedEvent(version.getId()));
 
         log.info("工具箱结果保存成功 - assetId: {}, versionId: {}", asset.getId(), version.getId());
 
@@ -2,6 +2,7 @@ package com.ym.ai_story_studio_server.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.ym.ai_story_studio_server.common.CursorPage;
 import com.ym.ai_story_studio_server.dto.wallet.TransactionQueryRequest;
 import com.ym.ai_story_studio_server.dto.wallet.TransactionVO;
 import com.ym.ai_story_studio_server.dto.wallet.WalletVO;
@@ -10,9 +11,11 @@ import com.ym.ai_story_studio_server.entity.WalletTransaction;
 import com.ym.ai_story_studio_server.mapper.WalletMapper;
 import com.ym.ai_story_studio_server.mapper.WalletTransactionMapper;
 import com.ym.ai_story_studio_server.service.WalletService;
+import com.ym.ai_story_studio_server.util.KeysetPager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * 钱包服务实现类
@@ -55,13 +58,42 @@ public class WalletServiceImpl implements WalletService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TransactionVO> getTransactions(Long userId, TransactionQueryRequest request) {
         log.info("分页查询积分流水: userId={}, request={}", userId, request);
 
         // 1. 构建分页对象
         Page<WalletTransaction> page = new Page<>(request.page(), request.size());
 
-        // 2. 构建查询条件
+        // 2. 构建查询条件,按创建时间倒序排列
+        LambdaQueryWrapper<WalletTransaction> queryWrapper = buildTransactionQuery(userId, request)
+                .orderByDesc(WalletTransaction::getCreatedAt);
+
+        // 3. 执行分页查询
+        page = transactionMapper.selectPage(page, queryWrapper);
+
+        // 4. 转换为VO
+        Page<TransactionVO> voPage = (Page<TransactionVO>) page.convert(this::toTransactionVO);
+
+        log.info("查询成功: total={}, pages={}", voPage.getTotal(), voPage.getPages());
+        return voPage;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionVO> getTransactionCursorPage(Long userId, TransactionQueryRequest request) {
+        log.info("游标查询积分流水: userId={}, request={}", userId, request);
+
+        CursorPage<WalletTransaction> page = KeysetPager.fetch(transactionMapper,
+                buildTransactionQuery(userId, request), WalletTransaction::getCreatedAt, WalletTransaction::getId,
+                request.cursor(), request.size(), Boolean.TRUE.equals(request.withTotal()));
+        return page.map(this::toTransactionVO);
+    }
+
+    /**
+     * 构建积分流水的筛选条件(不含排序)
+     */
+    private LambdaQueryWrapper<WalletTransaction> buildTransactionQuery(Long userId, TransactionQueryRequest request) {
         LambdaQueryWrapper<WalletTransaction> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(WalletTransaction::getUserId, userId);
 
@@ -72,15 +104,11 @@ public class WalletServiceImpl implements WalletService {
         if (request.bizType() != null && !request.bizType().isEmpty()) {
             queryWrapper.eq(WalletTransaction::getBizType, request.bizType());
         }
+        return queryWrapper;
+    }
 
-        // 按创建时间倒序排列
-        queryWrapper.orderByDesc(WalletTransaction::getCreatedAt);
-
-        // 3. 执行分页查询
-        page = transactionMapper.selectPage(page, queryWrapper);
-
-        // 4. 转换为VO
-        Page<TransactionVO> voPage = (Page<TransactionVO>) page.convert(transaction -> new TransactionVO(
+    private TransactionVO toTransactionVO(WalletTransaction transaction) {
+        return new TransactionVO(
                 transaction.getId(),
                 transaction.getType(),
                 transaction.getAmount(),
@@ -89,9 +117,6 @@ public class WalletServiceImpl implements WalletService {
                 transaction.getBizId(),
                 transaction.getMetaJson(),
                 transaction.getCreatedAt()
-        ));
-
-        log.info("查询成功: total={}, pages={}", voPage.getTotal(), voPage.getPages());
-        return voPage;
+        );
     }
 }
@@ -0,0 +1,90 @@
+package com.ym.ai_story_studio_server.util;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 批量加载工具类
+ *
+ * <p>列表组装时避免逐行 {@code selectById}：先从一批来源对象上收集关联ID（去空、去重），
+ * 再按批次调用 {@code selectBatchIds}，最后按ID建立映射供逐行查找。
+ * ID过多时按 {@link #MAX_BATCH_SIZE} 分批，避免 IN 列表过长
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public final class BatchLoader {
+
+    /**
+     * 单次 IN 查询最多携带的ID数量
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private BatchLoader() {
+    }
+
+    /**
+     * 收集来源对象上的关联ID并批量加载关联实体
+     *
+     * @param sources 来源对象（如项目角色列表）
+     * @param idOf    取关联ID（如 {@code ProjectCharacter::getLibraryCharacterId}，可返回null）
+     * @param mapper  关联实体的Mapper
+     * @param keyOf   取关联实体ID（如 {@code CharacterLibrary::getId}）
+     * @return 关联ID -> 实体（不存在的ID不在结果中）
+     */
+    public static <S, K extends Serializable, T> Map<K, T> load(Collection<S> sources, Function<S, K> idOf,
+                                                               BaseMapper<T> mapper, Function<T, K> keyOf) {
+        Set<K> ids = new LinkedHashSet<>();
+        for (S source : sources) {
+            K id = idOf.apply(source);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return loadByIds(ids, mapper, keyOf);
+    }
+
+    /**
+     * 按ID批量加载实体
+     *
+     * @param ids    ID集合（null元素与重复ID会被忽略）
+     * @param mapper 实体Mapper
+     * @param keyOf  取实体ID
+     * @return ID -> 实体（不存在的ID不在结果中）
+     */
+    public static <K extends Serializable, T> Map<K, T> loadByIds(Collection<K> ids, BaseMapper<T> mapper,
+                                                                 Function<T, K> keyOf) {
+        List<K> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        Map<K, T> loaded = new HashMap<>(distinct.size() * 2);
+        for (List<K> batch : partition(distinct)) {
+            for (T entity : mapper.selectBatchIds(batch)) {
+                loaded.putIfAbsent(keyOf.apply(entity), entity);
+            }
+        }
+        return loaded;
+    }
+
+    private static <K> List<List<K>> partition(List<K> ids) {
+        if (ids.size() <= MAX_BATCH_SIZE) {
+            return List.of(ids);
+        }
+        List<List<K>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ym.ai_story_studio_server.util;
+
+import com.ym.ai_story_studio_server.exception.StorageException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 内容摘要工具类
+ *
+ * <p>为内容寻址存储提供两项能力：
+ * <ul>
+ *   <li>边读边算：把输入流写入临时文件的同时计算SHA-256，只读一遍</li>
+ *   <li>按摘要生成对象Key：{@code {prefix}/{sha[0:2]}/{sha[2:4]}/{sha}{ext}}</li>
+ * </ul>
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public final class ContentDigestUtil {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private ContentDigestUtil() {
+    }
+
+    /**
+     * 暂存的内容（临时文件 + 摘要），关闭时删除临时文件
+     *
+     * @param file   临时文件路径
+     * @param sha256 内容SHA-256摘要（十六进制小写）
+     * @param size   内容大小（字节）
+     */
+    public record SpooledContent(Path file, String sha256, long size) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 临时目录由操作系统兜底清理
+            }
+        }
+    }
+
+    /**
+     * 将输入流写入临时文件并同时计算SHA-256
+     *
+     * @param inputStream 输入流（调用者负责关闭）
+     * @param maxBytes    允许的最大字节数，超过时抛出异常
+     * @return 暂存的内容
+     * @throws StorageException 读取失败或超过大小限制时抛出
+     */
+    public static SpooledContent spool(InputStream inputStream, long maxBytes) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("cas-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
+            long size = 0;
+            try (DigestInputStream in = new DigestInputStream(inputStream, digest);
+                 OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new StorageException("FILE_TOO_LARGE", "文件大小超过限制: " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return new SpooledContent(file, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (StorageException e) {
+            deleteQuietly(file);
+            throw e;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            deleteQuietly(file);
+            throw new StorageException("UPLOAD_FAILED", "文件暂存失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 计算字节数组的SHA-256摘要
+     *
+     * @param bytes 内容
+     * @return SHA-256摘要（十六进制小写）
+     */
+    public static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(ALGORITHM).digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 根据内容摘要生成对象Key
+     *
+     * <p>示例: {@code cas/3f/a2/3fa2...e9.png}
+     *
+     * @param prefix   Key前缀
+     * @param sha256   内容SHA-256摘要
+     * @param fileName 原始文件名（仅用于保留扩展名）
+     * @return 对象Key
+     */
+    public static String contentKey(String prefix, String sha256, String fileName) {
+        return String.format("%s/%s/%s/%s%s",
+                prefix, sha256.substring(0, 2), sha256.substring(2, 4), sha256, extensionOf(fileName));
+    }
+
+    /**
+     * 提取文件扩展名（含点号，小写，仅保留字母数字），无扩展名时返回空字符串
+     */
+    private static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int lastDot = fileName.lastIndexOf('.');
+        int lastSlash = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+        if (lastDot <= lastSlash || lastDot == fileName.length() - 1) {
+            return "";
+        }
+        String extension = fileName.substring(lastDot + 1).toLowerCase();
+        return extension.matches("[a-z0-9]{1,10}") ? "." + extension : "";
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 临时目录由操作系统兜底清理
+            }
+        }
+    }
+}
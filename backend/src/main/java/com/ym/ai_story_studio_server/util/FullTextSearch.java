@@ -0,0 +1,93 @@
+package com.ym.ai_story_studio_server.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ngram全文检索工具类
+ *
+ * <p>把用户输入的关键词转换为 {@code MATCH ... AGAINST (... IN BOOLEAN MODE)} 的查询串：
+ * 按空白拆分为多个词，每个词作为必须出现的短语（{@code +"词"}），效果与逐词 {@code LIKE '%词%'} 取交集一致，
+ * 但可以走V22迁移建立的ngram FULLTEXT索引（建索引时已关闭InnoDB停用词，"ai"这类二元组同样入索引）。
+ *
+ * <p>两条路径的语义一致：多个词之间取交集，每个词在任一列中出现即可。
+ * 短于 {@link #MIN_TERM_LENGTH} 的词无法命中ngram索引，此时列表筛选回退到逐词 {@code LIKE}，搜索接口直接拒绝
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public final class FullTextSearch {
+
+    /**
+     * ngram分词粒度
+     *
+     * <p>必须与MySQL服务端的 {@code ngram_token_size}（默认2，只能在启动参数中设置）一致：
+     * 修改该服务端参数后需要同步修改此常量并重建V22的全文索引，否则短于分词粒度的词走MATCH时永远不会命中
+     */
+    public static final int MIN_TERM_LENGTH = 2;
+
+    private FullTextSearch() {
+    }
+
+    /**
+     * 转换为BOOLEAN MODE查询串
+     *
+     * @param keyword 用户输入的关键词
+     * @return 查询串；关键词为空或存在短于 {@link #MIN_TERM_LENGTH} 的词时返回null
+     */
+    public static String toBooleanQuery(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : keyword.trim().split("\\s+")) {
+            // 短语内只有双引号有特殊含义，其余运算符按普通字符处理
+            String cleaned = term.replace("\"", "");
+            if (cleaned.codePointCount(0, cleaned.length()) < MIN_TERM_LENGTH) {
+                return null;
+            }
+            terms.add("+\"" + cleaned + "\"");
+        }
+        return String.join(" ", terms);
+    }
+
+    /**
+     * 为列表查询追加关键词条件：能走全文索引时使用MATCH，否则回退到LIKE（每个词都需在任一列中出现）
+     *
+     * @param wrapper     查询条件
+     * @param columns     FULLTEXT索引的列（如 {@code "name, description"}，必须与索引定义完全一致）
+     * @param keyword     用户输入的关键词（为空时不追加条件）
+     * @param likeColumns 回退LIKE时匹配的列
+     */
+    @SafeVarargs
+    public static <T> void apply(LambdaQueryWrapper<T> wrapper, String columns, String keyword,
+                                 SFunction<T, String>... likeColumns) {
+        if (!StringUtils.hasText(keyword)) {
+            return;
+        }
+        String query = toBooleanQuery(keyword);
+        if (query != null) {
+            wrapper.apply("MATCH(" + columns + ") AGAINST({0} IN BOOLEAN MODE)", query);
+            return;
+        }
+        for (String term : keyword.trim().split("\\s+")) {
+            // 与MATCH路径一致去掉双引号
+            String cleaned = term.replace("\"", "");
+            if (cleaned.isEmpty()) {
+                continue;
+            }
+            wrapper.and(w -> {
+                for (int i = 0; i < likeColumns.length; i++) {
+                    if (i > 0) {
+                        w.or();
+                    }
+                    w.like(likeColumns[i], cleaned);
+                }
+            });
+        }
+    }
+}
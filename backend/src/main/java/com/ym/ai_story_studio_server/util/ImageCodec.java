@@ -0,0 +1,114 @@
+package com.ym.ai_story_studio_server.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * 图片输出编码
+ *
+ * <p>统一描述图片编码格式对应的ImageIO格式名、MIME类型与文件扩展名，
+ * 并负责将BufferedImage编码为字节数组
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public enum ImageCodec {
+
+    PNG("png", "image/png", ".png"),
+    JPEG("jpeg", "image/jpeg", ".jpg");
+
+    private final String formatName;
+    private final String contentType;
+    private final String extension;
+
+    ImageCodec(String formatName, String contentType, String extension) {
+        this.formatName = formatName;
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getFormatName() {
+        return formatName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 根据配置值解析编码格式，无法识别时回退为PNG
+     *
+     * @param format 格式名（png/jpeg/jpg，不区分大小写）
+     * @return 编码格式
+     */
+    public static ImageCodec of(String format) {
+        if (format == null || format.isBlank()) {
+            return PNG;
+        }
+        String normalized = format.trim().toLowerCase();
+        if ("jpeg".equals(normalized) || "jpg".equals(normalized)) {
+            return JPEG;
+        }
+        return PNG;
+    }
+
+    /**
+     * 将图片编码为字节数组
+     *
+     * @param image   待编码图片
+     * @param quality 压缩质量（0-1），仅对有损格式生效
+     * @return 编码后的字节数组
+     */
+    public byte[] encode(BufferedImage image, float quality) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        if (this == PNG) {
+            ImageIO.write(image, formatName, baos);
+            return baos.toByteArray();
+        }
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+        if (!writers.hasNext()) {
+            throw new IOException("没有可用的图片编码器: " + formatName);
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream ios = new MemoryCacheImageOutputStream(baos)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(flattenAlpha(image), null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * JPEG不支持透明通道，带透明度的图片先铺白底转为RGB
+     */
+    private static BufferedImage flattenAlpha(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = rgb.createGraphics();
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return rgb;
+    }
+}
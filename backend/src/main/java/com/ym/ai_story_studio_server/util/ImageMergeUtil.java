@@ -1,28 +1,48 @@
 package com.ym.ai_story_studio_server.util;
 
+import com.ym.ai_story_studio_server.config.ImageProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 图片拼接工具类
  * 用于将多张图片横向拼接成一张画布
  *
+ * <p>图片通过独立线程池并发下载（带连接/读取超时与整体超时），
+ * 解码时按目标格子尺寸做源图降采样，避免把大图完整解码进堆内存
+ *
  * @author Roo (Prometheus)
  * @since 1.0.0
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ImageMergeUtil {
 
     private static final int PADDING = 20; // 图片之间的间距
@@ -31,8 +51,16 @@ public class ImageMergeUtil {
     private static final int COMPOSITE_CANVAS_WIDTH = 1280;
     private static final int COMPOSITE_CELL_HEIGHT = 360;
     private static final int COMPOSITE_LABEL_HEIGHT = 40;
+    private static final int COMPOSITE_COLUMNS = 2;
     private static final Font COMPOSITE_LABEL_FONT = new Font("SansSerif", Font.BOLD, 24);
 
+    private final ImageProperties imageProperties;
+
+    /**
+     * 图片下载线程池
+     */
+    private ExecutorService fetchExecutor;
+
     public static class ImageItem {
         private final String label;
         private final String imageUrl;
@@ -51,11 +79,34 @@ public class ImageMergeUtil {
         }
     }
 
+    @PostConstruct
+    public void init() {
+        int concurrency = Math.max(1, imageProperties.getMerge().getFetchConcurrency());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Image-Fetch-");
+        threadFactory.setDaemon(true);
+        fetchExecutor = Executors.newFixedThreadPool(concurrency, threadFactory);
+        log.info("图片拼接下载线程池初始化完成 - 并发数: {}, 输出格式: {}", concurrency, getOutputCodec());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fetchExecutor != null) {
+            fetchExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 拼接结果使用的输出编码
+     */
+    public ImageCodec getOutputCodec() {
+        return ImageCodec.of(imageProperties.getMerge().getOutputFormat());
+    }
+
     /**
      * 将多个图片URL横向拼接成一张图片
      *
      * @param imageUrls 图片URL列表
-     * @return 拼接后的图片字节数组
+     * @return 拼接后的图片字节数组（编码见 {@link #getOutputCodec()}）
      */
     public byte[] mergeImagesHorizontally(List<String> imageUrls) throws IOException {
         if (imageUrls == null || imageUrls.isEmpty()) {
@@ -64,17 +115,11 @@ public class ImageMergeUtil {
 
         log.info("开始拼接图片，共 {} 张", imageUrls.size());
 
-        // 1. 下载所有图片
+        // 1. 并发下载所有图片（按目标高度降采样解码）
         List<BufferedImage> images = new ArrayList<>();
-        for (String url : imageUrls) {
-            try {
-                BufferedImage image = downloadImage(url);
-                if (image != null) {
-                    images.add(image);
-                    log.debug("成功加载图片: {}", url);
-                }
-            } catch (Exception e) {
-                log.warn("加载图片失败，跳过: {}", url, e);
+        for (BufferedImage image : fetchImages(imageUrls, Integer.MAX_VALUE, MAX_HEIGHT)) {
+            if (image != null) {
+                images.add(image);
             }
         }
 
@@ -82,49 +127,30 @@ public class ImageMergeUtil {
             throw new IOException("没有成功加载任何图片");
         }
 
-        // 2. 计算目标尺寸
+        // 2. 计算目标尺寸（按比例缩放所有图片到相同高度）
         int targetHeight = MAX_HEIGHT;
-        int totalWidth = 0;
-
-        // 按比例缩放所有图片到相同高度
-        List<BufferedImage> resizedImages = new ArrayList<>();
-        for (BufferedImage img : images) {
-            int newWidth = (int) ((double) targetHeight / img.getHeight() * img.getWidth());
-            BufferedImage resized = resizeImage(img, newWidth, targetHeight);
-            resizedImages.add(resized);
-            totalWidth += newWidth;
+        int[] widths = new int[images.size()];
+        int totalWidth = PADDING * (images.size() + 1);
+        for (int i = 0; i < images.size(); i++) {
+            BufferedImage img = images.get(i);
+            widths[i] = Math.max(1, (int) ((double) targetHeight / img.getHeight() * img.getWidth()));
+            totalWidth += widths[i];
         }
 
-        // 加上间距
-        totalWidth += PADDING * (resizedImages.size() + 1);
-
-        // 3. 创建画布
-        BufferedImage canvas = new BufferedImage(totalWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = canvas.createGraphics();
-
-        // 设置抗锯齿
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-
-        // 填充背景
-        g2d.setColor(BACKGROUND_COLOR);
-        g2d.fillRect(0, 0, totalWidth, targetHeight);
-
-        // 4. 将图片绘制到画布上
+        // 3. 直接缩放绘制到画布上
+        BufferedImage canvas = createCanvas(totalWidth, targetHeight);
+        Graphics2D g2d = createGraphics(canvas);
         int currentX = PADDING;
-        for (BufferedImage img : resizedImages) {
-            g2d.drawImage(img, currentX, 0, null);
-            currentX += img.getWidth() + PADDING;
+        for (int i = 0; i < images.size(); i++) {
+            g2d.drawImage(images.get(i), currentX, 0, widths[i], targetHeight, null);
+            currentX += widths[i] + PADDING;
         }
-
         g2d.dispose();
 
-        // 5. 转换为字节数组
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(canvas, "PNG", baos);
-        byte[] imageBytes = baos.toByteArray();
+        // 4. 编码为字节数组
+        byte[] imageBytes = encode(canvas);
 
-        log.info("图片拼接完成，总宽度: {}, 高度: {}, 大小: {} KB", 
+        log.info("图片拼接完成，总宽度: {}, 高度: {}, 大小: {} KB",
                 totalWidth, targetHeight, imageBytes.length / 1024);
 
         return imageBytes;
@@ -134,7 +160,7 @@ public class ImageMergeUtil {
      * 将多张图片按两列多行拼接，并在图片下方附带标签
      *
      * @param items 图片与标签信息
-     * @return 拼接后的图片字节数组
+     * @return 拼接后的图片字节数组（编码见 {@link #getOutputCodec()}）
      */
     public byte[] mergeImagesGridWithLabels(List<ImageItem> items) throws IOException {
         if (items == null || items.isEmpty()) {
@@ -143,19 +169,23 @@ public class ImageMergeUtil {
 
         log.info("开始拼接图片（网格），共 {} 张", items.size());
 
-        List<ImageWithLabel> images = new ArrayList<>();
+        int cellWidth = (COMPOSITE_CANVAS_WIDTH - PADDING * (COMPOSITE_COLUMNS + 1)) / COMPOSITE_COLUMNS;
+
+        List<ImageItem> validItems = new ArrayList<>();
         for (ImageItem item : items) {
-            if (item == null || item.getImageUrl() == null || item.getImageUrl().isBlank()) {
-                continue;
+            if (item != null && item.getImageUrl() != null && !item.getImageUrl().isBlank()) {
+                validItems.add(item);
             }
-            try {
-                BufferedImage image = downloadImage(item.getImageUrl());
-                if (image != null) {
-                    images.add(new ImageWithLabel(image, item.getLabel()));
-                    log.debug("成功加载图片: {}", item.getImageUrl());
-                }
-            } catch (Exception e) {
-                log.warn("加载图片失败，跳过: {}", item.getImageUrl(), e);
+        }
+
+        List<BufferedImage> fetched = fetchImages(
+                validItems.stream().map(ImageItem::getImageUrl).toList(),
+                cellWidth, COMPOSITE_CELL_HEIGHT);
+
+        List<ImageWithLabel> images = new ArrayList<>();
+        for (int i = 0; i < validItems.size(); i++) {
+            if (fetched.get(i) != null) {
+                images.add(new ImageWithLabel(fetched.get(i), validItems.get(i).getLabel()));
             }
         }
 
@@ -163,27 +193,127 @@ public class ImageMergeUtil {
             throw new IOException("没有成功加载任何图片");
         }
 
-        int cols = 2;
-        int cellWidth = (COMPOSITE_CANVAS_WIDTH - PADDING * (cols + 1)) / cols;
-        int rows = (int) Math.ceil(images.size() / (double) cols);
-        int totalHeight = PADDING + rows * (COMPOSITE_CELL_HEIGHT + COMPOSITE_LABEL_HEIGHT + PADDING) + PADDING;
+        BufferedImage canvas = renderLabeledGrid(images, cellWidth);
+        byte[] imageBytes = encode(canvas);
 
-        BufferedImage canvas = new BufferedImage(COMPOSITE_CANVAS_WIDTH, totalHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = canvas.createGraphics();
+        log.info("图片拼接完成（网格），宽度: {}, 高度: {}, 大小: {} KB",
+                canvas.getWidth(), canvas.getHeight(), imageBytes.length / 1024);
 
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        return imageBytes;
+    }
 
-        g2d.setColor(BACKGROUND_COLOR);
-        g2d.fillRect(0, 0, COMPOSITE_CANVAS_WIDTH, totalHeight);
+    /**
+     * 从输入流解码图片，按目标尺寸做源图降采样
+     *
+     * <p>降采样倍数取不小于1的最大整数，保证解码结果不小于目标尺寸，后续缩放质量不受影响
+     *
+     * @param in        图片输入流（调用者负责关闭）
+     * @param maxWidth  目标最大宽度（不限制时传 {@link Integer#MAX_VALUE}）
+     * @param maxHeight 目标最大高度（不限制时传 {@link Integer#MAX_VALUE}）
+     * @return 解码后的图片
+     */
+    public BufferedImage decodeImage(InputStream in, int maxWidth, int maxHeight) throws IOException {
+        try (ImageInputStream iis = new MemoryCacheImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                throw new IOException("无法识别的图片格式");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int subsampling = computeSubsampling(reader.getWidth(0), reader.getHeight(0), maxWidth, maxHeight);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 按配置的输出编码将画布编码为字节数组
+     */
+    public byte[] encode(BufferedImage canvas) throws IOException {
+        return getOutputCodec().encode(canvas, imageProperties.getMerge().getJpegQuality());
+    }
+
+    /**
+     * 并发下载图片
+     *
+     * <p>返回列表与入参一一对应，下载失败或超时的位置为null
+     */
+    private List<BufferedImage> fetchImages(List<String> imageUrls, int maxWidth, int maxHeight) {
+        List<CompletableFuture<BufferedImage>> futures = new ArrayList<>(imageUrls.size());
+        for (String url : imageUrls) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return downloadImage(url, maxWidth, maxHeight);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }, fetchExecutor));
+        }
+
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(imageProperties.getMerge().getFetchTimeoutMs());
+        List<BufferedImage> images = new ArrayList<>(imageUrls.size());
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<BufferedImage> future = futures.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                BufferedImage image = future.get(remaining, TimeUnit.NANOSECONDS);
+                images.add(image);
+                log.debug("成功加载图片: {}", imageUrls.get(i));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                images.add(null);
+                log.warn("加载图片超时，跳过: {}", imageUrls.get(i));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("图片下载被中断", e);
+            } catch (Exception e) {
+                images.add(null);
+                log.warn("加载图片失败，跳过: {}", imageUrls.get(i), e);
+            }
+        }
+        return images;
+    }
+
+    /**
+     * 从URL下载图片（带超时，按目标尺寸降采样解码）
+     */
+    private BufferedImage downloadImage(String imageUrl, int maxWidth, int maxHeight) throws IOException {
+        URLConnection connection = new URL(imageUrl).openConnection();
+        connection.setConnectTimeout(imageProperties.getMerge().getConnectTimeoutMs());
+        connection.setReadTimeout(imageProperties.getMerge().getReadTimeoutMs());
+        try (InputStream in = connection.getInputStream()) {
+            return decodeImage(in, maxWidth, maxHeight);
+        } finally {
+            if (connection instanceof HttpURLConnection httpConnection) {
+                httpConnection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * 渲染两列网格画布（图片等比居中，下方附标签）
+     */
+    private BufferedImage renderLabeledGrid(List<ImageWithLabel> images, int cellWidth) {
+        int rows = (int) Math.ceil(images.size() / (double) COMPOSITE_COLUMNS);
+        int totalHeight = PADDING + rows * (COMPOSITE_CELL_HEIGHT + COMPOSITE_LABEL_HEIGHT + PADDING) + PADDING;
 
+        BufferedImage canvas = createCanvas(COMPOSITE_CANVAS_WIDTH, totalHeight);
+        Graphics2D g2d = createGraphics(canvas);
         g2d.setFont(COMPOSITE_LABEL_FONT);
         FontMetrics fontMetrics = g2d.getFontMetrics();
 
         for (int i = 0; i < images.size(); i++) {
-            int row = i / cols;
-            int col = i % cols;
+            int row = i / COMPOSITE_COLUMNS;
+            int col = i % COMPOSITE_COLUMNS;
             int left = PADDING + col * (cellWidth + PADDING);
             int top = PADDING + row * (COMPOSITE_CELL_HEIGHT + COMPOSITE_LABEL_HEIGHT + PADDING);
 
@@ -210,49 +340,42 @@ public class ImageMergeUtil {
         }
 
         g2d.dispose();
-
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(canvas, "PNG", baos);
-        byte[] imageBytes = baos.toByteArray();
-
-        log.info("图片拼接完成（网格），宽度: {}, 高度: {}, 大小: {} KB",
-                COMPOSITE_CANVAS_WIDTH, totalHeight, imageBytes.length / 1024);
-
-        return imageBytes;
-    }
-
-    private int[] scaleToFit(int srcWidth, int srcHeight, int maxWidth, int maxHeight) {
-        double scale = Math.min((double) maxWidth / srcWidth, (double) maxHeight / srcHeight);
-        int width = Math.max(1, (int) Math.round(srcWidth * scale));
-        int height = Math.max(1, (int) Math.round(srcHeight * scale));
-        return new int[] { width, height };
+        return canvas;
     }
 
     /**
-     * 从URL下载图片
+     * 创建白底RGB画布
      */
-    private BufferedImage downloadImage(String imageUrl) throws IOException {
-        URL url = new URL(imageUrl);
-        try (InputStream in = url.openStream()) {
-            return ImageIO.read(in);
-        }
+    private BufferedImage createCanvas(int width, int height) {
+        BufferedImage canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = canvas.createGraphics();
+        g2d.setColor(BACKGROUND_COLOR);
+        g2d.fillRect(0, 0, width, height);
+        g2d.dispose();
+        return canvas;
     }
 
     /**
-     * 等比例缩放图片
+     * 获取带统一渲染参数的画笔（调用者负责dispose）
      */
-    private BufferedImage resizeImage(BufferedImage originalImage, int targetWidth, int targetHeight) {
-        BufferedImage resizedImage = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = resizedImage.createGraphics();
-
+    private Graphics2D createGraphics(BufferedImage canvas) {
+        Graphics2D g2d = canvas.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        return g2d;
+    }
 
-        g2d.drawImage(originalImage, 0, 0, targetWidth, targetHeight, null);
-        g2d.dispose();
+    private int computeSubsampling(int srcWidth, int srcHeight, int maxWidth, int maxHeight) {
+        double ratio = Math.max((double) srcWidth / maxWidth, (double) srcHeight / maxHeight);
+        return Math.max(1, (int) Math.floor(ratio));
+    }
 
-        return resizedImage;
+    private int[] scaleToFit(int srcWidth, int srcHeight, int maxWidth, int maxHeight) {
+        double scale = Math.min((double) maxWidth / srcWidth, (double) maxHeight / srcHeight);
+        int width = Math.max(1, (int) Math.round(srcWidth * scale));
+        int height = Math.max(1, (int) Math.round(srcHeight * scale));
+        return new int[] { width, height };
     }
 
     private static class ImageWithLabel {
@@ -0,0 +1,149 @@
+package com.ym.ai_story_studio_server.util;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.ym.ai_story_studio_server.common.CursorPage;
+import com.ym.ai_story_studio_server.common.ResultCode;
+import com.ym.ai_story_studio_server.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 键集（游标）分页工具类
+ *
+ * <p>按 {@code (排序时间列 DESC, id DESC)} 定位：下一页条件为
+ * {@code t < 游标时间 OR (t = 游标时间 AND id < 游标ID)}，配合 {@code (过滤列..., 时间列, id)} 复合索引
+ * 每页只扫描 size+1 行，不随翻页深度变慢，也不执行分页插件的 COUNT 查询。
+ * 游标为 {@code "排序值|id"} 的Base64URL编码，对调用方不透明。
+ *
+ * <p>在XML中自行拼接游标条件的查询（如全文搜索按相关度排序）使用 {@link #decode(String, Function)}
+ * 解析游标、{@link #toPage} 截取一页并生成下一页游标，游标格式与错误处理与 {@link #fetch} 一致
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public final class KeysetPager {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final char SEPARATOR = '|';
+
+    private KeysetPager() {
+    }
+
+    /**
+     * 游标指向的位置（上一页最后一条记录）
+     *
+     * @param sortValue 排序列的值，{@code toString()} 须能被解析函数还原
+     * @param id        记录ID
+     * @param <S>       排序列类型
+     */
+    public record Position<S>(S sortValue, Long id) {
+    }
+
+    /**
+     * 查询一页数据
+     *
+     * @param mapper     实体Mapper
+     * @param query      只包含过滤条件的查询（不要设置排序与LIMIT，本方法会追加游标条件、排序与LIMIT）
+     * @param sortColumn 排序时间列（如 {@code Job::getCreatedAt}）
+     * @param idColumn   ID列
+     * @param cursor     上一页返回的游标（首页为null或空）
+     * @param size       每页大小
+     * @param withTotal  是否统计总数（额外一次COUNT查询）
+     * @return 本页记录与下一页游标
+     * @throws BusinessException 游标格式不正确时抛出
+     */
+    public static <T> CursorPage<T> fetch(BaseMapper<T> mapper, LambdaQueryWrapper<T> query,
+                                          SFunction<T, LocalDateTime> sortColumn, SFunction<T, Long> idColumn,
+                                          String cursor, int size, boolean withTotal) {
+        Position<LocalDateTime> position = decode(cursor);
+
+        // 总数按过滤条件统计，与游标位置无关
+        Long total = withTotal ? mapper.selectCount(query) : null;
+
+        if (position != null) {
+            query.and(w -> w.lt(sortColumn, position.sortValue())
+                    .or(o -> o.eq(sortColumn, position.sortValue()).lt(idColumn, position.id())));
+        }
+        query.orderByDesc(sortColumn)
+                .orderByDesc(idColumn)
+                .last("LIMIT " + (size + 1));
+
+        return toPage(mapper.selectList(query), size, total, sortColumn, idColumn);
+    }
+
+    /**
+     * 将多查一条（LIMIT size+1）的结果截取为一页，有下一页时以本页最后一条记录生成游标
+     *
+     * @param rows      按 {@code (排序列 DESC, id DESC)} 查询的至多 size+1 条记录
+     * @param size      每页大小
+     * @param total     总记录数（未统计时为null）
+     * @param sortValue 取排序列的值
+     * @param id        取记录ID
+     * @return 本页记录与下一页游标
+     */
+    public static <T, S> CursorPage<T> toPage(List<T> rows, int size, Long total,
+                                              Function<T, S> sortValue, Function<T, Long> id) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, false, total);
+        }
+        List<T> page = rows.subList(0, size);
+        T last = page.get(size - 1);
+        String nextCursor = encode(new Position<>(sortValue.apply(last), id.apply(last)));
+        return new CursorPage<>(List.copyOf(page), nextCursor, true, total);
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param position 位置
+     * @return 不透明游标字符串
+     */
+    public static String encode(Position<?> position) {
+        String raw = position.sortValue().toString() + SEPARATOR + position.id();
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码排序列为时间的游标
+     *
+     * @param cursor 游标字符串（null或空表示第一页）
+     * @return 位置，第一页时返回null
+     * @throws BusinessException 游标格式不正确时抛出
+     */
+    public static Position<LocalDateTime> decode(String cursor) {
+        return decode(cursor, LocalDateTime::parse);
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标字符串（null或空表示第一页）
+     * @param parser 排序列值的解析函数（如 {@code Double::valueOf}）
+     * @return 位置，第一页时返回null
+     * @throws BusinessException 游标格式不正确时抛出
+     */
+    public static <S> Position<S> decode(String cursor, Function<String, S> parser) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("缺少分隔符");
+            }
+            return new Position<>(parser.apply(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException(ResultCode.PARAM_INVALID, "分页游标无效");
+        }
+    }
+}
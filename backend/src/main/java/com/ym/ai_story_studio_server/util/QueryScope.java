@@ -0,0 +1,139 @@
+package com.ym.ai_story_studio_server.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL查询作用域
+ *
+ * <p>一次HTTP请求或一条MQ消息对应一个作用域，使用ThreadLocal绑定到处理线程，记录：
+ * <ul>
+ *   <li>作用域内执行的SQL条数</li>
+ *   <li>每条SQL文本的执行次数，相同SQL重复达到阈值时记为疑似N+1</li>
+ * </ul>
+ *
+ * <p>由Web拦截器和MQ监听容器的通知开启、结束；作用域内另起的线程（如批量生成的线程池）不计入
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public class QueryScope {
+
+    private static final ThreadLocal<QueryScope> scopeHolder = new ThreadLocal<>();
+
+    private final String name;
+    private final int budget;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Repeat> repeats = new HashMap<>();
+    private final List<String> nPlusOneStatements = new ArrayList<>();
+    private int queryCount;
+    private boolean budgetExceeded;
+
+    private QueryScope(String name, int budget) {
+        this.name = name;
+        this.budget = budget;
+    }
+
+    /**
+     * 开启作用域并绑定到当前线程
+     *
+     * @param name   作用域名称
+     * @param budget 查询预算，0表示不限制
+     * @return 新作用域
+     */
+    public static QueryScope begin(String name, int budget) {
+        QueryScope scope = new QueryScope(name, budget);
+        scopeHolder.set(scope);
+        return scope;
+    }
+
+    /**
+     * 获取当前线程的作用域
+     *
+     * @return 作用域，不在作用域内时返回null
+     */
+    public static QueryScope current() {
+        return scopeHolder.get();
+    }
+
+    /**
+     * 解除当前线程的作用域
+     *
+     * <p>必须在请求/消息处理结束时调用，防止线程复用时的数据串台
+     *
+     * @return 被解除的作用域，不存在时返回null
+     */
+    public static QueryScope end() {
+        QueryScope scope = scopeHolder.get();
+        scopeHolder.remove();
+        return scope;
+    }
+
+    /**
+     * 记录一次SQL执行
+     *
+     * @param statementId MappedStatement ID
+     * @param sql         SQL文本（参数为占位符）
+     * @param threshold   疑似N+1的重复次数阈值
+     * @return 本次执行恰好达到阈值时返回true（每条SQL只返回一次）
+     */
+    public boolean record(String statementId, String sql, int threshold) {
+        queryCount++;
+        Repeat repeat = repeats.computeIfAbsent(sql, key -> new Repeat());
+        repeat.count++;
+        if (threshold > 0 && repeat.count == threshold) {
+            nPlusOneStatements.add(statementId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 是否超出查询预算（超出后只返回一次true）
+     *
+     * @return 本次执行首次超出预算时返回true
+     */
+    public boolean checkBudget() {
+        if (budget > 0 && queryCount > budget && !budgetExceeded) {
+            budgetExceeded = true;
+            return true;
+        }
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public boolean isBudgetExceeded() {
+        return budgetExceeded;
+    }
+
+    /**
+     * 疑似N+1的MappedStatement ID列表
+     */
+    public List<String> getNPlusOneStatements() {
+        return nPlusOneStatements;
+    }
+
+    /**
+     * 作用域已持续的毫秒数
+     */
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static final class Repeat {
+        private int count;
+    }
+}
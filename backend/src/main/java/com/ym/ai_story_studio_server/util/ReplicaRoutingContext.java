@@ -0,0 +1,49 @@
+package com.ym.ai_story_studio_server.util;
+
+/**
+ * 数据源路由上下文工具类
+ *
+ * <p>使用ThreadLocal标记当前请求的查询必须走主库（读到自己的写入）：
+ * <ul>
+ *   <li>写请求（POST/PUT/PATCH/DELETE）内的所有查询</li>
+ *   <li>用户最近发生过写请求时，其后一段时间内的读请求</li>
+ * </ul>
+ *
+ * <p>由读写一致性拦截器在请求开始时设置、请求结束时清理；
+ * 后台线程（异步任务、消息消费）不设置，只读事务按副本延迟阈值路由
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> primaryPinnedHolder = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * 标记当前线程的查询固定走主库
+     */
+    public static void pinPrimary() {
+        primaryPinnedHolder.set(Boolean.TRUE);
+    }
+
+    /**
+     * 当前线程的查询是否固定走主库
+     *
+     * @return true=固定走主库
+     */
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(primaryPinnedHolder.get());
+    }
+
+    /**
+     * 清除标记
+     *
+     * <p>必须在请求结束时调用，防止线程复用时的数据串台
+     */
+    public static void clear() {
+        primaryPinnedHolder.remove();
+    }
+}
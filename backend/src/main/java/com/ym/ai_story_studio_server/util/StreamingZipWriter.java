@@ -0,0 +1,468 @@
+package com.ym.ai_story_studio_server.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+/**
+ * 流式ZIP写入器
+ *
+ * <p>只向前写、不回写，适合直接写入HTTP响应：
+ * <ul>
+ *   <li>按内容选择压缩方式：图片/视频等已压缩格式以STORED写入，文本与元数据以DEFLATE写入</li>
+ *   <li>小条目可在写入前由工作线程在内存中预处理（{@link #prepare}：计算CRC、DEFLATE压缩），
+ *       写入线程只做顺序拷贝，本地文件头直接写入已知的CRC与大小</li>
+ *   <li>大条目（{@link #putStoredEntry}）边读源数据边写出，置通用标志位3，数据之后写数据描述符，不经过内存或磁盘缓冲</li>
+ *   <li>文件名使用UTF-8编码（通用标志位11），中文目录名在各平台解压工具中正常显示</li>
+ *   <li>支持从其他ZIP原样复制已压缩数据（{@link #putRawEntry}），增量导出时无需解压再压缩</li>
+ *   <li>条目大小、偏移量超过4GB或条目数超过65535时自动使用ZIP64扩展</li>
+ * </ul>
+ *
+ * <p>注意: {@link java.util.zip.ZipInputStream} 不支持带数据描述符的STORED条目，
+ * 读取请使用 {@link java.util.zip.ZipFile} 或常规解压工具（均按中央目录读取）
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public class StreamingZipWriter implements Closeable {
+
+    public static final int METHOD_STORED = 0;
+    public static final int METHOD_DEFLATED = 8;
+
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int DATA_DESCRIPTOR_SIG = 0x08074b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_SIG = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIG = 0x07064b50;
+    private static final int END_OF_CENTRAL_DIR_SIG = 0x06054b50;
+
+    private static final int VERSION = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+    private static final int FLAG_UTF8 = 1 << 11;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    private static final long MAX_32 = 0xFFFFFFFFL;
+    private static final int MAX_16 = 0xFFFF;
+
+    /**
+     * DEFLATE后体积仍大于原始大小的该比例时放弃压缩，改为STORED
+     */
+    private static final double MIN_DEFLATE_RATIO = 0.95;
+
+    /**
+     * 已压缩的媒体格式，再DEFLATE几乎没有收益
+     */
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "png", "jpg", "jpeg", "webp", "gif", "avif", "heic",
+            "mp4", "mov", "m4v", "webm", "mkv", "avi",
+            "mp3", "m4a", "aac", "ogg", "opus",
+            "zip", "gz", "7z", "rar");
+
+    private final CountingOutputStream out;
+    private final List<CentralEntry> entries = new ArrayList<>();
+    private boolean finished;
+
+    /**
+     * 中央目录条目
+     */
+    private record CentralEntry(byte[] name, int flags, int method, int dosTime,
+                                long crc, long compressedSize, long size, long offset) {
+    }
+
+    /**
+     * 已写入条目的校验信息
+     *
+     * @param name 条目名称
+     * @param crc  内容CRC-32
+     * @param size 内容大小（字节）
+     */
+    public record WrittenEntry(String name, long crc, long size) {
+    }
+
+    /**
+     * 预处理完成、可直接顺序写入的条目
+     *
+     * @param name   条目名称
+     * @param method 压缩方式（{@link #METHOD_STORED} 或 {@link #METHOD_DEFLATED}）
+     * @param crc    内容CRC-32
+     * @param size   内容原始大小
+     * @param data   需要写入ZIP的数据（DEFLATE时为压缩后的数据）
+     */
+    public record PreparedEntry(String name, int method, long crc, long size, byte[] data) {
+    }
+
+    /**
+     * @param out 目标输出流（关闭写入器时一并关闭）
+     */
+    public StreamingZipWriter(OutputStream out) {
+        this.out = new CountingOutputStream(out);
+    }
+
+    /**
+     * 判断条目是否应以DEFLATE压缩（按扩展名排除已压缩的媒体格式）
+     *
+     * @param name 条目名称
+     * @return 是否压缩
+     */
+    public static boolean isCompressible(String name) {
+        int dot = name.lastIndexOf('.');
+        if (dot < 0 || dot < name.lastIndexOf('/')) {
+            return true;
+        }
+        return !COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 在内存中预处理条目（可在工作线程并行执行）
+     *
+     * <p>已压缩的媒体格式以STORED写入；其余内容DEFLATE压缩，压缩收益不足时改为STORED
+     *
+     * @param name 条目名称
+     * @param data 条目内容
+     * @return 预处理结果
+     */
+    public static PreparedEntry prepare(String name, byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        if (isCompressible(name) && data.length > 0) {
+            byte[] deflated = deflate(data);
+            if (deflated.length < data.length * MIN_DEFLATE_RATIO) {
+                return new PreparedEntry(name, METHOD_DEFLATED, crc.getValue(), data.length, deflated);
+            }
+        }
+        return new PreparedEntry(name, METHOD_STORED, crc.getValue(), data.length, data);
+    }
+
+    /**
+     * 写入预处理完成的条目（本地文件头包含CRC与大小，无数据描述符）
+     *
+     * @param entry 预处理结果
+     * @return 条目校验信息
+     * @throws IOException 写入失败时抛出
+     */
+    public WrittenEntry putPreparedEntry(PreparedEntry entry) throws IOException {
+        return putRawEntry(entry.name(), entry.method(), entry.crc(), entry.data().length, entry.size(),
+                new ByteArrayInputStream(entry.data()));
+    }
+
+    /**
+     * 以DEFLATE方式写入内存中的小条目（失败清单、元数据等）
+     *
+     * @param name 条目名称
+     * @param data 条目内容
+     * @return 条目校验信息
+     * @throws IOException 写入失败时抛出
+     */
+    public WrittenEntry putDeflatedEntry(String name, byte[] data) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        byte[] bytes = deflate(data);
+        return putRawEntry(name, METHOD_DEFLATED, crc.getValue(), bytes.length, data.length,
+                new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * 以raw DEFLATE格式（无zlib头）压缩
+     */
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] buffer = new byte[8 * 1024];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 以STORED方式写入大小未知的流式条目（数据之后写数据描述符，单个条目不超过4GB）
+     *
+     * @param name 条目名称（含目录路径，使用"/"分隔）
+     * @param data 条目内容（调用者负责关闭）
+     * @return 条目校验信息
+     * @throws IOException 写入失败或超出ZIP格式限制时抛出
+     */
+    public WrittenEntry putStoredEntry(String name, InputStream data) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int flags = FLAG_DATA_DESCRIPTOR | FLAG_UTF8;
+        int dosTime = dosTime(LocalDateTime.now());
+        long offset = beginEntry(nameBytes, flags, METHOD_STORED, dosTime, 0, 0, 0);
+
+        // 条目数据
+        CRC32 crc = new CRC32();
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = data.read(buffer)) != -1) {
+            crc.update(buffer, 0, read);
+            out.write(buffer, 0, read);
+            size += read;
+        }
+        if (size >= MAX_32) {
+            throw new ZipException("流式ZIP条目超过4GB限制，请先预处理为已知大小的条目: " + name);
+        }
+
+        // 数据描述符
+        writeInt(DATA_DESCRIPTOR_SIG);
+        writeInt((int) crc.getValue());
+        writeInt((int) size);
+        writeInt((int) size);
+
+        entries.add(new CentralEntry(nameBytes, flags, METHOD_STORED, dosTime, crc.getValue(), size, size, offset));
+        return new WrittenEntry(name, crc.getValue(), size);
+    }
+
+    /**
+     * 原样写入已压缩（或STORED）的条目数据，不解压不重新压缩
+     *
+     * @param name           条目名称
+     * @param method         压缩方法（0=STORED, 8=DEFLATED）
+     * @param crc            内容CRC-32
+     * @param compressedSize 压缩后大小（即raw的字节数）
+     * @param size           内容原始大小
+     * @param raw            压缩后的数据（调用者负责关闭）
+     * @return 条目校验信息
+     * @throws IOException 写入失败或数据长度与声明不符时抛出
+     */
+    public WrittenEntry putRawEntry(String name, int method, long crc, long compressedSize, long size,
+                                    InputStream raw) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int dosTime = dosTime(LocalDateTime.now());
+        long offset = beginEntry(nameBytes, FLAG_UTF8, method, dosTime, crc, compressedSize, size);
+
+        long copied = 0;
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while (copied < compressedSize
+                && (read = raw.read(buffer, 0, (int) Math.min(buffer.length, compressedSize - copied))) != -1) {
+            out.write(buffer, 0, read);
+            copied += read;
+        }
+        if (copied != compressedSize) {
+            throw new ZipException("条目数据不完整: " + name + ", 期望" + compressedSize + "字节, 实际" + copied + "字节");
+        }
+
+        entries.add(new CentralEntry(nameBytes, FLAG_UTF8, method, dosTime, crc, compressedSize, size, offset));
+        return new WrittenEntry(name, crc, size);
+    }
+
+    /**
+     * 写入本地文件头（已知大小超过4GB时附加ZIP64扩展字段）
+     *
+     * @return 本地文件头偏移量
+     */
+    private long beginEntry(byte[] nameBytes, int flags, int method, int dosTime,
+                            long crc, long compressedSize, long size) throws IOException {
+        if (finished) {
+            throw new IOException("ZIP已结束写入");
+        }
+        boolean zip64 = compressedSize >= MAX_32 || size >= MAX_32;
+        long offset = out.count();
+
+        writeInt(LOCAL_HEADER_SIG);
+        writeShort(zip64 ? VERSION_ZIP64 : VERSION);
+        writeShort(flags);
+        writeShort(method);
+        writeInt(dosTime);
+        writeInt((int) crc);
+        writeInt(zip64 ? (int) MAX_32 : (int) compressedSize);
+        writeInt(zip64 ? (int) MAX_32 : (int) size);
+        writeShort(nameBytes.length);
+        writeShort(zip64 ? 20 : 0);
+        out.write(nameBytes);
+        if (zip64) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(16);
+            writeLong(size);
+            writeLong(compressedSize);
+        }
+        return offset;
+    }
+
+    /**
+     * 写入中央目录并结束ZIP（不关闭目标输出流）
+     *
+     * @throws IOException 写入失败时抛出
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        long centralOffset = out.count();
+        for (CentralEntry entry : entries) {
+            writeCentralEntry(entry);
+        }
+        long centralSize = out.count() - centralOffset;
+        int count = entries.size();
+
+        if (count >= MAX_16 || centralSize >= MAX_32 || centralOffset >= MAX_32) {
+            // ZIP64中央目录结束记录及其定位器
+            long zip64EndOffset = out.count();
+            writeInt(ZIP64_END_OF_CENTRAL_DIR_SIG);
+            writeLong(44);
+            writeShort(VERSION_ZIP64);
+            writeShort(VERSION_ZIP64);
+            writeInt(0);
+            writeInt(0);
+            writeLong(count);
+            writeLong(count);
+            writeLong(centralSize);
+            writeLong(centralOffset);
+
+            writeInt(ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIG);
+            writeInt(0);
+            writeLong(zip64EndOffset);
+            writeInt(1);
+        }
+
+        writeInt(END_OF_CENTRAL_DIR_SIG);
+        writeShort(0);
+        writeShort(0);
+        writeShort(Math.min(count, MAX_16));
+        writeShort(Math.min(count, MAX_16));
+        writeInt((int) Math.min(centralSize, MAX_32));
+        writeInt((int) Math.min(centralOffset, MAX_32));
+        writeShort(0);
+        out.flush();
+    }
+
+    private void writeCentralEntry(CentralEntry entry) throws IOException {
+        boolean zip64Size = entry.size() >= MAX_32;
+        boolean zip64CompressedSize = entry.compressedSize() >= MAX_32;
+        boolean zip64Offset = entry.offset() >= MAX_32;
+        int extraLength = 8 * ((zip64Size ? 1 : 0) + (zip64CompressedSize ? 1 : 0) + (zip64Offset ? 1 : 0));
+        int version = extraLength > 0 ? VERSION_ZIP64 : VERSION;
+
+        writeInt(CENTRAL_HEADER_SIG);
+        writeShort(version);
+        writeShort(version);
+        writeShort(entry.flags());
+        writeShort(entry.method());
+        writeInt(entry.dosTime());
+        writeInt((int) entry.crc());
+        writeInt(zip64CompressedSize ? (int) MAX_32 : (int) entry.compressedSize());
+        writeInt(zip64Size ? (int) MAX_32 : (int) entry.size());
+        writeShort(entry.name().length);
+        writeShort(extraLength > 0 ? extraLength + 4 : 0);
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeInt(0);
+        writeInt(zip64Offset ? (int) MAX_32 : (int) entry.offset());
+        out.write(entry.name());
+        if (extraLength > 0) {
+            // ZIP64扩展字段按 原始大小、压缩后大小、本地文件头偏移量 的顺序只包含溢出的字段
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(extraLength);
+            if (zip64Size) {
+                writeLong(entry.size());
+            }
+            if (zip64CompressedSize) {
+                writeLong(entry.compressedSize());
+            }
+            if (zip64Offset) {
+                writeLong(entry.offset());
+            }
+        }
+    }
+
+    /**
+     * 结束ZIP并关闭目标输出流
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeShort(int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+    }
+
+    private void writeInt(int value) throws IOException {
+        writeShort(value & 0xFFFF);
+        writeShort((value >>> 16) & 0xFFFF);
+    }
+
+    private void writeLong(long value) throws IOException {
+        writeInt((int) value);
+        writeInt((int) (value >>> 32));
+    }
+
+    /**
+     * 转换为MS-DOS日期时间（高16位日期，低16位时间）
+     */
+    private static int dosTime(LocalDateTime time) {
+        int year = Math.max(time.getYear(), 1980);
+        return (year - 1980) << 25
+                | time.getMonthValue() << 21
+                | time.getDayOfMonth() << 16
+                | time.getHour() << 11
+                | time.getMinute() << 5
+                | time.getSecond() >> 1;
+    }
+
+    /**
+     * 统计已写字节数（即下一个条目的偏移量）的输出流
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.ym.ai_story_studio_server.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipException;
+
+/**
+ * ZIP原始条目读取器
+ *
+ * <p>解析ZIP中央目录，按条目名定位压缩后的原始数据，配合
+ * {@link StreamingZipWriter#putRawEntry} 在两个压缩包之间原样复制条目，无需解压再压缩。
+ * 数据通过 {@link RangeSource} 按区间读取，压缩包可以是本地文件，也可以是对象存储中的对象
+ * （只读取中央目录与被复制条目所在的区间）。支持ZIP64扩展
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+public class ZipArchiveReader implements Closeable {
+
+    private static final int LOCAL_HEADER_SIG = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIR_SIG = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_SIG = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIG = 0x07064b50;
+    private static final int END_OF_CENTRAL_DIR_SIZE = 22;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_SIZE = 56;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final long MAX_32 = 0xFFFFFFFFL;
+    private static final int MAX_16 = 0xFFFF;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT = 0xFFFF;
+
+    private final RangeSource source;
+    private final Map<String, RawEntry> entries;
+
+    /**
+     * 按区间读取的压缩包数据源
+     */
+    public interface RangeSource extends Closeable {
+
+        /**
+         * @return 压缩包总大小（字节）
+         * @throws IOException 读取失败时抛出
+         */
+        long size() throws IOException;
+
+        /**
+         * 打开指定区间的数据
+         *
+         * @param position 起始偏移量
+         * @param length   区间长度（字节）
+         * @return 输入流（调用者负责关闭）
+         * @throws IOException 读取失败时抛出
+         */
+        InputStream open(long position, long length) throws IOException;
+    }
+
+    /**
+     * 中央目录中的条目
+     *
+     * @param name              条目名称
+     * @param method            压缩方法（0=STORED, 8=DEFLATED）
+     * @param crc               内容CRC-32
+     * @param compressedSize    压缩后大小
+     * @param size              内容原始大小
+     * @param localHeaderOffset 本地文件头偏移量
+     */
+    public record RawEntry(String name, int method, long crc, long compressedSize, long size,
+                           long localHeaderOffset) {
+    }
+
+    private ZipArchiveReader(RangeSource source, Map<String, RawEntry> entries) {
+        this.source = source;
+        this.entries = entries;
+    }
+
+    /**
+     * 打开ZIP文件并读取中央目录
+     *
+     * @param file ZIP文件路径
+     * @return 读取器（调用者负责关闭）
+     * @throws IOException 文件不可读或不是合法ZIP时抛出
+     */
+    public static ZipArchiveReader open(Path file) throws IOException {
+        return open(new FileRangeSource(FileChannel.open(file, StandardOpenOption.READ)));
+    }
+
+    /**
+     * 从区间数据源打开ZIP并读取中央目录
+     *
+     * @param source 数据源（由读取器负责关闭，打开失败时立即关闭）
+     * @return 读取器（调用者负责关闭）
+     * @throws IOException 数据源不可读或不是合法ZIP时抛出
+     */
+    public static ZipArchiveReader open(RangeSource source) throws IOException {
+        try {
+            return new ZipArchiveReader(source, readCentralDirectory(source));
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 按名称查找条目
+     *
+     * @param name 条目名称
+     * @return 条目，不存在时返回null
+     */
+    public RawEntry find(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * 打开条目压缩后的原始数据
+     *
+     * @param entry 条目
+     * @return 长度为 {@code entry.compressedSize()} 的输入流（调用者负责关闭，不会关闭数据源）
+     * @throws IOException 读取失败或本地文件头损坏时抛出
+     */
+    public InputStream openRaw(RawEntry entry) throws IOException {
+        ByteBuffer header = read(source, entry.localHeaderOffset(), LOCAL_HEADER_SIZE);
+        if (header.getInt(0) != LOCAL_HEADER_SIG) {
+            throw new ZipException("本地文件头损坏: " + entry.name());
+        }
+        long dataOffset = entry.localHeaderOffset() + LOCAL_HEADER_SIZE
+                + Short.toUnsignedInt(header.getShort(26)) + Short.toUnsignedInt(header.getShort(28));
+        return source.open(dataOffset, entry.compressedSize());
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private static Map<String, RawEntry> readCentralDirectory(RangeSource source) throws IOException {
+        long fileSize = source.size();
+        int tailSize = (int) Math.min(fileSize, END_OF_CENTRAL_DIR_SIZE + MAX_COMMENT);
+        if (tailSize < END_OF_CENTRAL_DIR_SIZE) {
+            throw new ZipException("未找到中央目录结束记录");
+        }
+        ByteBuffer tail = read(source, fileSize - tailSize, tailSize);
+
+        int eocd = -1;
+        for (int i = tailSize - END_OF_CENTRAL_DIR_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIR_SIG) {
+                eocd = i;
+                break;
+            }
+        }
+        if (eocd < 0) {
+            throw new ZipException("未找到中央目录结束记录");
+        }
+
+        long count = Short.toUnsignedInt(tail.getShort(eocd + 10));
+        long centralSize = Integer.toUnsignedLong(tail.getInt(eocd + 12));
+        long centralOffset = Integer.toUnsignedLong(tail.getInt(eocd + 16));
+        if (count == MAX_16 || centralSize == MAX_32 || centralOffset == MAX_32) {
+            // ZIP64: 通过定位器找到ZIP64中央目录结束记录
+            long eocdPosition = fileSize - tailSize + eocd;
+            if (eocdPosition < ZIP64_LOCATOR_SIZE) {
+                throw new ZipException("ZIP64定位器缺失");
+            }
+            ByteBuffer locator = read(source, eocdPosition - ZIP64_LOCATOR_SIZE, ZIP64_LOCATOR_SIZE);
+            if (locator.getInt(0) != ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIG) {
+                throw new ZipException("ZIP64定位器缺失");
+            }
+            ByteBuffer zip64End = read(source, locator.getLong(8), ZIP64_END_OF_CENTRAL_DIR_SIZE);
+            if (zip64End.getInt(0) != ZIP64_END_OF_CENTRAL_DIR_SIG) {
+                throw new ZipException("ZIP64中央目录结束记录损坏");
+            }
+            count = zip64End.getLong(32);
+            centralSize = zip64End.getLong(40);
+            centralOffset = zip64End.getLong(48);
+        }
+        if (centralOffset + centralSize > fileSize || centralSize > Integer.MAX_VALUE || count > Integer.MAX_VALUE) {
+            throw new ZipException("中央目录位置无效");
+        }
+
+        ByteBuffer central = read(source, centralOffset, (int) centralSize);
+        Map<String, RawEntry> entries = new LinkedHashMap<>((int) Math.min(count * 2, 1 << 20));
+        int pos = 0;
+        for (long i = 0; i < count; i++) {
+            if (central.getInt(pos) != CENTRAL_HEADER_SIG) {
+                throw new ZipException("中央目录条目损坏");
+            }
+            int method = Short.toUnsignedInt(central.getShort(pos + 10));
+            long crc = Integer.toUnsignedLong(central.getInt(pos + 16));
+            long compressedSize = Integer.toUnsignedLong(central.getInt(pos + 20));
+            long size = Integer.toUnsignedLong(central.getInt(pos + 24));
+            int nameLength = Short.toUnsignedInt(central.getShort(pos + 28));
+            int extraLength = Short.toUnsignedInt(central.getShort(pos + 30));
+            int commentLength = Short.toUnsignedInt(central.getShort(pos + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(central.getInt(pos + 42));
+
+            byte[] nameBytes = new byte[nameLength];
+            central.get(pos + 46, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            // ZIP64扩展字段按 原始大小、压缩后大小、本地文件头偏移量 的顺序只包含溢出的字段
+            if (size == MAX_32 || compressedSize == MAX_32 || localHeaderOffset == MAX_32) {
+                int extra = pos + 46 + nameLength;
+                int extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    int id = Short.toUnsignedInt(central.getShort(extra));
+                    int length = Short.toUnsignedInt(central.getShort(extra + 2));
+                    if (id == ZIP64_EXTRA_ID) {
+                        int field = extra + 4;
+                        if (size == MAX_32) {
+                            size = central.getLong(field);
+                            field += 8;
+                        }
+                        if (compressedSize == MAX_32) {
+                            compressedSize = central.getLong(field);
+                            field += 8;
+                        }
+                        if (localHeaderOffset == MAX_32) {
+                            localHeaderOffset = central.getLong(field);
+                        }
+                        break;
+                    }
+                    extra += 4 + length;
+                }
+            }
+            entries.put(name, new RawEntry(name, method, crc, compressedSize, size, localHeaderOffset));
+
+            pos += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    private static ByteBuffer read(RangeSource source, long position, int length) throws IOException {
+        byte[] bytes;
+        try (InputStream in = source.open(position, length)) {
+            bytes = in.readNBytes(length);
+        }
+        if (bytes.length < length) {
+            throw new ZipException("ZIP文件被截断");
+        }
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 本地文件数据源（按位置读取，不移动通道位置）
+     */
+    private static final class FileRangeSource implements RangeSource {
+
+        private final FileChannel channel;
+
+        private FileRangeSource(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public InputStream open(long position, long length) {
+            return new RangeInputStream(channel, position, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * 读取文件指定区间的输入流（按位置读取，不移动通道位置，不关闭通道）
+     */
+    private static final class RangeInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+
+        private RangeInputStream(FileChannel channel, long position, long length) {
+            this.channel = channel;
+            this.position = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, (int) Math.min(len, remaining));
+            int read = channel.read(buffer, position);
+            if (read > 0) {
+                position += read;
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+-- 为资产版本添加交付副本字段：原图保留为归档副本，另存压缩后的交付副本供浏览/导出/参考图使用
+ALTER TABLE asset_versions
+ADD COLUMN original_size BIGINT NULL COMMENT '原图大小（字节）' AFTER object_key,
+ADD COLUMN delivery_url VARCHAR(1024) NULL COMMENT '交付副本URL（压缩格式，为空表示直接使用原图）' AFTER original_size,
+ADD COLUMN delivery_object_key VARCHAR(512) NULL COMMENT '交付副本对象存储Key' AFTER delivery_url,
+ADD COLUMN delivery_format VARCHAR(16) NULL COMMENT '交付副本格式：jpeg/png等' AFTER delivery_object_key,
+ADD COLUMN delivery_size BIGINT NULL COMMENT '交付副本大小（字节）' AFTER delivery_format;
@@ -0,0 +1,8 @@
+-- 为资产版本添加多尺寸缩略图字段：缩略图与原图存放在同一目录，供分镜网格、资源库列表、版本历史等场景使用
+ALTER TABLE asset_versions
+ADD COLUMN thumb_small_url VARCHAR(1024) NULL COMMENT '小尺寸缩略图URL（默认长边160px）' AFTER delivery_size,
+ADD COLUMN thumb_medium_url VARCHAR(1024) NULL COMMENT '中尺寸缩略图URL（默认长边480px）' AFTER thumb_small_url,
+ADD COLUMN thumb_large_url VARCHAR(1024) NULL COMMENT '大尺寸缩略图URL（默认长边1024px）' AFTER thumb_medium_url;
+
+-- 资源库只保存了原图URL，列表页按URL批量反查资产版本以获取缩略图
+ALTER TABLE asset_versions ADD INDEX idx_url (url(255));
@@ -0,0 +1,13 @@
+-- 内容寻址存储对象表：按内容摘要去重存储，引用计数归零时才物理删除
+CREATE TABLE storage_objects (
+                                 id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '存储对象ID',
+                                 object_key VARCHAR(512) NOT NULL COMMENT '对象存储Key（由内容摘要生成）',
+                                 sha256 CHAR(64) NOT NULL COMMENT '内容SHA-256摘要（十六进制）',
+                                 size BIGINT NOT NULL COMMENT '对象大小（字节）',
+                                 content_type VARCHAR(128) NULL COMMENT 'MIME类型',
+                                 ref_count INT NOT NULL DEFAULT 1 COMMENT '引用计数（每次上传+1，每次删除-1）',
+                                 created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
+                                 updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
+                                 UNIQUE KEY uk_object_key (object_key),
+                                 KEY idx_sha256 (sha256)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='内容寻址存储对象表（去重与引用计数）';
@@ -0,0 +1,13 @@
+-- 导出清单表：记录每个项目最近一次成功导出的条目，用于增量导出时复用未变化的条目
+CREATE TABLE export_manifest_entries (
+                                         id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '清单条目ID',
+                                         project_id BIGINT NOT NULL COMMENT '项目ID',
+                                         job_id BIGINT NOT NULL COMMENT '生成该压缩包的导出任务ID',
+                                         entry_name VARCHAR(512) NOT NULL COMMENT 'ZIP内的文件名',
+                                         asset_version_id BIGINT NULL COMMENT '资产版本ID',
+                                         source_url VARCHAR(1024) NOT NULL COMMENT '条目内容来源URL（区分原图/交付副本）',
+                                         crc32 BIGINT NOT NULL COMMENT '条目内容CRC-32校验值',
+                                         size BIGINT NOT NULL COMMENT '条目内容大小（字节）',
+                                         created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间',
+                                         KEY idx_project_id (project_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='导出清单表（增量导出）';
@@ -0,0 +1,12 @@
+-- 项目计数器：项目列表直接读取冗余计数，不再逐行COUNT分镜表
+ALTER TABLE projects
+    ADD COLUMN shot_count INT NOT NULL DEFAULT 0 COMMENT '未删除分镜数量（冗余计数）' AFTER model_config_json,
+    ADD COLUMN character_count INT NOT NULL DEFAULT 0 COMMENT '项目角色数量（冗余计数）' AFTER shot_count,
+    ADD COLUMN asset_count INT NOT NULL DEFAULT 0 COMMENT '项目资产数量（冗余计数）' AFTER character_count;
+
+-- 回填已有项目的计数（分镜只统计未软删除的记录）
+UPDATE projects p
+SET p.shot_count = (SELECT COUNT(*) FROM storyboard_shots s WHERE s.project_id = p.id AND s.deleted_at IS NULL),
+    p.character_count = (SELECT COUNT(*) FROM project_characters c WHERE c.project_id = p.id),
+    p.asset_count = (SELECT COUNT(*) FROM assets a WHERE a.project_id = p.id),
+    p.updated_at = p.updated_at;
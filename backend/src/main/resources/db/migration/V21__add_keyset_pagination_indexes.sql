@@ -0,0 +1,15 @@
+-- 游标分页索引：按 (过滤列, 排序时间列, id) 倒序定位下一页
+-- InnoDB二级索引隐含主键，(user_id, created_at) 等同于 (user_id, created_at, id)
+
+-- 积分流水：WHERE user_id = ? ORDER BY created_at DESC, id DESC
+ALTER TABLE wallet_transactions
+    ADD KEY idx_user_created (user_id, created_at);
+
+-- 项目列表：WHERE user_id = ? AND deleted_at IS NULL ORDER BY updated_at DESC, id DESC
+ALTER TABLE projects
+    ADD KEY idx_user_updated (user_id, updated_at);
+
+-- 任务列表按项目筛选、工具箱历史（project_id = 0）：WHERE user_id = ? AND project_id = ? ORDER BY created_at DESC, id DESC
+-- 不筛选项目的任务列表继续使用已有的 idx_user_created (user_id, created_at)
+ALTER TABLE jobs
+    ADD KEY idx_user_project_created (user_id, project_id, created_at);
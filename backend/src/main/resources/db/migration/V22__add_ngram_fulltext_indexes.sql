@@ -0,0 +1,28 @@
+-- 关键词搜索全文索引：ngram分词（默认 ngram_token_size = 2），中文无需空格分词
+-- 列表筛选与 /api/search 使用 MATCH ... AGAINST (IN BOOLEAN MODE)，替代无法走索引的 LIKE '%keyword%'
+-- 各表首次添加FULLTEXT索引时InnoDB会重建表以增加FTS_DOC_ID隐藏列，因此每个ALTER只加一个索引
+
+-- 建索引时关闭停用词：InnoDB默认停用词表（a、i、the、of…）会使包含这些词的ngram词元不入索引，
+-- 例如 "ai"、"ia" 永远搜不到。停用词配置在建索引时固化到索引中，查询时不再读取该变量
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+-- 项目：按名称搜索
+ALTER TABLE projects
+    ADD FULLTEXT KEY ft_name (name) WITH PARSER ngram;
+
+-- 角色库/场景库/道具库：按名称与描述搜索
+ALTER TABLE character_library
+    ADD FULLTEXT KEY ft_name_description (name, description) WITH PARSER ngram;
+
+ALTER TABLE scene_library
+    ADD FULLTEXT KEY ft_name_description (name, description) WITH PARSER ngram;
+
+ALTER TABLE prop_library
+    ADD FULLTEXT KEY ft_name_description (name, description) WITH PARSER ngram;
+
+-- 分镜：按剧本文本搜索
+ALTER TABLE storyboard_shots
+    ADD FULLTEXT KEY ft_script_text (script_text) WITH PARSER ngram;
+
+-- 恢复会话默认值，避免迁移连接回到连接池后影响后续建表
+SET SESSION innodb_ft_enable_stopword = ON;
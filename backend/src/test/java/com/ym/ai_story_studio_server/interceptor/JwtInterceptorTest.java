@@ -0,0 +1,122 @@
+package com.ym.ai_story_studio_server.interceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ym.ai_story_studio_server.annotation.AdminOnly;
+import com.ym.ai_story_studio_server.common.ResultCode;
+import com.ym.ai_story_studio_server.config.AdminProperties;
+import com.ym.ai_story_studio_server.config.JwtProperties;
+import com.ym.ai_story_studio_server.util.JwtUtil;
+import com.ym.ai_story_studio_server.util.UserContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * JwtInterceptor 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("JwtInterceptor 单元测试")
+class JwtInterceptorTest {
+
+    private static final Long ADMIN_ID = 1L;
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private JwtInterceptor interceptor;
+
+    /**
+     * 测试用控制器
+     */
+    static class StubController {
+
+        @AdminOnly
+        public void stats() {
+        }
+
+        public void list() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setHeader("Authorization");
+        jwtProperties.setPrefix("Bearer ");
+        AdminProperties adminProperties = new AdminProperties();
+        adminProperties.setUserIds(Set.of(ADMIN_ID));
+        interceptor = new JwtInterceptor(jwtUtil, jwtProperties, adminProperties, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        UserContext.clear();
+    }
+
+    private MockHttpServletRequest requestAs(Long userId) {
+        String token = "token-" + userId;
+        when(jwtUtil.validateToken(token)).thenReturn(true);
+        when(jwtUtil.getUserIdFromToken(token)).thenReturn(userId);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/assets/cache/stats");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new StubController(), method);
+    }
+
+    @Test
+    @DisplayName("管理员访问@AdminOnly接口放行")
+    void preHandle_AdminOnly_AdminPasses() throws Exception {
+        // Act
+        boolean passed = interceptor.preHandle(requestAs(ADMIN_ID), new MockHttpServletResponse(), handler("stats"));
+
+        // Assert
+        assertThat(passed).isTrue();
+    }
+
+    @Test
+    @DisplayName("普通用户访问@AdminOnly接口返回403 ACCESS_DENIED")
+    void preHandle_AdminOnly_UserDenied() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        boolean passed = interceptor.preHandle(requestAs(USER_ID), response, handler("stats"));
+
+        // Assert
+        assertThat(passed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(403);
+        assertThat(response.getContentAsString()).contains(String.valueOf(ResultCode.ACCESS_DENIED.getCode()));
+    }
+
+    @Test
+    @DisplayName("普通接口不要求管理员")
+    void preHandle_RegularEndpoint_UserPasses() throws Exception {
+        // Act
+        boolean passed = interceptor.preHandle(requestAs(USER_ID), new MockHttpServletResponse(), handler("list"));
+
+        // Assert
+        assertThat(passed).isTrue();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ym.ai_story_studio_server.interceptor;
+
+import com.ym.ai_story_studio_server.config.ReadReplicaProperties;
+import com.ym.ai_story_studio_server.util.ReplicaRoutingContext;
+import com.ym.ai_story_studio_server.util.UserContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ReadYourWritesInterceptor 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ReadYourWritesInterceptor 单元测试")
+class ReadYourWritesInterceptorTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ReadYourWritesInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        interceptor = new ReadYourWritesInterceptor(redisTemplate, new ReadReplicaProperties());
+        UserContext.setUserId(USER_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        UserContext.clear();
+        ReplicaRoutingContext.clear();
+    }
+
+    @Test
+    @DisplayName("写请求在处理前（响应写出前）设置粘滞标记并固定主库")
+    void preHandle_WriteRequest_MarksStickyBeforeHandler() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/projects");
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+        // Assert
+        verify(valueOperations).set("DB:STICKY:" + USER_ID, "1", Duration.ofSeconds(10));
+        assertThat(ReplicaRoutingContext.isPrimaryPinned()).isTrue();
+    }
+
+    @Test
+    @DisplayName("读请求发现粘滞标记时走主库，且不写标记")
+    void preHandle_ReadRequestWithMarker_PinsPrimary() {
+        // Arrange
+        when(redisTemplate.hasKey("DB:STICKY:" + USER_ID)).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects");
+
+        // Act
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+
+        // Assert
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+        assertThat(ReplicaRoutingContext.isPrimaryPinned()).isFalse();
+    }
+}
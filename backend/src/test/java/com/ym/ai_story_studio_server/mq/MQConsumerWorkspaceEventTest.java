@@ -0,0 +1,148 @@
+package com.ym.ai_story_studio_server.mq;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.ym.ai_story_studio_server.client.VectorEngineClient;
+import com.ym.ai_story_studio_server.client.VectorEngineClient.ImageApiResponse;
+import com.ym.ai_story_studio_server.config.AiProperties;
+import com.ym.ai_story_studio_server.config.WorkspaceCacheProperties;
+import com.ym.ai_story_studio_server.entity.ProjectScene;
+import com.ym.ai_story_studio_server.entity.SceneLibrary;
+import com.ym.ai_story_studio_server.event.ProjectWorkspaceChangedEvent;
+import com.ym.ai_story_studio_server.mapper.JobMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectSceneMapper;
+import com.ym.ai_story_studio_server.mapper.SceneLibraryMapper;
+import com.ym.ai_story_studio_server.service.ChargingService;
+import com.ym.ai_story_studio_server.service.ProjectWorkspaceCache;
+import com.ym.ai_story_studio_server.service.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * MQConsumer 生成任务完成后刷新工作台快照的单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("MQConsumer 工作台版本号 单元测试")
+class MQConsumerWorkspaceEventTest {
+
+    private static final Long PROJECT_ID = 10L;
+    private static final Long OTHER_PROJECT_ID = 20L;
+    private static final Long PROJECT_SCENE_ID = 100L;
+    private static final Long LIBRARY_SCENE_ID = 200L;
+
+    @Mock
+    private VectorEngineClient vectorEngineClient;
+    @Mock
+    private StorageService storageService;
+    @Mock
+    private ChargingService chargingService;
+    @Mock
+    private JobMapper jobMapper;
+    @Mock
+    private ProjectSceneMapper projectSceneMapper;
+    @Mock
+    private SceneLibraryMapper sceneLibraryMapper;
+    @Mock
+    private ObjectMapper objectMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private AiProperties aiProperties = new AiProperties();
+
+    @InjectMocks
+    private MQConsumer consumer;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+    private ProjectWorkspaceCache workspaceCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // 内存版Redis：只实现版本号用到的get/setIfAbsent/increment
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(inv -> redis.get(inv.<String>getArgument(0)));
+        when(valueOperations.setIfAbsent(anyString(), anyString())).thenAnswer(inv ->
+                redis.putIfAbsent(inv.getArgument(0), inv.getArgument(1)) == null);
+        when(valueOperations.increment(anyString())).thenAnswer(inv ->
+                Long.parseLong(redis.merge(inv.getArgument(0), "1",
+                        (old, one) -> String.valueOf(Long.parseLong(old) + 1))));
+        workspaceCache = new ProjectWorkspaceCache(redisTemplate, new ObjectMapper(),
+                new WorkspaceCacheProperties(), storageService);
+
+        // 事件按同步方式投递给工作台缓存（无事务时 @TransactionalEventListener 即立即执行）
+        doAnswer(inv -> {
+            workspaceCache.onWorkspaceChanged(inv.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(any(ProjectWorkspaceChangedEvent.class));
+
+        ProjectScene projectScene = new ProjectScene();
+        projectScene.setId(PROJECT_SCENE_ID);
+        projectScene.setProjectId(PROJECT_ID);
+        projectScene.setLibrarySceneId(LIBRARY_SCENE_ID);
+        projectScene.setDisplayName("古堡大厅");
+        when(projectSceneMapper.selectById(PROJECT_SCENE_ID)).thenReturn(projectScene);
+
+        SceneLibrary scene = new SceneLibrary();
+        scene.setId(LIBRARY_SCENE_ID);
+        scene.setName("古堡大厅");
+        when(sceneLibraryMapper.selectById(LIBRARY_SCENE_ID)).thenReturn(scene);
+        when(projectSceneMapper.selectProjectIdsByLibraryId(LIBRARY_SCENE_ID))
+                .thenReturn(List.of(PROJECT_ID, OTHER_PROJECT_ID));
+
+        String base64 = Base64.getEncoder().encodeToString(new byte[256]);
+        when(vectorEngineClient.generateImage(anyString(), anyString(), anyString(), any()))
+                .thenReturn(new ImageApiResponse(List.of(new ImageApiResponse.ImageData(base64, null)), "model"));
+        when(storageService.upload(any(InputStream.class), anyString(), anyString()))
+                .thenReturn("https://cdn.example.com/scene.png");
+    }
+
+    @Test
+    @DisplayName("场景图生成完成后，本项目与引用同一场景库条目的项目ETag都发生变化")
+    void batchSceneImage_BumpsWorkspaceEtag() throws Exception {
+        // Arrange
+        String etagBefore = workspaceCache.etag(PROJECT_ID);
+        String otherEtagBefore = workspaceCache.etag(OTHER_PROJECT_ID);
+        BatchTaskMessage msg = new BatchTaskMessage(1L, 2L, PROJECT_ID, List.of(PROJECT_SCENE_ID),
+                "ALL", 1, "16:9", "test-model", null);
+
+        // Act
+        consumer.handleBatchSceneImage(msg, new Message(new byte[0], new MessageProperties()), mock(Channel.class));
+
+        // Assert
+        verify(projectSceneMapper).updateById(any(ProjectScene.class));
+        assertThat(workspaceCache.etag(PROJECT_ID)).isNotEqualTo(etagBefore);
+        assertThat(workspaceCache.etag(OTHER_PROJECT_ID)).isNotEqualTo(otherEtagBefore);
+    }
+}
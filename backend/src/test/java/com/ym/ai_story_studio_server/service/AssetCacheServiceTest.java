@@ -0,0 +1,304 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.ym.ai_story_studio_server.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AssetCacheService 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@DisplayName("AssetCacheService 单元测试")
+class AssetCacheServiceTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @TempDir
+    Path cacheDir;
+
+    private StorageProperties storageProperties;
+    private AssetCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.getCache().setDir(cacheDir.toString());
+        storageProperties.getCache().setMaxSizeMb(2);
+        storageProperties.getCache().setMaxEntryMb(1);
+
+        cacheService = new AssetCacheService(storageProperties);
+        cacheService.init();
+    }
+
+    private AssetCacheService.Fetcher fetcherOf(byte[] content, AtomicInteger fetchCount) {
+        return () -> {
+            fetchCount.incrementAndGet();
+            return new AssetCacheService.Source(new ByteArrayInputStream(content), "image/png", content.length);
+        };
+    }
+
+    @Test
+    @DisplayName("未命中回源写入缓存，再次请求命中并统计节省字节数")
+    void get_MissThenHit() throws Exception {
+        // Arrange
+        byte[] content = "image bytes".getBytes(StandardCharsets.UTF_8);
+        AtomicInteger fetchCount = new AtomicInteger();
+
+        // Act
+        AssetCacheService.CachedFile first = cacheService.get("https://cdn.example.com/a.png", fetcherOf(content, fetchCount));
+        AssetCacheService.CachedFile second = cacheService.get("https://cdn.example.com/a.png", fetcherOf(content, fetchCount));
+
+        // Assert
+        assertThat(fetchCount).hasValue(1);
+        assertThat(second.file()).isEqualTo(first.file());
+        assertThat(Files.readAllBytes(second.file())).isEqualTo(content);
+        AssetCacheService.CacheStats stats = cacheService.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.bytesSaved()).isEqualTo(content.length);
+    }
+
+    @Test
+    @DisplayName("同一Key的并发未命中只回源一次")
+    void get_CoalescesConcurrentMisses() throws Exception {
+        // Arrange
+        byte[] content = "video bytes".getBytes(StandardCharsets.UTF_8);
+        AtomicInteger fetchCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        AssetCacheService.Fetcher slowFetcher = () -> {
+            fetchCount.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new AssetCacheService.Source(new ByteArrayInputStream(content), "video/mp4", content.length);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // Act
+            List<Future<AssetCacheService.CachedFile>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> cacheService.get("https://cdn.example.com/v.mp4", slowFetcher)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            // Assert
+            for (Future<AssetCacheService.CachedFile> future : futures) {
+                assertThat(Files.readAllBytes(future.get(5, TimeUnit.SECONDS).file())).isEqualTo(content);
+            }
+            assertThat(fetchCount).hasValue(1);
+            assertThat(cacheService.stats().misses()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("超出总容量时淘汰最近最少使用的文件")
+    void get_EvictsLeastRecentlyUsed() throws Exception {
+        // Arrange
+        byte[] content = new byte[MB - 1024];
+        AtomicInteger fetchCount = new AtomicInteger();
+        AssetCacheService.CachedFile a = cacheService.get("a", fetcherOf(content, fetchCount));
+        AssetCacheService.CachedFile b = cacheService.get("b", fetcherOf(content, fetchCount));
+        cacheService.get("a", fetcherOf(content, fetchCount));
+
+        // Act
+        cacheService.get("c", fetcherOf(content, fetchCount));
+
+        // Assert
+        assertThat(a.file()).exists();
+        assertThat(b.file()).doesNotExist();
+        assertThat(cacheService.stats().evictions()).isEqualTo(1);
+        assertThat(cacheService.stats().entries()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("超过单文件上限的内容不缓存")
+    void get_SkipsOversizedEntry() throws Exception {
+        // Act
+        AssetCacheService.CachedFile cached = cacheService.get("big", fetcherOf(new byte[MB + 1], new AtomicInteger()));
+
+        // Assert
+        assertThat(cached).isNull();
+        assertThat(cacheService.stats().entries()).isZero();
+    }
+
+    @Test
+    @DisplayName("重启后从缓存目录重建索引")
+    void init_RebuildsIndexFromDisk() throws Exception {
+        // Arrange
+        byte[] content = "persisted".getBytes(StandardCharsets.UTF_8);
+        cacheService.get("k", fetcherOf(content, new AtomicInteger()));
+
+        // Act
+        AssetCacheService restarted = new AssetCacheService(storageProperties);
+        restarted.init();
+        AtomicInteger fetchCount = new AtomicInteger();
+        AssetCacheService.CachedFile cached = restarted.get("k", fetcherOf(content, fetchCount));
+
+        // Assert
+        assertThat(fetchCount).hasValue(0);
+        assertThat(Files.readAllBytes(cached.file())).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("持有租约的文件不被淘汰，租约关闭后补做淘汰")
+    void open_PinnedEntrySurvivesEviction() throws Exception {
+        // Arrange
+        byte[] content = new byte[MB - 1024];
+        AtomicInteger fetchCount = new AtomicInteger();
+        AssetCacheService.Lease lease = cacheService.open("a", 0, fetcherOf(content, fetchCount));
+        cacheService.get("b", fetcherOf(content, fetchCount));
+
+        // Act
+        cacheService.get("c", fetcherOf(content, fetchCount));
+
+        // Assert
+        assertThat(lease.file().file()).exists();
+        assertThat(cacheService.stats().entries()).isEqualTo(2);
+
+        lease.close();
+        cacheService.get("d", fetcherOf(content, fetchCount));
+        assertThat(lease.file().file()).doesNotExist();
+        assertThat(cacheService.stats().entries()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("超过有效期的条目重新回源，旧文件仍在发送时不被替换")
+    void open_ExpiredEntryRefetched() throws Exception {
+        // Arrange
+        AtomicInteger fetchCount = new AtomicInteger();
+        cacheService.get("https://cdn.example.com/a.png", fetcherOf("old".getBytes(StandardCharsets.UTF_8), fetchCount));
+        Thread.sleep(20);
+
+        // Act
+        try (AssetCacheService.Lease fresh = cacheService.open("https://cdn.example.com/a.png", 60_000,
+                fetcherOf("unused".getBytes(StandardCharsets.UTF_8), fetchCount));
+             AssetCacheService.Lease expired = cacheService.open("https://cdn.example.com/a.png", 10,
+                     fetcherOf("new".getBytes(StandardCharsets.UTF_8), fetchCount))) {
+
+            // Assert
+            assertThat(fresh).isNotNull();
+            assertThat(fetchCount).hasValue(2);
+            assertThat(Files.readString(expired.file().file())).isEqualTo("new");
+            assertThat(Files.readString(fresh.file().file())).isEqualTo("old");
+            assertThat(expired.file().file()).isNotEqualTo(fresh.file().file());
+        }
+    }
+
+    @Test
+    @DisplayName("旧文件租约关闭后过期条目回源替换，独立文件在租约关闭时删除")
+    void open_ExpiredEntryReplacedAfterLeaseClosed() throws Exception {
+        // Arrange
+        AtomicInteger fetchCount = new AtomicInteger();
+        AssetCacheService.Lease old = cacheService.open("u", 0, fetcherOf("old".getBytes(StandardCharsets.UTF_8), fetchCount));
+        Thread.sleep(20);
+        AssetCacheService.Lease detached = cacheService.open("u", 10, fetcherOf("mid".getBytes(StandardCharsets.UTF_8), fetchCount));
+        old.close();
+        detached.close();
+
+        // Act
+        try (AssetCacheService.Lease replaced = cacheService.open("u", 10,
+                fetcherOf("new".getBytes(StandardCharsets.UTF_8), fetchCount))) {
+
+            // Assert
+            assertThat(detached.file().file()).doesNotExist();
+            assertThat(replaced.file().file()).isEqualTo(old.file().file());
+            assertThat(Files.readString(replaced.file().file())).isEqualTo("new");
+            assertThat(cacheService.stats().totalBytes()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("边读边写：读到末尾后登记缓存，后续请求命中")
+    void readThrough_FillsCacheWhileReading() throws Exception {
+        // Arrange
+        byte[] content = new byte[200 * 1024];
+        Arrays.fill(content, (byte) 7);
+        AtomicInteger fetchCount = new AtomicInteger();
+
+        // Act
+        byte[] read;
+        try (InputStream in = cacheService.readThrough("v", fetcherOf(content, fetchCount))) {
+            assertThat(cacheService.openIfPresent("v")).isNull();
+            read = in.readAllBytes();
+        }
+
+        // Assert
+        assertThat(read).isEqualTo(content);
+        try (AssetCacheService.Lease hit = cacheService.openIfPresent("v")) {
+            assertThat(hit).isNotNull();
+            assertThat(Files.readAllBytes(hit.file().file())).isEqualTo(content);
+        }
+        assertThat(fetchCount).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("边读边写：未读完就关闭（客户端断开）时不登记缓存，临时文件被删除")
+    void readThrough_AbortedRead_NotCached() throws Exception {
+        // Arrange
+        byte[] content = new byte[200 * 1024];
+        AtomicInteger fetchCount = new AtomicInteger();
+
+        // Act
+        try (InputStream in = cacheService.readThrough("v", fetcherOf(content, fetchCount))) {
+            in.readNBytes(1024);
+        }
+
+        // Assert
+        assertThat(cacheService.openIfPresent("v")).isNull();
+        try (Stream<Path> temp = Files.list(cacheDir.resolve(".tmp"))) {
+            assertThat(temp).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("未命中时openIfPresent不回源，后台补齐后命中")
+    void prefetch_FillsCacheInBackground() throws Exception {
+        // Arrange
+        byte[] content = "video bytes".getBytes(StandardCharsets.UTF_8);
+        AtomicInteger fetchCount = new AtomicInteger();
+        assertThat(cacheService.openIfPresent("v")).isNull();
+
+        // Act
+        cacheService.prefetch("v", fetcherOf(content, fetchCount));
+
+        // Assert
+        AssetCacheService.Lease lease = null;
+        for (int i = 0; i < 50 && lease == null; i++) {
+            Thread.sleep(20);
+            lease = cacheService.openIfPresent("v");
+        }
+        assertThat(lease).isNotNull();
+        try (AssetCacheService.Lease hit = lease) {
+            assertThat(Files.readAllBytes(hit.file().file())).isEqualTo(content);
+        }
+        assertThat(fetchCount).hasValue(1);
+    }
+}
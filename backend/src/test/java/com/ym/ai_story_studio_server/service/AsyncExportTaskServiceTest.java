@@ -0,0 +1,131 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ym.ai_story_studio_server.config.ExportProperties;
+import com.ym.ai_story_studio_server.dto.export.ExportRequest;
+import com.ym.ai_story_studio_server.entity.Job;
+import com.ym.ai_story_studio_server.mapper.JobMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * AsyncExportTaskService 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("AsyncExportTaskService 单元测试")
+class AsyncExportTaskServiceTest {
+
+    private static final Long JOB_ID = 11L;
+    private static final Long PROJECT_ID = 5L;
+    private static final String ARCHIVE_URL = "https://cdn.example.com/exports/5/11.zip";
+    private static final ExportRequest REQUEST = new ExportRequest(true, true, true, true, "CURRENT", null);
+
+    @Mock
+    private JobMapper jobMapper;
+    @Mock
+    private ExportPlanner exportPlanner;
+    @Mock
+    private ExportAssetFetcher exportAssetFetcher;
+    @Mock
+    private ExportManifestService exportManifestService;
+    @Mock
+    private StorageService storageService;
+
+    private AsyncExportTaskService service;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Job.class);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new AsyncExportTaskService(jobMapper, exportPlanner, exportAssetFetcher, exportManifestService,
+                storageService, new ExportProperties(), new ObjectMapper());
+        when(exportPlanner.plan(anyLong(), any())).thenReturn(List.of());
+        when(exportManifestService.load(anyLong())).thenReturn(Map.of());
+        when(exportAssetFetcher.fetchInOrder(anyList(), any())).thenReturn(List.of());
+        when(storageService.uploadFile(any(), anyString(), anyString())).thenReturn(ARCHIVE_URL);
+    }
+
+    /**
+     * 条件更新的返回值：设置目标状态为 {@code status} 的更新返回 {@code rows}，其余返回1
+     */
+    private void givenUpdateRows(String status, int rows) {
+        when(jobMapper.update(isNull(), any())).thenAnswer(invocation -> {
+            Wrapper<Job> wrapper = invocation.getArgument(1);
+            return ((LambdaUpdateWrapper<Job>) wrapper).getParamNameValuePairs().containsValue(status) ? rows : 1;
+        });
+    }
+
+    @Test
+    @DisplayName("任务已被清理任务标记为失败时不改为成功，丢弃本次压缩包且不保存清单")
+    void executeExport_JobFailedMeanwhile_KeepsFailed() {
+        // Arrange
+        givenUpdateRows("SUCCEEDED", 0);
+
+        // Act
+        service.executeExport(JOB_ID, PROJECT_ID, REQUEST);
+
+        // Assert
+        verify(storageService).delete(ARCHIVE_URL);
+        verify(exportManifestService, never()).replace(anyLong(), anyList());
+    }
+
+    @Test
+    @DisplayName("任务不再是PENDING时不执行导出")
+    void executeExport_NotPending_Skips() {
+        // Arrange
+        givenUpdateRows("RUNNING", 0);
+
+        // Act
+        service.executeExport(JOB_ID, PROJECT_ID, REQUEST);
+
+        // Assert
+        verify(exportPlanner, never()).plan(anyLong(), any());
+        verify(storageService, never()).uploadFile(any(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("正常完成时保存清单，不删除压缩包")
+    void executeExport_Succeeds_SavesManifest() {
+        // Arrange
+        givenUpdateRows("SUCCEEDED", 1);
+
+        // Act
+        service.executeExport(JOB_ID, PROJECT_ID, REQUEST);
+
+        // Assert
+        verify(exportManifestService).replace(eq(PROJECT_ID), anyList());
+        verify(storageService, never()).delete(anyString());
+    }
+}
@@ -0,0 +1,174 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.ym.ai_story_studio_server.config.ExportProperties;
+import com.ym.ai_story_studio_server.dto.export.ExportEntry;
+import com.ym.ai_story_studio_server.util.StreamingZipWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ExportAssetFetcher 单元测试
+ *
+ * <p>使用JDK内置HTTP服务提供资产，验证预取、直接写入、失败跳过与中止时断开下载
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@DisplayName("ExportAssetFetcher 单元测试")
+class ExportAssetFetcherTest {
+
+    private static final byte[] TEXT = "镜头描述 ".repeat(2_000).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] VIDEO = new byte[1536 * 1024];
+
+    @TempDir
+    Path tempDir;
+
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final CountDownLatch started = new CountDownLatch(2);
+    private final CountDownLatch disconnected = new CountDownLatch(2);
+
+    private HttpServer server;
+    private ExportAssetFetcher fetcher;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < VIDEO.length; i++) {
+            VIDEO[i] = (byte) (i * 31);
+        }
+        Map<String, byte[]> assets = Map.of("/desc.txt", TEXT, "/clip.mp4", VIDEO);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/slow/", exchange -> {
+            // 慢速资产：持续缓慢输出，客户端断开后写入失败即记录
+            exchange.sendResponseHeaders(200, 0);
+            started.countDown();
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 500; i++) {
+                    out.write(new byte[1024]);
+                    out.flush();
+                    Thread.sleep(10);
+                }
+            } catch (IOException e) {
+                disconnected.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.createContext("/", exchange -> {
+            byte[] body = assets.get(exchange.getRequestURI().getPath());
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                // 不声明Content-Length（分块传输），预取时需按读取量判断是否超过上限
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        ExportProperties exportProperties = new ExportProperties();
+        exportProperties.setFetchConcurrency(2);
+        exportProperties.setPrefetchEntryMaxMb(1);
+        exportProperties.setRetryBackoffMs(1);
+        fetcher = new ExportAssetFetcher(exportProperties);
+        fetcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fetcher.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("小资产预取后压缩写入，超过预取上限的资产直接写入，失败条目跳过，顺序与计划一致")
+    void fetchInOrder_PrefetchesSmallAndStreamsLarge() throws Exception {
+        // Arrange
+        List<ExportEntry> plan = List.of(
+                new ExportEntry("03-分镜/001/描述.txt", baseUrl + "/desc.txt", 1L),
+                new ExportEntry("04-视频/001/当前版本.mp4", baseUrl + "/clip.mp4", 2L),
+                new ExportEntry("04-视频/002/当前版本.mp4", baseUrl + "/missing.mp4", 3L));
+        Path zipPath = tempDir.resolve("export.zip");
+        List<String> written = new ArrayList<>();
+
+        // Act
+        List<ExportAssetFetcher.FetchFailure> failures;
+        try (StreamingZipWriter zip = new StreamingZipWriter(Files.newOutputStream(zipPath))) {
+            failures = fetcher.fetchInOrder(plan, (entry, fetched) -> written.add(fetched.writeTo(zip).name()));
+        }
+
+        // Assert
+        assertThat(written).containsExactly("03-分镜/001/描述.txt", "04-视频/001/当前版本.mp4");
+        assertThat(failures).extracting(failure -> failure.entry().assetVersionId()).containsExactly(3L);
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile(), StandardCharsets.UTF_8)) {
+            ZipEntry text = zipFile.getEntry("03-分镜/001/描述.txt");
+            assertThat(text.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+            try (InputStream in = zipFile.getInputStream(text)) {
+                assertThat(in.readAllBytes()).isEqualTo(TEXT);
+            }
+            ZipEntry video = zipFile.getEntry("04-视频/001/当前版本.mp4");
+            assertThat(video.getMethod()).isEqualTo(ZipEntry.STORED);
+            try (InputStream in = zipFile.getInputStream(video)) {
+                assertThat(in.readAllBytes()).isEqualTo(VIDEO);
+            }
+        }
+    }
+
+    private void awaitSlowDownloadsStarted() throws IOException {
+        try {
+            assertThat(started.await(3, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    @Test
+    @DisplayName("写入失败（客户端断开）时异常抛出，窗口内进行中的下载被断开")
+    void fetchInOrder_WriterFails_DisconnectsInFlight() throws Exception {
+        // Arrange
+        List<ExportEntry> plan = List.of(
+                new ExportEntry("03-分镜/001/描述.txt", baseUrl + "/desc.txt", 1L),
+                new ExportEntry("04-视频/001/当前版本.mp4", baseUrl + "/slow/1.mp4", 2L),
+                new ExportEntry("04-视频/002/当前版本.mp4", baseUrl + "/slow/2.mp4", 3L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> fetcher.fetchInOrder(plan, (entry, fetched) -> {
+            // 两个慢速资产都已开始下载后模拟客户端断开
+            awaitSlowDownloadsStarted();
+            throw new IOException("Broken pipe");
+        })).isInstanceOf(IOException.class).hasMessage("Broken pipe");
+        assertThat(disconnected.await(3, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,103 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.ym.ai_story_studio_server.entity.ExportManifestEntry;
+import com.ym.ai_story_studio_server.mapper.ExportManifestEntryMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ExportManifestService 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ExportManifestService 单元测试")
+class ExportManifestServiceTest {
+
+    private static final Long PROJECT_ID = 5L;
+
+    @Mock
+    private ExportManifestEntryMapper exportManifestEntryMapper;
+
+    private ExportManifestService service;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""),
+                ExportManifestEntry.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new ExportManifestService(exportManifestEntryMapper);
+    }
+
+    private static List<ExportManifestEntry> entries(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> {
+            ExportManifestEntry entry = new ExportManifestEntry();
+            entry.setProjectId(PROJECT_ID);
+            entry.setJobId(11L);
+            entry.setEntryName(String.format("03-分镜/%03d/当前版本.png", i));
+            return entry;
+        }).toList();
+    }
+
+    @Test
+    @DisplayName("替换清单时先删除旧清单，再按批多行插入，不逐条插入")
+    @SuppressWarnings("unchecked")
+    void replace_InsertsInBatches() {
+        // Arrange
+        List<ExportManifestEntry> entries = entries(1201);
+        ArgumentCaptor<List<ExportManifestEntry>> batches = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        service.replace(PROJECT_ID, entries);
+
+        // Assert
+        InOrder order = inOrder(exportManifestEntryMapper);
+        order.verify(exportManifestEntryMapper).delete(any());
+        order.verify(exportManifestEntryMapper, times(3)).insertBatch(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(500, 500, 201);
+        List<ExportManifestEntry> inserted = new ArrayList<>();
+        batches.getAllValues().forEach(inserted::addAll);
+        assertThat(inserted).containsExactlyElementsOf(entries);
+        verify(exportManifestEntryMapper, never()).insert(any(ExportManifestEntry.class));
+    }
+
+    @Test
+    @DisplayName("新清单为空时只删除旧清单")
+    void replace_Empty_OnlyDeletes() {
+        // Act
+        service.replace(PROJECT_ID, List.of());
+
+        // Assert
+        verify(exportManifestEntryMapper).delete(any());
+        verify(exportManifestEntryMapper, never()).insertBatch(anyList());
+    }
+}
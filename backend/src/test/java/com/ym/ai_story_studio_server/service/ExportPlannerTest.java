@@ -0,0 +1,419 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.ym.ai_story_studio_server.dto.export.ExportEntry;
+import com.ym.ai_story_studio_server.dto.export.ExportRequest;
+import com.ym.ai_story_studio_server.dto.export.RefVersionRow;
+import com.ym.ai_story_studio_server.entity.AssetRef;
+import com.ym.ai_story_studio_server.entity.AssetVersion;
+import com.ym.ai_story_studio_server.entity.CharacterLibrary;
+import com.ym.ai_story_studio_server.entity.ProjectCharacter;
+import com.ym.ai_story_studio_server.entity.ProjectScene;
+import com.ym.ai_story_studio_server.entity.SceneLibrary;
+import com.ym.ai_story_studio_server.entity.StoryboardShot;
+import com.ym.ai_story_studio_server.mapper.AssetRefMapper;
+import com.ym.ai_story_studio_server.mapper.CharacterLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectCharacterMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectSceneMapper;
+import com.ym.ai_story_studio_server.mapper.SceneLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.StoryboardShotMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ExportPlanner 单元测试
+ *
+ * <p>以内存数据模拟引用版本JOIN查询，与原逐行查询的计划算法（逐个所有者查引用、查当前版本、
+ * ALL模式再按资产查全部版本）在同一份数据上对照，两种模式下条目名称、顺序与版本必须一致
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ExportPlanner 单元测试")
+class ExportPlannerTest {
+
+    private static final Long PROJECT_ID = 5L;
+    private static final Long OTHER_PROJECT_ID = 6L;
+
+    @Mock
+    private ProjectCharacterMapper projectCharacterMapper;
+    @Mock
+    private ProjectSceneMapper projectSceneMapper;
+    @Mock
+    private StoryboardShotMapper shotMapper;
+    @Mock
+    private AssetRefMapper assetRefMapper;
+    @Mock
+    private CharacterLibraryMapper characterLibraryMapper;
+    @Mock
+    private SceneLibraryMapper sceneLibraryMapper;
+
+    private ExportPlanner planner;
+
+    private final List<ProjectCharacter> characters = new ArrayList<>();
+    private final List<CharacterLibrary> characterLibrary = new ArrayList<>();
+    private final List<ProjectScene> scenes = new ArrayList<>();
+    private final List<SceneLibrary> sceneLibrary = new ArrayList<>();
+    private final List<StoryboardShot> shots = new ArrayList<>();
+    private final List<AssetRef> refs = new ArrayList<>();
+    private final List<AssetVersion> versions = new ArrayList<>();
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, ProjectCharacter.class);
+        TableInfoHelper.initTableInfo(assistant, ProjectScene.class);
+        TableInfoHelper.initTableInfo(assistant, StoryboardShot.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        planner = new ExportPlanner(projectCharacterMapper, projectSceneMapper, shotMapper, assetRefMapper,
+                characterLibraryMapper, sceneLibraryMapper);
+        givenProject();
+
+        when(projectCharacterMapper.selectList(any())).thenReturn(characters);
+        when(projectSceneMapper.selectList(any())).thenReturn(scenes);
+        when(shotMapper.selectList(any())).thenReturn(shots);
+        when(characterLibraryMapper.selectBatchIds(anyCollection())).thenAnswer(invocation ->
+                byIds(characterLibrary, CharacterLibrary::getId, invocation.getArgument(0)));
+        when(sceneLibraryMapper.selectBatchIds(anyCollection())).thenAnswer(invocation ->
+                byIds(sceneLibrary, SceneLibrary::getId, invocation.getArgument(0)));
+        when(assetRefMapper.selectCurrentVersions(anyLong(), anyString())).thenAnswer(invocation ->
+                selectCurrentVersions(invocation.getArgument(0), invocation.getArgument(1)));
+        when(assetRefMapper.selectAllVersions(anyLong(), anyString())).thenAnswer(invocation ->
+                selectAllVersions(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    /**
+     * 覆盖各类边界的项目数据：无库角色、库记录缺失、同一库角色被引用两次、无引用的所有者、
+     * 当前版本URL为空、引用指向已不存在的版本、其他项目的同类引用
+     */
+    private void givenProject() {
+        characterLibrary.add(library(101L, "林夏"));
+        characterLibrary.add(library(102L, "老周"));
+        characters.add(projectCharacter(101L, null));
+        characters.add(projectCharacter(null, "路人"));
+        characters.add(projectCharacter(103L, "已删除角色"));
+        characters.add(projectCharacter(102L, "周师傅"));
+        characters.add(projectCharacter(101L, "林夏(少年)"));
+
+        SceneLibrary street = new SceneLibrary();
+        street.setId(201L);
+        street.setName("雨夜街道");
+        SceneLibrary rooftop = new SceneLibrary();
+        rooftop.setId(202L);
+        rooftop.setName("天台");
+        sceneLibrary.add(street);
+        sceneLibrary.add(rooftop);
+        scenes.add(projectScene(201L, null));
+        scenes.add(projectScene(202L, null));
+
+        shots.add(shot(301L, 1));
+        shots.add(shot(302L, 2));
+        shots.add(shot(303L, 3));
+
+        // 角色101: 当前版本URL为空，ALL模式仍导出同资产其余版本
+        versions.add(version(11L, 1L, 1, "https://cdn.example.com/a/1.png"));
+        versions.add(version(12L, 1L, 2, null));
+        versions.add(version(13L, 1L, 3, "https://cdn.example.com/a/3.png"));
+        refs.add(ref(PROJECT_ID, "LIB_CHAR_CURRENT", 101L, 12L));
+        versions.add(version(21L, 2L, 1, "https://cdn.example.com/b/1.jpg"));
+        refs.add(ref(PROJECT_ID, "LIB_CHAR_CURRENT", 102L, 21L));
+        // 场景201: 当前选用的不是最新版本
+        versions.add(version(31L, 3L, 1, "https://cdn.example.com/c/1.png"));
+        versions.add(version(32L, 3L, 2, "https://cdn.example.com/c/2.webp"));
+        refs.add(ref(PROJECT_ID, "LIB_SCENE_CURRENT", 201L, 31L));
+        // 分镜图: 302无引用
+        versions.add(version(41L, 4L, 1, "https://cdn.example.com/d/1.png"));
+        versions.add(version(42L, 4L, 2, "https://cdn.example.com/d/2.png"));
+        refs.add(ref(PROJECT_ID, "SHOT_IMG_CURRENT", 301L, 42L));
+        versions.add(version(51L, 5L, 1, "https://cdn.example.com/e/1"));
+        refs.add(ref(PROJECT_ID, "SHOT_IMG_CURRENT", 303L, 51L));
+        // 分镜视频: 301的引用指向已不存在的版本
+        versions.add(version(61L, 6L, 1, "https://cdn.example.com/f/1.mp4"));
+        versions.add(version(62L, 6L, 2, "https://cdn.example.com/f/2.mp4"));
+        refs.add(ref(PROJECT_ID, "SHOT_VIDEO_CURRENT", 302L, 62L));
+        refs.add(ref(PROJECT_ID, "SHOT_VIDEO_CURRENT", 301L, 999L));
+        // 其他项目的同类引用不应出现
+        refs.add(ref(OTHER_PROJECT_ID, "SHOT_IMG_CURRENT", 302L, 41L));
+    }
+
+    @Test
+    @DisplayName("CURRENT模式: JOIN查询生成的计划与逐行查询一致")
+    void plan_Current_MatchesPerRowPlan() {
+        // Arrange
+        ExportRequest request = new ExportRequest(true, true, true, true, "CURRENT", null);
+
+        // Act
+        List<ExportEntry> plan = planner.plan(PROJECT_ID, request);
+
+        // Assert
+        assertThat(plan).containsExactlyElementsOf(perRowPlan(false));
+        assertThat(plan).extracting(ExportEntry::name).containsExactly(
+                "01-角色/02-周师傅/当前版本.jpg",
+                "02-场景/01-雨夜街道/当前版本.png",
+                "03-分镜/001/当前版本.png",
+                "03-分镜/003/当前版本",
+                "04-视频/002/当前版本.mp4");
+        verify(assetRefMapper, never()).selectAllVersions(anyLong(), anyString());
+        verify(assetRefMapper, never()).selectOne(any());
+    }
+
+    @Test
+    @DisplayName("ALL模式: JOIN查询生成的计划与逐行查询一致（版本号倒序、跳过空URL编号）")
+    void plan_All_MatchesPerRowPlan() {
+        // Arrange
+        ExportRequest request = new ExportRequest(true, true, true, true, "ALL", null);
+
+        // Act
+        List<ExportEntry> plan = planner.plan(PROJECT_ID, request);
+
+        // Assert
+        assertThat(plan).containsExactlyElementsOf(perRowPlan(true));
+        assertThat(plan).extracting(ExportEntry::name).startsWith(
+                "01-角色/01-林夏/版本01.png",
+                "01-角色/01-林夏/版本02.png",
+                "01-角色/02-周师傅/版本01.jpg",
+                "01-角色/03-林夏(少年)/版本01.png");
+        assertThat(plan).extracting(ExportEntry::assetVersionId).startsWith(13L, 11L, 21L, 13L);
+        verify(assetRefMapper, never()).selectCurrentVersions(anyLong(), anyString());
+        verify(assetRefMapper, never()).selectOne(any());
+    }
+
+    @Test
+    @DisplayName("只导出部分分类时计划只包含对应目录")
+    void plan_SelectedCategories_OnlyThoseFolders() {
+        // Arrange
+        ExportRequest request = new ExportRequest(false, false, false, true, "ALL", null);
+
+        // Act
+        List<ExportEntry> plan = planner.plan(PROJECT_ID, request);
+
+        // Assert
+        assertThat(plan).containsExactlyElementsOf(
+                perRowPlan(true).stream().filter(entry -> entry.name().startsWith("04-视频/")).toList());
+        verify(projectCharacterMapper, never()).selectList(any());
+    }
+
+    // ==================== 原逐行查询的计划算法 ====================
+
+    /**
+     * 按原实现逐个所有者查询生成计划（ALL模式场景使用LIB_SCENE_CURRENT，与CURRENT模式一致）
+     */
+    private List<ExportEntry> perRowPlan(boolean allVersions) {
+        List<ExportEntry> plan = new ArrayList<>();
+        int index = 1;
+        for (ProjectCharacter character : characters) {
+            if (character.getLibraryCharacterId() == null) {
+                continue;
+            }
+            CharacterLibrary libChar = selectById(characterLibrary, CharacterLibrary::getId,
+                    character.getLibraryCharacterId());
+            if (libChar == null) {
+                continue;
+            }
+            String name = character.getDisplayName() != null ? character.getDisplayName() : libChar.getName();
+            perRowVersions(String.format("01-角色/%02d-%s/", index, name), "LIB_CHAR_CURRENT",
+                    character.getLibraryCharacterId(), allVersions, plan);
+            index++;
+        }
+        index = 1;
+        for (ProjectScene scene : scenes) {
+            if (scene.getLibrarySceneId() == null) {
+                continue;
+            }
+            SceneLibrary libScene = selectById(sceneLibrary, SceneLibrary::getId, scene.getLibrarySceneId());
+            if (libScene == null) {
+                continue;
+            }
+            String name = scene.getDisplayName() != null ? scene.getDisplayName() : libScene.getName();
+            perRowVersions(String.format("02-场景/%02d-%s/", index, name), "LIB_SCENE_CURRENT",
+                    scene.getLibrarySceneId(), allVersions, plan);
+            index++;
+        }
+        for (StoryboardShot shot : shots) {
+            perRowVersions(String.format("03-分镜/%03d/", shot.getShotNo()), "SHOT_IMG_CURRENT",
+                    shot.getId(), allVersions, plan);
+        }
+        for (StoryboardShot shot : shots) {
+            perRowVersions(String.format("04-视频/%03d/", shot.getShotNo()), "SHOT_VIDEO_CURRENT",
+                    shot.getId(), allVersions, plan);
+        }
+        return plan;
+    }
+
+    private void perRowVersions(String folderName, String refType, Long ownerId, boolean allVersions,
+                                List<ExportEntry> plan) {
+        AssetRef assetRef = refs.stream()
+                .filter(ref -> PROJECT_ID.equals(ref.getProjectId()) && refType.equals(ref.getRefType())
+                        && ownerId.equals(ref.getRefOwnerId()))
+                .findFirst()
+                .orElse(null);
+        if (assetRef == null || assetRef.getAssetVersionId() == null) {
+            return;
+        }
+        AssetVersion current = selectById(versions, AssetVersion::getId, assetRef.getAssetVersionId());
+        if (current == null) {
+            return;
+        }
+        if (!allVersions) {
+            if (current.getUrl() != null) {
+                plan.add(new ExportEntry(folderName + "当前版本" + extension(current.getUrl()),
+                        current.getUrl(), current.getId()));
+            }
+            return;
+        }
+        int versionIndex = 1;
+        for (AssetVersion version : versionsOfAsset(current.getAssetId())) {
+            if (version.getUrl() != null) {
+                plan.add(new ExportEntry(folderName + String.format("版本%02d", versionIndex)
+                        + extension(version.getUrl()), version.getUrl(), version.getId()));
+                versionIndex++;
+            }
+        }
+    }
+
+    private static String extension(String url) {
+        int lastDotIndex = url.lastIndexOf('.');
+        return lastDotIndex > url.lastIndexOf('/') ? url.substring(lastDotIndex) : "";
+    }
+
+    // ==================== 引用版本JOIN查询的内存实现 ====================
+
+    private List<RefVersionRow> selectCurrentVersions(Long projectId, String refType) {
+        return refsOf(projectId, refType).stream()
+                .map(ref -> {
+                    AssetVersion version = selectById(versions, AssetVersion::getId, ref.getAssetVersionId());
+                    return version != null ? row(ref.getRefOwnerId(), version) : null;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<RefVersionRow> selectAllVersions(Long projectId, String refType) {
+        List<RefVersionRow> rows = new ArrayList<>();
+        refsOf(projectId, refType).stream()
+                .sorted(Comparator.comparing(AssetRef::getRefOwnerId))
+                .forEach(ref -> {
+                    AssetVersion current = selectById(versions, AssetVersion::getId, ref.getAssetVersionId());
+                    if (current != null) {
+                        versionsOfAsset(current.getAssetId())
+                                .forEach(version -> rows.add(row(ref.getRefOwnerId(), version)));
+                    }
+                });
+        return rows;
+    }
+
+    private List<AssetRef> refsOf(Long projectId, String refType) {
+        return refs.stream()
+                .filter(ref -> projectId.equals(ref.getProjectId()) && refType.equals(ref.getRefType()))
+                .toList();
+    }
+
+    private List<AssetVersion> versionsOfAsset(Long assetId) {
+        return versions.stream()
+                .filter(version -> assetId.equals(version.getAssetId()))
+                .sorted(Comparator.comparing(AssetVersion::getVersionNo).reversed())
+                .toList();
+    }
+
+    // ==================== 数据构造 ====================
+
+    private static <T> T selectById(List<T> rows, Function<T, Long> id, Long value) {
+        return rows.stream().filter(row -> value.equals(id.apply(row))).findFirst().orElse(null);
+    }
+
+    private static <T> List<T> byIds(List<T> rows, Function<T, Long> id, Collection<Long> ids) {
+        Map<Long, T> byId = rows.stream().collect(Collectors.toMap(id, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static RefVersionRow row(Long ownerId, AssetVersion version) {
+        RefVersionRow row = new RefVersionRow();
+        row.setRefOwnerId(ownerId);
+        row.setId(version.getId());
+        row.setAssetId(version.getAssetId());
+        row.setVersionNo(version.getVersionNo());
+        row.setUrl(version.getUrl());
+        return row;
+    }
+
+    private static CharacterLibrary library(Long id, String name) {
+        CharacterLibrary library = new CharacterLibrary();
+        library.setId(id);
+        library.setName(name);
+        return library;
+    }
+
+    private static ProjectCharacter projectCharacter(Long libraryId, String displayName) {
+        ProjectCharacter character = new ProjectCharacter();
+        character.setProjectId(PROJECT_ID);
+        character.setLibraryCharacterId(libraryId);
+        character.setDisplayName(displayName);
+        return character;
+    }
+
+    private static ProjectScene projectScene(Long libraryId, String displayName) {
+        ProjectScene scene = new ProjectScene();
+        scene.setProjectId(PROJECT_ID);
+        scene.setLibrarySceneId(libraryId);
+        scene.setDisplayName(displayName);
+        return scene;
+    }
+
+    private static StoryboardShot shot(Long id, int shotNo) {
+        StoryboardShot shot = new StoryboardShot();
+        shot.setId(id);
+        shot.setProjectId(PROJECT_ID);
+        shot.setShotNo(shotNo);
+        return shot;
+    }
+
+    private static AssetVersion version(Long id, Long assetId, int versionNo, String url) {
+        AssetVersion version = new AssetVersion();
+        version.setId(id);
+        version.setAssetId(assetId);
+        version.setVersionNo(versionNo);
+        version.setUrl(url);
+        return version;
+    }
+
+    private static AssetRef ref(Long projectId, String refType, Long ownerId, Long versionId) {
+        AssetRef ref = new AssetRef();
+        ref.setProjectId(projectId);
+        ref.setRefType(refType);
+        ref.setRefOwnerId(ownerId);
+        ref.setAssetVersionId(versionId);
+        return ref;
+    }
+}
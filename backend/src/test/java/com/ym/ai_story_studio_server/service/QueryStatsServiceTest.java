@@ -0,0 +1,123 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.ym.ai_story_studio_server.config.QueryStatsProperties;
+import com.ym.ai_story_studio_server.util.QueryScope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * QueryStatsService 单元测试
+ *
+ * <p>以分镜列表接口逐条查询资产（典型N+1）为例，验证疑似N+1检测与开发环境的查询预算
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@DisplayName("QueryStatsService 单元测试")
+class QueryStatsServiceTest {
+
+    private static final String SCOPE = "GET /api/projects/{projectId}/shots";
+    private static final String LIST_SHOTS = "com.ym.ai_story_studio_server.mapper.StoryboardShotMapper.selectList";
+    private static final String SELECT_ASSET = "com.ym.ai_story_studio_server.mapper.AssetMapper.selectOne";
+    private static final String SELECT_ASSET_SQL = "SELECT * FROM assets WHERE owner_type = ? AND owner_id = ?";
+
+    private QueryStatsProperties properties;
+    private QueryStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new QueryStatsProperties();
+        properties.setRepeatThreshold(5);
+        properties.setBudgetEnabled(true);
+        properties.setBudgets(Map.of(SCOPE, 10));
+        service = new QueryStatsService(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryScope.end();
+    }
+
+    /**
+     * 模拟分镜列表：先查分镜，再为每个分镜单独查一次资产
+     */
+    private void listShotsWithPerShotAssetQuery(int shots) {
+        service.recordStatement(LIST_SHOTS, "SELECT * FROM storyboard_shots WHERE project_id = ?", 1_000_000, shots);
+        for (int i = 0; i < shots; i++) {
+            service.recordStatement(SELECT_ASSET, SELECT_ASSET_SQL, 1_000_000, 1);
+        }
+    }
+
+    @Test
+    @DisplayName("逐条查询超出接口预算时抛出IllegalStateException，并记为疑似N+1与超预算")
+    void recordStatement_NPlusOneOverBudget_Throws() {
+        // Arrange
+        service.beginScope(SCOPE);
+
+        // Act & Assert: 第11条SQL超出预算10
+        assertThatThrownBy(() -> listShotsWithPerShotAssetQuery(12))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(SCOPE)
+                .hasMessageContaining("预算10条")
+                .hasMessageContaining("第11条为 " + SELECT_ASSET);
+        assertThat(QueryScope.current().getNPlusOneStatements()).containsExactly(SELECT_ASSET);
+
+        service.endScope();
+        QueryStatsService.ScopeStats stats = service.stats().scopes().get(SCOPE);
+        assertThat(stats.nPlusOne()).isEqualTo(1);
+        assertThat(stats.budgetExceeded()).isEqualTo(1);
+        assertThat(stats.maxQueries()).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("同一作用域只在首次超出预算时抛出")
+    void recordStatement_OverBudget_ThrowsOnce() {
+        // Arrange
+        service.beginScope(SCOPE);
+        assertThatThrownBy(() -> listShotsWithPerShotAssetQuery(12)).isInstanceOf(IllegalStateException.class);
+
+        // Act: 异常被上层吞掉后继续执行的SQL
+        service.recordStatement(SELECT_ASSET, SELECT_ASSET_SQL, 1_000_000, 1);
+
+        // Assert
+        assertThat(QueryScope.current().getQueryCount()).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("预算内的逐条查询只记疑似N+1，不抛异常")
+    void recordStatement_NPlusOneWithinBudget_OnlyFlags() {
+        // Arrange
+        service.beginScope(SCOPE);
+
+        // Act
+        listShotsWithPerShotAssetQuery(6);
+        service.endScope();
+
+        // Assert
+        QueryStatsService.ScopeStats stats = service.stats().scopes().get(SCOPE);
+        assertThat(stats.nPlusOne()).isEqualTo(1);
+        assertThat(stats.budgetExceeded()).isZero();
+    }
+
+    @Test
+    @DisplayName("未开启查询预算时超出条数也不抛异常")
+    void recordStatement_BudgetDisabled_DoesNotThrow() {
+        // Arrange
+        properties.setBudgetEnabled(false);
+        service.beginScope(SCOPE);
+
+        // Act
+        listShotsWithPerShotAssetQuery(20);
+        service.endScope();
+
+        // Assert
+        assertThat(service.stats().scopes().get(SCOPE).budgetExceeded()).isZero();
+    }
+}
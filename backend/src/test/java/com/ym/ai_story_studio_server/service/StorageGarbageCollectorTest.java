@@ -0,0 +1,252 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.ym.ai_story_studio_server.config.StorageProperties;
+import com.ym.ai_story_studio_server.entity.Asset;
+import com.ym.ai_story_studio_server.entity.AssetVersion;
+import com.ym.ai_story_studio_server.entity.CharacterLibrary;
+import com.ym.ai_story_studio_server.entity.Job;
+import com.ym.ai_story_studio_server.entity.JobItem;
+import com.ym.ai_story_studio_server.entity.Project;
+import com.ym.ai_story_studio_server.entity.ProjectCharacter;
+import com.ym.ai_story_studio_server.entity.ProjectScene;
+import com.ym.ai_story_studio_server.entity.PropLibrary;
+import com.ym.ai_story_studio_server.entity.SceneLibrary;
+import com.ym.ai_story_studio_server.entity.StoryboardShot;
+import com.ym.ai_story_studio_server.entity.StylePreset;
+import com.ym.ai_story_studio_server.entity.User;
+import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.mapper.AssetMapper;
+import com.ym.ai_story_studio_server.mapper.AssetVersionMapper;
+import com.ym.ai_story_studio_server.mapper.CharacterLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.JobItemMapper;
+import com.ym.ai_story_studio_server.mapper.JobMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectCharacterMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectMapper;
+import com.ym.ai_story_studio_server.mapper.ProjectSceneMapper;
+import com.ym.ai_story_studio_server.mapper.PropLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.SceneLibraryMapper;
+import com.ym.ai_story_studio_server.mapper.StoryboardShotMapper;
+import com.ym.ai_story_studio_server.mapper.StylePresetMapper;
+import com.ym.ai_story_studio_server.mapper.UserMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * StorageGarbageCollector 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("StorageGarbageCollector 单元测试")
+class StorageGarbageCollectorTest {
+
+    private static final String STORAGE_PREFIX = "https://cdn.example.com/";
+    private static final String ORPHAN_KEY = "2025/01/01/orphan.png";
+    private static final String CONTENT_KEY = "cas/2c/f2/abc.png";
+
+    @Mock
+    private StorageService storageService;
+    @Mock
+    private StorageObjectService storageObjectService;
+    @Spy
+    private StorageProperties storageProperties = new StorageProperties();
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private AssetVersionMapper assetVersionMapper;
+    @Mock
+    private AssetMapper assetMapper;
+    @Mock
+    private ProjectMapper projectMapper;
+    @Mock
+    private StoryboardShotMapper shotMapper;
+    @Mock
+    private ProjectCharacterMapper projectCharacterMapper;
+    @Mock
+    private ProjectSceneMapper projectSceneMapper;
+    @Mock
+    private CharacterLibraryMapper characterLibraryMapper;
+    @Mock
+    private SceneLibraryMapper sceneLibraryMapper;
+    @Mock
+    private PropLibraryMapper propLibraryMapper;
+    @Mock
+    private StylePresetMapper stylePresetMapper;
+    @Mock
+    private UserMapper userMapper;
+    @Mock
+    private JobMapper jobMapper;
+    @Mock
+    private JobItemMapper jobItemMapper;
+
+    @InjectMocks
+    private StorageGarbageCollector collector;
+
+    @BeforeAll
+    static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        for (Class<?> entity : List.of(Project.class, StoryboardShot.class, Asset.class, AssetVersion.class,
+                ProjectCharacter.class, ProjectScene.class, CharacterLibrary.class, SceneLibrary.class,
+                PropLibrary.class, StylePreset.class, User.class, Job.class, JobItem.class)) {
+            TableInfoHelper.initTableInfo(assistant, entity);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // 只有CDN前缀下的URL能解析为Key，其他URL（如未登记的旧域名）无法识别
+        when(storageService.toObjectKey(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return url.startsWith(STORAGE_PREFIX) ? url.substring(STORAGE_PREFIX.length()) : null;
+        });
+        when(storageService.listObjects(any(), anyInt())).thenReturn(new StorageService.ObjectPage(
+                List.of(new StorageService.StoredObject(ORPHAN_KEY, 100, 0L)), null));
+        when(storageService.deleteObjects(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+    }
+
+    private void givenListedKeys(String... keys) {
+        List<StorageService.StoredObject> objects = new ArrayList<>();
+        for (String key : keys) {
+            objects.add(new StorageService.StoredObject(key, 100, 0L));
+        }
+        when(storageService.listObjects(any(), anyInt())).thenReturn(new StorageService.ObjectPage(objects, null));
+    }
+
+    private void givenAvatar(String avatarUrl) {
+        User user = new User();
+        user.setId(1L);
+        user.setAvatarUrl(avatarUrl);
+        when(userMapper.selectList(any())).thenReturn(List.of(user));
+    }
+
+    @Test
+    @DisplayName("存在无法识别的引用URL时正式回收中止，不删除任何对象")
+    void collect_UnrecognizedUrl_Aborts() {
+        // Arrange
+        givenAvatar("https://old-cdn.example.com/2024/06/01/avatar.png");
+
+        // Act & Assert
+        assertThatThrownBy(() -> collector.collect(false))
+                .isInstanceOf(StorageException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "GC_UNRECOGNIZED_URLS");
+        verify(storageService, never()).deleteObjects(anyList());
+    }
+
+    @Test
+    @DisplayName("试运行在报告中列出无法识别的引用URL")
+    void collect_DryRun_ReportsUnrecognizedUrl() {
+        // Arrange
+        String avatarUrl = "https://old-cdn.example.com/2024/06/01/avatar.png";
+        givenAvatar(avatarUrl);
+
+        // Act
+        StorageGarbageCollector.GcReport report = collector.collect(true);
+
+        // Assert
+        assertThat(report.unrecognized()).isEqualTo(1);
+        assertThat(report.unrecognizedSamples()).containsExactly(avatarUrl);
+        assertThat(report.orphans()).isEqualTo(1);
+        verify(storageService, never()).deleteObjects(anyList());
+    }
+
+    @Test
+    @DisplayName("忽略域名下的URL不计为无法识别，孤儿对象正常回收")
+    void collect_IgnoredHost_DeletesOrphans() {
+        // Arrange
+        givenAvatar("https://img.provider.com/a.png");
+        storageProperties.getGc().setIgnoredUrlHosts(List.of("provider.com"));
+
+        // Act
+        StorageGarbageCollector.GcReport report = collector.collect(false);
+
+        // Assert
+        assertThat(report.unrecognized()).isZero();
+        assertThat(report.deleted()).isEqualTo(1);
+        verify(storageService).deleteObjects(List.of(ORPHAN_KEY));
+    }
+
+    @Test
+    @DisplayName("其他实例持有回收锁时不扫描也不删除")
+    void collect_LockHeldElsewhere_Skips() {
+        // Arrange
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> collector.collect(false))
+                .isInstanceOf(StorageException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "GC_RUNNING");
+        verify(storageService, never()).listObjects(any(), anyInt());
+        verify(storageService, never()).deleteObjects(anyList());
+    }
+
+    @Test
+    @DisplayName("项目模型配置中的URL计入引用")
+    void collect_ModelConfigUrl_Referenced() {
+        // Arrange
+        Project project = new Project();
+        project.setId(3L);
+        project.setModelConfigJson("{\"referenceImage\":\"" + STORAGE_PREFIX + ORPHAN_KEY + "\"}");
+        when(projectMapper.selectList(any())).thenReturn(List.of(project));
+
+        // Act
+        StorageGarbageCollector.GcReport report = collector.collect(false);
+
+        // Assert
+        assertThat(report.orphans()).isZero();
+        verify(storageService, never()).deleteObjects(anyList());
+    }
+
+    @Test
+    @DisplayName("内容寻址孤儿对象经登记记录行锁逐个回收，期间被复用的跳过")
+    void collect_ContentKey_ForgetsUnderRowLock() throws Exception {
+        // Arrange
+        givenListedKeys(CONTENT_KEY, ORPHAN_KEY);
+        when(storageObjectService.isContentKey(CONTENT_KEY)).thenReturn(true);
+        when(storageObjectService.forget(eq(CONTENT_KEY), any(LocalDateTime.class), any())).thenReturn(false);
+
+        // Act
+        StorageGarbageCollector.GcReport report = collector.collect(false);
+
+        // Assert
+        assertThat(report.orphans()).isEqualTo(2);
+        assertThat(report.deleted()).isEqualTo(1);
+        verify(storageService).deleteObjects(List.of(ORPHAN_KEY));
+        verify(storageService, never()).deleteObjects(List.of(CONTENT_KEY));
+    }
+}
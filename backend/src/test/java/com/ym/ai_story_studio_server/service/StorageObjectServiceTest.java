@@ -0,0 +1,178 @@
+package com.ym.ai_story_studio_server.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.ym.ai_story_studio_server.config.StorageProperties;
+import com.ym.ai_story_studio_server.entity.StorageObject;
+import com.ym.ai_story_studio_server.mapper.StorageObjectMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * StorageObjectService 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("StorageObjectService 单元测试")
+class StorageObjectServiceTest {
+
+    private static final String OBJECT_KEY = "cas/2c/f2/abc.png";
+
+    @Mock
+    private StorageObjectMapper storageObjectMapper;
+
+    private StorageObjectService service;
+
+    private final AtomicInteger deletes = new AtomicInteger();
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), StorageObject.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new StorageObjectService(storageObjectMapper, new StorageProperties());
+    }
+
+    private void givenRow(int refCount) {
+        StorageObject row = new StorageObject();
+        row.setId(1L);
+        row.setObjectKey(OBJECT_KEY);
+        row.setRefCount(refCount);
+        when(storageObjectMapper.selectForUpdate(OBJECT_KEY)).thenReturn(row);
+    }
+
+    @Test
+    @DisplayName("仍有其他引用时只减少计数，不删除对象")
+    void release_OtherReferences_Decrements() throws IOException {
+        // Arrange
+        givenRow(2);
+
+        // Act
+        boolean deleted = service.release(OBJECT_KEY, deletes::incrementAndGet);
+
+        // Assert
+        assertThat(deleted).isFalse();
+        assertThat(deletes).hasValue(0);
+        verify(storageObjectMapper).update(isNull(), any());
+        verify(storageObjectMapper, never()).deleteById(1L);
+    }
+
+    @Test
+    @DisplayName("最后一个引用在行锁内先删登记记录再删对象")
+    void release_LastReference_DeletesRowThenObject() throws IOException {
+        // Arrange
+        givenRow(1);
+
+        // Act
+        boolean deleted = service.release(OBJECT_KEY, deletes::incrementAndGet);
+
+        // Assert
+        assertThat(deleted).isTrue();
+        assertThat(deletes).hasValue(1);
+        InOrder order = inOrder(storageObjectMapper);
+        order.verify(storageObjectMapper).selectForUpdate(OBJECT_KEY);
+        order.verify(storageObjectMapper).deleteById(1L);
+    }
+
+    @Test
+    @DisplayName("删除对象失败时异常抛出，由事务回滚保留登记记录")
+    void release_DeleteFails_Propagates() {
+        // Arrange
+        givenRow(1);
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.release(OBJECT_KEY, () -> {
+            throw new IOException("disk error");
+        })).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("并发登记冲突时重新增加引用，返回已登记")
+    void acquire_ConcurrentInsert_RetainsExisting() {
+        // Arrange: 第一次增加引用时尚未登记，插入时其他实例已登记
+        when(storageObjectMapper.update(isNull(), any())).thenReturn(0, 1);
+        when(storageObjectMapper.insert(any(StorageObject.class))).thenThrow(new DuplicateKeyException("dup"));
+
+        // Act
+        boolean created = service.acquire(OBJECT_KEY, "abc", 5L, "image/png");
+
+        // Assert
+        assertThat(created).isFalse();
+    }
+
+    @Test
+    @DisplayName("未登记的对象新登记，返回需要写入")
+    void acquire_NewObject_Registers() {
+        // Arrange
+        when(storageObjectMapper.update(isNull(), any())).thenReturn(0);
+
+        // Act
+        boolean created = service.acquire(OBJECT_KEY, "abc", 5L, "image/png");
+
+        // Assert
+        assertThat(created).isTrue();
+        verify(storageObjectMapper).insert(any(StorageObject.class));
+    }
+
+    @Test
+    @DisplayName("回收时登记记录在截止时间后被更新（新上传复用）则跳过")
+    void forget_ReusedAfterCutoff_Skips() throws IOException {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(72);
+        givenRow(1);
+        storageObjectMapper.selectForUpdate(OBJECT_KEY).setUpdatedAt(cutoff.plusMinutes(1));
+
+        // Act
+        boolean deleted = service.forget(OBJECT_KEY, cutoff, deletes::incrementAndGet);
+
+        // Assert
+        assertThat(deleted).isFalse();
+        assertThat(deletes).hasValue(0);
+        verify(storageObjectMapper, never()).deleteById(1L);
+    }
+
+    @Test
+    @DisplayName("回收时登记记录早于截止时间，在行锁内删除登记记录与对象")
+    void forget_Stale_DeletesRowAndObject() throws IOException {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(72);
+        givenRow(3);
+        storageObjectMapper.selectForUpdate(OBJECT_KEY).setUpdatedAt(cutoff.minusDays(1));
+
+        // Act
+        boolean deleted = service.forget(OBJECT_KEY, cutoff, deletes::incrementAndGet);
+
+        // Assert
+        assertThat(deleted).isTrue();
+        assertThat(deletes).hasValue(1);
+        verify(storageObjectMapper).deleteById(1L);
+    }
+}
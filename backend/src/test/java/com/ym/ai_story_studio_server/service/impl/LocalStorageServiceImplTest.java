@@ -0,0 +1,196 @@
+package com.ym.ai_story_studio_server.service.impl;
+
+import com.ym.ai_story_studio_server.config.StorageProperties;
+import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.service.StorageService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * LocalStorageServiceImpl 单元测试
+ *
+ * <p>公共行为约定继承自 {@link StorageServiceContractTest}，本类只验证本地存储特有的目录布局、
+ * 路径安全与私有文件规则；直接读写临时目录，无需OSS存储桶
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@DisplayName("LocalStorageServiceImpl 单元测试")
+class LocalStorageServiceImplTest extends StorageServiceContractTest {
+
+    private static final String URL_PREFIX = "http://localhost:8080/files";
+
+    @TempDir
+    Path rootDir;
+
+    @Override
+    protected StorageService createStorageService() {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setProvider("local");
+        storageProperties.getLocal().setRootDir(rootDir.toString());
+        storageProperties.getLocal().setUrlPrefix(URL_PREFIX);
+
+        LocalStorageServiceImpl localStorageService = new LocalStorageServiceImpl(storageProperties);
+        localStorageService.init();
+        return localStorageService;
+    }
+
+    @Nested
+    @DisplayName("upload() 方法测试")
+    class UploadTests {
+
+        @Test
+        @DisplayName("处理空文件名")
+        void upload_Success_EmptyFileName() {
+            assertThat(upload("test", "", "image/jpeg")).contains("unnamed_file");
+        }
+
+        @Test
+        @DisplayName("文件Key按两级目录分片，且不残留临时文件")
+        void upload_ShardsKeyAndLeavesNoTempFiles() throws Exception {
+            // Act
+            String resultUrl = upload("test", "a.png", "image/png");
+
+            // Assert
+            String fileKey = resultUrl.substring(URL_PREFIX.length() + 1);
+            assertThat(fileKey).matches("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f-]{36}_a\\.png");
+            try (Stream<Path> temps = Files.list(rootDir.resolve(".tmp"))) {
+                assertThat(temps).isEmpty();
+            }
+        }
+
+        @Test
+        @DisplayName("文件写入媒体子目录，临时目录不在静态路径映射范围内")
+        void upload_WritesUnderMediaDir() {
+            // Act
+            String resultUrl = upload("test", "a.png", "image/png");
+
+            // Assert
+            Path mediaDir = rootDir.resolve("media");
+            assertThat(storageService.resolveLocalPath(resultUrl)).startsWith(mediaDir);
+            assertThat(rootDir.resolve(".tmp").startsWith(mediaDir)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("download() 方法测试")
+    class DownloadTests {
+
+        @Test
+        @DisplayName("下载失败 - 文件不存在")
+        void download_Fails_FileNotFound() {
+            assertThatThrownBy(() -> storageService.download(URL_PREFIX + "/2025/12/26/non-existent.png"))
+                    .isInstanceOf(StorageException.class)
+                    .hasMessageContaining("文件下载失败");
+        }
+
+        @Test
+        @DisplayName("下载失败 - 拒绝越出根目录的Key")
+        void download_Fails_PathTraversal() {
+            assertThatThrownBy(() -> storageService.download(URL_PREFIX + "/../../etc/passwd"))
+                    .isInstanceOf(StorageException.class);
+        }
+
+        @Test
+        @DisplayName("解析本地文件路径，非本存储URL返回null")
+        void resolveLocalPath() {
+            // Arrange
+            String fileUrl = upload("test", "a.png", "image/png");
+
+            // Act & Assert
+            assertThat(storageService.resolveLocalPath(fileUrl)).isRegularFile();
+            assertThat(storageService.resolveLocalPath("https://cdn.example.com/a.png")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("delete() 方法测试")
+    class DeleteTests {
+
+        @Test
+        @DisplayName("成功删除文件")
+        void delete_Success() {
+            // Arrange
+            String fileUrl = upload("test", "a.png", "image/png");
+            Path file = storageService.resolveLocalPath(fileUrl);
+
+            // Act
+            storageService.delete(fileUrl);
+
+            // Assert
+            assertThat(file).doesNotExist();
+        }
+    }
+
+    @Nested
+    @DisplayName("generatePresignedUrl() 方法测试")
+    class GeneratePresignedUrlTests {
+
+        @Test
+        @DisplayName("本地存储直接返回访问URL")
+        void generatePresignedUrl_ReturnsFileUrl() {
+            assertThat(storageService.generatePresignedUrl("ab/cd/test.png", 30))
+                    .isEqualTo(URL_PREFIX + "/ab/cd/test.png");
+        }
+
+        @Test
+        @DisplayName("私有前缀的文件存放在媒体目录之外，且不生成公开访问URL")
+        void privateKey_StoredOutsideMediaDir() throws Exception {
+            // Arrange
+            Path archive = Files.writeString(rootDir.resolve("archive.zip"), "zip");
+
+            // Act
+            String fileUrl = storageService.uploadFile(archive, "exports/1/2.zip", "application/zip");
+
+            // Assert
+            assertThat(storageService.resolveLocalPath(fileUrl))
+                    .isEqualTo(rootDir.resolve("private/exports/1/2.zip"));
+            assertThat(rootDir.resolve("media/exports")).doesNotExist();
+            assertThatThrownBy(() -> storageService.generatePresignedUrl("exports/1/2.zip", 30))
+                    .isInstanceOf(StorageException.class)
+                    .hasMessageContaining("私有文件");
+        }
+    }
+
+    @Nested
+    @DisplayName("listObjects() 方法测试")
+    class BatchTests {
+
+        @Test
+        @DisplayName("目录与同前缀文件交错时仍按完整Key字典序分页，合并私有目录")
+        void listObjects_NestedDirectories_KeyOrder() throws IOException {
+            // Arrange: "a-b.png" < "a/x.png" < "a0.png"（'-' < '/' < '0'）
+            Path media = rootDir.resolve("media");
+            Files.createDirectories(media.resolve("a"));
+            Files.writeString(media.resolve("a-b.png"), "1");
+            Files.writeString(media.resolve("a").resolve("x.png"), "2");
+            Files.writeString(media.resolve("a0.png"), "3");
+            Path exports = rootDir.resolve("private").resolve("exports");
+            Files.createDirectories(exports);
+            Files.writeString(exports.resolve("1.zip"), "4");
+
+            // Act
+            StorageService.ObjectPage first = storageService.listObjects(null, 2);
+            StorageService.ObjectPage second = storageService.listObjects(first.nextMarker(), 2);
+            StorageService.ObjectPage third = storageService.listObjects(second.nextMarker(), 2);
+
+            // Assert
+            assertThat(first.objects()).extracting(StorageService.StoredObject::key)
+                    .containsExactly("a-b.png", "a/x.png");
+            assertThat(second.objects()).extracting(StorageService.StoredObject::key)
+                    .containsExactly("a0.png", "exports/1.zip");
+            assertThat(third.objects()).isEmpty();
+            assertThat(third.nextMarker()).isNull();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ym.ai_story_studio_server.service.impl;
+
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSException;
+import com.aliyun.oss.model.DeleteObjectsRequest;
+import com.aliyun.oss.model.DeleteObjectsResult;
+import com.aliyun.oss.model.GetObjectRequest;
+import com.aliyun.oss.model.ListObjectsRequest;
+import com.aliyun.oss.model.OSSObject;
+import com.aliyun.oss.model.OSSObjectSummary;
+import com.aliyun.oss.model.ObjectListing;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PutObjectResult;
+import com.aliyun.oss.model.UploadFileRequest;
+import com.ym.ai_story_studio_server.config.StorageProperties;
+import com.ym.ai_story_studio_server.service.StorageService;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * OssStorageServiceImpl 公共行为约定测试
+ *
+ * <p>以内存中的对象表模拟OSS存储桶（按Key有序），运行 {@link StorageServiceContractTest} 中的全部约定，
+ * 与本地存储实现对照；OSS特有的请求参数与异常转换在 {@link OssStorageServiceImplTest} 中验证
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@DisplayName("OssStorageServiceImpl 行为约定测试")
+class OssStorageServiceContractTest extends StorageServiceContractTest {
+
+    private static final String BUCKET_NAME = "test-bucket";
+    private static final String ENDPOINT = "oss-cn-hangzhou.aliyuncs.com";
+    private static final String URL_PREFIX = "https://cdn.example.com";
+
+    /**
+     * 模拟存储桶中的对象
+     */
+    private final TreeMap<String, byte[]> bucket = new TreeMap<>();
+
+    @Override
+    protected StorageService createStorageService() throws Throwable {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setProvider("oss");
+        StorageProperties.OssConfig ossConfig = storageProperties.getOss();
+        ossConfig.setEndpoint(ENDPOINT);
+        ossConfig.setBucket(BUCKET_NAME);
+        ossConfig.setAccessKeyId("test-access-key-id");
+        ossConfig.setAccessKeySecret("test-access-key-secret");
+        ossConfig.setUrlPrefix(URL_PREFIX);
+
+        OssStorageServiceImpl ossStorageService = new OssStorageServiceImpl(storageProperties);
+        Field ossClientField = OssStorageServiceImpl.class.getDeclaredField("ossClient");
+        ossClientField.setAccessible(true);
+        ossClientField.set(ossStorageService, inMemoryOss());
+        ossStorageService.init();
+        return ossStorageService;
+    }
+
+    /**
+     * 基于 {@link #bucket} 的OSS客户端：只实现存储服务用到的接口
+     */
+    private OSS inMemoryOss() throws Throwable {
+        OSS ossClient = mock(OSS.class);
+        when(ossClient.doesBucketExist(BUCKET_NAME)).thenReturn(true);
+        when(ossClient.doesObjectExist(anyString(), anyString()))
+                .thenAnswer(invocation -> bucket.containsKey(invocation.<String>getArgument(1)));
+        when(ossClient.putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class)))
+                .thenAnswer(invocation -> {
+                    try (InputStream in = invocation.getArgument(2)) {
+                        bucket.put(invocation.getArgument(1), in.readAllBytes());
+                    }
+                    return new PutObjectResult();
+                });
+        doAnswer(invocation -> {
+            UploadFileRequest request = invocation.getArgument(0);
+            bucket.put(request.getKey(), Files.readAllBytes(Path.of(request.getUploadFile())));
+            return null;
+        }).when(ossClient).uploadFile(any(UploadFileRequest.class));
+        when(ossClient.getObject(anyString(), anyString()))
+                .thenAnswer(invocation -> ossObject(invocation.getArgument(1), null));
+        when(ossClient.getObject(any(GetObjectRequest.class))).thenAnswer(invocation -> {
+            GetObjectRequest request = invocation.getArgument(0);
+            return ossObject(request.getKey(), request.getRange());
+        });
+        when(ossClient.deleteObject(anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    bucket.remove(invocation.<String>getArgument(1));
+                    return null;
+                });
+        when(ossClient.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(invocation -> {
+            List<String> keys = invocation.<DeleteObjectsRequest>getArgument(0).getKeys();
+            keys.forEach(bucket::remove);
+            return new DeleteObjectsResult(new ArrayList<>(keys));
+        });
+        when(ossClient.listObjects(any(ListObjectsRequest.class)))
+                .thenAnswer(invocation -> listing(invocation.getArgument(0)));
+        when(ossClient.generatePresignedUrl(anyString(), anyString(), any(Date.class))).thenAnswer(invocation ->
+                new URL("https://" + BUCKET_NAME + "." + ENDPOINT + "/" + invocation.getArgument(1)
+                        + "?Expires=" + invocation.<Date>getArgument(2).getTime() / 1000 + "&Signature=sig"));
+        return ossClient;
+    }
+
+    private OSSObject ossObject(String key, long[] range) {
+        byte[] content = bucket.get(key);
+        if (content == null) {
+            throw new OSSException("The specified key does not exist.", "NoSuchKey", null, null, null, null, null);
+        }
+        if (range != null) {
+            content = Arrays.copyOfRange(content, (int) range[0], (int) Math.min(range[1] + 1, content.length));
+        }
+        OSSObject object = new OSSObject();
+        object.setKey(key);
+        object.setObjectContent(new ByteArrayInputStream(content));
+        return object;
+    }
+
+    private ObjectListing listing(ListObjectsRequest request) {
+        Map<String, byte[]> tail = request.getMarker() == null ? bucket : bucket.tailMap(request.getMarker(), false);
+        ObjectListing listing = new ObjectListing();
+        for (Map.Entry<String, byte[]> entry : tail.entrySet()) {
+            if (listing.getObjectSummaries().size() == request.getMaxKeys()) {
+                listing.setTruncated(true);
+                break;
+            }
+            OSSObjectSummary summary = new OSSObjectSummary();
+            summary.setKey(entry.getKey());
+            summary.setSize(entry.getValue().length);
+            summary.setLastModified(new Date());
+            listing.addObjectSummary(summary);
+            listing.setNextMarker(entry.getKey());
+        }
+        return listing;
+    }
+}
@@ -9,11 +9,14 @@
 package com.ym.ai_story_studio_server.service.impl;
 
 import com.aliyun.oss.OSS;
+import com.aliyun.oss.model.GetObjectRequest;
 import com.aliyun.oss.model.OSSObject;
 import com.aliyun.oss.model.ObjectMetadata;
 import com.aliyun.oss.model.PutObjectResult;
+import com.aliyun.oss.model.UploadFileRequest;
 import com.ym.ai_story_studio_server.config.StorageProperties;
 import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.service.StorageObjectService;
 import org.assertj.core.data.Percentage;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,6 +34,8 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -266,6 +271,53 @@ class OssStorageServiceImplTest {
             assertThat(resultUrl).doesNotContain("@");
             assertThat(resultUrl).doesNotContain("#");
         }
+
+        @Test
+        @DisplayName("派生文件上传到源文件旁边")
+        void uploadDerivative_Success_NextToSource() {
+            // Arrange
+            String sourceUrl = URL_PREFIX + "/2025/12/26/abc_ai_image_1_0.png";
+            byte[] bytes = "thumbnail".getBytes(StandardCharsets.UTF_8);
+
+            // Act
+            String resultUrl = storageService.uploadDerivative(sourceUrl, "_thumb160.jpg", bytes, "image/jpeg");
+
+            // Assert
+            ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<ObjectMetadata> metadataCaptor = ArgumentCaptor.forClass(ObjectMetadata.class);
+            verify(ossClient).putObject(eq(BUCKET_NAME), keyCaptor.capture(), any(InputStream.class), metadataCaptor.capture());
+
+            assertThat(keyCaptor.getValue()).isEqualTo("2025/12/26/abc_ai_image_1_0_thumb160.jpg");
+            assertThat(metadataCaptor.getValue().getContentType()).isEqualTo("image/jpeg");
+            assertThat(resultUrl).isEqualTo(URL_PREFIX + "/2025/12/26/abc_ai_image_1_0_thumb160.jpg");
+        }
+
+        @Test
+        @DisplayName("本地大文件以指定Key分片上传")
+        void uploadFile_Success_UsesMultipartUpload() throws Throwable {
+            // Arrange
+            Path file = Files.createTempFile("export-", ".zip");
+            Files.write(file, "zip bytes".getBytes(StandardCharsets.UTF_8));
+            when(ossConfig.getMultipartPartSizeMb()).thenReturn(16L);
+            when(ossConfig.getMultipartTaskNum()).thenReturn(4);
+
+            try {
+                // Act
+                String resultUrl = storageService.uploadFile(file, "exports/1/2.zip", "application/zip");
+
+                // Assert
+                ArgumentCaptor<UploadFileRequest> captor = ArgumentCaptor.forClass(UploadFileRequest.class);
+                verify(ossClient).uploadFile(captor.capture());
+                assertThat(captor.getValue().getKey()).isEqualTo("exports/1/2.zip");
+                assertThat(captor.getValue().getUploadFile()).isEqualTo(file.toString());
+                assertThat(captor.getValue().getPartSize()).isEqualTo(16L * 1024 * 1024);
+                assertThat(captor.getValue().getTaskNum()).isEqualTo(4);
+                assertThat(captor.getValue().getObjectMetadata().getContentType()).isEqualTo("application/zip");
+                assertThat(resultUrl).isEqualTo(URL_PREFIX + "/exports/1/2.zip");
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
     }
 
     @Nested
@@ -293,6 +345,26 @@ class OssStorageServiceImplTest {
             verify(ossClient).getObject(eq(BUCKET_NAME), eq("2025/12/26/test-file.png"));
         }
 
+        @Test
+        @DisplayName("按区间下载使用OSS Range GET")
+        void downloadRange_Success_UsesRangeGet() {
+            // Arrange
+            OSSObject mockObject = mock(OSSObject.class);
+            when(mockObject.getObjectContent())
+                    .thenReturn(new ByteArrayInputStream("partial".getBytes(StandardCharsets.UTF_8)));
+            when(ossClient.getObject(any(GetObjectRequest.class))).thenReturn(mockObject);
+
+            // Act
+            InputStream result = storageService.downloadRange(URL_PREFIX + "/2025/12/26/test-video.mp4", 100, 199);
+
+            // Assert
+            assertThat(result).isNotNull();
+            ArgumentCaptor<GetObjectRequest> captor = ArgumentCaptor.forClass(GetObjectRequest.class);
+            verify(ossClient).getObject(captor.capture());
+            assertThat(captor.getValue().getKey()).isEqualTo("2025/12/26/test-video.mp4");
+            assertThat(captor.getValue().getRange()).containsExactly(100L, 199L);
+        }
+
         @Test
         @DisplayName("下载失败 - 文件不存在")
         void download_Fails_FileNotFound() {
@@ -405,6 +477,155 @@ class OssStorageServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("内容寻址去重模式测试")
+    class DedupTests {
+
+        private static final String SHA256_OF_HELLO =
+                "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+        @Mock
+        private StorageObjectService storageObjectService;
+
+        private OssStorageServiceImpl dedupService;
+
+        @BeforeEach
+        void setUpDedup() throws Exception {
+            StorageProperties.DedupConfig dedupConfig = new StorageProperties.DedupConfig();
+            dedupConfig.setEnabled(true);
+            lenient().when(storageProperties.getDedup()).thenReturn(dedupConfig);
+            lenient().when(storageObjectService.isEnabled()).thenReturn(true);
+            lenient().when(storageObjectService.isContentKey(anyString()))
+                    .thenAnswer(invocation -> invocation.<String>getArgument(0).startsWith("cas/"));
+
+            dedupService = new OssStorageServiceImpl(storageProperties, storageObjectService);
+            Field ossClientField = OssStorageServiceImpl.class.getDeclaredField("ossClient");
+            ossClientField.setAccessible(true);
+            ossClientField.set(dedupService, ossClient);
+        }
+
+        @Test
+        @DisplayName("按内容摘要生成Key并上传新内容")
+        void upload_NewContent_PutsByDigest() {
+            // Arrange
+            String expectedKey = "cas/2c/f2/" + SHA256_OF_HELLO + ".png";
+            when(storageObjectService.acquire(expectedKey, SHA256_OF_HELLO, 5L, "image/png")).thenReturn(true);
+            when(ossClient.doesObjectExist(BUCKET_NAME, expectedKey)).thenReturn(false);
+
+            // Act
+            String resultUrl = dedupService.upload(
+                    new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "a.png", "image/png");
+
+            // Assert
+            assertThat(resultUrl).isEqualTo(URL_PREFIX + "/" + expectedKey);
+            verify(ossClient).putObject(eq(BUCKET_NAME), eq(expectedKey), any(InputStream.class), any(ObjectMetadata.class));
+            verify(storageObjectService).acquire(expectedKey, SHA256_OF_HELLO, 5L, "image/png");
+        }
+
+        @Test
+        @DisplayName("写入失败时归还已占用的引用")
+        void upload_PutFails_ReleasesReference() throws Exception {
+            // Arrange
+            String expectedKey = "cas/2c/f2/" + SHA256_OF_HELLO + ".png";
+            when(storageObjectService.acquire(expectedKey, SHA256_OF_HELLO, 5L, "image/png")).thenReturn(true);
+            when(ossClient.doesObjectExist(BUCKET_NAME, expectedKey)).thenReturn(false);
+            when(ossClient.putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class)))
+                    .thenThrow(new RuntimeException("network error"));
+
+            // Act & Assert
+            assertThatThrownBy(() -> dedupService.upload(
+                    new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "a.png", "image/png"))
+                    .isInstanceOf(StorageException.class);
+            verify(storageObjectService).release(eq(expectedKey), any());
+        }
+
+        @Test
+        @DisplayName("内容已存在时跳过PUT")
+        void upload_ExistingContent_SkipsPut() {
+            // Arrange
+            String expectedKey = "cas/2c/f2/" + SHA256_OF_HELLO + ".png";
+            when(storageObjectService.acquire(expectedKey, SHA256_OF_HELLO, 5L, "image/png")).thenReturn(false);
+            when(ossClient.doesObjectExist(BUCKET_NAME, expectedKey)).thenReturn(true);
+
+            // Act
+            String resultUrl = dedupService.upload(
+                    new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)), "b.png", "image/png");
+
+            // Assert
+            assertThat(resultUrl).isEqualTo(URL_PREFIX + "/" + expectedKey);
+            verify(ossClient, never()).putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class));
+        }
+
+        @Test
+        @DisplayName("内容寻址原图的派生文件登记引用计数")
+        void uploadDerivative_ContentKey_Registers() {
+            // Arrange
+            String sourceKey = "cas/2c/f2/" + SHA256_OF_HELLO + ".png";
+            String derivativeKey = "cas/2c/f2/" + SHA256_OF_HELLO + "_thumb160.jpg";
+            byte[] bytes = "hello".getBytes(StandardCharsets.UTF_8);
+            when(storageObjectService.acquire(derivativeKey, SHA256_OF_HELLO, 5L, "image/jpeg")).thenReturn(true);
+
+            // Act
+            String resultUrl = dedupService.uploadDerivative(
+                    URL_PREFIX + "/" + sourceKey, "_thumb160.jpg", bytes, "image/jpeg");
+
+            // Assert
+            assertThat(resultUrl).isEqualTo(URL_PREFIX + "/" + derivativeKey);
+            verify(ossClient).putObject(eq(BUCKET_NAME), eq(derivativeKey), any(InputStream.class), any(ObjectMetadata.class));
+            verify(storageObjectService).acquire(derivativeKey, SHA256_OF_HELLO, 5L, "image/jpeg");
+        }
+
+        @Test
+        @DisplayName("共享原图的派生文件已登记时增加引用并跳过PUT")
+        void uploadDerivative_SharedContentKey_Retains() {
+            // Arrange
+            String sourceKey = "cas/2c/f2/" + SHA256_OF_HELLO + ".png";
+            String derivativeKey = "cas/2c/f2/" + SHA256_OF_HELLO + "_thumb160.jpg";
+            when(storageObjectService.acquire(derivativeKey, SHA256_OF_HELLO, 5L, "image/jpeg")).thenReturn(false);
+            when(ossClient.doesObjectExist(BUCKET_NAME, derivativeKey)).thenReturn(true);
+
+            // Act
+            String resultUrl = dedupService.uploadDerivative(URL_PREFIX + "/" + sourceKey, "_thumb160.jpg",
+                    "hello".getBytes(StandardCharsets.UTF_8), "image/jpeg");
+
+            // Assert
+            assertThat(resultUrl).isEqualTo(URL_PREFIX + "/" + derivativeKey);
+            verify(ossClient, never()).putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class));
+            verify(storageObjectService).acquire(derivativeKey, SHA256_OF_HELLO, 5L, "image/jpeg");
+        }
+
+        @Test
+        @DisplayName("仍有引用时不物理删除")
+        void delete_StillReferenced_KeepsObject() throws Exception {
+            // Arrange
+            String fileKey = "cas/2c/f2/" + SHA256_OF_HELLO + ".png";
+            when(storageObjectService.release(eq(fileKey), any())).thenReturn(false);
+
+            // Act
+            dedupService.delete(URL_PREFIX + "/" + fileKey);
+
+            // Assert
+            verify(ossClient, never()).deleteObject(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("最后一个引用删除时物理删除")
+        void delete_LastReference_DeletesObject() throws Exception {
+            // Arrange: 最后一个引用时在行锁内执行删除操作
+            String fileKey = "cas/2c/f2/" + SHA256_OF_HELLO + ".png";
+            when(storageObjectService.release(eq(fileKey), any())).thenAnswer(invocation -> {
+                invocation.<StorageObjectService.ObjectDeleter>getArgument(1).delete();
+                return true;
+            });
+
+            // Act
+            dedupService.delete(URL_PREFIX + "/" + fileKey);
+
+            // Assert
+            verify(ossClient).deleteObject(BUCKET_NAME, fileKey);
+        }
+    }
+
     @Nested
     @DisplayName("generatePresignedUrl() 方法测试")
     class GeneratePresignedUrlTests {
@@ -475,6 +696,47 @@ class OssStorageServiceImplTest {
                     .isInstanceOf(StorageException.class)
                     .hasMessageContaining("预签名URL生成失败");
         }
+
+        @Test
+        @DisplayName("同一时间窗口内复用签名结果")
+        void generatePresignedUrl_CachedWithinWindow() throws Exception {
+            // Arrange
+            String fileKey = "2025/12/26/test-file.png";
+            when(ossConfig.getPresignWindowMinutes()).thenReturn(10);
+            when(ossConfig.getPresignCacheSize()).thenReturn(100);
+            when(ossClient.generatePresignedUrl(eq(BUCKET_NAME), eq(fileKey), any(java.util.Date.class)))
+                    .thenReturn(new java.net.URL(URL_PREFIX + "/" + fileKey + "?Expires=1"));
+
+            // Act
+            String first = storageService.generatePresignedUrl(fileKey, 30);
+            String second = storageService.generatePresignedUrl(fileKey, 30);
+
+            // Assert
+            assertThat(second).isEqualTo(first);
+            verify(ossClient, times(1)).generatePresignedUrl(eq(BUCKET_NAME), eq(fileKey), any(java.util.Date.class));
+        }
+
+        @Test
+        @DisplayName("私有存储桶批量签名本存储URL，跳过外部URL")
+        void presignUrls_PrivateBucket() throws Exception {
+            // Arrange
+            String fileKey = "2025/12/26/test-file.png";
+            String fileUrl = URL_PREFIX + "/" + fileKey;
+            String externalUrl = "https://cdn.other.com/a.png";
+            when(ossConfig.isPrivateBucket()).thenReturn(true);
+            when(ossConfig.getPresignExpireMinutes()).thenReturn(60);
+            when(ossConfig.getPresignCacheSize()).thenReturn(100);
+            when(ossClient.generatePresignedUrl(eq(BUCKET_NAME), eq(fileKey), any(java.util.Date.class)))
+                    .thenReturn(new java.net.URL(fileUrl + "?Expires=1"));
+
+            // Act
+            java.util.Map<String, String> signed = storageService.presignUrls(
+                    java.util.Arrays.asList(fileUrl, fileUrl, externalUrl, null));
+
+            // Assert
+            assertThat(signed).containsOnlyKeys(fileUrl);
+            assertThat(signed.get(fileUrl)).isEqualTo(fileUrl + "?Expires=1");
+        }
     }
 
     @Nested
@@ -621,6 +883,54 @@ class OssStorageServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("toObjectKey() 方法测试")
+    class ToObjectKeyTests {
+
+        private static final String CDN_PREFIX = "https://cdn.example.com";
+        private static final String KEY = "2025/12/26/abc_test.png";
+
+        @Test
+        @DisplayName("配置CDN后，CDN域名与默认存储桶域名下的URL都按路径解析")
+        void toObjectKey_CdnAndBucketDomain() {
+            // Arrange
+            when(ossConfig.getUrlPrefix()).thenReturn(CDN_PREFIX);
+
+            // Act & Assert
+            assertThat(storageService.toObjectKey(CDN_PREFIX + "/" + KEY)).isEqualTo(KEY);
+            assertThat(storageService.toObjectKey("https://" + BUCKET_NAME + "." + ENDPOINT + "/" + KEY))
+                    .isEqualTo(KEY);
+        }
+
+        @Test
+        @DisplayName("预签名URL忽略查询参数并解码路径")
+        void toObjectKey_PresignedUrl() {
+            // Arrange
+            when(ossConfig.getUrlPrefix()).thenReturn(CDN_PREFIX);
+            String presigned = "https://" + BUCKET_NAME + "." + ENDPOINT
+                    + "/2025/12/26/abc_%E6%B5%8B%E8%AF%95.png?Expires=1&OSSAccessKeyId=x&Signature=y";
+
+            // Act
+            String key = storageService.toObjectKey(presigned);
+
+            // Assert
+            assertThat(key).isEqualTo("2025/12/26/abc_测试.png");
+        }
+
+        @Test
+        @DisplayName("登记的历史域名按路径解析，未登记的域名返回null")
+        void toObjectKey_LegacyPrefix() {
+            // Arrange
+            when(ossConfig.getUrlPrefix()).thenReturn(CDN_PREFIX);
+            when(ossConfig.getLegacyUrlPrefixes()).thenReturn(java.util.List.of("http://old-cdn.example.com/"));
+
+            // Act & Assert
+            assertThat(storageService.toObjectKey("https://old-cdn.example.com/" + KEY)).isEqualTo(KEY);
+            assertThat(storageService.toObjectKey("https://other.example.com/" + KEY)).isNull();
+            assertThat(storageService.toObjectKey(CDN_PREFIX + "/")).isNull();
+        }
+    }
+
     @Nested
     @DisplayName("支持的文件类型测试")
     class SupportedContentTypeTests {
@@ -0,0 +1,222 @@
+package com.ym.ai_story_studio_server.service.impl;
+
+import com.ym.ai_story_studio_server.exception.StorageException;
+import com.ym.ai_story_studio_server.service.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * StorageService 实现的公共行为约定测试
+ *
+ * <p>本地存储与OSS存储各自继承本类并提供实例，两种实现在上传、下载、删除、派生文件、
+ * 按Key上传、批量删除与分页列举上必须表现一致；目录布局、预签名缓存等实现特有的行为在各自的测试类中验证
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+abstract class StorageServiceContractTest {
+
+    @TempDir
+    Path workDir;
+
+    protected StorageService storageService;
+
+    /**
+     * 创建待测的存储服务实例（每个测试方法一个新实例，存储内容为空）
+     */
+    protected abstract StorageService createStorageService() throws Throwable;
+
+    @BeforeEach
+    void setUpStorageService() throws Throwable {
+        storageService = createStorageService();
+    }
+
+    protected String upload(String content, String fileName, String contentType) {
+        InputStream inputStream = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        return storageService.upload(inputStream, fileName, contentType);
+    }
+
+    protected String read(String fileUrl) throws Exception {
+        try (InputStream in = storageService.download(fileUrl)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("约定: 上传后可按返回的URL下载到相同内容，URL可转换回Key")
+    void contract_Upload_RoundTrip() throws Exception {
+        // Act
+        String fileUrl = upload("test file content", "test-avatar.png", "image/png");
+
+        // Assert
+        assertThat(fileUrl).contains("test-avatar.png");
+        assertThat(read(fileUrl)).isEqualTo("test file content");
+        assertThat(storageService.toObjectKey(fileUrl)).endsWith("_test-avatar.png");
+    }
+
+    @Test
+    @DisplayName("约定: 字节数组上传与流上传行为一致")
+    void contract_UploadImageBytes_RoundTrip() throws Exception {
+        // Act
+        String fileUrl = storageService.uploadImageBytes(
+                "image bytes".getBytes(StandardCharsets.UTF_8), "ai_image.jpg", "image/jpeg");
+
+        // Assert
+        assertThat(read(fileUrl)).isEqualTo("image bytes");
+    }
+
+    @Test
+    @DisplayName("约定: 拒绝不支持的文件类型与空内容类型")
+    void contract_Upload_RejectsContentType() {
+        assertThatThrownBy(() -> upload("test", "test.exe", "application/x-msdownload"))
+                .isInstanceOf(StorageException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "INVALID_CONTENT_TYPE");
+        assertThatThrownBy(() -> upload("test", "test.txt", null))
+                .isInstanceOf(StorageException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "INVALID_CONTENT_TYPE");
+    }
+
+    @Test
+    @DisplayName("约定: 文件名中的路径与特殊字符被清理")
+    void contract_Upload_CleansFileName() {
+        // Act
+        String withPath = upload("test", "../../path/to/subdir/test-file.png", "image/png");
+        String withSymbols = upload("test", "test file@#$%.png", "image/png");
+
+        // Assert
+        assertThat(withPath).contains("test-file.png").doesNotContain("..");
+        assertThat(withSymbols).doesNotContain("@").doesNotContain("#");
+    }
+
+    @Test
+    @DisplayName("约定: 派生文件上传到源文件旁边")
+    void contract_UploadDerivative_NextToSource() throws Exception {
+        // Arrange
+        String sourceUrl = upload("original", "ai_image_1_0.png", "image/png");
+
+        // Act
+        String resultUrl = storageService.uploadDerivative(
+                sourceUrl, "_thumb160.jpg", "thumbnail".getBytes(StandardCharsets.UTF_8), "image/jpeg");
+
+        // Assert
+        assertThat(resultUrl).isEqualTo(sourceUrl.replace(".png", "_thumb160.jpg"));
+        assertThat(read(resultUrl)).isEqualTo("thumbnail");
+        assertThat(read(sourceUrl)).isEqualTo("original");
+    }
+
+    @Test
+    @DisplayName("约定: 按指定Key上传本地文件")
+    void contract_UploadFile_UsesGivenKey() throws Exception {
+        // Arrange
+        Path file = Files.writeString(workDir.resolve("clip.mp4"), "video");
+
+        // Act
+        String fileUrl = storageService.uploadFile(file, "2025/01/01/clip.mp4", "video/mp4");
+
+        // Assert
+        assertThat(storageService.toObjectKey(fileUrl)).isEqualTo("2025/01/01/clip.mp4");
+        assertThat(read(fileUrl)).isEqualTo("video");
+    }
+
+    @Test
+    @DisplayName("约定: 删除后不可下载，重复删除不抛异常")
+    void contract_Delete_ThenDownloadFails() {
+        // Arrange
+        String fileUrl = upload("test", "a.png", "image/png");
+
+        // Act
+        storageService.delete(fileUrl);
+        storageService.delete(fileUrl);
+
+        // Assert
+        assertThatThrownBy(() -> storageService.download(fileUrl))
+                .isInstanceOf(StorageException.class);
+    }
+
+    @Test
+    @DisplayName("约定: 空URL与无效URL的下载、删除失败")
+    void contract_InvalidUrl_Fails() {
+        assertThatThrownBy(() -> storageService.download(""))
+                .isInstanceOf(StorageException.class);
+        assertThatThrownBy(() -> storageService.download("not-a-valid-url"))
+                .isInstanceOf(StorageException.class);
+        assertThatThrownBy(() -> storageService.delete(""))
+                .isInstanceOf(StorageException.class)
+                .hasFieldOrPropertyWithValue("errorCode", "DELETE_FAILED");
+    }
+
+    @Test
+    @DisplayName("约定: 非本存储的URL不转换为Key")
+    void contract_ToObjectKey_ForeignUrl() {
+        assertThat(storageService.toObjectKey("https://other-cdn.example.org/2025/01/01/a.png")).isNull();
+        assertThat(storageService.toObjectKey("")).isNull();
+    }
+
+    @Test
+    @DisplayName("约定: 预签名URL可转换回原Key")
+    void contract_PresignedUrl_MapsBackToKey() {
+        // Arrange
+        String fileKey = storageService.toObjectKey(upload("test", "a.png", "image/png"));
+
+        // Act
+        String presignedUrl = storageService.generatePresignedUrl(fileKey, 30);
+
+        // Assert
+        assertThat(storageService.toObjectKey(presignedUrl)).isEqualTo(fileKey);
+    }
+
+    @Test
+    @DisplayName("约定: 按Key字典序分页列举全部对象")
+    void contract_ListObjects_PagesInKeyOrder() {
+        // Arrange
+        List<String> keys = Stream.of(
+                        upload("a", "a.png", "image/png"),
+                        upload("b", "b.png", "image/png"),
+                        upload("c", "c.png", "image/png"))
+                .map(storageService::toObjectKey)
+                .sorted()
+                .toList();
+
+        // Act
+        StorageService.ObjectPage first = storageService.listObjects(null, 2);
+        StorageService.ObjectPage second = storageService.listObjects(first.nextMarker(), 2);
+
+        // Assert
+        assertThat(first.objects()).extracting(StorageService.StoredObject::key)
+                .containsExactly(keys.get(0), keys.get(1));
+        assertThat(first.objects()).allMatch(object -> object.size() == 1);
+        assertThat(second.objects()).extracting(StorageService.StoredObject::key)
+                .containsExactly(keys.get(2));
+        assertThat(second.nextMarker()).isNull();
+    }
+
+    @Test
+    @DisplayName("约定: 批量删除后对象不再被列举")
+    void contract_DeleteObjects_RemovesFromListing() {
+        // Arrange
+        String keep = storageService.toObjectKey(upload("keep", "keep.png", "image/png"));
+        String drop = storageService.toObjectKey(upload("drop", "drop.png", "image/png"));
+
+        // Act
+        List<String> deleted = storageService.deleteObjects(List.of(drop));
+
+        // Assert
+        assertThat(deleted).containsExactly(drop);
+        assertThat(storageService.listObjects(null, 10).objects())
+                .extracting(StorageService.StoredObject::key)
+                .containsExactly(keep);
+    }
+}
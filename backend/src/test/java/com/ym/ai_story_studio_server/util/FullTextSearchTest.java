@@ -0,0 +1,107 @@
+package com.ym.ai_story_studio_server.util;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.ym.ai_story_studio_server.entity.CharacterLibrary;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FullTextSearch 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@DisplayName("FullTextSearch 单元测试")
+class FullTextSearchTest {
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""),
+                CharacterLibrary.class);
+    }
+
+    @Test
+    @DisplayName("拉丁字母关键词（含停用词组成的二元组）转换为必须出现的短语")
+    void toBooleanQuery_LatinKeywords() {
+        assertThat(FullTextSearch.toBooleanQuery("ai")).isEqualTo("+\"ai\"");
+        assertThat(FullTextSearch.toBooleanQuery("  Alice  in ")).isEqualTo("+\"Alice\" +\"in\"");
+        assertThat(FullTextSearch.toBooleanQuery("say \"hi\"")).isEqualTo("+\"say\" +\"hi\"");
+    }
+
+    @Test
+    @DisplayName("中英混合关键词逐词转换")
+    void toBooleanQuery_MixedKeywords() {
+        assertThat(FullTextSearch.toBooleanQuery("AI绘画 夜景")).isEqualTo("+\"AI绘画\" +\"夜景\"");
+        assertThat(FullTextSearch.toBooleanQuery("a猫")).isEqualTo("+\"a猫\"");
+    }
+
+    @Test
+    @DisplayName("存在单字符词时返回null")
+    void toBooleanQuery_ShortTerm_ReturnsNull() {
+        assertThat(FullTextSearch.toBooleanQuery("a")).isNull();
+        assertThat(FullTextSearch.toBooleanQuery("猫 a")).isNull();
+        assertThat(FullTextSearch.toBooleanQuery("   ")).isNull();
+    }
+
+    @Test
+    @DisplayName("V22迁移在建ngram索引前关闭停用词，否则含a/i等停用词的二元组不入索引")
+    void migration_DisablesStopwordsBeforeAlter() throws IOException {
+        // Arrange
+        String sql;
+        try (InputStream in = getClass().getResourceAsStream("/db/migration/V22__add_ngram_fulltext_indexes.sql")) {
+            assertThat(in).isNotNull();
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // Act
+        int disable = sql.indexOf("SET SESSION innodb_ft_enable_stopword = OFF");
+        int firstAlter = sql.indexOf("ALTER TABLE");
+        int restore = sql.indexOf("SET SESSION innodb_ft_enable_stopword = ON");
+
+        // Assert
+        assertThat(disable).isNotNegative().isLessThan(firstAlter);
+        assertThat(restore).isGreaterThan(sql.lastIndexOf("ALTER TABLE"));
+    }
+
+    @Test
+    @DisplayName("可走索引时追加MATCH条件")
+    void apply_FullTextQuery() {
+        // Arrange
+        LambdaQueryWrapper<CharacterLibrary> wrapper = new LambdaQueryWrapper<>();
+
+        // Act
+        FullTextSearch.apply(wrapper, "name, description", "AI 少女",
+                CharacterLibrary::getName, CharacterLibrary::getDescription);
+
+        // Assert
+        assertThat(wrapper.getSqlSegment()).contains("MATCH(name, description) AGAINST(");
+        assertThat(wrapper.getParamNameValuePairs()).containsValue("+\"AI\" +\"少女\"");
+    }
+
+    @Test
+    @DisplayName("回退LIKE时与MATCH语义一致：每个词都需在任一列中出现")
+    void apply_LikeFallback_AndOfTerms() {
+        // Arrange
+        LambdaQueryWrapper<CharacterLibrary> wrapper = new LambdaQueryWrapper<>();
+
+        // Act
+        FullTextSearch.apply(wrapper, "name, description", "猫 \"a\"",
+                CharacterLibrary::getName, CharacterLibrary::getDescription);
+
+        // Assert
+        String sql = wrapper.getSqlSegment();
+        assertThat(sql).doesNotContain("MATCH");
+        assertThat(sql).containsPattern("\\(\\(name LIKE .+ OR description LIKE .+\\) AND \\(name LIKE .+ OR description LIKE .+\\)\\)");
+        assertThat(wrapper.getParamNameValuePairs().values()).containsExactlyInAnyOrder("%猫%", "%猫%", "%a%", "%a%");
+    }
+}
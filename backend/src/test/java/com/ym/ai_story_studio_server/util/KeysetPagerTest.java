@@ -0,0 +1,199 @@
+package com.ym.ai_story_studio_server.util;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.ym.ai_story_studio_server.common.CursorPage;
+import com.ym.ai_story_studio_server.common.ResultCode;
+import com.ym.ai_story_studio_server.entity.Job;
+import com.ym.ai_story_studio_server.exception.BusinessException;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * KeysetPager 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@DisplayName("KeysetPager 单元测试")
+class KeysetPagerTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_000_000);
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Job.class);
+    }
+
+    private static Job job(long id, LocalDateTime createdAt) {
+        Job job = new Job();
+        job.setId(id);
+        job.setCreatedAt(createdAt);
+        return job;
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 模拟数据库：按查询中的游标参数执行 {@code t < ? OR (t = ? AND id < ?)}，再按 (t DESC, id DESC) 取 size+1 条
+     */
+    @SuppressWarnings("unchecked")
+    private static BaseMapper<Job> mapperOver(List<Job> table, int size) {
+        BaseMapper<Job> mapper = mock(BaseMapper.class);
+        when(mapper.selectList(any())).thenAnswer(invocation -> {
+            LambdaQueryWrapper<Job> query = invocation.getArgument(0);
+            // 参数在生成SQL片段时才写入
+            query.getSqlSegment();
+            LocalDateTime cursorTime = null;
+            Long cursorId = null;
+            for (Object value : query.getParamNameValuePairs().values()) {
+                if (value instanceof LocalDateTime time) {
+                    cursorTime = time;
+                } else if (value instanceof Long id) {
+                    cursorId = id;
+                }
+            }
+            LocalDateTime t = cursorTime;
+            Long id = cursorId;
+            return table.stream()
+                    .filter(job -> t == null || job.getCreatedAt().isBefore(t)
+                            || (job.getCreatedAt().isEqual(t) && job.getId() < id))
+                    .sorted(Comparator.comparing(Job::getCreatedAt).thenComparing(Job::getId).reversed())
+                    .limit(size + 1)
+                    .toList();
+        });
+        return mapper;
+    }
+
+    @Test
+    @DisplayName("游标编码后解码得到相同的位置（含纳秒精度的时间）")
+    void encodeDecode_RoundTrip() {
+        // Arrange
+        KeysetPager.Position<LocalDateTime> position = new KeysetPager.Position<>(CREATED_AT, 42L);
+
+        // Act
+        String cursor = KeysetPager.encode(position);
+
+        // Assert
+        assertThat(cursor).doesNotContain("|").doesNotContain("=");
+        assertThat(KeysetPager.decode(cursor)).isEqualTo(position);
+    }
+
+    @Test
+    @DisplayName("自定义排序值（相关度得分）按解析函数往返，double精确相等")
+    void encodeDecode_DoubleSortValue() {
+        // Arrange
+        KeysetPager.Position<Double> position = new KeysetPager.Position<>(0.1 + 0.2, 7L);
+
+        // Act
+        KeysetPager.Position<Double> decoded = KeysetPager.decode(KeysetPager.encode(position), Double::valueOf);
+
+        // Assert
+        assertThat(decoded.sortValue()).isEqualTo(0.1 + 0.2);
+        assertThat(decoded.id()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("空游标表示第一页")
+    void decode_Blank_FirstPage() {
+        assertThat(KeysetPager.decode(null)).isNull();
+        assertThat(KeysetPager.decode("  ")).isNull();
+    }
+
+    @Test
+    @DisplayName("格式不正确的游标抛出PARAM_INVALID")
+    void decode_Malformed_Throws() {
+        List<String> malformed = List.of(
+                "not base64 !",
+                base64("2025-01-01T12:00"),
+                base64("|42"),
+                base64("yesterday|42"),
+                base64("2025-01-01T12:00|abc"),
+                base64("2025-01-01T12:00|"));
+        for (String cursor : malformed) {
+            assertThatThrownBy(() -> KeysetPager.decode(cursor))
+                    .as(cursor)
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("分页游标无效")
+                    .extracting("code").isEqualTo(ResultCode.PARAM_INVALID.getCode());
+        }
+        assertThatThrownBy(() -> KeysetPager.decode(base64("high|1"), Double::valueOf))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("排序时间相同的记录按ID继续翻页，不重复不遗漏")
+    void fetch_EqualSortKeys_TieBreaksById() {
+        // Arrange: 5条记录中4条创建时间相同
+        List<Job> table = List.of(job(1, CREATED_AT), job(2, CREATED_AT), job(3, CREATED_AT),
+                job(4, CREATED_AT), job(5, CREATED_AT.plusSeconds(1)));
+        BaseMapper<Job> mapper = mapperOver(table, 2);
+
+        // Act
+        List<List<Long>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Job> page = KeysetPager.fetch(mapper, new LambdaQueryWrapper<>(),
+                    Job::getCreatedAt, Job::getId, cursor, 2, false);
+            pages.add(page.records().stream().map(Job::getId).toList());
+            assertThat(page.hasMore()).isEqualTo(page.nextCursor() != null);
+            cursor = page.nextCursor();
+        } while (cursor != null && pages.size() < 10);
+
+        // Assert
+        assertThat(pages).containsExactly(List.of(5L, 4L), List.of(3L, 2L), List.of(1L));
+    }
+
+    @Test
+    @DisplayName("下一页游标指向本页最后一条记录，查询附加时间与ID的复合条件")
+    void fetch_NextCursor_PointsAtLastRow() {
+        // Arrange
+        BaseMapper<Job> mapper = mapperOver(List.of(job(1, CREATED_AT), job(2, CREATED_AT), job(3, CREATED_AT)), 2);
+        LambdaQueryWrapper<Job> second = new LambdaQueryWrapper<>();
+
+        // Act
+        CursorPage<Job> first = KeysetPager.fetch(mapper, new LambdaQueryWrapper<>(),
+                Job::getCreatedAt, Job::getId, null, 2, false);
+        KeysetPager.fetch(mapper, second, Job::getCreatedAt, Job::getId, first.nextCursor(), 2, false);
+
+        // Assert
+        assertThat(KeysetPager.decode(first.nextCursor())).isEqualTo(new KeysetPager.Position<>(CREATED_AT, 2L));
+        assertThat(second.getSqlSegment())
+                .contains("created_at <")
+                .contains("created_at =")
+                .contains("id <")
+                .contains("ORDER BY created_at DESC,id DESC");
+    }
+
+    @Test
+    @DisplayName("恰好一页时没有下一页游标")
+    void toPage_ExactlyOnePage_NoCursor() {
+        // Act
+        CursorPage<Job> page = KeysetPager.toPage(List.of(job(2, CREATED_AT), job(1, CREATED_AT)), 2, 2L,
+                Job::getCreatedAt, Job::getId);
+
+        // Assert
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.total()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,181 @@
+package com.ym.ai_story_studio_server.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * StreamingZipWriter 单元测试
+ *
+ * @author Roo (Prometheus)
+ * @since 1.0.0
+ */
+@DisplayName("StreamingZipWriter 单元测试")
+class StreamingZipWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("写出的ZIP可按中央目录读取，条目顺序、内容与CRC正确")
+    void putStoredEntry_ReadableByZipFile() throws Exception {
+        // Arrange
+        Path zipPath = tempDir.resolve("export.zip");
+        byte[] image = "fake png bytes".getBytes(StandardCharsets.UTF_8);
+        byte[] video = new byte[200_000];
+        for (int i = 0; i < video.length; i++) {
+            video[i] = (byte) i;
+        }
+
+        // Act
+        try (StreamingZipWriter writer = new StreamingZipWriter(Files.newOutputStream(zipPath))) {
+            writer.putStoredEntry("01-角色/01-主角/当前版本.png", new ByteArrayInputStream(image));
+            writer.putStoredEntry("04-视频/001/当前版本.mp4", new ByteArrayInputStream(video));
+        }
+
+        // Assert
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile(), StandardCharsets.UTF_8)) {
+            List<String> names = Collections.list(zipFile.entries()).stream().map(ZipEntry::getName).toList();
+            assertThat(names).containsExactly("01-角色/01-主角/当前版本.png", "04-视频/001/当前版本.mp4");
+
+            ZipEntry videoEntry = zipFile.getEntry("04-视频/001/当前版本.mp4");
+            CRC32 crc = new CRC32();
+            crc.update(video);
+            assertThat(videoEntry.getMethod()).isEqualTo(ZipEntry.STORED);
+            assertThat(videoEntry.getSize()).isEqualTo(video.length);
+            assertThat(videoEntry.getCrc()).isEqualTo(crc.getValue());
+            try (InputStream in = zipFile.getInputStream(videoEntry)) {
+                assertThat(in.readAllBytes()).isEqualTo(video);
+            }
+            try (InputStream in = zipFile.getInputStream(zipFile.getEntry("01-角色/01-主角/当前版本.png"))) {
+                assertThat(in.readAllBytes()).isEqualTo(image);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("从上一个ZIP原样复制条目，复制后的条目可正常读取")
+    void putRawEntry_CopiesEntryFromPreviousArchive() throws Exception {
+        // Arrange
+        Path previousPath = tempDir.resolve("previous.zip");
+        byte[] image = "unchanged png bytes".getBytes(StandardCharsets.UTF_8);
+        try (StreamingZipWriter writer = new StreamingZipWriter(Files.newOutputStream(previousPath))) {
+            writer.putStoredEntry("01-角色/01-主角/当前版本.png", new ByteArrayInputStream(image));
+        }
+        Path zipPath = tempDir.resolve("export.zip");
+
+        // Act
+        StreamingZipWriter.WrittenEntry written;
+        try (ZipArchiveReader reader = ZipArchiveReader.open(previousPath);
+             StreamingZipWriter writer = new StreamingZipWriter(Files.newOutputStream(zipPath))) {
+            ZipArchiveReader.RawEntry raw = reader.find("01-角色/01-主角/当前版本.png");
+            try (InputStream in = reader.openRaw(raw)) {
+                written = writer.putRawEntry(raw.name(), raw.method(), raw.crc(), raw.compressedSize(), raw.size(), in);
+            }
+            writer.putStoredEntry("04-视频/001/当前版本.mp4", new ByteArrayInputStream(new byte[]{1, 2, 3}));
+        }
+
+        // Assert
+        CRC32 crc = new CRC32();
+        crc.update(image);
+        assertThat(written.crc()).isEqualTo(crc.getValue());
+        assertThat(written.size()).isEqualTo(image.length);
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile(), StandardCharsets.UTF_8)) {
+            try (InputStream in = zipFile.getInputStream(zipFile.getEntry("01-角色/01-主角/当前版本.png"))) {
+                assertThat(in.readAllBytes()).isEqualTo(image);
+            }
+            try (InputStream in = zipFile.getInputStream(zipFile.getEntry("04-视频/001/当前版本.mp4"))) {
+                assertThat(in.readAllBytes()).containsExactly(1, 2, 3);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("文本条目预处理为DEFLATE，媒体条目保持STORED，均可正常读取")
+    void putPreparedEntry_DeflatesTextAndStoresMedia() throws Exception {
+        // Arrange
+        byte[] text = "镜头描述 ".repeat(2_000).getBytes(StandardCharsets.UTF_8);
+        Path zipPath = tempDir.resolve("export.zip");
+
+        // Act
+        StreamingZipWriter.PreparedEntry textEntry = StreamingZipWriter.prepare("03-分镜/001/描述.txt", text);
+        StreamingZipWriter.PreparedEntry imageEntry = StreamingZipWriter.prepare("03-分镜/001/当前版本.png", text);
+        try (StreamingZipWriter writer = new StreamingZipWriter(Files.newOutputStream(zipPath))) {
+            writer.putPreparedEntry(textEntry);
+            writer.putPreparedEntry(imageEntry);
+        }
+
+        // Assert
+        assertThat(textEntry.method()).isEqualTo(StreamingZipWriter.METHOD_DEFLATED);
+        assertThat(textEntry.data().length).isLessThan(text.length);
+        assertThat(imageEntry.method()).isEqualTo(StreamingZipWriter.METHOD_STORED);
+        assertThat(imageEntry.data()).isSameAs(text);
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile(), StandardCharsets.UTF_8)) {
+            ZipEntry deflated = zipFile.getEntry("03-分镜/001/描述.txt");
+            assertThat(deflated.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+            try (InputStream in = zipFile.getInputStream(deflated)) {
+                assertThat(in.readAllBytes()).isEqualTo(text);
+            }
+            try (InputStream in = zipFile.getInputStream(zipFile.getEntry("03-分镜/001/当前版本.png"))) {
+                assertThat(in.readAllBytes()).isEqualTo(text);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("条目数超过65535时写出ZIP64中央目录结束记录")
+    void finish_WritesZip64EndOfCentralDirectory() throws Exception {
+        // Arrange
+        Path zipPath = tempDir.resolve("many.zip");
+        int count = 70_000;
+
+        // Act
+        try (StreamingZipWriter writer = new StreamingZipWriter(
+                new BufferedOutputStream(Files.newOutputStream(zipPath)))) {
+            for (int i = 0; i < count; i++) {
+                writer.putDeflatedEntry("e" + i + ".txt", new byte[]{(byte) i});
+            }
+        }
+
+        // Assert
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            assertThat(zipFile.size()).isEqualTo(count);
+            try (InputStream in = zipFile.getInputStream(zipFile.getEntry("e69999.txt"))) {
+                assertThat(in.readAllBytes()).containsExactly((byte) 69999);
+            }
+        }
+        try (ZipArchiveReader reader = ZipArchiveReader.open(zipPath)) {
+            assertThat(reader.find("e69999.txt")).isNotNull();
+            assertThat(reader.find("e0.txt").size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("空ZIP仍包含合法的中央目录结束记录")
+    void finish_EmptyArchive() throws Exception {
+        // Arrange
+        Path zipPath = tempDir.resolve("empty.zip");
+
+        // Act
+        new StreamingZipWriter(Files.newOutputStream(zipPath)).close();
+
+        // Assert
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            assertThat(zipFile.size()).isZero();
+        }
+    }
+}
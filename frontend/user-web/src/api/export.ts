@@ -9,6 +9,26 @@ export const exportApi = {
     return api.post(`/projects/${projectId}/export`, request)
   },
 
+  /**
+   * 流式导出(仅当前版本):浏览器直接下载,边打包边接收
+   */
+  streamExport(projectId: number, request: ExportRequest): void {
+    const baseURL = api.defaults.baseURL || '/api'
+    const params = new URLSearchParams({
+      exportCharacters: String(request.exportCharacters),
+      exportScenes: String(request.exportScenes),
+      exportShotImages: String(request.exportShotImages),
+      exportVideos: String(request.exportVideos),
+      mode: request.mode,
+      token: localStorage.getItem('token') || '',
+    })
+    const link = document.createElement('a')
+    link.href = `${baseURL}/projects/${projectId}/export/stream?${params.toString()}`
+    document.body.appendChild(link)
+    link.click()
+    document.body.removeChild(link)
+  },
+
   /**
    * 下载导出文件
    */
@@ -20,36 +40,14 @@ export const exportApi = {
 
   /**
    * 触发文件下载
+   *
+   * 下载接口重定向到对象存储的预签名URL，由浏览器直接下载
    */
   async downloadExportFile(jobId: number): Promise<void> {
-    const baseURL = api.defaults.baseURL || '/api'
-    const token = localStorage.getItem('token')
-    const url = `${baseURL}/exports/${jobId}/download`
-
-    try {
-      const response = await fetch(url, {
-        method: 'GET',
-        headers: {
-          'Authorization': `Bearer ${token}`,
-        },
-      })
-
-      if (!response.ok) {
-        throw new Error(`下载失败: ${response.status} ${response.statusText}`)
-      }
-
-      const blob = await response.blob()
-      const downloadUrl = window.URL.createObjectURL(blob)
-      const link = document.createElement('a')
-      link.href = downloadUrl
-      link.download = `project_export_${jobId}.zip`
-      document.body.appendChild(link)
-      link.click()
-      document.body.removeChild(link)
-      window.URL.revokeObjectURL(downloadUrl)
-    } catch (error) {
-      console.error('[Export] Download failed:', error)
-      throw error
-    }
+    const link = document.createElement('a')
+    link.href = this.getDownloadUrl(jobId)
+    document.body.appendChild(link)
+    link.click()
+    document.body.removeChild(link)
   },
 }
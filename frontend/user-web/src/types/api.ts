@@ -75,6 +75,8 @@ export interface ProjectVO {
   description?: string
   coverUrl?: string
   shotCount?: number
+  characterCount?: number
+  assetCount?: number
   title?: string  // Alias for name for compatibility
 }
 
@@ -148,6 +150,9 @@ export interface AssetStatusVO {
   assetId: number | null
   currentVersionId: number | null
   currentUrl: string | null
+  deliveryUrl: string | null
+  thumbSmallUrl: string | null
+  thumbMediumUrl: string | null
   status: 'NONE' | 'GENERATING' | 'READY' | 'FAILED'
   totalVersions: number
 }
@@ -160,6 +165,8 @@ export interface CharacterLibraryVO {
   name: string
   description: string
   thumbnailUrl: string | null
+  thumbSmallUrl?: string | null
+  thumbMediumUrl?: string | null
   createdAt: string
 }
 
@@ -233,6 +240,8 @@ export interface SceneLibraryVO {
   name: string
   description: string
   thumbnailUrl: string | null
+  thumbSmallUrl?: string | null
+  thumbMediumUrl?: string | null
   createdAt: string
 }
 
@@ -305,6 +314,8 @@ export interface PropLibraryVO {
   name: string
   description: string | null
   thumbnailUrl: string | null
+  thumbSmallUrl?: string | null
+  thumbMediumUrl?: string | null
   referenceCount: number
   createdAt: string
   updatedAt: string
@@ -393,6 +404,13 @@ export interface AssetVersionVO {
   provider: 'OSS' | 'MINIO'
   url: string
   objectKey: string | null
+  originalSize: number | null
+  deliveryUrl: string | null
+  deliveryFormat: string | null
+  deliverySize: number | null
+  thumbSmallUrl: string | null
+  thumbMediumUrl: string | null
+  thumbLargeUrl: string | null
   prompt: string | null
   paramsJson: string | null
   status: 'READY' | 'FAILED'